@@ -0,0 +1,99 @@
+package com.sistemaclliente.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.sistemacliente.SistemaClientesJavaApplication;
+import com.sistemacliente.model.dto.ClienteRequestDTO;
+import com.sistemacliente.repository.ClienteRepository;
+import com.sistemacliente.service.ClienteLoteService;
+
+/*Inserts por segundo com a seq_cliente antiga (bloco = 1, um nextval por cliente) e com blocos pooled-lo.
+ *Usa o cadastro em lote, que é onde o batch do JDBC fica limitado pelos nextval. No H2 em memória a ida à
+ *sequence é barata; contra um PostgreSQL na rede a diferença é maior.*/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AlocacaoIdBenchmark {
+
+	private static final int LOTE = 1000;
+
+	@Param({ "1", "50" })
+	private int bloco;
+
+	private ConfigurableApplicationContext contexto;
+	private ClienteLoteService loteService;
+	private ClienteRepository repository;
+
+	private long sequencia;
+
+	@Setup(Level.Trial)
+	public void subirAplicacao() {
+		contexto = new SpringApplicationBuilder(SistemaClientesJavaApplication.class).profiles("test")
+		.properties("spring.main.web-application-type=none", "logging.level.root=WARN")
+		.run("--clientes.id.bloco=" + bloco); /*Argumento para ter precedência sobre o application.properties.*/
+		loteService = contexto.getBean(ClienteLoteService.class);
+		repository = contexto.getBean(ClienteRepository.class);
+
+		Integer incremento = contexto.getBean(JdbcTemplate.class).queryForObject(
+		"select increment from information_schema.sequences where sequence_name = 'SEQ_CLIENTE'", Integer.class);
+		if (incremento == null || incremento != bloco) {
+			throw new IllegalStateException("seq_cliente com INCREMENT BY " + incremento + ", esperado " + bloco);
+		}
+	}
+
+	@Setup(Level.Iteration)
+	public void limparTabela() {
+		repository.deleteAllInBatch();
+	}
+
+	@TearDown(Level.Trial)
+	public void derrubarAplicacao() {
+		contexto.close();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(LOTE)
+	public int inserirLote() {
+		List<ClienteRequestDTO> dtos = new ArrayList<>(LOTE);
+		for (int i = 0; i < LOTE; i++) {
+			long n = sequencia++;
+			ClienteRequestDTO dto = new ClienteRequestDTO();
+			dto.setNome("Cliente " + n);
+			dto.setCpf(String.format("%011d", n));
+			dto.setEmail("cliente" + n + "@email.com");
+			dtos.add(dto);
+		}
+		return loteService.salvarLote(dtos).getCriados();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(AlocacaoIdBenchmark.class.getSimpleName()).build()).run();
+	}
+
+}
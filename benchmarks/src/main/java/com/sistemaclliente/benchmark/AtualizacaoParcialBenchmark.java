@@ -0,0 +1,83 @@
+package com.sistemaclliente.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sistemacliente.model.Cliente;
+import com.sistemacliente.service.MergePatchCliente;
+import com.sistemacliente.validation.EmailValidator;
+
+/*O merge do atualizarParcial: ObjectMapper.updateValue do mapa do PATCH sobre o Cliente, como o
+ *ClienteService fazia (configure + updateValue a cada chamada), o MergePatchCliente que o substituiu
+ *(preparar + aplicar, com a validação dos campos) e os setters chamados direto, que é o mínimo que a operação
+ *custa.*/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AtualizacaoParcialBenchmark {
+
+	private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+
+	private final MergePatchCliente mergePatch = new MergePatchCliente(new EmailValidator());
+
+	private final Map<String, Object> updates = Map.of("nome", "Antonio Silva", "email", "antonio@empresa.com.br");
+
+	private static Cliente cliente() {
+		Cliente cliente = new Cliente();
+		cliente.setId(42L);
+		cliente.setNome("Antonio");
+		cliente.setEmail("antonio@email.com");
+		cliente.setCpf("52998224725");
+		return cliente;
+	}
+
+	@Benchmark
+	public Cliente updateValue() throws JsonMappingException {
+		mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+		return mapper.updateValue(cliente(), updates);
+	}
+
+	@Benchmark
+	public Cliente mergePatch() {
+		Cliente cliente = cliente();
+		mergePatch.aplicar(cliente, mergePatch.preparar(updates));
+		return cliente;
+	}
+
+	@Benchmark
+	public Cliente setters() {
+		Cliente cliente = cliente();
+		if (updates.containsKey("nome")) {
+			cliente.setNome((String) updates.get("nome"));
+		}
+		if (updates.containsKey("email")) {
+			cliente.setEmail((String) updates.get("email"));
+		}
+		return cliente;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(AtualizacaoParcialBenchmark.class.getSimpleName()).build()).run();
+	}
+
+}
@@ -0,0 +1,95 @@
+package com.sistemaclliente.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.sistemacliente.config.ClientesProperties;
+import com.sistemacliente.search.IndiceNome;
+
+/*Primeira página (3 itens, o padrão de /buscapornome) da busca por trecho do nome com o IndiceNome contra a
+ *varredura de todos os nomes com toLowerCase().contains, que é o que o lower(nome) LIKE '%x%' faz no banco
+ *(sem o custo de ler as linhas do disco nem de ordenar). O termo "silva
+ *mar" é seletivo; "oliv" traz uns 10% da tabela. Precisa de heap para 1M de nomes: -jvmArgs -Xmx4g.*/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BuscaNomeBenchmark {
+
+	private static final String[] PRENOMES = { "Marcus", "Antônio", "Maria", "José", "Ana", "Pedro", "Paula",
+	"Lucas", "Juliana", "Rafael", "Fernanda", "Carlos", "Beatriz", "João", "Camila", "Tiago", "Larissa",
+	"Gabriel", "Helena", "Bruno" };
+
+	private static final String[] SOBRENOMES = { "Silva", "Santos", "Oliveira", "Souza", "Rodrigues", "Ferreira",
+	"Alves", "Pereira", "Lima", "Gomes", "Costa", "Ribeiro", "Martins", "Carvalho", "Almeida" };
+
+	@Param({ "100000", "1000000" })
+	private int linhas;
+
+	@Param({ "silva mar", "oliv" })
+	private String termo;
+
+	private List<String> nomes;
+
+	private IndiceNome indice;
+
+	@Setup
+	public void montar() {
+		Random random = new Random(42);
+		ClientesProperties properties = new ClientesProperties();
+		properties.getIndiceNome().setHabilitado(true);
+		indice = new IndiceNome(properties);
+		indice.iniciarReconstrucao();
+
+		nomes = new ArrayList<>(linhas);
+		for (long id = 0; id < linhas; id++) {
+			String nome = PRENOMES[random.nextInt(PRENOMES.length)] + " "
+			+ SOBRENOMES[random.nextInt(SOBRENOMES.length)] + " " + SOBRENOMES[random.nextInt(SOBRENOMES.length)];
+			nomes.add(nome);
+			indice.adicionar(id, nome);
+		}
+		indice.concluirReconstrucao();
+	}
+
+	@Benchmark
+	public int varredura() {
+		String minusculo = termo.toLowerCase(Locale.ROOT);
+		int encontrados = 0;
+		for (String nome : nomes) {
+			if (nome.toLowerCase(Locale.ROOT).contains(minusculo)) {
+				encontrados++;
+			}
+		}
+		return encontrados;
+	}
+
+	@Benchmark
+	public int indice() {
+		return indice.buscar(termo, 0, 3).ids().size();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(BuscaNomeBenchmark.class.getSimpleName()).build()).run();
+	}
+
+}
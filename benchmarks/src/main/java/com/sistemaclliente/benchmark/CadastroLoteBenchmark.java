@@ -0,0 +1,106 @@
+package com.sistemaclliente.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.sistemacliente.SistemaClientesJavaApplication;
+import com.sistemacliente.model.dto.ClienteRequestDTO;
+import com.sistemacliente.model.dto.LoteResponseDTO;
+import com.sistemacliente.repository.ClienteRepository;
+import com.sistemacliente.service.ClienteLoteService;
+import com.sistemacliente.service.ClienteService;
+
+/*Clientes cadastrados por segundo: LOTE chamadas ao salvarCliente contra uma chamada ao salvarLote com os
+ *mesmos clientes. Sobe a aplicação com o perfil test (H2 em memória) e limpa a tabela a cada iteração.*/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CadastroLoteBenchmark {
+
+	private static final int LOTE = 1000;
+
+	private ConfigurableApplicationContext contexto;
+	private ClienteService service;
+	private ClienteLoteService loteService;
+	private ClienteRepository repository;
+
+	private long sequencia;
+
+	@Setup(Level.Trial)
+	public void subirAplicacao() {
+		contexto = new SpringApplicationBuilder(SistemaClientesJavaApplication.class).profiles("test")
+		.properties("spring.main.web-application-type=none", "logging.level.root=WARN").run();
+		service = contexto.getBean(ClienteService.class);
+		loteService = contexto.getBean(ClienteLoteService.class);
+		repository = contexto.getBean(ClienteRepository.class);
+	}
+
+	@Setup(Level.Iteration)
+	public void limparTabela() {
+		repository.deleteAllInBatch();
+	}
+
+	@TearDown(Level.Trial)
+	public void derrubarAplicacao() {
+		contexto.close();
+	}
+
+	private List<ClienteRequestDTO> novosClientes() {
+		List<ClienteRequestDTO> dtos = new ArrayList<>(LOTE);
+		for (int i = 0; i < LOTE; i++) {
+			long n = sequencia++;
+			ClienteRequestDTO dto = new ClienteRequestDTO();
+			dto.setNome("Cliente " + n);
+			dto.setCpf(String.format("%011d", n));
+			dto.setEmail("cliente" + n + "@email.com");
+			dtos.add(dto);
+		}
+		return dtos;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(LOTE)
+	public int umPorVez() {
+		int salvos = 0;
+		for (ClienteRequestDTO dto : novosClientes()) {
+			service.salvarCliente(dto);
+			salvos++;
+		}
+		return salvos;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(LOTE)
+	public int emLote() {
+		LoteResponseDTO resultado = loteService.salvarLote(novosClientes());
+		return resultado.getCriados();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(CadastroLoteBenchmark.class.getSimpleName()).build()).run();
+	}
+
+}
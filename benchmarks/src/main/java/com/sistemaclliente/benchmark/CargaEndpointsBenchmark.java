@@ -0,0 +1,322 @@
+package com.sistemaclliente.benchmark;
+
+import java.io.File;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sistemacliente.SistemaClientesJavaApplication;
+import com.sistemacliente.model.dto.ClienteRequestDTO;
+import com.sistemacliente.model.dto.ItemLoteResponseDTO;
+import com.sistemacliente.service.ClienteLoteService;
+
+/*Gerador de carga em malha aberta para os endpoints do ClienteController: sobe a aplicação no H2 (perfil
+ *test), cadastra N clientes pelo ClienteLoteService e dispara as requisições a uma taxa constante, sorteando
+ *a operação pelos pesos do mix. O disparo não espera as respostas, e a latência é contada a partir do horário
+ *em que a requisição deveria ter saído: quando o servidor atrasa, o atraso aparece no p99 em vez de reduzir a
+ *taxa (correção da omissão coordenada). A latência a partir da saída real fica em "servico" para comparar.
+ *
+ *  mvn -f benchmarks/pom.xml -Pcarga package -Dcarga.argumentos="taxa=300 segundos=30 clientes=10000 \
+ *  saida=target/carga.json [base=target/carga-anterior.json] \
+ *  [mix=encontrar:5,cpf:2,paginada:1,nome:1,salvar:1,parcial:1,email:1] [--propriedade.do.spring=valor]"
+ *
+ *Os caminhos são relativos a benchmarks/.
+ *
+ *Com base=, imprime a diferença de vazão e percentis de cada operação contra o resultado de outro build.*/
+public class CargaEndpointsBenchmark {
+
+	private static final long MAXIMO_NS = TimeUnit.MINUTES.toNanos(1);
+
+	private static final String[] NOMES = { "Ana", "Bruno", "Carla", "Daniel", "Eduarda", "Felipe", "Gabriela",
+	"Henrique", "Isabela", "João" };
+
+	private static final String[] SOBRENOMES = { "Silva", "Souza", "Oliveira", "Santos", "Pereira", "Lima",
+	"Costa", "Almeida" };
+
+	enum Operacao { SALVAR, ENCONTRAR, CPF, PAGINADA, NOME, PARCIAL, EMAIL }
+
+	/*Latências de uma operação em nanossegundos: desde o horário planejado e desde a saída real.*/
+	static class Medicao {
+
+		final Histogram corrigida = new ConcurrentHistogram(MAXIMO_NS, 3);
+
+		final Histogram servico = new ConcurrentHistogram(MAXIMO_NS, 3);
+
+		final LongAdder erros = new LongAdder();
+
+		void registrar(long planejado, long enviado, long fim, boolean erro) {
+			corrigida.recordValue(Math.min(fim - planejado, MAXIMO_NS));
+			servico.recordValue(Math.min(fim - enviado, MAXIMO_NS));
+			if (erro) {
+				erros.increment();
+			}
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> opcoes = new LinkedHashMap<>(Map.of("taxa", "300", "segundos", "30", "aquecimento", "5",
+		"clientes", "10000", "semente", "42", "saida", "target/carga.json",
+		"mix", "encontrar:5,cpf:2,paginada:1,nome:1,salvar:1,parcial:1,email:1"));
+		List<String> argumentosSpring = new ArrayList<>();
+		for (String arg : args) {
+			if (arg.startsWith("--")) {
+				argumentosSpring.add(arg);
+			} else {
+				String[] chaveValor = arg.split("=", 2);
+				opcoes.put(chaveValor[0], chaveValor[1]);
+			}
+		}
+		int taxa = Integer.parseInt(opcoes.get("taxa"));
+		int segundos = Integer.parseInt(opcoes.get("segundos"));
+		int aquecimento = Integer.parseInt(opcoes.get("aquecimento"));
+		int quantidade = Integer.parseInt(opcoes.get("clientes"));
+		Map<Operacao, Integer> mix = lerMix(opcoes.get("mix"));
+
+		ConfigurableApplicationContext contexto = new SpringApplicationBuilder(SistemaClientesJavaApplication.class)
+		.profiles("test").properties("logging.level.root=WARN").run(argumentosSpring.toArray(String[]::new));
+		try {
+			List<Long> ids = new ArrayList<>(quantidade);
+			List<String> cpfs = new ArrayList<>(quantidade);
+			cadastrar(contexto.getBean(ClienteLoteService.class), quantidade, ids, cpfs);
+			int porta = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+
+			Map<Operacao, Medicao> medicoes = executar("http://localhost:" + porta, taxa, segundos, aquecimento, mix,
+			new Random(Long.parseLong(opcoes.get("semente"))), ids, cpfs, quantidade);
+
+			Map<String, Object> resultado = resultado(opcoes, argumentosSpring, medicoes, segundos);
+			ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+			File saida = new File(opcoes.get("saida"));
+			if (saida.getParentFile() != null) {
+				saida.getParentFile().mkdirs();
+			}
+			mapper.writeValue(saida, resultado);
+			imprimir(medicoes, segundos);
+			System.out.println("Resultado gravado em " + saida.getPath());
+			if (opcoes.containsKey("base")) {
+				comparar(mapper.readTree(new File(opcoes.get("base"))), mapper.valueToTree(resultado));
+			}
+		} finally {
+			contexto.close();
+		}
+	}
+
+	private static Map<Operacao, Integer> lerMix(String mix) {
+		Map<Operacao, Integer> pesos = new EnumMap<>(Operacao.class);
+		for (String item : mix.split(",")) {
+			String[] operacaoPeso = item.split(":");
+			pesos.put(Operacao.valueOf(operacaoPeso[0].trim().toUpperCase()), Integer.parseInt(operacaoPeso[1].trim()));
+		}
+		return pesos;
+	}
+
+	/*Cadastro pelo mesmo caminho do /salvarclientes, em lotes de 1.000, para o filtro e o índice de nomes (se
+	 *ligados com --clientes.filtro.habilitado=true etc.) conhecerem os clientes.*/
+	private static void cadastrar(ClienteLoteService loteService, int quantidade, List<Long> ids, List<String> cpfs) {
+		for (int inicio = 0; inicio < quantidade; inicio += 1000) {
+			List<ClienteRequestDTO> lote = new ArrayList<>();
+			for (int i = inicio; i < Math.min(quantidade, inicio + 1000); i++) {
+				lote.add(dto(i));
+			}
+			for (ItemLoteResponseDTO item : loteService.salvarLote(lote).getItens()) {
+				if (item.getStatus() == ItemLoteResponseDTO.Status.CRIADO) {
+					ids.add(item.getCliente().getId());
+					cpfs.add(item.getCliente().getCpf());
+				}
+			}
+		}
+	}
+
+	private static ClienteRequestDTO dto(long i) {
+		ClienteRequestDTO dto = new ClienteRequestDTO();
+		dto.setNome(NOMES[(int) (i % NOMES.length)] + " " + SOBRENOMES[(int) (i / NOMES.length % SOBRENOMES.length)]
+		+ " " + i);
+		dto.setEmail("cliente" + i + "@email.com");
+		dto.setCpf(String.format("%011d", i));
+		return dto;
+	}
+
+	private static Map<Operacao, Medicao> executar(String url, int taxa, int segundos, int aquecimento,
+	Map<Operacao, Integer> mix, Random sorteio, List<Long> ids, List<String> cpfs, int quantidade) throws Exception {
+		Map<Operacao, Medicao> medicoes = new EnumMap<>(Operacao.class);
+		mix.keySet().forEach(operacao -> medicoes.put(operacao, new Medicao()));
+		Operacao[] roleta = mix.entrySet().stream()
+		.flatMap(peso -> Stream.generate(peso::getKey).limit(peso.getValue()))
+		.toArray(Operacao[]::new);
+
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()));
+		HttpClient http = HttpClient.newBuilder().executor(executor).connectTimeout(Duration.ofSeconds(5)).build();
+		AtomicLong novos = new AtomicLong(quantidade);
+		Phaser pendentes = new Phaser(1);
+
+		long intervalo = TimeUnit.SECONDS.toNanos(1) / taxa;
+		long inicio = System.nanoTime();
+		long inicioMedicao = inicio + TimeUnit.SECONDS.toNanos(aquecimento);
+		long fim = inicioMedicao + TimeUnit.SECONDS.toNanos(segundos);
+		for (long planejado = inicio; planejado < fim; planejado += intervalo) {
+			long espera = planejado - System.nanoTime();
+			if (espera > 0) {
+				LockSupport.parkNanos(espera);
+			}
+			Operacao operacao = roleta[sorteio.nextInt(roleta.length)];
+			HttpRequest requisicao = requisicao(url, operacao, sorteio, ids, cpfs, novos);
+			Medicao medicao = planejado >= inicioMedicao ? medicoes.get(operacao) : null;
+			long planejadoFinal = planejado;
+			long enviado = System.nanoTime();
+			pendentes.register();
+			http.sendAsync(requisicao, BodyHandlers.discarding()).whenComplete((resposta, erro) -> {
+				if (medicao != null) {
+					medicao.registrar(planejadoFinal, enviado, System.nanoTime(),
+					erro != null || resposta.statusCode() >= 400);
+				}
+				pendentes.arriveAndDeregister();
+			});
+		}
+		pendentes.awaitAdvanceInterruptibly(pendentes.arrive(), 2, TimeUnit.MINUTES);
+		executor.shutdown();
+		return medicoes;
+	}
+
+	private static HttpRequest requisicao(String url, Operacao operacao, Random sorteio, List<Long> ids,
+	List<String> cpfs, AtomicLong novos) {
+		long id = ids.get(sorteio.nextInt(ids.size()));
+		HttpRequest.Builder builder = switch (operacao) {
+			case SALVAR -> {
+				long i = novos.getAndIncrement();
+				ClienteRequestDTO dto = dto(i);
+				yield HttpRequest.newBuilder(URI.create(url + "/salvarcliente"))
+				.header("Content-Type", "application/json")
+				.POST(BodyPublishers.ofString("{\"nome\":\"" + dto.getNome() + "\",\"email\":\"" + dto.getEmail()
+				+ "\",\"cpf\":\"" + dto.getCpf() + "\"}"));
+			}
+			case ENCONTRAR -> HttpRequest.newBuilder(URI.create(url + "/encontrarcliente/" + id)).GET();
+			case CPF -> HttpRequest.newBuilder(URI.create(url + "/clientecpf/" + cpfs.get(sorteio.nextInt(cpfs.size()))))
+			.GET();
+			case PAGINADA -> HttpRequest.newBuilder(URI.create(url + "/paginada?itens=10&pagina="
+			+ sorteio.nextInt(Math.max(1, ids.size() / 10)))).GET();
+			case NOME -> HttpRequest.newBuilder(URI.create(url + "/buscapornome?itens=10&nome="
+			+ URLEncoder.encode(NOMES[sorteio.nextInt(NOMES.length)] + " "
+			+ SOBRENOMES[sorteio.nextInt(SOBRENOMES.length)], StandardCharsets.UTF_8))).GET();
+			case PARCIAL -> HttpRequest.newBuilder(URI.create(url + "/parcial/" + id))
+			.header("Content-Type", "application/json")
+			.method("PATCH", BodyPublishers.ofString("{\"nome\":\"" + NOMES[sorteio.nextInt(NOMES.length)] + " "
+			+ SOBRENOMES[sorteio.nextInt(SOBRENOMES.length)] + " " + id + "\"}"));
+			case EMAIL -> HttpRequest.newBuilder(URI.create(url + "/atualizaremail/" + id + "?email=novo"
+			+ novos.getAndIncrement() + "@email.com")).method("PATCH", BodyPublishers.noBody());
+		};
+		return builder.timeout(Duration.ofSeconds(30)).build();
+	}
+
+	private static Map<String, Object> resultado(Map<String, String> opcoes, List<String> argumentosSpring,
+	Map<Operacao, Medicao> medicoes, int segundos) {
+		Histogram total = new Histogram(MAXIMO_NS, 3);
+		long erros = 0;
+		Map<String, Object> operacoes = new LinkedHashMap<>();
+		for (Map.Entry<Operacao, Medicao> entrada : medicoes.entrySet()) {
+			Medicao medicao = entrada.getValue();
+			total.add(medicao.corrigida);
+			erros += medicao.erros.sum();
+			Map<String, Object> operacao = resumo(medicao.corrigida, medicao.erros.sum(), segundos);
+			operacao.put("servico", percentis(medicao.servico));
+			operacoes.put(entrada.getKey().name().toLowerCase(), operacao);
+		}
+		Map<String, Object> resultado = new LinkedHashMap<>();
+		resultado.put("configuracao", opcoes);
+		resultado.put("propriedades", argumentosSpring);
+		resultado.put("total", resumo(total, erros, segundos));
+		resultado.put("operacoes", operacoes);
+		return resultado;
+	}
+
+	/*Vazão, erros e percentis em ms; "hdr" é o histograma completo (formato comprimido do HdrHistogram em
+	 *base64), para juntar ou plotar depois.*/
+	private static Map<String, Object> resumo(Histogram histograma, long erros, int segundos) {
+		Map<String, Object> resumo = new LinkedHashMap<>();
+		resumo.put("requisicoes", histograma.getTotalCount());
+		resumo.put("erros", erros);
+		resumo.put("vazao", histograma.getTotalCount() / (double) segundos);
+		resumo.putAll(percentis(histograma));
+		ByteBuffer buffer = ByteBuffer.allocate(histograma.getNeededByteBufferCapacity());
+		int tamanho = histograma.encodeIntoCompressedByteBuffer(buffer);
+		resumo.put("hdr", Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), tamanho)));
+		return resumo;
+	}
+
+	private static Map<String, Object> percentis(Histogram histograma) {
+		Map<String, Object> percentis = new LinkedHashMap<>();
+		percentis.put("media", histograma.getMean() / 1e6);
+		percentis.put("p50", histograma.getValueAtPercentile(50) / 1e6);
+		percentis.put("p90", histograma.getValueAtPercentile(90) / 1e6);
+		percentis.put("p99", histograma.getValueAtPercentile(99) / 1e6);
+		percentis.put("p999", histograma.getValueAtPercentile(99.9) / 1e6);
+		percentis.put("max", histograma.getMaxValue() / 1e6);
+		return percentis;
+	}
+
+	private static void imprimir(Map<Operacao, Medicao> medicoes, int segundos) {
+		System.out.printf("%-10s %9s %7s %9s %9s %9s %9s %9s %12s%n", "operacao", "req/s", "erros", "p50 ms",
+		"p90 ms", "p99 ms", "p99.9 ms", "max ms", "p99 servico");
+		for (Map.Entry<Operacao, Medicao> entrada : medicoes.entrySet()) {
+			Histogram h = entrada.getValue().corrigida;
+			System.out.printf("%-10s %9.1f %7d %9.2f %9.2f %9.2f %9.2f %9.2f %12.2f%n",
+			entrada.getKey().name().toLowerCase(), h.getTotalCount() / (double) segundos,
+			entrada.getValue().erros.sum(), h.getValueAtPercentile(50) / 1e6, h.getValueAtPercentile(90) / 1e6,
+			h.getValueAtPercentile(99) / 1e6, h.getValueAtPercentile(99.9) / 1e6, h.getMaxValue() / 1e6,
+			entrada.getValue().servico.getValueAtPercentile(99) / 1e6);
+		}
+	}
+
+	/*Diferença, em %, de vazão e percentis de cada operação deste resultado contra o de base.*/
+	private static void comparar(JsonNode base, JsonNode atual) {
+		System.out.printf("%nContra a base:%n%-10s %9s %9s %9s %9s%n", "operacao", "req/s", "p50", "p99", "p99.9");
+		List<Map.Entry<String, JsonNode>> linhas = new ArrayList<>();
+		linhas.add(Map.entry("total", atual.get("total")));
+		atual.get("operacoes").properties().forEach(linhas::add);
+		for (Map.Entry<String, JsonNode> linha : linhas) {
+			JsonNode anterior = "total".equals(linha.getKey()) ? base.get("total") : base.path("operacoes")
+			.get(linha.getKey());
+			if (anterior == null) {
+				continue;
+			}
+			System.out.printf("%-10s %9s %9s %9s %9s%n", linha.getKey(), diferenca(anterior, linha.getValue(), "vazao"),
+			diferenca(anterior, linha.getValue(), "p50"), diferenca(anterior, linha.getValue(), "p99"),
+			diferenca(anterior, linha.getValue(), "p999"));
+		}
+	}
+
+	private static String diferenca(JsonNode anterior, JsonNode atual, String campo) {
+		double antes = anterior.path(campo).asDouble();
+		return antes == 0 ? "-" : String.format("%+.1f%%", (atual.path(campo).asDouble() - antes) * 100 / antes);
+	}
+
+}
@@ -0,0 +1,66 @@
+package com.sistemaclliente.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.sistemacliente.validation.EmailValidator;
+
+/*Compara o caminho antigo do ClienteService (String.matches, que recompila a regex em toda chamada) com a
+ *regex pré-compilada e com o EmailValidator. Rodar com "-prof gc" para ver a alocação por operação.
+ *  java -jar benchmarks/target/benchmarks.jar EmailValidator -prof gc*/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmailValidatorBenchmark {
+
+	private static final Pattern PADRAO = Pattern.compile(EmailValidator.REGEX_EMAIL);
+
+	private final EmailValidator validator = new EmailValidator();
+
+	/*Mistura de entradas válidas e inválidas como as que chegam nos endpoints de escrita.*/
+	private final String[] emails = { "marcus@gmail.com", "antonio.silva+clientes@empresa.com.br",
+	"marcus.com", "marcus@marcus@", "a.b.c.d.e@sub.dominio-longo.exemplo.org", "marcus@email.abcdefgh" };
+
+	@Benchmark
+	public void stringMatches(Blackhole bh) {
+		for (String email : emails) {
+			bh.consume(email.matches(EmailValidator.REGEX_EMAIL));
+		}
+	}
+
+	@Benchmark
+	public void patternPreCompilado(Blackhole bh) {
+		for (String email : emails) {
+			bh.consume(PADRAO.matcher(email).matches());
+		}
+	}
+
+	@Benchmark
+	public void emailValidator(Blackhole bh) {
+		for (String email : emails) {
+			bh.consume(validator.isValido(email));
+		}
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(EmailValidatorBenchmark.class.getSimpleName()).build()).run();
+	}
+
+}
@@ -0,0 +1,111 @@
+package com.sistemaclliente.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.sistemacliente.SistemaClientesJavaApplication;
+import com.sistemacliente.exception.ClienteNotFoundException;
+
+/*Carga de 404: clientes consultando ids e CPFs que não existem.
+ *- comPilha/semPilha: lançar e capturar uma exceção a "profundidade" chamadas de distância, com a pilha
+ *  capturada (RuntimeException comum, como as exceções do sistema eram) e sem ela (ClienteNotFoundException).
+ *  Numa requisição real a exceção sai de ~150 chamadas abaixo da thread do Tomcat.
+ *- encontrarInexistente: GET /encontrarcliente/{id} inteiro pelo MockMvc, do ClienteController ao
+ *  ValidationExceptionHandler, na aplicação de verdade (perfil test, H2 em memória sem clientes).*/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExcecaoBenchmark {
+
+	/*Só o comPilha e o semPilha variam com a profundidade.*/
+	@State(Scope.Benchmark)
+	public static class Pilha {
+
+		@Param({ "10", "150" })
+		int profundidade;
+	}
+
+	private ConfigurableApplicationContext contexto;
+
+	private MockMvc mvc;
+
+	private long id;
+
+	@Setup(Level.Trial)
+	public void subirAplicacao() {
+		contexto = new SpringApplicationBuilder(SistemaClientesJavaApplication.class).profiles("test")
+		.properties("server.port=0", "logging.level.root=WARN").run();
+		mvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) contexto).build();
+	}
+
+	@TearDown(Level.Trial)
+	public void derrubarAplicacao() {
+		contexto.close();
+	}
+
+	@Benchmark
+	public String comPilha(Pilha pilha) {
+		try {
+			lancar(pilha.profundidade, true);
+			return null;
+		} catch (RuntimeException ex) {
+			return ex.getMessage();
+		}
+	}
+
+	@Benchmark
+	public String semPilha(Pilha pilha) {
+		try {
+			lancar(pilha.profundidade, false);
+			return null;
+		} catch (RuntimeException ex) {
+			return ex.getMessage();
+		}
+	}
+
+	private void lancar(int restante, boolean comPilha) {
+		if (restante > 0) {
+			lancar(restante - 1, comPilha);
+			return;
+		}
+		long inexistente = ++id;
+		throw comPilha ? new RuntimeException("Cliente com o id = " + inexistente + " não encontrado.")
+		: new ClienteNotFoundException(inexistente);
+	}
+
+	@Benchmark
+	public MvcResult encontrarInexistente() throws Exception {
+		return mvc.perform(MockMvcRequestBuilders.get("/encontrarcliente/{id}", ++id)).andReturn();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(ExcecaoBenchmark.class.getSimpleName()).build()).run();
+	}
+
+}
@@ -0,0 +1,90 @@
+package com.sistemaclliente.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sistemacliente.model.dto.ClienteResponseDTO;
+
+/*Corpo do /listarclientes com 10 mil clientes em JSON, CBOR e Smile (Accept: application/cbor ou
+ *application/x-jackson-smile): escrever é o custo do servidor, ler é o do chamador. O tamanho do corpo de cada
+ *formato sai no console antes das medições.*/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormatoBinarioBenchmark {
+
+	private static final TypeReference<List<ClienteResponseDTO>> LISTA = new TypeReference<>() {};
+
+	@Param({ "json", "cbor", "smile" })
+	private String formato;
+
+	@Param({ "10000" })
+	private int clientes;
+
+	private ObjectMapper mapper;
+
+	private List<ClienteResponseDTO> lista;
+
+	private byte[] corpo;
+
+	@Setup
+	public void montar() throws IOException {
+		mapper = switch (formato) {
+			case "cbor" -> Jackson2ObjectMapperBuilder.cbor().build();
+			case "smile" -> Jackson2ObjectMapperBuilder.smile().build();
+			default -> Jackson2ObjectMapperBuilder.json().build();
+		};
+
+		lista = new ArrayList<>(clientes);
+		for (long i = 0; i < clientes; i++) {
+			ClienteResponseDTO dto = new ClienteResponseDTO();
+			dto.setId(i);
+			dto.setNome("Cliente " + i);
+			dto.setEmail("cliente" + i + "@email.com");
+			dto.setCpf(String.format("%011d", i));
+			dto.setVersao(i % 4);
+			lista.add(dto);
+		}
+
+		corpo = mapper.writeValueAsBytes(lista);
+		System.out.printf("%n%s: %d bytes para %d clientes%n", formato, corpo.length, clientes);
+	}
+
+	@Benchmark
+	public byte[] escrever() throws IOException {
+		return mapper.writeValueAsBytes(lista);
+	}
+
+	@Benchmark
+	public List<ClienteResponseDTO> ler() throws IOException {
+		return mapper.readValue(corpo, LISTA);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(FormatoBinarioBenchmark.class.getSimpleName()).build()).run();
+	}
+
+}
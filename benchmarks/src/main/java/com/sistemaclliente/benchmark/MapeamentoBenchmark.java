@@ -0,0 +1,68 @@
+package com.sistemaclliente.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.beans.BeanUtils;
+
+import com.sistemacliente.model.Cliente;
+import com.sistemacliente.model.dto.ClienteResponseDTO;
+
+/*Mapeamento de uma página de 1.000 clientes para ClienteResponseDTO: o BeanUtils.copyProperties usado antes
+ *contra o construtor campo a campo. Rodar com "-prof gc" para ver a alocação por página.*/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapeamentoBenchmark {
+
+	private List<Cliente> pagina;
+
+	@Setup
+	public void montarPagina() {
+		pagina = new ArrayList<>(1000);
+		for (long i = 0; i < 1000; i++) {
+			Cliente cliente = new Cliente();
+			cliente.setId(i);
+			cliente.setNome("Cliente " + i);
+			cliente.setEmail("cliente" + i + "@email.com");
+			cliente.setCpf(String.format("%011d", i));
+			pagina.add(cliente);
+		}
+	}
+
+	@Benchmark
+	public List<ClienteResponseDTO> beanUtils() {
+		return pagina.stream().map(cliente -> {
+			ClienteResponseDTO dto = new ClienteResponseDTO();
+			BeanUtils.copyProperties(cliente, dto);
+			return dto;
+		}).toList();
+	}
+
+	@Benchmark
+	public List<ClienteResponseDTO> construtor() {
+		return pagina.stream().map(ClienteResponseDTO::new).toList();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(MapeamentoBenchmark.class.getSimpleName()).build()).run();
+	}
+
+}
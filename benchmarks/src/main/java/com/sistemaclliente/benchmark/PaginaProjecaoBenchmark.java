@@ -0,0 +1,115 @@
+package com.sistemaclliente.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sistemacliente.SistemaClientesJavaApplication;
+import com.sistemacliente.model.Cliente;
+import com.sistemacliente.model.dto.ClienteResponseDTO;
+import com.sistemacliente.repository.ClienteRepository;
+import com.sistemacliente.service.ClienteService;
+
+/*Página de 500 clientes do /paginada por três caminhos, sobre o H2 do perfil test com 5 mil clientes:
+ *- entidades: como o listaPaginada era, Cliente gerenciado (com a cópia do dirty checking) numa transação
+ *  comum e copiado para o DTO;
+ *- entidadesSomenteLeitura: as mesmas entidades numa transação readOnly, sem a cópia e sem flush;
+ *- projecao: o listaPaginada atual, DTO direto do select new em transação readOnly.
+ *A taxa de alocação sai com -prof gc (gc.alloc.rate.norm é bytes por página):
+ *  mvn -f benchmarks/pom.xml -Pexecutar package -Djmh.filtro=PaginaProjecao -Djmh.argumentos="-prof gc"*/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PaginaProjecaoBenchmark {
+
+	private static final int CLIENTES = 5000;
+	private static final int ITENS = 500;
+
+	private ConfigurableApplicationContext contexto;
+	private ClienteService service;
+	private ClienteRepository repository;
+	private TransactionTemplate transacao;
+	private TransactionTemplate transacaoSomenteLeitura;
+
+	private int pagina;
+
+	@Setup(Level.Trial)
+	public void subirAplicacao() {
+		contexto = new SpringApplicationBuilder(SistemaClientesJavaApplication.class).profiles("test")
+		.properties("spring.main.web-application-type=none", "logging.level.root=WARN").run();
+		service = contexto.getBean(ClienteService.class);
+		repository = contexto.getBean(ClienteRepository.class);
+		PlatformTransactionManager gerenciador = contexto.getBean(PlatformTransactionManager.class);
+		transacao = new TransactionTemplate(gerenciador);
+		transacaoSomenteLeitura = new TransactionTemplate(gerenciador);
+		transacaoSomenteLeitura.setReadOnly(true);
+
+		repository.deleteAllInBatch();
+		List<Cliente> clientes = new ArrayList<>(CLIENTES);
+		for (int i = 0; i < CLIENTES; i++) {
+			Cliente cliente = new Cliente();
+			cliente.setNome("Cliente " + i);
+			cliente.setCpf(String.format("%011d", i));
+			cliente.setEmail("cliente" + i + "@email.com");
+			clientes.add(cliente);
+		}
+		repository.saveAllAndFlush(clientes);
+	}
+
+	@TearDown(Level.Trial)
+	public void derrubarAplicacao() {
+		contexto.close();
+	}
+
+	private int proximaPagina() {
+		pagina = (pagina + 1) % (CLIENTES / ITENS);
+		return pagina;
+	}
+
+	@Benchmark
+	public Page<ClienteResponseDTO> entidades() {
+		PageRequest pageable = PageRequest.of(proximaPagina(), ITENS);
+		return transacao.execute(status -> repository.findAll(pageable).map(ClienteResponseDTO::new));
+	}
+
+	@Benchmark
+	public Page<ClienteResponseDTO> entidadesSomenteLeitura() {
+		PageRequest pageable = PageRequest.of(proximaPagina(), ITENS);
+		return transacaoSomenteLeitura.execute(status -> repository.findAll(pageable).map(ClienteResponseDTO::new));
+	}
+
+	@Benchmark
+	public Page<ClienteResponseDTO> projecao() {
+		return service.listaPaginada(proximaPagina(), ITENS);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(PaginaProjecaoBenchmark.class.getSimpleName()).build()).run();
+	}
+
+}
@@ -0,0 +1,70 @@
+package com.sistemaclliente.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sistemacliente.model.dto.ClienteResponseDTO;
+
+/*Corpo das respostas de /paginada, /buscapornome e afins: Page<ClienteResponseDTO> escrita pelo mesmo
+ *ObjectMapper que o Spring Boot monta (Jackson2ObjectMapperBuilder), em páginas de tamanhos diferentes.*/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializacaoPaginaBenchmark {
+
+	@Param({ "3", "50", "1000" })
+	private int itens;
+
+	private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+
+	private Page<ClienteResponseDTO> pagina;
+
+	@Setup
+	public void montarPagina() {
+		List<ClienteResponseDTO> conteudo = new ArrayList<>(itens);
+		for (long i = 0; i < itens; i++) {
+			ClienteResponseDTO dto = new ClienteResponseDTO();
+			dto.setId(i);
+			dto.setNome("Cliente " + i);
+			dto.setEmail("cliente" + i + "@email.com");
+			dto.setCpf(String.format("%011d", i));
+			conteudo.add(dto);
+		}
+		pagina = new PageImpl<>(conteudo, PageRequest.of(0, itens), 100_000);
+	}
+
+	@Benchmark
+	public byte[] serializarPagina() throws JsonProcessingException {
+		return mapper.writeValueAsBytes(pagina);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(SerializacaoPaginaBenchmark.class.getSimpleName()).build()).run();
+	}
+
+}
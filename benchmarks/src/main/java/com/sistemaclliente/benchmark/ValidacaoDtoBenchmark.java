@@ -0,0 +1,81 @@
+package com.sistemaclliente.benchmark;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.sistemacliente.model.dto.ClienteRequestDTO;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+
+/*O @Valid do /salvarcliente (e a validação item a item do /salvarclientes): Hibernate Validator sobre um
+ *ClienteRequestDTO válido e sobre um com os três campos errados, que monta as mensagens de erro.*/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidacaoDtoBenchmark {
+
+	private ValidatorFactory factory;
+
+	private Validator validator;
+
+	private ClienteRequestDTO valido;
+
+	private ClienteRequestDTO invalido;
+
+	@Setup
+	public void preparar() {
+		factory = Validation.buildDefaultValidatorFactory();
+		validator = factory.getValidator();
+		valido = dto("Antonio Silva", "antonio.silva@empresa.com.br", "52998224725");
+		invalido = dto("An", "antonio.com", "529.982.247-25");
+	}
+
+	@TearDown
+	public void fechar() {
+		factory.close();
+	}
+
+	private static ClienteRequestDTO dto(String nome, String email, String cpf) {
+		ClienteRequestDTO dto = new ClienteRequestDTO();
+		dto.setNome(nome);
+		dto.setEmail(email);
+		dto.setCpf(cpf);
+		return dto;
+	}
+
+	@Benchmark
+	public Set<ConstraintViolation<ClienteRequestDTO>> dtoValido() {
+		return validator.validate(valido);
+	}
+
+	@Benchmark
+	public Set<ConstraintViolation<ClienteRequestDTO>> dtoInvalido() {
+		return validator.validate(invalido);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(ValidacaoDtoBenchmark.class.getSimpleName()).build()).run();
+	}
+
+}
@@ -0,0 +1,15 @@
+package com.sistemacliente.reativo;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+
+@SpringBootApplication
+@ConfigurationPropertiesScan
+public class SistemaClientesReativoApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(SistemaClientesReativoApplication.class, args);
+	}
+
+}
@@ -0,0 +1,41 @@
+package com.sistemacliente.reativo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/*Configurações da edição reativa lidas do application.properties com o prefixo "clientes".*/
+@Getter @Setter
+@ConfigurationProperties(prefix = "clientes")
+public class ClientesProperties {
+
+	private Exportacao exportacao = new Exportacao();
+
+	private Lote lote = new Lote();
+
+	private Id id = new Id();
+
+	@Getter @Setter
+	public static class Exportacao {
+		/*Clientes pedidos ao banco de cada vez nas listagens em stream; o próximo pedido só sai depois que a
+		 *maior parte deles foi escrita na resposta.*/
+		private int lote = 500;
+	}
+
+	@Getter @Setter
+	public static class Lote {
+		/*Máximo de clientes aceitos por requisição em /salvarclientes.*/
+		private int maxItens = 1000;
+		/*Clientes por consulta IN.*/
+		private int tamanhoPedaco = 100;
+	}
+
+	@Getter @Setter
+	public static class Id {
+		/*Ids reservados por nextval da seq_cliente. Deve ser igual ao INCREMENT BY da sequence no banco e ao
+		 *clientes.id.bloco da edição JPA.*/
+		private int bloco = 50;
+	}
+
+}
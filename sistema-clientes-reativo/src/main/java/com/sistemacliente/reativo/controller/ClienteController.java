@@ -0,0 +1,183 @@
+package com.sistemacliente.reativo.controller;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.sistemacliente.reativo.model.dto.ClienteRequestDTO;
+import com.sistemacliente.reativo.model.dto.ClienteResponseDTO;
+import com.sistemacliente.reativo.model.dto.LoteResponseDTO;
+import com.sistemacliente.reativo.model.dto.PaginaCursorResponseDTO;
+import com.sistemacliente.reativo.model.dto.PaginaSemTotalResponseDTO;
+import com.sistemacliente.reativo.service.ClienteExportacaoService;
+import com.sistemacliente.reativo.service.ClienteExportacaoService.Formato;
+import com.sistemacliente.reativo.service.ClienteLoteService;
+import com.sistemacliente.reativo.service.ClienteService;
+
+import jakarta.validation.Valid;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/*Mesmos endpoints do ClienteController da edição JPA.*/
+@RestController
+public class ClienteController {
+
+	private final ClienteService service;
+
+	private final ClienteExportacaoService exportacaoService;
+
+	private final ClienteLoteService loteService;
+
+	public ClienteController(ClienteService service, ClienteExportacaoService exportacaoService,
+	ClienteLoteService loteService) {
+		this.service = service;
+		this.exportacaoService = exportacaoService;
+		this.loteService = loteService;
+	}
+
+	/*Array json escrito à medida que os clientes chegam do banco; com Accept: application/x-ndjson sai um
+	 *cliente por linha.*/
+	@GetMapping(value = "/listarclientes", produces = { MediaType.APPLICATION_JSON_VALUE,
+	MediaType.APPLICATION_NDJSON_VALUE })
+	public Flux<ClienteResponseDTO> listarClientes(){
+		return service.listagemCliente();
+	}
+
+	@GetMapping(value = "/listarclientes/stream")
+	public ResponseEntity<Flux<ClienteResponseDTO>> listarClientesStream(
+	@RequestParam(defaultValue = "ndjson") String formato){
+		Formato formatoExportacao = Formato.de(formato);
+		return ResponseEntity.ok().contentType(formatoExportacao.getMediaType()).body(exportacaoService.exportar());
+	}
+
+	@PostMapping(value = "/salvarcliente")
+	public Mono<ResponseEntity<ClienteResponseDTO>> salvarCliente(@Valid @RequestBody ClienteRequestDTO dto){
+		return service.salvarCliente(dto).map(clienteNovo -> ResponseEntity.status(HttpStatus.CREATED).body(clienteNovo));
+	}
+
+	@PostMapping(value = "/salvarclientes")
+	public Mono<ResponseEntity<LoteResponseDTO>> salvarClientes(@RequestBody List<ClienteRequestDTO> dtos){
+		return loteService.salvarLote(dtos).map(ResponseEntity::ok);
+	}
+
+	@GetMapping(value = "/encontrarcliente/{id}")
+	public Mono<ResponseEntity<ClienteResponseDTO>> encontrarClientePorId(@PathVariable Long id){
+		return service.buscarClientePorId(id).map(ResponseEntity::ok);
+	}
+
+	@DeleteMapping(value = "/deletarporid/{id}")
+	public Mono<ResponseEntity<Void>> deletarClientePorId(@PathVariable Long id){
+		return service.deletarClientePorId(id).then(Mono.just(ResponseEntity.noContent().build()));
+	}
+
+	@PutMapping(value = "/clientes/{id}")
+	public Mono<ResponseEntity<ClienteResponseDTO>>
+	atualizarCliente(@PathVariable Long id, @Valid @RequestBody ClienteRequestDTO dto){
+		return service.atualizarCliente(id, dto).map(ResponseEntity::ok);
+	}
+
+	@GetMapping(value = "/clientecpf/{cpf}")
+	public Mono<ResponseEntity<ClienteResponseDTO>> encontrarClientePorCpf(@PathVariable String cpf){
+		return service.encontrarPorCpf(cpf).map(ResponseEntity::ok);
+	}
+
+	@GetMapping(value = "/paginada")
+	public Mono<ResponseEntity<Page<ClienteResponseDTO>>>
+	listaPaginada(@RequestParam(defaultValue = "0") int pagina,
+	@RequestParam(defaultValue = "3") int itens){
+		return service.listaPaginada(pagina, itens).map(ResponseEntity::ok);
+	}
+
+	@GetMapping(value = "/paginada", params = "semTotal=true")
+	public Mono<ResponseEntity<PaginaSemTotalResponseDTO>>
+	listaPaginadaSemTotal(@RequestParam(defaultValue = "0") int pagina,
+	@RequestParam(defaultValue = "3") int itens){
+		return service.listaPaginadaSemTotal(pagina, itens)
+		.map(slice -> ResponseEntity.ok(new PaginaSemTotalResponseDTO(slice)));
+	}
+
+	@GetMapping(value = "/paginadaordem")
+	public Mono<ResponseEntity<Page<ClienteResponseDTO>>> listaPaginadaOrdenada
+	(@RequestParam(defaultValue = "0") int pagina, @RequestParam(defaultValue = "3") int itens,
+	@RequestParam(required = false) String ordenadoPor){
+		return service.listaPaginadaPorOrdenacao(pagina, itens, ordenadoPor).map(ResponseEntity::ok);
+	}
+
+	@GetMapping(value = "/paginadacursor")
+	public Mono<ResponseEntity<PaginaCursorResponseDTO>> listaPaginadaPorCursor(
+	@RequestParam(required = false) String cursor, @RequestParam(defaultValue = "3") int itens,
+	@RequestParam(defaultValue = "id") String ordenadoPor){
+		return service.listaPorCursor(cursor, itens, ordenadoPor).map(ResponseEntity::ok);
+	}
+
+	@GetMapping(value = "/buscapornome")
+	public Mono<ResponseEntity<Page<ClienteResponseDTO>>> buscarPorNomePagina(
+	@RequestParam(required = false) String nome, @RequestParam(defaultValue = "0") int pagina,
+	@RequestParam(defaultValue = "3") int itens){
+		return service.buscarPorNome(nome, pagina, itens).map(ResponseEntity::ok);
+	}
+
+	@GetMapping(value = "/buscapornome", params = "semTotal=true")
+	public Mono<ResponseEntity<PaginaSemTotalResponseDTO>> buscarPorNomeSemTotal(
+	@RequestParam(required = false) String nome, @RequestParam(defaultValue = "0") int pagina,
+	@RequestParam(defaultValue = "3") int itens){
+		return service.buscarPorNomeSemTotal(nome, pagina, itens)
+		.map(slice -> ResponseEntity.ok(new PaginaSemTotalResponseDTO(slice)));
+	}
+
+	@PatchMapping(value = "/parcial/{id}")
+	public Mono<ResponseEntity<ClienteResponseDTO>> atualizarParcial(@PathVariable Long id,
+	@RequestBody Map<String, Object> updates){
+		return service.atualizarParcial(id, updates).map(ResponseEntity::ok);
+	}
+
+	@GetMapping(value = "/buscaemail")
+	public Mono<ResponseEntity<Page<ClienteResponseDTO>>> buscaPorEmail
+	(@RequestParam(required = false) String email, @RequestParam(defaultValue = "0") int pagina,
+	@RequestParam(defaultValue = "3") int itens){
+		return service.buscarPorEmail(email, pagina, itens).map(ResponseEntity::ok);
+	}
+
+	@GetMapping(value = "/buscaemail", params = "semTotal=true")
+	public Mono<ResponseEntity<PaginaSemTotalResponseDTO>> buscaPorEmailSemTotal
+	(@RequestParam(required = false) String email, @RequestParam(defaultValue = "0") int pagina,
+	@RequestParam(defaultValue = "3") int itens){
+		return service.buscarPorEmailSemTotal(email, pagina, itens)
+		.map(slice -> ResponseEntity.ok(new PaginaSemTotalResponseDTO(slice)));
+	}
+
+	@PatchMapping(value = "/atualizaremail/{id}")
+	public Mono<ResponseEntity<ClienteResponseDTO>> atualizarEmail(@PathVariable Long id,
+	@RequestParam(required = false) String email){
+		return service.atualizarEmail(id, email).map(ResponseEntity::ok);
+	}
+
+	@GetMapping(value = "/buscarporemail")
+	public Mono<ResponseEntity<Page<ClienteResponseDTO>>> buscarPorEmailOrdenada(
+	@RequestParam(required = false) String email, @RequestParam(defaultValue = "0") int pagina,
+	@RequestParam(defaultValue = "3") int itens, @RequestParam(required = false) String ordenadoPor){
+		return service.buscaEmailPaginadaOrdenada(email, pagina, itens, ordenadoPor).map(ResponseEntity::ok);
+	}
+
+	@GetMapping(value = "/buscarporemail", params = "semTotal=true")
+	public Mono<ResponseEntity<PaginaSemTotalResponseDTO>> buscarPorEmailOrdenadaSemTotal(
+	@RequestParam(required = false) String email, @RequestParam(defaultValue = "0") int pagina,
+	@RequestParam(defaultValue = "3") int itens, @RequestParam(required = false) String ordenadoPor){
+		return service.buscaEmailPaginadaOrdenadaSemTotal(email, pagina, itens, ordenadoPor)
+		.map(slice -> ResponseEntity.ok(new PaginaSemTotalResponseDTO(slice)));
+	}
+
+}
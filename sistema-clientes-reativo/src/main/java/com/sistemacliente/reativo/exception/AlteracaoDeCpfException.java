@@ -0,0 +1,7 @@
+package com.sistemacliente.reativo.exception;
+
+public class AlteracaoDeCpfException extends RuntimeException{
+	public AlteracaoDeCpfException() {
+		super("Alteração de CPF não permitida.");
+	}
+}
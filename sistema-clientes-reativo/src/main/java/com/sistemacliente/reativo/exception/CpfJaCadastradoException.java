@@ -0,0 +1,13 @@
+package com.sistemacliente.reativo.exception;
+
+public class CpfJaCadastradoException extends RuntimeException{
+	
+	public CpfJaCadastradoException() {
+		super("O CPF já está cadastrado.");
+	}
+	
+	public CpfJaCadastradoException(String cpf) {
+		super("O CPF "+cpf+" já está cadastrado.");
+	}
+	
+}
@@ -0,0 +1,8 @@
+package com.sistemacliente.reativo.exception;
+
+public class EmailJaCadastradoException extends RuntimeException{
+	public EmailJaCadastradoException() {
+		super("E-mail indisponível, já está sendo utilizado.");
+	}
+
+}
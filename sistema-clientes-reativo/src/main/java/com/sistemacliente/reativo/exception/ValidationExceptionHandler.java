@@ -0,0 +1,76 @@
+package com.sistemacliente.reativo.exception;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+
+/*Mesmo mapeamento de exceções para status da edição JPA. No WebFlux o @Valid falha com
+ *WebExchangeBindException no lugar da MethodArgumentNotValidException.*/
+@RestControllerAdvice
+public class ValidationExceptionHandler {
+
+	@ExceptionHandler(WebExchangeBindException.class)
+	public ResponseEntity<Map<String, String>> handleValidationExceptions(WebExchangeBindException ex) {
+		Map<String, String> errors = new HashMap<>();
+
+		ex.getBindingResult().getAllErrors().forEach(error -> {
+			String field = ((FieldError) error).getField();
+			String message = error.getDefaultMessage();
+			errors.put(field, message);
+		});
+
+		return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errors);
+	}
+
+	@ExceptionHandler(ArgumentoInvalidoException.class)
+	public ResponseEntity<String> handlerArgumentoInvalidoException(ArgumentoInvalidoException ex){
+		return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+	}
+
+	@ExceptionHandler(ClienteNotFoundException.class)
+	public ResponseEntity<String> handlerClienteNotFoundException(ClienteNotFoundException ex){
+		return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
+	}
+
+	@ExceptionHandler(CpfJaCadastradoException.class)
+	public ResponseEntity<String> handlerCpfJaCadastradoException(CpfJaCadastradoException ex){
+		return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+	}
+
+	@ExceptionHandler(AlteracaoDeCpfException.class)
+	public ResponseEntity<String> handlerAlteracaoDeCpfException(AlteracaoDeCpfException ex){
+		return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+	}
+
+	@ExceptionHandler(IllegalArgumentException.class)
+	public ResponseEntity<String> handlerIllegalArgumentException(IllegalArgumentException ex){
+		return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+	}
+
+	@ExceptionHandler(RuntimeException.class)
+	public ResponseEntity<String> handlerRuntimeException(RuntimeException ex){
+		return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Erro interno no servidor.");
+	}
+
+	@ExceptionHandler(EmailJaCadastradoException.class)
+	public ResponseEntity<String> handlerEmailJaCadastradoException(EmailJaCadastradoException ex){
+		return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+	}
+
+	@ExceptionHandler(DataIntegrityViolationException.class)
+	public ResponseEntity<String> handlerDataIntegrityViolationException(DataIntegrityViolationException ex){
+		RuntimeException traduzida = ViolacaoDeUnicidade.traduzir(ex, null);
+		if (traduzida == ex) {
+			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Erro interno no servidor.");
+		}
+		return ResponseEntity.status(HttpStatus.CONFLICT).body(traduzida.getMessage());
+	}
+
+}
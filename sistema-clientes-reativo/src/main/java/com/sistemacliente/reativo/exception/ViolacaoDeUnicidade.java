@@ -0,0 +1,30 @@
+package com.sistemacliente.reativo.exception;
+
+import java.util.Locale;
+
+import org.springframework.dao.DataIntegrityViolationException;
+
+/*Traduz a violação das constraints únicas do cliente (uk_cliente_cpf, uk_cliente_email) para as exceções de
+ *conflito, como na edição JPA. Sem o Hibernate não há o nome da constraint separado: ele é procurado na
+ *mensagem do driver (PostgreSQL e H2 citam a constraint violada).*/
+public final class ViolacaoDeUnicidade {
+
+	public static final String CPF = "uk_cliente_cpf";
+
+	public static final String EMAIL = "uk_cliente_email";
+
+	private ViolacaoDeUnicidade() {}
+
+	/*Devolve a exceção de conflito correspondente, ou a própria exceção quando é outra violação.*/
+	public static RuntimeException traduzir(DataIntegrityViolationException ex, String cpf) {
+		String mensagem = String.valueOf(ex.getMostSpecificCause().getMessage()).toLowerCase(Locale.ROOT);
+		if (mensagem.contains(CPF)) {
+			return cpf == null ? new CpfJaCadastradoException() : new CpfJaCadastradoException(cpf);
+		}
+		if (mensagem.contains(EMAIL)) {
+			return new EmailJaCadastradoException();
+		}
+		return ex;
+	}
+
+}
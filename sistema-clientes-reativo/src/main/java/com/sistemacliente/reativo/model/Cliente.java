@@ -0,0 +1,51 @@
+package com.sistemacliente.reativo.model;
+
+import java.util.Objects;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import com.sistemacliente.reativo.model.dto.ClienteRequestDTO;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/*Mesma tabela cliente da edição JPA. O id vem da seq_cliente em blocos, ver ClienteIdCallback.*/
+@Table("cliente") @Getter @Setter
+public class Cliente {
+
+	public Cliente() {}
+
+	public Cliente(ClienteRequestDTO dto) {
+		this.nome = dto.getNome();
+		this.email = dto.getEmail();
+		this.cpf = dto.getCpf();
+	}
+
+	@Id
+	private Long id;
+
+	private String nome;
+
+	private String email;
+
+	private String cpf;
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(id);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		Cliente other = (Cliente) obj;
+		return Objects.equals(id, other.id);
+	}
+
+}
@@ -0,0 +1,25 @@
+package com.sistemacliente.reativo.model.dto;
+
+import com.sistemacliente.reativo.model.Cliente;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter @Setter
+public class ClienteResponseDTO {
+
+	public ClienteResponseDTO() {}
+
+	/*Mesmos campos do Cliente, conferidos pelo ClienteMapeamentoTest.*/
+	public ClienteResponseDTO(Cliente cliente) {
+		this.id = cliente.getId();
+		this.nome = cliente.getNome();
+		this.email = cliente.getEmail();
+		this.cpf = cliente.getCpf();
+	}
+
+	private Long id;
+	private String nome;
+	private String email;
+	private String cpf;
+}
\ No newline at end of file
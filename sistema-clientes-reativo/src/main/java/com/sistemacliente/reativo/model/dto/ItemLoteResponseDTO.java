@@ -0,0 +1,25 @@
+package com.sistemacliente.reativo.model.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/*Resultado de um cliente do lote, na mesma posição (indice) em que veio na requisição.*/
+@Getter @Setter
+public class ItemLoteResponseDTO {
+
+	public enum Status { CRIADO, CONFLITO, INVALIDO }
+
+	public ItemLoteResponseDTO() {}
+
+	public ItemLoteResponseDTO(int indice, Status status, ClienteResponseDTO cliente, String mensagem) {
+		this.indice = indice;
+		this.status = status;
+		this.cliente = cliente;
+		this.mensagem = mensagem;
+	}
+
+	private int indice;
+	private Status status;
+	private ClienteResponseDTO cliente;
+	private String mensagem;
+}
@@ -0,0 +1,28 @@
+package com.sistemacliente.reativo.model.dto;
+
+import java.util.List;
+
+import org.springframework.data.domain.Slice;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/*Página sem o total de elementos (só diz se existe a próxima), usada quando o cliente pede semTotal=true
+ *e o SELECT count(*) não é executado.*/
+@Getter @Setter
+public class PaginaSemTotalResponseDTO {
+
+	public PaginaSemTotalResponseDTO() {}
+
+	public PaginaSemTotalResponseDTO(Slice<ClienteResponseDTO> slice) {
+		this.clientes = slice.getContent();
+		this.pagina = slice.getNumber();
+		this.itens = slice.getSize();
+		this.temProxima = slice.hasNext();
+	}
+
+	private List<ClienteResponseDTO> clientes;
+	private int pagina;
+	private int itens;
+	private boolean temProxima;
+}
@@ -0,0 +1,64 @@
+package com.sistemacliente.reativo.repository;
+
+import org.reactivestreams.Publisher;
+import org.springframework.data.r2dbc.mapping.event.BeforeConvertCallback;
+import org.springframework.data.relational.core.sql.SqlIdentifier;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+
+import com.sistemacliente.reativo.config.ClientesProperties;
+import com.sistemacliente.reativo.model.Cliente;
+
+import reactor.core.publisher.Mono;
+
+/*Id do cliente novo tirado da seq_cliente com a mesma regra pooled-lo do ClienteIdGenerator da edição JPA:
+ *cada nextval reserva o bloco [valor, valor + bloco - 1], distribuído em memória. As duas edições podem
+ *gravar na mesma tabela ao mesmo tempo sem repetir ids, desde que usem o mesmo bloco.*/
+@Component
+public class ClienteIdCallback implements BeforeConvertCallback<Cliente> {
+
+	private final DatabaseClient databaseClient;
+
+	private final int bloco;
+
+	private long proximo;
+
+	private long fim;
+
+	public ClienteIdCallback(DatabaseClient databaseClient, ClientesProperties properties) {
+		this.databaseClient = databaseClient;
+		this.bloco = Math.max(1, properties.getId().getBloco());
+	}
+
+	@Override
+	public Publisher<Cliente> onBeforeConvert(Cliente cliente, SqlIdentifier tabela) {
+		if (cliente.getId() != null) {
+			return Mono.just(cliente);
+		}
+
+		Long reservado = reservado();
+		if (reservado != null) {
+			cliente.setId(reservado);
+			return Mono.just(cliente);
+		}
+
+		return databaseClient.sql("select nextval('seq_cliente')").map(linha -> linha.get(0, Long.class)).one()
+		.map(inicio -> {
+			cliente.setId(usarBloco(inicio));
+			return cliente;
+		});
+	}
+
+	private synchronized Long reservado() {
+		return proximo < fim ? proximo++ : null;
+	}
+
+	/*Dois clientes sem id ao mesmo tempo podem buscar blocos diferentes; fica valendo o último e o resto do
+	 *outro se perde, sem repetir ids.*/
+	private synchronized long usarBloco(long inicio) {
+		proximo = inicio + 1;
+		fim = inicio + bloco;
+		return inicio;
+	}
+
+}
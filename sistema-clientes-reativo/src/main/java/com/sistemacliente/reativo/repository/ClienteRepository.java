@@ -0,0 +1,44 @@
+package com.sistemacliente.reativo.repository;
+
+import java.util.Collection;
+
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+
+import com.sistemacliente.reativo.model.Cliente;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface ClienteRepository extends R2dbcRepository<Cliente, Long>, ClienteRepositoryCustom {
+
+	public Mono<Cliente> findByCpf(String cpf);
+	public Mono<Boolean> existsByEmail(String email);
+	public Mono<Long> countByNomeContainingIgnoreCase(String nome);
+	public Mono<Long> countByEmail(String email);
+	public Mono<Long> countByEmailContainingIgnoreCase(String email);
+
+	/*Conferência de unicidade do cadastro em lote, uma consulta para vários CPFs/e-mails.*/
+	@Query("select cpf from cliente where cpf in (:cpfs)")
+	public Flux<String> findCpfsCadastrados(Collection<String> cpfs);
+
+	@Query("select email from cliente where email in (:emails)")
+	public Flux<String> findEmailsCadastrados(Collection<String> emails);
+
+	/*Paginação por cursor (keyset), como na edição JPA: cada página começa depois do par (campo, id) do último
+	 *cliente da página anterior.*/
+	@Query("select * from cliente where id > :id order by id limit :limite")
+	public Flux<Cliente> findAfterId(Long id, int limite);
+
+	@Query("select * from cliente where (nome, id) > (:nome, :id) order by nome, id limit :limite")
+	public Flux<Cliente> findAfterNome(String nome, Long id, int limite);
+
+	@Query("select * from cliente where (email, id) > (:email, :id) order by email, id limit :limite")
+	public Flux<Cliente> findAfterEmail(String email, Long id, int limite);
+
+	@Query("select * from cliente where (cpf, id) > (:cpf, :id) order by cpf, id limit :limite")
+	public Flux<Cliente> findAfterCpf(String cpf, Long id, int limite);
+
+}
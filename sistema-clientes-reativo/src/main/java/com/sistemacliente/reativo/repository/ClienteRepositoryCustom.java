@@ -0,0 +1,21 @@
+package com.sistemacliente.reativo.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.relational.core.query.Criteria;
+
+import com.sistemacliente.reativo.model.Cliente;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ClienteRepositoryCustom {
+
+	/*Página sem o SELECT count(*): lê um cliente a mais só para saber se existe a próxima.*/
+	public Mono<Slice<Cliente>> findSlice(Criteria filtro, Pageable pageable);
+
+	/*Primeira página da paginação por cursor.*/
+	public Flux<Cliente> findPrimeiros(Sort sort, int limite);
+
+}
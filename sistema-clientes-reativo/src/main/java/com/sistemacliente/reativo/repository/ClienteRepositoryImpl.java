@@ -0,0 +1,42 @@
+package com.sistemacliente.reativo.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+
+import com.sistemacliente.reativo.model.Cliente;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public class ClienteRepositoryImpl implements ClienteRepositoryCustom {
+
+	private final R2dbcEntityTemplate template;
+
+	public ClienteRepositoryImpl(R2dbcEntityTemplate template) {
+		this.template = template;
+	}
+
+	@Override
+	public Mono<Slice<Cliente>> findSlice(Criteria filtro, Pageable pageable) {
+		Query consulta = Query.query(filtro).sort(pageable.getSort()).offset(pageable.getOffset())
+		.limit(pageable.getPageSize() + 1);
+		return template.select(Cliente.class).matching(consulta).all().collectList().map(clientes -> {
+			boolean temProxima = clientes.size() > pageable.getPageSize();
+			List<Cliente> conteudo = temProxima ? clientes.subList(0, pageable.getPageSize()) : clientes;
+			return new SliceImpl<>(conteudo, pageable, temProxima);
+		});
+	}
+
+	@Override
+	public Flux<Cliente> findPrimeiros(Sort sort, int limite) {
+		return template.select(Cliente.class).matching(Query.empty().sort(sort).limit(limite)).all();
+	}
+
+}
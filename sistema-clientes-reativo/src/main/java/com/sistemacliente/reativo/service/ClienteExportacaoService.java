@@ -0,0 +1,57 @@
+package com.sistemacliente.reativo.service;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import com.sistemacliente.reativo.config.ClientesProperties;
+import com.sistemacliente.reativo.exception.ArgumentoInvalidoException;
+import com.sistemacliente.reativo.model.dto.ClienteResponseDTO;
+import com.sistemacliente.reativo.repository.ClienteRepository;
+
+import reactor.core.publisher.Flux;
+
+/*Listagem de todos os clientes em stream com backpressure: o WebFlux só pede mais clientes quando a resposta
+ *consegue escrever, e o limitRate faz esses pedidos ao driver em lotes de clientes.exportacao.lote. Um
+ *cliente lento segura a leitura do banco em vez de acumular a tabela em memória.*/
+@Service
+public class ClienteExportacaoService {
+
+	public enum Formato {
+		NDJSON(MediaType.APPLICATION_NDJSON),
+		JSON(MediaType.APPLICATION_JSON);
+
+		private final MediaType mediaType;
+
+		Formato(MediaType mediaType) {
+			this.mediaType = mediaType;
+		}
+
+		public MediaType getMediaType() {
+			return mediaType;
+		}
+
+		public static Formato de(String formato) {
+			for (Formato f : values()) {
+				if (f.name().equalsIgnoreCase(formato)) {
+					return f;
+				}
+			}
+			throw new ArgumentoInvalidoException("Formato de exportação inválido, use ndjson ou json.");
+		}
+	}
+
+	private final ClienteRepository repository;
+
+	private final ClientesProperties properties;
+
+	public ClienteExportacaoService(ClienteRepository repository, ClientesProperties properties) {
+		this.repository = repository;
+		this.properties = properties;
+	}
+
+	public Flux<ClienteResponseDTO> exportar() {
+		return repository.findAll().limitRate(Math.max(1, properties.getExportacao().getLote()))
+		.map(ClienteResponseDTO::new);
+	}
+
+}
@@ -0,0 +1,135 @@
+package com.sistemacliente.reativo.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.sistemacliente.reativo.config.ClientesProperties;
+import com.sistemacliente.reativo.exception.ArgumentoInvalidoException;
+import com.sistemacliente.reativo.model.Cliente;
+import com.sistemacliente.reativo.model.dto.ClienteRequestDTO;
+import com.sistemacliente.reativo.model.dto.ClienteResponseDTO;
+import com.sistemacliente.reativo.model.dto.ItemLoteResponseDTO;
+import com.sistemacliente.reativo.model.dto.ItemLoteResponseDTO.Status;
+import com.sistemacliente.reativo.model.dto.LoteResponseDTO;
+import com.sistemacliente.reativo.repository.ClienteRepository;
+import com.sistemacliente.reativo.validation.EmailValidator;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/*Cadastro em lote com as mesmas regras da edição JPA: valida o lote inteiro, confere CPFs e e-mails já
+ *cadastrados com consultas IN em pedaços e insere os restantes numa transação.*/
+@Service
+public class ClienteLoteService {
+
+	private final ClienteRepository repository;
+
+	private final Validator validator;
+
+	private final EmailValidator emailValidator;
+
+	private final ClientesProperties.Lote config;
+
+	public ClienteLoteService(ClienteRepository repository, Validator validator, EmailValidator emailValidator,
+	ClientesProperties properties) {
+		this.repository = repository;
+		this.validator = validator;
+		this.emailValidator = emailValidator;
+		this.config = properties.getLote();
+	}
+
+	@Transactional
+	public Mono<LoteResponseDTO> salvarLote(List<ClienteRequestDTO> dtos) {
+		if (dtos == null || dtos.isEmpty()) {
+			return Mono.error(new ArgumentoInvalidoException("O lote não pode ser vazio."));
+		}
+
+		if (dtos.size() > config.getMaxItens()) {
+			return Mono.error(
+			new ArgumentoInvalidoException("O lote pode ter no máximo " + config.getMaxItens() + " clientes."));
+		}
+
+		ItemLoteResponseDTO[] resultado = new ItemLoteResponseDTO[dtos.size()];
+		List<Integer> validos = new ArrayList<>();
+		Set<String> cpfsDoLote = new HashSet<>();
+		Set<String> emailsDoLote = new HashSet<>();
+
+		for (int i = 0; i < dtos.size(); i++) {
+			ClienteRequestDTO dto = dtos.get(i);
+			String erro = validar(dto);
+			if (erro != null) {
+				resultado[i] = new ItemLoteResponseDTO(i, Status.INVALIDO, null, erro);
+			} else if (!cpfsDoLote.add(dto.getCpf())) {
+				resultado[i] = new ItemLoteResponseDTO(i, Status.CONFLITO, null, "CPF repetido no lote.");
+			} else if (!emailsDoLote.add(dto.getEmail())) {
+				cpfsDoLote.remove(dto.getCpf());
+				resultado[i] = new ItemLoteResponseDTO(i, Status.CONFLITO, null, "E-mail repetido no lote.");
+			} else {
+				validos.add(i);
+			}
+		}
+
+		return Mono.zip(buscarEmPedacos(cpfsDoLote, repository::findCpfsCadastrados),
+		buscarEmPedacos(emailsDoLote, repository::findEmailsCadastrados)).flatMap(cadastrados -> {
+			List<Integer> indices = new ArrayList<>();
+			List<Cliente> pendentes = new ArrayList<>();
+			for (int i : validos) {
+				ClienteRequestDTO dto = dtos.get(i);
+				if (cadastrados.getT1().contains(dto.getCpf())) {
+					resultado[i] = new ItemLoteResponseDTO(i, Status.CONFLITO, null,
+					"O CPF " + dto.getCpf() + " já está cadastrado.");
+				} else if (cadastrados.getT2().contains(dto.getEmail())) {
+					resultado[i] = new ItemLoteResponseDTO(i, Status.CONFLITO, null,
+					"E-mail indisponível, já está sendo utilizado.");
+				} else {
+					indices.add(i);
+					pendentes.add(new Cliente(dto));
+				}
+			}
+
+			/*saveAll insere um a um, na ordem, então o j-ésimo salvo é o j-ésimo pendente.*/
+			return repository.saveAll(pendentes).index().doOnNext(salvo -> {
+				int i = indices.get(salvo.getT1().intValue());
+				resultado[i] = new ItemLoteResponseDTO(i, Status.CRIADO, new ClienteResponseDTO(salvo.getT2()), null);
+			}).then(Mono.fromSupplier(() -> new LoteResponseDTO(Arrays.asList(resultado))));
+		});
+	}
+
+	/*Mesmas regras do @Valid do ClienteRequestDTO e do formato de e-mail do ClienteService.*/
+	private String validar(ClienteRequestDTO dto) {
+		if (dto == null) {
+			return "Cliente nulo.";
+		}
+
+		Set<String> mensagens = new TreeSet<>();
+		for (ConstraintViolation<ClienteRequestDTO> violacao : validator.validate(dto)) {
+			mensagens.add(violacao.getMessage());
+		}
+		if (mensagens.isEmpty() && !emailValidator.isValido(dto.getEmail())) {
+			mensagens.add("Formato inválido do e-mail.");
+		}
+		return mensagens.isEmpty() ? null : String.join(" ", mensagens);
+	}
+
+	private Mono<Set<String>> buscarEmPedacos(Collection<String> valores,
+	Function<Collection<String>, Flux<String>> consulta) {
+		if (valores.isEmpty()) {
+			return Mono.just(Set.of());
+		}
+		return Flux.fromIterable(valores).buffer(Math.max(1, config.getTamanhoPedaco())).concatMap(consulta)
+		.collect(Collectors.toSet());
+	}
+
+}
@@ -0,0 +1,329 @@
+package com.sistemacliente.reativo.service;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.sistemacliente.reativo.exception.AlteracaoDeCpfException;
+import com.sistemacliente.reativo.exception.ClienteNotFoundException;
+import com.sistemacliente.reativo.exception.EmailJaCadastradoException;
+import com.sistemacliente.reativo.exception.ViolacaoDeUnicidade;
+import com.sistemacliente.reativo.model.Cliente;
+import com.sistemacliente.reativo.model.dto.ClienteRequestDTO;
+import com.sistemacliente.reativo.model.dto.ClienteResponseDTO;
+import com.sistemacliente.reativo.model.dto.PaginaCursorResponseDTO;
+import com.sistemacliente.reativo.repository.ClienteRepository;
+import com.sistemacliente.reativo.validation.EmailValidator;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/*Mesmas regras e mensagens do ClienteService da edição JPA, devolvendo Mono/Flux. Nada aqui bloqueia a
+ *thread: os erros de validação saem como Mono.error e o banco é acessado pelo driver R2DBC.*/
+@Service
+public class ClienteService {
+
+	private final ClienteRepository repository;
+
+	private final ObjectMapper mapper;
+
+	private final EmailValidator emailValidator;
+
+	/*Leitor do PATCH montado uma vez: ignora campos desconhecidos sem mexer na configuração do ObjectMapper
+	 *compartilhado, que é usado ao mesmo tempo por todas as requisições.*/
+	private final ObjectReader leitorParcial;
+
+	private static final Set<String> CAMPOS_CURSOR = Set.of("id", "nome", "email", "cpf");
+
+	public ClienteService(ClienteRepository repository, ObjectMapper mapper, EmailValidator emailValidator) {
+		this.repository = repository;
+		this.mapper = mapper;
+		this.emailValidator = emailValidator;
+		this.leitorParcial = mapper.readerFor(Cliente.class).without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+	}
+
+	public Flux<ClienteResponseDTO> listagemCliente() {
+		return repository.findAll().map(ClienteResponseDTO::new);
+	}
+
+	@Transactional
+	public Mono<ClienteResponseDTO> salvarCliente(ClienteRequestDTO dto) {
+		if(dto.getEmail() == null || dto.getEmail().isBlank() || !emailValidator.isValido(dto.getEmail())) {
+			return Mono.error(new IllegalArgumentException("Formato inválido do e-mail."));
+		}
+
+		/*CPF e e-mail únicos garantidos pelas constraints do banco, um INSERT só.*/
+		return repository.save(new Cliente(dto))
+		.onErrorMap(DataIntegrityViolationException.class, ex -> ViolacaoDeUnicidade.traduzir(ex, dto.getCpf()))
+		.map(ClienteResponseDTO::new);
+	}
+
+	public Mono<ClienteResponseDTO> buscarClientePorId(Long id) {
+		return encontrar(id).map(ClienteResponseDTO::new);
+	}
+
+	@Transactional
+	public Mono<Void> deletarClientePorId(Long id) {
+		return encontrar(id).flatMap(repository::delete);
+	}
+
+	@Transactional
+	public Mono<ClienteResponseDTO> atualizarCliente(Long id, ClienteRequestDTO dto) {
+		return encontrar(id).flatMap(clienteEncontrado -> {
+			/*Garante a não mudança de CPF.*/
+			if (!clienteEncontrado.getCpf().equals(dto.getCpf())) {
+				return Mono.error(new AlteracaoDeCpfException());
+			}
+
+			if(dto.getEmail() == null) {
+				return Mono.error(new NullPointerException());
+			}
+
+			if(dto.getEmail().isBlank() || !emailValidator.isValido(dto.getEmail())) {
+				return Mono.error(new IllegalArgumentException("Formato inválido do e-mail."));
+			}
+
+			Mono<Boolean> emailDeOutroCliente = dto.getEmail().equals(clienteEncontrado.getEmail())
+			? Mono.just(false) : repository.existsByEmail(dto.getEmail());
+
+			return emailDeOutroCliente.flatMap(existente -> {
+				if (existente) {
+					return Mono.error(new EmailJaCadastradoException());
+				}
+				clienteEncontrado.setNome(dto.getNome());
+				clienteEncontrado.setEmail(dto.getEmail());
+				return gravar(clienteEncontrado);
+			});
+		});
+	}
+
+	public Mono<ClienteResponseDTO> encontrarPorCpf(String cpf) {
+		return repository.findByCpf(cpf).switchIfEmpty(Mono.error(() -> new ClienteNotFoundException(cpf)))
+		.map(ClienteResponseDTO::new);
+	}
+
+	public Mono<Page<ClienteResponseDTO>> listaPaginada(int pagina, int itens) {
+		return validarPaginacao(pagina, itens)
+		.then(Mono.defer(() -> pagina(Criteria.empty(), PageRequest.of(pagina, itens), repository.count())));
+	}
+
+	public Mono<Slice<ClienteResponseDTO>> listaPaginadaSemTotal(int pagina, int itens) {
+		return validarPaginacao(pagina, itens)
+		.then(Mono.defer(() -> fatia(Criteria.empty(), PageRequest.of(pagina, itens))));
+	}
+
+	public Mono<Page<ClienteResponseDTO>> listaPaginadaPorOrdenacao(int pagina, int itens, String ordenadoPor) {
+		if(ordenadoPor == null || ordenadoPor.trim().isBlank()) {
+			return validarPaginacao(pagina, itens)
+			.then(Mono.error(new IllegalArgumentException("Critério de ordenação não pode ser vazio.")));
+		}
+
+		return validarPaginacao(pagina, itens).then(Mono.defer(() -> pagina(Criteria.empty(),
+		PageRequest.of(pagina, itens, Sort.by(ordenadoPor.trim()).ascending()), repository.count())));
+	}
+
+	/*Paginação por cursor, ver ClienteCursor.*/
+	public Mono<PaginaCursorResponseDTO> listaPorCursor(String cursor, int itens, String ordenadoPor) {
+		if(itens < 1) {
+			return Mono.error(new IllegalArgumentException("Itens não pode ser menor que 1."));
+		}
+
+		if(ordenadoPor == null || ordenadoPor.isBlank()) {
+			return Mono.error(new IllegalArgumentException("Critério de ordenação não pode ser vazio."));
+		}
+
+		String campo = ordenadoPor.trim();
+		if(!CAMPOS_CURSOR.contains(campo)) {
+			return Mono.error(
+			new IllegalArgumentException("Critério de ordenação inválido, use id, nome, email ou cpf."));
+		}
+
+		return Mono.fromCallable(() -> cursor == null || cursor.isBlank() ? null : ClienteCursor.decodificar(cursor))
+		.map(posicao -> { /*Só chega aqui com cursor.*/
+			if(!posicao.getCampo().equals(campo)) {
+				throw new IllegalArgumentException("Cursor não corresponde ao critério de ordenação.");
+			}
+			return switch (campo) {
+				case "nome" -> repository.findAfterNome(posicao.getValor(), posicao.getId(), itens + 1);
+				case "email" -> repository.findAfterEmail(posicao.getValor(), posicao.getId(), itens + 1);
+				case "cpf" -> repository.findAfterCpf(posicao.getValor(), posicao.getId(), itens + 1);
+				default -> repository.findAfterId(posicao.getId(), itens + 1);
+			};
+		})
+		.defaultIfEmpty(repository.findPrimeiros(Sort.by(campo).and(Sort.by("id")), itens + 1))
+		.flatMap(Flux::collectList)
+		.map(clientes -> {
+			String proximoCursor = null;
+			if(clientes.size() > itens) {
+				clientes = clientes.subList(0, itens);
+				proximoCursor = ClienteCursor.depoisDe(clientes.get(itens - 1), campo).codificar();
+			}
+			return new PaginaCursorResponseDTO(clientes.stream().map(ClienteResponseDTO::new).toList(),
+			proximoCursor);
+		});
+	}
+
+	public Mono<Page<ClienteResponseDTO>> buscarPorNome(String nome, int pagina, int itens) {
+		return validarNome(nome, pagina, itens).then(Mono.defer(() -> pagina(contendo("nome", nome),
+		PageRequest.of(pagina, itens, Sort.by("nome").ascending()), repository.countByNomeContainingIgnoreCase(nome))));
+	}
+
+	public Mono<Slice<ClienteResponseDTO>> buscarPorNomeSemTotal(String nome, int pagina, int itens) {
+		return validarNome(nome, pagina, itens).then(Mono.defer(() -> fatia(contendo("nome", nome),
+		PageRequest.of(pagina, itens, Sort.by("nome").ascending()))));
+	}
+
+	@Transactional
+	public Mono<ClienteResponseDTO> atualizarParcial(Long id, Map<String, Object> updates) {
+		return encontrar(id).flatMap(cliente -> {
+			if (updates.containsKey("id")) {
+				return Mono.error(new IllegalArgumentException("O campo id não pode ser alterado."));
+			}
+
+			if (updates.containsKey("cpf")) {
+				return Mono.error(new AlteracaoDeCpfException());
+			}
+
+			if (updates.containsKey("nome")) {
+				Object nome = updates.get("nome");
+				if (nome == null || nome.toString().isBlank()) {
+					return Mono.error(new IllegalArgumentException("Nome não pode ser vazio ou nulo."));
+				}
+			}
+
+			Mono<Boolean> emailExistente = Mono.just(false);
+			if(updates.containsKey("email")) {
+				Object email = updates.get("email");
+				if(email == null || email.toString().isBlank() || !emailValidator.isValido(email.toString())) {
+					return Mono.error(new IllegalArgumentException("Formato inválido do e-mail."));
+				}
+				emailExistente = repository.existsByEmail(email.toString());
+			}
+
+			return emailExistente.flatMap(existente -> {
+				if (existente) {
+					return Mono.error(new EmailJaCadastradoException());
+				}
+				try {
+					return gravar(leitorParcial.withValueToUpdate(cliente).readValue(mapper.<JsonNode>valueToTree(updates)));
+				} catch (IOException e) {
+					return Mono.error(e);
+				}
+			});
+		});
+	}
+
+	public Mono<Page<ClienteResponseDTO>> buscarPorEmail(String email, int pagina, int itens) {
+		return validarEmail(email, pagina, itens).then(Mono.defer(() -> pagina(Criteria.where("email").is(email),
+		PageRequest.of(pagina, itens), repository.countByEmail(email))));
+	}
+
+	public Mono<Slice<ClienteResponseDTO>> buscarPorEmailSemTotal(String email, int pagina, int itens) {
+		return validarEmail(email, pagina, itens)
+		.then(Mono.defer(() -> fatia(Criteria.where("email").is(email), PageRequest.of(pagina, itens))));
+	}
+
+	@Transactional
+	public Mono<ClienteResponseDTO> atualizarEmail(Long id, String email) {
+		return encontrar(id).flatMap(cliente -> {
+			if(email == null || email.isBlank() || !emailValidator.isValido(email)) {
+				return Mono.error(new IllegalArgumentException("Formato do e-mail inválido."));
+			}
+
+			return repository.existsByEmail(email).flatMap(existente -> {
+				if (existente) {
+					return Mono.error(new EmailJaCadastradoException());
+				}
+				cliente.setEmail(email);
+				return gravar(cliente);
+			});
+		});
+	}
+
+	public Mono<Page<ClienteResponseDTO>>
+	buscaEmailPaginadaOrdenada(String email, int pagina, int itens, String ordenadoPor){
+		return validarEmailOrdenado(email, pagina, itens, ordenadoPor).then(Mono.defer(() ->
+		pagina(contendo("email", email), PageRequest.of(pagina, itens, Sort.by(ordenadoPor.trim()).ascending()),
+		repository.countByEmailContainingIgnoreCase(email))));
+	}
+
+	public Mono<Slice<ClienteResponseDTO>>
+	buscaEmailPaginadaOrdenadaSemTotal(String email, int pagina, int itens, String ordenadoPor){
+		return validarEmailOrdenado(email, pagina, itens, ordenadoPor).then(Mono.defer(() ->
+		fatia(contendo("email", email), PageRequest.of(pagina, itens, Sort.by(ordenadoPor.trim()).ascending()))));
+	}
+
+	private Mono<Cliente> encontrar(Long id) {
+		return repository.findById(id).switchIfEmpty(Mono.error(() -> new ClienteNotFoundException(id)));
+	}
+
+	/*A conferência do e-mail não impede outro cliente de gravar o mesmo antes do commit; a constraint decide.*/
+	private Mono<ClienteResponseDTO> gravar(Cliente cliente) {
+		return repository.save(cliente)
+		.onErrorMap(DataIntegrityViolationException.class, ex -> ViolacaoDeUnicidade.traduzir(ex, cliente.getCpf()))
+		.map(ClienteResponseDTO::new);
+	}
+
+	/*Página com total. Na última página o total é deduzido do conteúdo e o count não é feito.*/
+	private Mono<Page<ClienteResponseDTO>> pagina(Criteria filtro, Pageable pageable, Mono<Long> contagem) {
+		return repository.findSlice(filtro, pageable).flatMap(slice -> {
+			List<ClienteResponseDTO> conteudo = slice.getContent().stream().map(ClienteResponseDTO::new).toList();
+			if (!slice.hasNext() && (slice.hasContent() || pageable.getOffset() == 0)) {
+				return Mono.just(new PageImpl<>(conteudo, pageable, pageable.getOffset() + conteudo.size()));
+			}
+			return contagem.map(total -> new PageImpl<>(conteudo, pageable, total));
+		});
+	}
+
+	private Mono<Slice<ClienteResponseDTO>> fatia(Criteria filtro, Pageable pageable) {
+		return repository.findSlice(filtro, pageable).map(slice -> slice.map(ClienteResponseDTO::new));
+	}
+
+	/*Mesmo "contém, sem diferenciar maiúsculas" do findBy...ContainingIgnoreCase, com % e _ do termo escapados.*/
+	private static Criteria contendo(String campo, String termo) {
+		String escapado = termo.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+		return Criteria.where(campo).like("%" + escapado + "%").ignoreCase(true);
+	}
+
+	private static Mono<Void> validarPaginacao(int pagina, int itens) {
+		if(pagina < 0 || itens <1) {
+			return Mono.error(
+			new IllegalArgumentException("A página não pode ser negativa e itens não pode ser menor que 1."));
+		}
+		return Mono.empty();
+	}
+
+	private static Mono<Void> validarNome(String nome, int pagina, int itens) {
+		return validarPaginacao(pagina, itens).then(Mono.defer(() -> nome == null || nome.isBlank()
+		? Mono.error(new IllegalArgumentException("Nome para busca não pode ser vazio ou nulo.")) : Mono.empty()));
+	}
+
+	private Mono<Void> validarEmail(String email, int pagina, int itens) {
+		return validarPaginacao(pagina, itens).then(Mono.defer(() ->
+		email == null || email.isBlank() || !emailValidator.isValido(email)
+		? Mono.error(new IllegalArgumentException("Formato do e-mail inválido.")) : Mono.empty()));
+	}
+
+	private Mono<Void> validarEmailOrdenado(String email, int pagina, int itens, String ordenadoPor) {
+		return validarEmail(email, pagina, itens).then(Mono.defer(() -> ordenadoPor == null || ordenadoPor.isBlank()
+		? Mono.error(new IllegalArgumentException("Critério de ordenação não pode ser vazio ou nulo."))
+		: Mono.empty()));
+	}
+
+}
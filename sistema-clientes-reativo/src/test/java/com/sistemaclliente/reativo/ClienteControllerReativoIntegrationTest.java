@@ -0,0 +1,290 @@
+package com.sistemaclliente.reativo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sistemacliente.reativo.SistemaClientesReativoApplication;
+import com.sistemacliente.reativo.model.Cliente;
+import com.sistemacliente.reativo.model.dto.ClienteRequestDTO;
+import com.sistemacliente.reativo.model.dto.ClienteResponseDTO;
+import com.sistemacliente.reativo.model.dto.PaginaCursorResponseDTO;
+import com.sistemacliente.reativo.repository.ClienteRepository;
+import com.sistemacliente.reativo.service.ClienteExportacaoService;
+
+import reactor.core.publisher.Flux;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.test.StepVerifier;
+
+@SpringBootTest(classes = SistemaClientesReativoApplication.class, webEnvironment = WebEnvironment.RANDOM_PORT,
+properties = "clientes.exportacao.lote=4")
+@ActiveProfiles("test")
+public class ClienteControllerReativoIntegrationTest {
+
+	@LocalServerPort
+	private int porta;
+
+	@Autowired
+	private WebTestClient client;
+
+	@Autowired
+	private ClienteRepository repository;
+
+	@Autowired
+	private ClienteExportacaoService exportacaoService;
+
+	@Autowired
+	private ObjectMapper mapper;
+
+	@BeforeEach
+	public void setup() {
+		client = client.mutate().responseTimeout(Duration.ofSeconds(30)).build();
+		repository.deleteAll().block();
+	}
+
+	private ClienteRequestDTO dto(String nome, String cpf, String email) {
+		ClienteRequestDTO dto = new ClienteRequestDTO();
+		dto.setNome(nome);
+		dto.setCpf(cpf);
+		dto.setEmail(email);
+		return dto;
+	}
+
+	private ClienteResponseDTO salvar(String nome, String cpf, String email) {
+		return client.post().uri("/salvarcliente").bodyValue(dto(nome, cpf, email)).exchange()
+		.expectStatus().isCreated().expectBody(ClienteResponseDTO.class).returnResult().getResponseBody();
+	}
+
+	@Test @DisplayName("Saves a client with 201 and finds it by id and by CPF.")
+	public void salvarCliente_sucesso_return201() {
+		ClienteResponseDTO salvo = salvar("Maria Silva", "12345678901", "maria@email.com");
+
+		assertThat(salvo.getId()).isNotNull();
+		client.get().uri("/encontrarcliente/{id}", salvo.getId()).exchange().expectStatus().isOk()
+		.expectBody().jsonPath("$.nome").isEqualTo("Maria Silva");
+		client.get().uri("/clientecpf/12345678901").exchange().expectStatus().isOk()
+		.expectBody().jsonPath("$.id").isEqualTo(salvo.getId());
+	}
+
+	@Test @DisplayName("Ids come from seq_cliente in blocks, consecutive inside a block.")
+	public void salvarCliente_idsEmBloco() {
+		long primeiro = salvar("Cliente Um", "00000000001", "um@email.com").getId();
+		long segundo = salvar("Cliente Dois", "00000000002", "dois@email.com").getId();
+		long terceiro = salvar("Cliente Tres", "00000000003", "tres@email.com").getId();
+
+		assertThat(segundo).isEqualTo(primeiro + 1);
+		assertThat(terceiro).isEqualTo(primeiro + 2);
+	}
+
+	@Test @DisplayName("Returns 409 for a repeated CPF or e-mail, from the unique constraints.")
+	public void salvarCliente_repetido_return409() {
+		salvar("Maria Silva", "12345678901", "maria@email.com");
+
+		client.post().uri("/salvarcliente").bodyValue(dto("Outra Maria", "12345678901", "outra@email.com"))
+		.exchange().expectStatus().isEqualTo(409).expectBody(String.class)
+		.isEqualTo("O CPF 12345678901 já está cadastrado.");
+		client.post().uri("/salvarcliente").bodyValue(dto("Outra Maria", "10987654321", "maria@email.com"))
+		.exchange().expectStatus().isEqualTo(409).expectBody(String.class)
+		.isEqualTo("E-mail indisponível, já está sendo utilizado.");
+	}
+
+	@Test @DisplayName("Returns 400 with the field messages when @Valid fails, and 400 for a bad e-mail.")
+	public void salvarCliente_invalido_return400() {
+		client.post().uri("/salvarcliente").bodyValue(dto("Ma", "123", "maria@email.com")).exchange()
+		.expectStatus().isBadRequest().expectBody()
+		.jsonPath("$.nome").isEqualTo("Nome deve ter entre 3 e 60 caracteres, não pode ser nulo ou vazio.")
+		.jsonPath("$.cpf").isEqualTo("Digite os 11 dígitos do CPF sem ponto e hífen.");
+
+		client.post().uri("/salvarcliente").bodyValue(dto("Maria Silva", "12345678901", "maria@email")).exchange()
+		.expectStatus().isBadRequest().expectBody(String.class).isEqualTo("Formato inválido do e-mail.");
+	}
+
+	@Test @DisplayName("Returns 404 for unknown id and CPF.")
+	public void encontrarCliente_inexistente_return404() {
+		client.get().uri("/encontrarcliente/999999").exchange().expectStatus().isNotFound()
+		.expectBody(String.class).isEqualTo("Cliente com o id = 999999 não encontrado.");
+		client.get().uri("/clientecpf/99999999999").exchange().expectStatus().isNotFound();
+	}
+
+	@Test @DisplayName("Updates name and e-mail, refuses CPF change and an e-mail in use.")
+	public void atualizarCliente() {
+		ClienteResponseDTO maria = salvar("Maria Silva", "12345678901", "maria@email.com");
+		salvar("Joao Souza", "10987654321", "joao@email.com");
+
+		client.put().uri("/clientes/{id}", maria.getId()).bodyValue(dto("Maria Souza", "12345678901", "ms@email.com"))
+		.exchange().expectStatus().isOk().expectBody().jsonPath("$.email").isEqualTo("ms@email.com");
+		client.put().uri("/clientes/{id}", maria.getId()).bodyValue(dto("Maria Souza", "11111111111", "ms@email.com"))
+		.exchange().expectStatus().isEqualTo(409).expectBody(String.class).isEqualTo("Alteração de CPF não permitida.");
+		client.put().uri("/clientes/{id}", maria.getId()).bodyValue(dto("Maria Souza", "12345678901", "joao@email.com"))
+		.exchange().expectStatus().isEqualTo(409);
+	}
+
+	@Test @DisplayName("Partial update and e-mail update follow the same rules.")
+	public void atualizarParcialEEmail() {
+		ClienteResponseDTO maria = salvar("Maria Silva", "12345678901", "maria@email.com");
+		salvar("Joao Souza", "10987654321", "joao@email.com");
+
+		client.patch().uri("/parcial/{id}", maria.getId()).bodyValue(Map.of("nome", "Maria Lima")).exchange()
+		.expectStatus().isOk().expectBody().jsonPath("$.nome").isEqualTo("Maria Lima");
+		client.patch().uri("/parcial/{id}", maria.getId()).bodyValue(Map.of("cpf", "11111111111")).exchange()
+		.expectStatus().isEqualTo(409);
+		client.patch().uri("/atualizaremail/{id}?email=joao@email.com", maria.getId()).exchange()
+		.expectStatus().isEqualTo(409);
+		client.patch().uri("/atualizaremail/{id}?email=nova@email.com", maria.getId()).exchange()
+		.expectStatus().isOk().expectBody().jsonPath("$.email").isEqualTo("nova@email.com");
+	}
+
+	@Test @DisplayName("Partial update ignores unknown fields without reconfiguring the shared ObjectMapper.")
+	public void atualizarParcial_campoDesconhecido_mapperIntacto() {
+		ClienteResponseDTO maria = salvar("Maria Silva", "12345678901", "maria@email.com");
+		boolean antes = mapper.isEnabled(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+		client.patch().uri("/parcial/{id}", maria.getId()).bodyValue(Map.of("nome", "Maria Lima", "telefone", "1199"))
+		.exchange().expectStatus().isOk().expectBody().jsonPath("$.nome").isEqualTo("Maria Lima")
+		.jsonPath("$.telefone").doesNotExist();
+
+		assertThat(mapper.isEnabled(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)).isEqualTo(antes);
+	}
+
+	@Test @DisplayName("Deletes with 204, then the client is gone.")
+	public void deletarCliente_return204() {
+		ClienteResponseDTO maria = salvar("Maria Silva", "12345678901", "maria@email.com");
+
+		client.delete().uri("/deletarporid/{id}", maria.getId()).exchange().expectStatus().isNoContent();
+		client.delete().uri("/deletarporid/{id}", maria.getId()).exchange().expectStatus().isNotFound();
+	}
+
+	@Test @DisplayName("Pages with and without total, searching by name without case and with % as text.")
+	public void paginacaoEBuscaPorNome() {
+		salvar("Ana Paula", "00000000001", "ana@email.com");
+		salvar("MARIANA Costa", "00000000002", "mariana@email.com");
+		salvar("Mariana Lima", "00000000003", "mlima@email.com");
+		salvar("Pedro 100% Silva", "00000000004", "pedro@email.com");
+
+		client.get().uri("/paginada?pagina=0&itens=3").exchange().expectStatus().isOk().expectBody()
+		.jsonPath("$.totalElements").isEqualTo(4).jsonPath("$.content.length()").isEqualTo(3);
+		client.get().uri("/paginada?pagina=1&itens=3&semTotal=true").exchange().expectStatus().isOk().expectBody()
+		.jsonPath("$.clientes.length()").isEqualTo(1).jsonPath("$.temProxima").isEqualTo(false);
+		client.get().uri("/buscapornome?nome=ana&itens=10").exchange().expectStatus().isOk().expectBody()
+		.jsonPath("$.totalElements").isEqualTo(3).jsonPath("$.content[0].nome").isEqualTo("Ana Paula");
+		client.get().uri(b -> b.path("/buscapornome").queryParam("nome", "0%").queryParam("itens", 10).build()).exchange().expectStatus().isOk().expectBody()
+		.jsonPath("$.totalElements").isEqualTo(1);
+		client.get().uri("/buscapornome?nome=&itens=10").exchange().expectStatus().isBadRequest();
+		client.get().uri("/paginada?pagina=-1").exchange().expectStatus().isBadRequest();
+	}
+
+	@Test @DisplayName("Cursor pagination walks every client once.")
+	public void paginacaoPorCursor() {
+		for (int i = 0; i < 7; i++) {
+			salvar("Cliente " + (char) ('G' - i), String.format("%011d", i), "c" + i + "@email.com");
+		}
+
+		List<String> nomes = new ArrayList<>();
+		String cursor = null;
+		do {
+			String atual = cursor;
+			PaginaCursorResponseDTO pagina = client.get()
+			.uri(b -> b.path("/paginadacursor").queryParam("itens", 3).queryParam("ordenadoPor", "nome")
+			.queryParamIfPresent("cursor", Optional.ofNullable(atual)).build())
+			.exchange().expectStatus().isOk().expectBody(PaginaCursorResponseDTO.class).returnResult()
+			.getResponseBody();
+			nomes.addAll(pagina.getClientes().stream().map(ClienteResponseDTO::getNome).toList());
+			cursor = pagina.getProximoCursor();
+		} while (cursor != null);
+
+		assertThat(nomes).containsExactly("Cliente A", "Cliente B", "Cliente C", "Cliente D", "Cliente E",
+		"Cliente F", "Cliente G");
+	}
+
+	@Test @DisplayName("Batch save reports CRIADO, CONFLITO and INVALIDO per item.")
+	public void salvarClientes_lote() {
+		salvar("Maria Silva", "12345678901", "maria@email.com");
+
+		client.post().uri("/salvarclientes").bodyValue(List.of(dto("Joao Souza", "10987654321", "joao@email.com"),
+		dto("Outra Maria", "12345678901", "outra@email.com"), dto("Jo", "1", "x@email.com"),
+		dto("Joao Repetido", "10987654321", "joao2@email.com"))).exchange().expectStatus().isOk().expectBody()
+		.jsonPath("$.criados").isEqualTo(1).jsonPath("$.conflitos").isEqualTo(2).jsonPath("$.invalidos").isEqualTo(1)
+		.jsonPath("$.itens[0].status").isEqualTo("CRIADO").jsonPath("$.itens[1].status").isEqualTo("CONFLITO");
+	}
+
+	@Test @DisplayName("Streams every client as NDJSON.")
+	public void listarClientesStream_ndjson() {
+		for (int i = 0; i < 10; i++) {
+			repository.save(cliente(i)).block();
+		}
+
+		Flux<ClienteResponseDTO> corpo = client.get().uri("/listarclientes/stream?formato=ndjson").exchange()
+		.expectStatus().isOk().expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+		.returnResult(ClienteResponseDTO.class).getResponseBody();
+
+		StepVerifier.create(corpo).expectNextCount(10).verifyComplete();
+		client.get().uri("/listarclientes/stream?formato=xml").exchange().expectStatus().isBadRequest();
+	}
+
+	@Test @DisplayName("The export only reads what was requested, in batches of clientes.exportacao.lote.")
+	public void exportar_respeitaBackpressure() {
+		for (int i = 0; i < 20; i++) {
+			repository.save(cliente(i)).block();
+		}
+
+		StepVerifier.create(exportacaoService.exportar(), 0).expectSubscription()
+		.expectNoEvent(Duration.ofMillis(100))
+		.thenRequest(2).expectNextCount(2)
+		.expectNoEvent(Duration.ofMillis(100))
+		.thenRequest(18).expectNextCount(18)
+		.verifyComplete();
+	}
+
+	@Test @DisplayName("Many concurrent lookups are served by the few event-loop threads.")
+	public void buscasConcorrentes_poucasThreads() {
+		long id = salvar("Maria Silva", "12345678901", "maria@email.com").getId();
+		/*Conexões próprias, fechadas no fim: abertas elas seguram o desligamento gracioso do servidor.*/
+		ConnectionProvider conexoes = ConnectionProvider.create("buscas-concorrentes", 500);
+		WebClient webClient = WebClient.builder().baseUrl("http://localhost:" + porta)
+		.clientConnector(new ReactorClientHttpConnector(HttpClient.create(conexoes))).build();
+
+		List<ClienteResponseDTO> respostas;
+		try {
+			respostas = Flux.range(0, 500)
+			.flatMap(i -> webClient.get().uri("/encontrarcliente/{id}", id).retrieve()
+			.bodyToMono(ClienteResponseDTO.class), 500)
+			.collectList().block(Duration.ofSeconds(60));
+		} finally {
+			conexoes.disposeLater().block();
+		}
+
+		assertThat(respostas).hasSize(500).allMatch(r -> r.getId() == id);
+		long threadsDoServidor = Thread.getAllStackTraces().keySet().stream()
+		.filter(t -> t.getName().startsWith("reactor-http-")).count();
+		assertThat(threadsDoServidor).isLessThanOrEqualTo(Math.max(4, Runtime.getRuntime().availableProcessors()));
+	}
+
+	private Cliente cliente(int i) {
+		Cliente cliente = new Cliente();
+		cliente.setNome("Cliente " + i);
+		cliente.setCpf(String.format("%011d", i));
+		cliente.setEmail("cliente" + i + "@email.com");
+		return cliente;
+	}
+
+}
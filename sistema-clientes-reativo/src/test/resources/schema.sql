@@ -0,0 +1,11 @@
+-- Mesma estrutura que a edição JPA cria (Cliente, ClienteIdGenerator).
+CREATE SEQUENCE IF NOT EXISTS seq_cliente START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS cliente (
+	id BIGINT PRIMARY KEY,
+	nome VARCHAR(255) NOT NULL,
+	email VARCHAR(255) NOT NULL,
+	cpf VARCHAR(255) NOT NULL,
+	CONSTRAINT uk_cliente_cpf UNIQUE (cpf),
+	CONSTRAINT uk_cliente_email UNIQUE (email)
+);
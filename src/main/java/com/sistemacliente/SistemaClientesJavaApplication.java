@@ -2,9 +2,10 @@ package com.sistemacliente;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 @SpringBootApplication
-
+@ConfigurationPropertiesScan
 public class SistemaClientesJavaApplication {
 
 	public static void main(String[] args) {
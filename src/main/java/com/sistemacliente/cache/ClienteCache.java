@@ -0,0 +1,190 @@
+package com.sistemacliente.cache;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sistemacliente.config.ClientesProperties;
+import com.sistemacliente.model.dto.ClienteResponseDTO;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/*Guarda os clientes buscados por id e por CPF, com limite de tamanho e ttl. O índice por CPF só guarda o id,
+ *o cliente fica num lugar só. Toda escrita do ClienteService invalida o cliente alterado. Acertos, faltas e
+ *remoções aparecem em /actuator/metrics (cache.gets, cache.evictions) com cache=clientes.porId/porCpf.*/
+@Component
+public class ClienteCache implements MeterBinder {
+
+	private final boolean habilitado;
+
+	private final Cache<Long, ClienteResponseDTO> porId;
+
+	private final Cache<String, Long> idPorCpf;
+
+	/*Muda a cada invalidação. Um cliente lido do banco antes de uma escrita não é guardado depois dela.*/
+	private final AtomicLong geracao = new AtomicLong();
+
+	public ClienteCache(ClientesProperties properties) {
+		ClientesProperties.Cache config = properties.getCache();
+		this.habilitado = config.isHabilitado();
+		this.porId = Caffeine.newBuilder().maximumSize(config.getMaxEntradas())
+		.expireAfterWrite(config.getTtl()).recordStats().build();
+		this.idPorCpf = Caffeine.newBuilder().maximumSize(config.getMaxEntradas())
+		.expireAfterWrite(config.getTtl()).recordStats().build();
+	}
+
+	public ClienteResponseDTO buscarPorId(Long id, Function<Long, ClienteResponseDTO> carregar) {
+		if (!habilitado) {
+			return carregar.apply(id);
+		}
+
+		ClienteResponseDTO cliente = porId.getIfPresent(id);
+		if (cliente != null) {
+			return cliente;
+		}
+
+		long geracaoAtual = geracao.get();
+		cliente = carregar.apply(id);
+		guardar(cliente, geracaoAtual);
+		return cliente;
+	}
+
+	public ClienteResponseDTO buscarPorCpf(String cpf, Function<String, ClienteResponseDTO> carregar) {
+		if (!habilitado) {
+			return carregar.apply(cpf);
+		}
+
+		Long id = idPorCpf.getIfPresent(cpf);
+		if (id != null) {
+			ClienteResponseDTO cliente = porId.getIfPresent(id);
+			if (cliente != null && cpf.equals(cliente.getCpf())) {
+				return cliente;
+			}
+		}
+
+		long geracaoAtual = geracao.get();
+		ClienteResponseDTO cliente = carregar.apply(cpf);
+		guardar(cliente, geracaoAtual);
+		return cliente;
+	}
+
+	/*Versões de vários clientes das buscas acima: devolve os encontrados por chave e só os que não estão no
+	 *cache vão para carregar, de uma vez.*/
+	public Map<Long, ClienteResponseDTO> buscarPorIds(Collection<Long> ids,
+	Function<Set<Long>, List<ClienteResponseDTO>> carregar) {
+		Map<Long, ClienteResponseDTO> encontrados = new HashMap<>();
+		Set<Long> faltantes = new LinkedHashSet<>(ids);
+		if (habilitado) {
+			encontrados.putAll(porId.getAllPresent(ids));
+			faltantes.removeAll(encontrados.keySet());
+		}
+		if (!faltantes.isEmpty()) {
+			long geracaoAtual = geracao.get();
+			for (ClienteResponseDTO cliente : carregar.apply(faltantes)) {
+				guardarSeHabilitado(cliente, geracaoAtual);
+				encontrados.put(cliente.getId(), cliente);
+			}
+		}
+		return encontrados;
+	}
+
+	public Map<String, ClienteResponseDTO> buscarPorCpfs(Collection<String> cpfs,
+	Function<Set<String>, List<ClienteResponseDTO>> carregar) {
+		Map<String, ClienteResponseDTO> encontrados = new HashMap<>();
+		Set<String> faltantes = new LinkedHashSet<>(cpfs);
+		if (habilitado) {
+			Map<String, Long> ids = idPorCpf.getAllPresent(cpfs);
+			Map<Long, ClienteResponseDTO> clientes = porId.getAllPresent(ids.values());
+			ids.forEach((cpf, id) -> {
+				ClienteResponseDTO cliente = clientes.get(id);
+				if (cliente != null && cpf.equals(cliente.getCpf())) {
+					encontrados.put(cpf, cliente);
+				}
+			});
+			faltantes.removeAll(encontrados.keySet());
+		}
+		if (!faltantes.isEmpty()) {
+			long geracaoAtual = geracao.get();
+			for (ClienteResponseDTO cliente : carregar.apply(faltantes)) {
+				guardarSeHabilitado(cliente, geracaoAtual);
+				encontrados.put(cliente.getCpf(), cliente);
+			}
+		}
+		return encontrados;
+	}
+
+	/*Invalida já e de novo depois do commit, para que uma leitura feita por outra thread entre a escrita e o
+	 *commit (ainda com o valor antigo) não fique no cache.*/
+	public void invalidar(Long id, String cpf) {
+		if (!habilitado) {
+			return;
+		}
+
+		remover(id, cpf);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					remover(id, cpf);
+				}
+			});
+		}
+	}
+
+	public void limpar() {
+		geracao.incrementAndGet();
+		porId.invalidateAll();
+		idPorCpf.invalidateAll();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		CaffeineCacheMetrics.monitor(registry, porId, "clientes.porId");
+		CaffeineCacheMetrics.monitor(registry, idPorCpf, "clientes.porCpf");
+	}
+
+	private void guardarSeHabilitado(ClienteResponseDTO cliente, long geracaoLida) {
+		if (habilitado) {
+			guardar(cliente, geracaoLida);
+		}
+	}
+
+	private void guardar(ClienteResponseDTO cliente, long geracaoLida) {
+		if (geracao.get() != geracaoLida) {
+			return;
+		}
+
+		porId.put(cliente.getId(), cliente);
+		idPorCpf.put(cliente.getCpf(), cliente.getId());
+
+		/*Uma invalidação entre a conferência e o put derruba o que acabou de entrar.*/
+		if (geracao.get() != geracaoLida) {
+			porId.invalidate(cliente.getId());
+			idPorCpf.invalidate(cliente.getCpf());
+		}
+	}
+
+	private void remover(Long id, String cpf) {
+		geracao.incrementAndGet();
+		if (id != null) {
+			porId.invalidate(id);
+		}
+		if (cpf != null) {
+			idPorCpf.invalidate(cpf);
+		}
+	}
+
+}
@@ -0,0 +1,77 @@
+package com.sistemacliente.cache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.sistemacliente.config.ClientesProperties;
+
+/*Guarda o resultado dos SELECT count(*) das listagens paginadas por um tempo (ttl). Qualquer escrita no
+ *ClienteService invalida tudo, então o total só fica desatualizado por escritas feitas fora do serviço.*/
+@Component
+public class ContagemCache {
+
+	private final ClientesProperties.Contagem config;
+
+	private final Map<String, Entrada> entradas = new ConcurrentHashMap<>();
+
+	/*Muda a cada invalidação. Uma contagem que começou antes de uma escrita não é guardada depois dela.*/
+	private final AtomicLong geracao = new AtomicLong();
+
+	public ContagemCache(ClientesProperties properties) {
+		this.config = properties.getContagem();
+	}
+
+	private record Entrada(long total, long geracao, long expiraEm) {}
+
+	public boolean isHabilitado() {
+		return config.isHabilitado();
+	}
+
+	public long contar(String chave, LongSupplier contagem) {
+		long agora = System.nanoTime();
+		long geracaoAtual = geracao.get();
+
+		Entrada entrada = entradas.get(chave);
+		if (entrada != null && entrada.geracao() == geracaoAtual && agora - entrada.expiraEm() < 0) {
+			return entrada.total();
+		}
+
+		long total = contagem.getAsLong();
+		if (geracao.get() == geracaoAtual) {
+			if (entradas.size() >= config.getMaxEntradas()) {
+				entradas.values().removeIf(e -> agora - e.expiraEm() >= 0 || e.geracao() != geracaoAtual);
+				if (entradas.size() >= config.getMaxEntradas()) {
+					entradas.clear();
+				}
+			}
+			entradas.put(chave, new Entrada(total, geracaoAtual, agora + config.getTtl().toNanos()));
+		}
+		return total;
+	}
+
+	/*Invalida já e de novo depois do commit, para que uma contagem feita por outra thread entre a escrita e o
+	 *commit (ainda sem a linha nova) não fique no cache.*/
+	public void invalidar() {
+		limpar();
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					limpar();
+				}
+			});
+		}
+	}
+
+	private void limpar() {
+		geracao.incrementAndGet();
+		entradas.clear();
+	}
+
+}
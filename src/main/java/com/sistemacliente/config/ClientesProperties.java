@@ -0,0 +1,124 @@
+package com.sistemacliente.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import com.sistemacliente.model.ClienteIdGenerator;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/*Configurações do sistema de clientes lidas do application.properties com o prefixo "clientes".*/
+@Getter @Setter
+@ConfigurationProperties(prefix = "clientes")
+public class ClientesProperties {
+
+	private Exportacao exportacao = new Exportacao();
+
+	private Contagem contagem = new Contagem();
+
+	private Lote lote = new Lote();
+
+	private Id id = new Id();
+
+	private Cache cache = new Cache();
+
+	private IndiceNome indiceNome = new IndiceNome();
+
+	private Filtro filtro = new Filtro();
+
+	private BuscaMultipla buscaMultipla = new BuscaMultipla();
+
+	private Exclusao exclusao = new Exclusao();
+
+	private Replicas replicas = new Replicas();
+
+	@Getter @Setter
+	public static class Exportacao {
+		/*Linhas buscadas por ida ao banco (fetch size do JDBC).*/
+		private int fetchSize = 500;
+		/*Linhas escritas antes de limpar o EntityManager e dar flush na resposta.*/
+		private int lote = 500;
+	}
+
+	@Getter @Setter
+	public static class Contagem {
+		/*Quando ligado as listagens paginadas reaproveitam o total calculado há menos de ttl.*/
+		private boolean habilitado = false;
+		private Duration ttl = Duration.ofSeconds(30);
+		private int maxEntradas = 1000;
+	}
+
+	@Getter @Setter
+	public static class Lote {
+		/*Máximo de clientes aceitos por requisição em /salvarclientes.*/
+		private int maxItens = 1000;
+		/*Clientes por consulta IN e por flush de inserts.*/
+		private int tamanhoPedaco = 100;
+	}
+
+	@Getter @Setter
+	public static class Id {
+		/*Ids reservados por nextval da seq_cliente. Deve ser igual ao INCREMENT BY da sequence no banco.*/
+		private int bloco = ClienteIdGenerator.BLOCO_PADRAO;
+	}
+
+	@Getter @Setter
+	public static class Cache {
+		/*Quando ligado buscarClientePorId e encontrarPorCpf consultam o ClienteCache antes do banco.*/
+		private boolean habilitado = true;
+		/*Máximo de clientes guardados em cada um dos índices (id e CPF).*/
+		private long maxEntradas = 10_000;
+		private Duration ttl = Duration.ofMinutes(5);
+	}
+
+	@Getter @Setter
+	public static class IndiceNome {
+		/*Quando ligado o buscarPorNome usa o índice de trigramas em memória em vez do LIKE '%x%' do banco.*/
+		private boolean habilitado = false;
+		/*Locale do java.text.Collator que ordena as páginas do índice. Deve ser o da colação da coluna nome no
+		 *banco (ex.: pt-BR para um PostgreSQL em pt_BR.UTF-8), senão a ordem muda quando a busca vai ao banco.*/
+		private String colacao = "pt-BR";
+	}
+
+	@Getter @Setter
+	public static class Filtro {
+		/*Quando ligado os CPFs e e-mails que o filtro de Bloom sabe que não existem não são consultados no banco.*/
+		private boolean habilitado = false;
+		/*Clientes esperados; o filtro é dimensionado para o maior entre isto e o dobro dos clientes na carga.*/
+		private long capacidade = 1_000_000;
+		private double taxaFalsosPositivos = 0.01;
+	}
+
+	@Getter @Setter
+	public static class BuscaMultipla {
+		/*Máximo de ids ou CPFs distintos por requisição em /encontrarclientes e /clientescpf.*/
+		private int maxChaves = 100;
+	}
+
+	@Getter @Setter
+	public static class Exclusao {
+		/*Máximo de ids por requisição na exclusão por lista em /deletarclientes (o intervalo não tem limite).*/
+		private int maxIds = 10_000;
+		/*Clientes por DELETE ... IN e por transação.*/
+		private int tamanhoPedaco = 1000;
+	}
+
+	@Getter @Setter
+	public static class Replicas {
+		/*Quando ligado as transações readOnly leem das réplicas e o resto vai para o spring.datasource.*/
+		private boolean habilitado = false;
+		/*URLs JDBC das réplicas, com o driver do spring.datasource. Sem usuário e senha valem os dele.*/
+		private List<String> urls = new ArrayList<>();
+		private String usuario;
+		private String senha;
+		/*Tempo depois de uma escrita em que as leituras continuam no primário, maior que o atraso da réplica.*/
+		private Duration janelaLeituraPropria = Duration.ofSeconds(2);
+		/*Tempo fora do rodízio de uma réplica que falhou ao abrir conexão.*/
+		private Duration quarentena = Duration.ofSeconds(30);
+	}
+
+}
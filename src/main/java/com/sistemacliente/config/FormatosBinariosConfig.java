@@ -0,0 +1,70 @@
+package com.sistemacliente.config;
+
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/*application/cbor e application/x-jackson-smile para os chamadores internos que puxam páginas e a listagem
+ *inteira. Com as duas bibliotecas no classpath o Spring MVC já registra os conversores, depois do de JSON (que
+ *segue sendo o escolhido sem Accept ou com Accept: *), mas com um ObjectMapper próprio. Aqui eles são trocados,
+ *na mesma posição, por outros montados pelo Jackson2ObjectMapperBuilder do Spring Boot, para o binário ter os
+ *mesmos módulos e spring.jackson.* do JSON.
+ *
+ *Como a mesma URL tem uma representação por formato, toda resposta leva Vary: Accept, para um cache (do
+ *chamador ou compartilhado) não servir o corpo JSON guardado a quem pediu CBOR. O interceptor põe o cabeçalho
+ *antes do controller, então ele também sai nos 304 e nas respostas de erro. As ETags de cada formato são
+ *diferentes (ver VersaoCliente).*/
+@Configuration
+public class FormatosBinariosConfig implements WebMvcConfigurer {
+
+	private final ObjectProvider<Jackson2ObjectMapperBuilder> builders;
+
+	public FormatosBinariosConfig(ObjectProvider<Jackson2ObjectMapperBuilder> builders) {
+		this.builders = builders;
+	}
+
+	@Override
+	public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+		converters.replaceAll(conversor -> {
+			if (conversor instanceof MappingJackson2CborHttpMessageConverter) {
+				return new MappingJackson2CborHttpMessageConverter(builder().factory(new CBORFactory()).build());
+			}
+			if (conversor instanceof MappingJackson2SmileHttpMessageConverter) {
+				return new MappingJackson2SmileHttpMessageConverter(builder().factory(new SmileFactory()).build());
+			}
+			return conversor;
+		});
+	}
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(new HandlerInterceptor() {
+			@Override
+			public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+				response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+				return true;
+			}
+		});
+	}
+
+	/*O builder do Spring Boot é prototype: um novo a cada formato, já que factory() altera o builder.*/
+	private Jackson2ObjectMapperBuilder builder() {
+		return builders.getIfAvailable(Jackson2ObjectMapperBuilder::new);
+	}
+
+}
@@ -0,0 +1,18 @@
+package com.sistemacliente.config;
+
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.sistemacliente.model.ClienteIdGenerator;
+
+@Configuration
+public class HibernateConfig {
+
+	/*Leva o tamanho do bloco de ids do application.properties até o ClienteIdGenerator.*/
+	@Bean
+	public HibernatePropertiesCustomizer blocoDeIds(ClientesProperties properties) {
+		return hibernateProperties -> hibernateProperties.put(ClienteIdGenerator.BLOCO, properties.getId().getBloco());
+	}
+
+}
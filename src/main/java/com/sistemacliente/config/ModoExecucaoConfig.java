@@ -0,0 +1,49 @@
+package com.sistemacliente.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import jakarta.annotation.PostConstruct;
+
+/*Modo de execução das requisições. Com spring.threads.virtual.enabled=true (ou o perfil "virtual") o Tomcat
+ *atende cada requisição numa thread virtual, e o ClienteService e a transação rodam nela; as tarefas
+ *assíncronas (StreamingResponseBody de /listarclientes/stream) também. Sem isso, o padrão, são as 200
+ *threads de plataforma do Tomcat (server.tomcat.threads.max).
+ *
+ *Threads virtuais precisam de Java 21. Em Java 17 o Spring Boot ignora a propriedade sem avisar, então aqui
+ *a aplicação se recusa a subir. Compilar e rodar com o perfil do Maven java21.
+ *
+ *Auditoria de pinning (thread virtual presa à thread de plataforma por bloquear dentro de synchronized):
+ * - FiltroBloom: synchronized só em contas na memória, sem I/O dentro.
+ * - ClienteCache: usa getIfPresent/put e não cache.get(chave, loader), que rodaria o SELECT dentro do lock
+ *   do ConcurrentHashMap.
+ * - IndiceNome: ReentrantReadWriteLock; ContagemCache: ConcurrentHashMap sem compute.
+ * - HikariCP e driver do PostgreSQL (42.6+) usam ReentrantLock no caminho de I/O.
+ *Para conferir: rodar com -Djdk.tracePinnedThreads=short, que imprime a pilha de cada pinning.
+ *
+ *Com threads virtuais quem limita as requisições que usam o banco ao mesmo tempo é o pool do Hikari
+ *(spring.datasource.hikari.maximum-pool-size), não mais o número de threads do Tomcat.*/
+@Configuration
+public class ModoExecucaoConfig {
+
+	private static final Logger log = LoggerFactory.getLogger(ModoExecucaoConfig.class);
+
+	private final boolean threadsVirtuais;
+
+	public ModoExecucaoConfig(@Value("${spring.threads.virtual.enabled:false}") boolean threadsVirtuais) {
+		this.threadsVirtuais = threadsVirtuais;
+	}
+
+	@PostConstruct
+	public void verificar() {
+		int versao = Runtime.version().feature();
+		if (threadsVirtuais && versao < 21) {
+			throw new IllegalStateException("spring.threads.virtual.enabled=true precisa de Java 21 ou mais novo, "
+			+ "a JVM atual é Java " + versao + ".");
+		}
+		log.info("Requisições atendidas em threads {}.", threadsVirtuais ? "virtuais" : "de plataforma");
+	}
+
+}
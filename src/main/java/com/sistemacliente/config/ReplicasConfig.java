@@ -0,0 +1,91 @@
+package com.sistemacliente.config;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/*Réplicas de leitura (clientes.replicas.*). Troca o DataSource do Spring Boot por um pool do primário
+ *(spring.datasource.*) e um por réplica, atrás do RoteadorDataSource. As configurações de
+ *spring.datasource.hikari.* valem para todos os pools, cada um com o seu nome (primario, replica-1, ...).
+ *Os pools não são beans, então o Spring Boot não liga as métricas hikaricp.* deles: cada um recebe o
+ *MeterRegistry aqui, com o nome do pool na tag pool.
+ *
+ *O Hibernate do Spring segura a conexão física da sessão até ela fechar, e com open-in-view a sessão vive a
+ *requisição inteira: a conexão de réplica aberta por uma leitura seria reaproveitada pela escrita seguinte.
+ *Aqui ela é devolvida ao fim de cada transação, e a próxima pede ao roteador de novo.*/
+@Configuration
+@ConditionalOnProperty(prefix = "clientes.replicas", name = "habilitado", havingValue = "true")
+public class ReplicasConfig {
+
+	@Bean(destroyMethod = "close")
+	public RoteadorDataSource roteadorDataSource(DataSourceProperties dataSourceProperties,
+	ClientesProperties properties, Environment environment, ObjectProvider<MeterRegistry> registro) {
+		ClientesProperties.Replicas replicas = properties.getReplicas();
+		if (replicas.getUrls().isEmpty()) {
+			throw new IllegalStateException("clientes.replicas.habilitado=true precisa de clientes.replicas.urls.");
+		}
+
+		HikariDataSource primario = dataSourceProperties.initializeDataSourceBuilder()
+		.type(HikariDataSource.class).build();
+		configurarPool(primario, "primario", environment, registro);
+
+		List<DataSource> pools = new ArrayList<>();
+		for (String url : replicas.getUrls()) {
+			HikariDataSource replica = new HikariDataSource();
+			replica.setJdbcUrl(url);
+			replica.setDriverClassName(dataSourceProperties.determineDriverClassName());
+			replica.setUsername(replicas.getUsuario() != null ? replicas.getUsuario()
+			: dataSourceProperties.determineUsername());
+			replica.setPassword(replicas.getSenha() != null ? replicas.getSenha()
+			: dataSourceProperties.determinePassword());
+			configurarPool(replica, "replica-" + (pools.size() + 1), environment, registro);
+			pools.add(replica);
+		}
+
+		return new RoteadorDataSource(primario, pools, replicas.getJanelaLeituraPropria(),
+		replicas.getQuarentena(), Clock.systemUTC());
+	}
+
+	/*O proxy só pede a conexão ao roteador no primeiro comando, quando a transação já está marcada como
+	 *readOnly ou não.*/
+	@Bean
+	@Primary
+	public DataSource dataSource(RoteadorDataSource roteadorDataSource) {
+		return new LazyConnectionDataSourceProxy(roteadorDataSource);
+	}
+
+	@Bean
+	public HibernatePropertiesCustomizer conexaoPorTransacao() {
+		return hibernateProperties -> hibernateProperties.put(AvailableSettings.CONNECTION_HANDLING,
+		PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+	}
+
+	private static void configurarPool(HikariDataSource pool, String nome, Environment environment,
+	ObjectProvider<MeterRegistry> registro) {
+		Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+		pool.setPoolName(nome);
+		registro.ifAvailable(r -> pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(r)));
+	}
+
+}
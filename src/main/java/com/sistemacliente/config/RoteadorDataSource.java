@@ -0,0 +1,133 @@
+package com.sistemacliente.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/*Escolhe o banco de cada conexão. Transação readOnly lê de uma réplica, em rodízio; escrita, e qualquer uso
+ *fora de transação (DDL, health check), vai para o primário. A leitura também cai no primário:
+ *- até janelaLeituraPropria depois do fim da última transação de escrita, para quem acabou de alterar um
+ *  cliente não ler a versão anterior numa réplica atrasada;
+ *- quando nenhuma réplica abre conexão. A que falha fica fora do rodízio pela quarentena, e a leitura tenta a
+ *  próxima antes de desistir.
+ *A decisão usa o readOnly da transação corrente, que o Spring só marca depois de abrir a transação; por isso
+ *o roteador fica atrás de um LazyConnectionDataSourceProxy, que só pede a conexão no primeiro comando.*/
+public class RoteadorDataSource extends AbstractDataSource implements AutoCloseable {
+
+	private static final Logger log = LoggerFactory.getLogger(RoteadorDataSource.class);
+
+	private final DataSource primario;
+
+	private final List<DataSource> replicas;
+
+	private final long janelaLeituraPropria;
+
+	private final long quarentena;
+
+	private final Clock relogio;
+
+	private final AtomicInteger rodizio = new AtomicInteger();
+
+	/*Instante (millis) até o qual cada réplica fica fora do rodízio.*/
+	private final AtomicLongArray foraAte;
+
+	/*Instante (millis) a partir do qual as leituras voltam para as réplicas.*/
+	private volatile long replicasLiberadasEm = Long.MIN_VALUE;
+
+	public RoteadorDataSource(DataSource primario, List<DataSource> replicas, Duration janelaLeituraPropria,
+	Duration quarentena, Clock relogio) {
+		this.primario = primario;
+		this.replicas = List.copyOf(replicas);
+		this.janelaLeituraPropria = janelaLeituraPropria.toMillis();
+		this.quarentena = quarentena.toMillis();
+		this.relogio = relogio;
+		this.foraAte = new AtomicLongArray(this.replicas.size());
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return conectar(null, null);
+	}
+
+	@Override
+	public Connection getConnection(String usuario, String senha) throws SQLException {
+		return conectar(usuario, senha);
+	}
+
+	private Connection conectar(String usuario, String senha) throws SQLException {
+		if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+			return abrir(primario, usuario, senha);
+		}
+		if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			marcarEscrita();
+			return abrir(primario, usuario, senha);
+		}
+
+		long agora = relogio.millis();
+		if (agora < replicasLiberadasEm || replicas.isEmpty()) {
+			return abrir(primario, usuario, senha);
+		}
+		int inicio = Math.floorMod(rodizio.getAndIncrement(), replicas.size());
+		for (int i = 0; i < replicas.size(); i++) {
+			int indice = (inicio + i) % replicas.size();
+			if (agora < foraAte.get(indice)) {
+				continue;
+			}
+			try {
+				return abrir(replicas.get(indice), usuario, senha);
+			} catch (SQLException ex) {
+				foraAte.set(indice, agora + quarentena);
+				log.warn("Réplica {} sem conexão, fora do rodízio por {} ms: {}", indice + 1, quarentena,
+				ex.getMessage());
+			}
+		}
+		return abrir(primario, usuario, senha);
+	}
+
+	/*A janela conta do fim da transação, não do início: uma escrita longa não pode liberar as réplicas antes
+	 *de terminar.*/
+	private void marcarEscrita() {
+		liberarReplicasDepoisDaJanela();
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					liberarReplicasDepoisDaJanela();
+				}
+			});
+		}
+	}
+
+	private void liberarReplicasDepoisDaJanela() {
+		replicasLiberadasEm = relogio.millis() + janelaLeituraPropria;
+	}
+
+	private static Connection abrir(DataSource dataSource, String usuario, String senha) throws SQLException {
+		return usuario == null ? dataSource.getConnection() : dataSource.getConnection(usuario, senha);
+	}
+
+	@Override
+	public void close() throws Exception {
+		List<DataSource> todos = new ArrayList<>(replicas);
+		todos.add(primario);
+		for (DataSource dataSource : todos) {
+			if (dataSource instanceof AutoCloseable fechavel) {
+				fechavel.close();
+			}
+		}
+	}
+
+}
@@ -5,6 +5,8 @@ import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -14,12 +16,23 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import com.fasterxml.jackson.databind.JsonMappingException;
+import com.sistemacliente.model.dto.BuscaMultiplaResponseDTO;
 import com.sistemacliente.model.dto.ClienteRequestDTO;
 import com.sistemacliente.model.dto.ClienteResponseDTO;
+import com.sistemacliente.model.dto.ExclusaoResponseDTO;
+import com.sistemacliente.model.dto.LoteResponseDTO;
+import com.sistemacliente.model.dto.PaginaCursorResponseDTO;
+import com.sistemacliente.model.dto.PaginaSemTotalResponseDTO;
+import com.sistemacliente.service.ClienteBuscaMultiplaService;
+import com.sistemacliente.service.ClienteExclusaoService;
+import com.sistemacliente.service.ClienteExportacaoService;
+import com.sistemacliente.service.ClienteExportacaoService.Formato;
+import com.sistemacliente.service.ClienteLoteService;
 import com.sistemacliente.service.ClienteService;
 
 import jakarta.validation.Valid;
@@ -29,8 +42,22 @@ public class ClienteController {
 
 	private final ClienteService service;
 	
-	public ClienteController(ClienteService service) {
+	private final ClienteExportacaoService exportacaoService;
+	
+	private final ClienteLoteService loteService;
+	
+	private final ClienteBuscaMultiplaService buscaMultiplaService;
+	
+	private final ClienteExclusaoService exclusaoService;
+	
+	public ClienteController(ClienteService service, ClienteExportacaoService exportacaoService,
+	ClienteLoteService loteService, ClienteBuscaMultiplaService buscaMultiplaService,
+	ClienteExclusaoService exclusaoService) {
 		this.service = service;
+		this.exportacaoService = exportacaoService;
+		this.loteService = loteService;
+		this.buscaMultiplaService = buscaMultiplaService;
+		this.exclusaoService = exclusaoService;
 	}
 	
 	@GetMapping(value = "/listarclientes")
@@ -39,16 +66,37 @@ public class ClienteController {
 		return ResponseEntity.ok(listaDeClientes);
 	}
 	
+	/*Mesma listagem, mas escrita linha a linha enquanto é lida do banco (ndjson ou array json).*/
+	@GetMapping(value = "/listarclientes/stream")
+	public ResponseEntity<StreamingResponseBody> listarClientesStream(
+	@RequestParam(defaultValue = "ndjson") String formato){
+		Formato formatoExportacao = Formato.de(formato);
+		StreamingResponseBody corpo = out -> exportacaoService.exportar(out, formatoExportacao);
+		return ResponseEntity.ok().contentType(formatoExportacao.getMediaType()).body(corpo);
+	}
+	
 	@PostMapping(value = "/salvarcliente")
-	public ResponseEntity<ClienteResponseDTO> salvarCliente(@Valid @RequestBody ClienteRequestDTO dto){
+	public ResponseEntity<ClienteResponseDTO> salvarCliente(@Valid @RequestBody ClienteRequestDTO dto,
+	@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept){
 		ClienteResponseDTO clienteNovo = service.salvarCliente(dto);
-		return ResponseEntity.status(HttpStatus.CREATED).body(clienteNovo);
+		return ResponseEntity.status(HttpStatus.CREATED).eTag(VersaoCliente.etag(clienteNovo, accept))
+		.body(clienteNovo);
+	}
+	
+	/*Cadastro em lote. Cada cliente é validado separadamente e volta com status CRIADO, CONFLITO ou INVALIDO.*/
+	@PostMapping(value = "/salvarclientes")
+	public ResponseEntity<LoteResponseDTO> salvarClientes(@RequestBody List<ClienteRequestDTO> dtos){
+		LoteResponseDTO resultado = loteService.salvarLote(dtos);
+		return ResponseEntity.ok(resultado);
 	}
 	
+	/*Respostas de GET com ETag: com If-None-Match igual o Spring responde 304 sem serializar o corpo. O cliente
+	 *vem do ClienteCache quando está lá, então nem o banco é consultado. A tag leva o formato do Accept.*/
 	@GetMapping(value = "/encontrarcliente/{id}")
-	public ResponseEntity<ClienteResponseDTO> encontrarClientePorId(@PathVariable Long id){
+	public ResponseEntity<ClienteResponseDTO> encontrarClientePorId(@PathVariable Long id,
+	@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept){
 		ClienteResponseDTO encontrado = service.buscarClientePorId(id);
-		return ResponseEntity.ok(encontrado);
+		return ResponseEntity.ok().eTag(VersaoCliente.etag(encontrado, accept)).body(encontrado);
 	}
 	
 	@DeleteMapping(value = "/deletarporid/{id}")
@@ -56,26 +104,60 @@ public class ClienteController {
 		service.deletarClientePorId(id);
 		return ResponseEntity.noContent().build(); // noContent(), retorno positivo não há conteúdo.
 	}
-
+	
+	/*Exclusão em massa: ?ids=1,2,3 ou o intervalo ?de=100&ate=200 (os dois inclusos).*/
+	@DeleteMapping(value = "/deletarclientes")
+	public ResponseEntity<ExclusaoResponseDTO> deletarClientes(@RequestParam(required = false) List<Long> ids,
+	@RequestParam(required = false) Long de, @RequestParam(required = false) Long ate){
+		return ResponseEntity.ok(exclusaoService.excluir(ids, de, ate));
+	}
+	
+	/*Com If-Match (o ETag do cliente) a atualização só grava se ele ainda estiver nessa versão, senão 412.*/
 	@PutMapping(value = "/clientes/{id}")
 	public ResponseEntity<ClienteResponseDTO> 
-	atualizarCliente(@PathVariable Long id, @Valid @RequestBody ClienteRequestDTO dto){
-		ClienteResponseDTO response = service.atualizarCliente(id, dto);
-		return ResponseEntity.ok(response);
+	atualizarCliente(@PathVariable Long id, @Valid @RequestBody ClienteRequestDTO dto,
+	@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+	@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept){
+		ClienteResponseDTO response = service.atualizarCliente(id, dto, VersaoCliente.doIfMatch(ifMatch, id));
+		return ResponseEntity.ok().eTag(VersaoCliente.etag(response, accept)).body(response);
 	}
 	
 	@GetMapping(value = "/clientecpf/{cpf}")
-	public ResponseEntity<ClienteResponseDTO> encontrarClientePorCpf(@PathVariable String cpf){
+	public ResponseEntity<ClienteResponseDTO> encontrarClientePorCpf(@PathVariable String cpf,
+	@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept){
 		ClienteResponseDTO response = service.encontrarPorCpf(cpf);
-		return ResponseEntity.ok(response); 
+		return ResponseEntity.ok().eTag(VersaoCliente.etag(response, accept)).body(response);
+	}
+	
+	/*Vários clientes de uma vez: ?ids=1,2,3 (ou ids repetido). Os que não existem voltam em naoEncontrados.*/
+	@GetMapping(value = "/encontrarclientes")
+	public ResponseEntity<BuscaMultiplaResponseDTO<Long>> encontrarClientesPorIds(
+	@RequestParam(required = false) List<Long> ids){
+		return ResponseEntity.ok(buscaMultiplaService.buscarPorIds(ids));
+	}
+	
+	@GetMapping(value = "/clientescpf")
+	public ResponseEntity<BuscaMultiplaResponseDTO<String>> encontrarClientesPorCpfs(
+	@RequestParam(required = false) List<String> cpfs){
+		return ResponseEntity.ok(buscaMultiplaService.buscarPorCpfs(cpfs));
 	}
 	
 	@GetMapping(value = "/paginada")
 	public ResponseEntity<Page<ClienteResponseDTO>> 
 	listaPaginada(@RequestParam(defaultValue = "0") int pagina,
-	@RequestParam(defaultValue = "3") int itens){
+	@RequestParam(defaultValue = "3") int itens, @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept){
 		Page<ClienteResponseDTO> page = service.listaPaginada(pagina, itens);
-		return ResponseEntity.ok(page);
+		return ResponseEntity.ok().eTag(VersaoCliente.etag(page, accept)).body(page);
+	}
+	
+	/*Com semTotal=true as buscas paginadas não executam o SELECT count(*) e respondem só se há próxima.*/
+	@GetMapping(value = "/paginada", params = "semTotal=true")
+	public ResponseEntity<PaginaSemTotalResponseDTO> 
+	listaPaginadaSemTotal(@RequestParam(defaultValue = "0") int pagina,
+	@RequestParam(defaultValue = "3") int itens, @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept){
+		Slice<ClienteResponseDTO> slice = service.listaPaginadaSemTotal(pagina, itens);
+		return ResponseEntity.ok().eTag(VersaoCliente.etag(slice, accept))
+		.body(new PaginaSemTotalResponseDTO(slice));
 	}
 	
 	@GetMapping(value = "/paginadaordem")
@@ -86,6 +168,14 @@ public class ClienteController {
 		return ResponseEntity.ok(lista);
 	}
 	
+	@GetMapping(value = "/paginadacursor")
+	public ResponseEntity<PaginaCursorResponseDTO> listaPaginadaPorCursor(
+	@RequestParam(required = false) String cursor, @RequestParam(defaultValue = "3") int itens,
+	@RequestParam(defaultValue = "id") String ordenadoPor){
+		PaginaCursorResponseDTO pagina = service.listaPorCursor(cursor, itens, ordenadoPor);
+		return ResponseEntity.ok(pagina);
+	}
+	
 	@GetMapping(value = "/buscapornome")
 	public ResponseEntity<Page<ClienteResponseDTO>> buscarPorNomePagina(
 	@RequestParam(required = false) String nome, @RequestParam(defaultValue = "0") int pagina, 
@@ -94,11 +184,20 @@ public class ClienteController {
 		return ResponseEntity.ok(page);
 	}
 	
+	@GetMapping(value = "/buscapornome", params = "semTotal=true")
+	public ResponseEntity<PaginaSemTotalResponseDTO> buscarPorNomeSemTotal(
+	@RequestParam(required = false) String nome, @RequestParam(defaultValue = "0") int pagina, 
+	@RequestParam(defaultValue = "3") int itens){
+		Slice<ClienteResponseDTO> slice = service.buscarPorNomeSemTotal(nome, pagina, itens);
+		return ResponseEntity.ok(new PaginaSemTotalResponseDTO(slice));
+	}
+	
+	/*Corpo em JSON Merge Patch (application/merge-patch+json ou application/json).*/
 	@PatchMapping(value = "/parcial/{id}")
 	public ResponseEntity<ClienteResponseDTO> atualizarParcial(@PathVariable Long id,
-	@RequestBody Map<String, Object> updates) throws JsonMappingException{
+	@RequestBody Map<String, Object> updates, @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept){
 		ClienteResponseDTO response = service.atualizarParcial(id, updates);
-		return ResponseEntity.ok(response);
+		return ResponseEntity.ok().eTag(VersaoCliente.etag(response, accept)).body(response);
 	}
 	
 	@GetMapping(value = "/buscaemail") public ResponseEntity<Page<ClienteResponseDTO>> buscaPorEmail
@@ -108,11 +207,21 @@ public class ClienteController {
 		return ResponseEntity.ok(page);
 	}
 	
+	@GetMapping(value = "/buscaemail", params = "semTotal=true")
+	public ResponseEntity<PaginaSemTotalResponseDTO> buscaPorEmailSemTotal
+	(@RequestParam(required = false) String email, @RequestParam(defaultValue = "0") int pagina, 
+	@RequestParam(defaultValue = "3") int itens){
+		Slice<ClienteResponseDTO> slice = service.buscarPorEmailSemTotal(email, pagina, itens);
+		return ResponseEntity.ok(new PaginaSemTotalResponseDTO(slice));
+	}
+	
 	@PatchMapping(value = "/atualizaremail/{id}")
 	public ResponseEntity<ClienteResponseDTO> atualizarEmail(@PathVariable Long id, 
-	@RequestParam(required = false) String email){
-		ClienteResponseDTO response= service.atualizarEmail(id, email);
-		return ResponseEntity.ok(response);
+	@RequestParam(required = false) String email,
+	@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+	@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept){
+		ClienteResponseDTO response= service.atualizarEmail(id, email, VersaoCliente.doIfMatch(ifMatch, id));
+		return ResponseEntity.ok().eTag(VersaoCliente.etag(response, accept)).body(response);
 	}
 	
 	@GetMapping(value = "/buscarporemail")
@@ -124,4 +233,13 @@ public class ClienteController {
 		return ResponseEntity.ok(page);
 	}
 	
+	@GetMapping(value = "/buscarporemail", params = "semTotal=true")
+	public ResponseEntity<PaginaSemTotalResponseDTO> buscarPorEmailOrdenadaSemTotal(
+	@RequestParam(required = false) String email, @RequestParam(defaultValue = "0") int pagina, 
+	@RequestParam(defaultValue = "3") int itens, @RequestParam(required = false) String ordenadoPor){
+		Slice<ClienteResponseDTO> slice = 
+		service.buscaEmailPaginadaOrdenadaSemTotal(email, pagina, itens, ordenadoPor);
+		return ResponseEntity.ok(new PaginaSemTotalResponseDTO(slice));
+	}
+	
 }
\ No newline at end of file
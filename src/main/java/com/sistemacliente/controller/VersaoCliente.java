@@ -0,0 +1,150 @@
+package com.sistemacliente.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+
+import com.sistemacliente.exception.ArgumentoInvalidoException;
+import com.sistemacliente.exception.VersaoDesatualizadaException;
+import com.sistemacliente.model.dto.ClienteResponseDTO;
+
+/*Entity tags do cliente. A de um cliente é "id-versao": a versão sozinha repetiria entre um cliente excluído e
+ *outro cadastrado depois com o mesmo CPF em /clientecpf/{cpf}. A de uma página é um hash dos pares (id, versao)
+ *das linhas e do total, então muda com qualquer cadastro, exclusão ou alteração que apareça nela.
+ *
+ *A mesma URL responde em JSON, CBOR ou Smile conforme o Accept, e cada formato é uma representação com a sua
+ *tag: "12-3" em JSON, "12-3-cbor" e "12-3-smile" nos binários. Assim um If-None-Match guardado de uma resposta
+ *JSON não vira 304 num pedido de CBOR. O formato sai do Accept na mesma ordem em que o Spring MVC escolhe o
+ *conversor (ver FormatosBinariosConfig, que também manda o Vary: Accept).
+ *
+ *No If-Match vale a tag do cliente ou só a versão entre aspas ("3"), e também uma lista delas separada por
+ *vírgulas ("12-3", "12-4"): a atualização segue se a versão atual for qualquer uma. Sem cabeçalho ou com * a
+ *atualização não é condicional. Tag fraca (W/"3") e tag de outro cliente nunca casam no If-Match; se nenhuma
+ *sobrar, já é 412. O sufixo do formato é ignorado: a versão é a mesma em qualquer representação.*/
+public final class VersaoCliente {
+
+	private static final long FNV_INICIO = 0xcbf29ce484222325L;
+	private static final long FNV_PRIMO = 0x100000001b3L;
+
+	private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+
+	private VersaoCliente() {}
+
+	public static String etag(ClienteResponseDTO cliente, String accept) {
+		if (cliente == null || cliente.getVersao() == null) {
+			return null;
+		}
+		return "\"" + cliente.getId() + "-" + cliente.getVersao() + formato(accept) + "\"";
+	}
+
+	public static String etag(Slice<ClienteResponseDTO> pagina, String accept) {
+		long hash = FNV_INICIO;
+		for (ClienteResponseDTO cliente : pagina.getContent()) {
+			if (cliente.getVersao() == null) {
+				return null;
+			}
+			hash = misturar(hash, cliente.getId());
+			hash = misturar(hash, cliente.getVersao());
+		}
+		hash = misturar(hash, pagina.hasNext() ? 1 : 0);
+		if (pagina instanceof Page<ClienteResponseDTO> page) {
+			hash = misturar(hash, page.getTotalElements());
+		}
+		return "\"p" + Long.toHexString(hash) + formato(accept) + "\"";
+	}
+
+	/*Sufixo da tag para o formato que o Accept escolhe: o tipo aceito mais específico (e de maior q) que um dos
+	 *conversores produz, com o JSON na frente nos curingas. Accept inválido fica com o JSON; a resposta vai ser
+	 *406 de qualquer jeito.*/
+	private static String formato(String accept) {
+		if (accept == null || accept.isBlank()) {
+			return "";
+		}
+		List<MediaType> aceitos;
+		try {
+			aceitos = MediaType.parseMediaTypes(accept);
+		} catch (InvalidMediaTypeException ex) {
+			return "";
+		}
+		MimeTypeUtils.sortBySpecificity(aceitos);
+		for (MediaType aceito : aceitos) {
+			if (aceito.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+				return "";
+			}
+			if (aceito.isCompatibleWith(MediaType.APPLICATION_CBOR)) {
+				return "-cbor";
+			}
+			if (aceito.isCompatibleWith(SMILE)) {
+				return "-smile";
+			}
+		}
+		return "";
+	}
+
+	/*Versões aceitas pelo If-Match, para o UPDATE condicional; null quando a atualização não é condicional.
+	 *As tags do cliente não têm vírgula, então a lista é separada nelas.*/
+	public static List<Long> doIfMatch(String ifMatch, Long id) {
+		if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+			return null;
+		}
+
+		List<Long> versoes = new ArrayList<>(1);
+		for (String tag : ifMatch.split(",")) {
+			Long versao = versao(tag.trim(), id);
+			if (versao != null && !versoes.contains(versao)) {
+				versoes.add(versao);
+			}
+		}
+		if (versoes.isEmpty()) {
+			throw new VersaoDesatualizadaException();
+		}
+		return versoes;
+	}
+
+	/*Versão de uma tag do If-Match, ou null quando ela não pode casar com este cliente.*/
+	private static Long versao(String tag, Long id) {
+		if (tag.startsWith("W/")) {
+			return null;
+		}
+		if (tag.length() < 3 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"') {
+			throw ifMatchInvalido();
+		}
+
+		String valor = tag.substring(1, tag.length() - 1);
+		if (valor.endsWith("-cbor") || valor.endsWith("-smile")) {
+			valor = valor.substring(0, valor.lastIndexOf('-'));
+		}
+		int separador = valor.lastIndexOf('-');
+		try {
+			if (separador > 0) {
+				if (!Long.valueOf(valor.substring(0, separador)).equals(id)) {
+					return null;
+				}
+				valor = valor.substring(separador + 1);
+			}
+			return Long.valueOf(valor);
+		} catch (NumberFormatException ex) {
+			throw ifMatchInvalido();
+		}
+	}
+
+	private static ArgumentoInvalidoException ifMatchInvalido() {
+		return new ArgumentoInvalidoException(
+		"If-Match deve ter versões entre aspas separadas por vírgula, ex.: \"3\" ou \"12-3\", \"12-4\".");
+	}
+
+	/*FNV-1a de 64 bits, byte a byte do valor.*/
+	private static long misturar(long hash, long valor) {
+		for (int i = 0; i < Long.BYTES; i++) {
+			hash ^= (valor >>> (i * 8)) & 0xff;
+			hash *= FNV_PRIMO;
+		}
+		return hash;
+	}
+
+}
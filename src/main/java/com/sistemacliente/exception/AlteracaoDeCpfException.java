@@ -1,7 +1,10 @@
 package com.sistemacliente.exception;
 
-public class AlteracaoDeCpfException extends RuntimeException{
+public class AlteracaoDeCpfException extends ErroDeNegocioException{
+	
+	public static final String MENSAGEM = "Alteração de CPF não permitida.";
+	
 	public AlteracaoDeCpfException() {
-		super("Alteração de CPF não permitida.");
+		super(MENSAGEM);
 	}
 }
@@ -1,6 +1,8 @@
 package com.sistemacliente.exception;
 
-public class ArgumentoInvalidoException extends RuntimeException{
+/*Entrada inválida (400). Estende IllegalArgumentException para quem já trata a exceção padrão, e por isso não
+ *pode herdar de ErroDeNegocioException: a pilha é dispensada sobrescrevendo o fillInStackTrace.*/
+public class ArgumentoInvalidoException extends IllegalArgumentException{
 	
 	public ArgumentoInvalidoException (){
 		super("Erro em alguma entrada do cliente.");
@@ -9,4 +11,9 @@ public class ArgumentoInvalidoException extends RuntimeException{
 	public ArgumentoInvalidoException (String mensagem){
 		super(mensagem);
 	}
+	
+	@Override
+	public synchronized Throwable fillInStackTrace() {
+		return this;
+	}
 }
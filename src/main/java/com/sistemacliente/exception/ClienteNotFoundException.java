@@ -1,6 +1,9 @@
 package com.sistemacliente.exception;
 
-public class ClienteNotFoundException extends RuntimeException{
+public class ClienteNotFoundException extends ErroDeNegocioException{
+	
+	public static final String MENSAGEM = "Cliente não encontrado.";
+	
 	public ClienteNotFoundException(Long id) {
 		super("Cliente com o id = "+id+" não encontrado.");
 	}
@@ -10,6 +13,6 @@ public class ClienteNotFoundException extends RuntimeException{
 	}
 	
 	public ClienteNotFoundException() {
-		super("Cliente não encontrado.");
+		super(MENSAGEM);
 	}
 }
@@ -1,6 +1,12 @@
 package com.sistemacliente.exception;
 
-public class CpfJaCadastradoException extends RuntimeException{
+public class CpfJaCadastradoException extends ErroDeNegocioException{
+	
+	public static final String MENSAGEM = "O CPF já está cadastrado.";
+	
+	public CpfJaCadastradoException() {
+		super(MENSAGEM);
+	}
 	
 	public CpfJaCadastradoException(String cpf) {
 		super("O CPF "+cpf+" já está cadastrado.");
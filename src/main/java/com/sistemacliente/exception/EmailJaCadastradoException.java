@@ -1,8 +1,11 @@
 package com.sistemacliente.exception;
 
-public class EmailJaCadastradoException extends RuntimeException{
+public class EmailJaCadastradoException extends ErroDeNegocioException{
+	
+	public static final String MENSAGEM = "E-mail indisponível, já está sendo utilizado.";
+	
 	public EmailJaCadastradoException() {
-		super("E-mail indisponível, já está sendo utilizado.");
+		super(MENSAGEM);
 	}
 
 }
@@ -0,0 +1,11 @@
+package com.sistemacliente.exception;
+
+/*Erro esperado das regras do cliente (404, 409), que vira resposta no ValidationExceptionHandler e nunca é
+ *logado: não guarda a pilha de chamadas, cuja captura custa mais que o resto da requisição que falhou.*/
+public abstract class ErroDeNegocioException extends RuntimeException {
+
+	protected ErroDeNegocioException(String mensagem) {
+		super(mensagem, null, false, false);
+	}
+
+}
@@ -3,6 +3,9 @@ package com.sistemacliente.exception;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -10,14 +13,45 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 @RestControllerAdvice
 public class ValidationExceptionHandler {
 	
+	/*Respostas de mensagem fixa, montadas uma vez: o ResponseEntity é imutável e pode ser devolvido em toda
+	 *requisição. As de mensagem com id ou CPF continuam sendo montadas a cada erro.*/
+	private static final ResponseEntity<String> ERRO_INTERNO =
+	ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Erro interno no servidor.");
+	
+	private static final ResponseEntity<String> CPF_JA_CADASTRADO =
+	ResponseEntity.status(HttpStatus.CONFLICT).body(CpfJaCadastradoException.MENSAGEM);
+	
+	private static final ResponseEntity<String> EMAIL_JA_CADASTRADO =
+	ResponseEntity.status(HttpStatus.CONFLICT).body(EmailJaCadastradoException.MENSAGEM);
+	
+	private static final ResponseEntity<String> ALTERACAO_DE_CPF =
+	ResponseEntity.status(HttpStatus.CONFLICT).body(AlteracaoDeCpfException.MENSAGEM);
+	
+	private static final ResponseEntity<String> VERSAO_DESATUALIZADA =
+	ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(VersaoDesatualizadaException.MENSAGEM);
+	
+	private final ObjectProvider<MeterRegistry> registry;
+	
+	public ValidationExceptionHandler(ObjectProvider<MeterRegistry> registry) {
+		this.registry = registry;
+	}
+	
+	/*Conta em clientes.erros, pelo tipo da exceção, cada erro devolvido ao cliente.*/
+	private void contar(Exception ex) {
+		registry.ifAvailable(r -> r.counter("clientes.erros", "excecao", ex.getClass().getSimpleName()).increment());
+	}
+	
 	 // 1. Erros automáticos de validação (campos @NotBlank, @Email, etc.)
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, String>> 
     handleValidationExceptions(MethodArgumentNotValidException ex) {
 
+        contar(ex);
         Map<String, String> errors = new HashMap<>();
 
         ex.getBindingResult().getAllErrors().forEach(error -> {
@@ -31,37 +65,74 @@ public class ValidationExceptionHandler {
 
 	@ExceptionHandler(ArgumentoInvalidoException.class)
 	public ResponseEntity<String> handlerArgumentoInvalidoException(ArgumentoInvalidoException ex){
+		contar(ex);
 		return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
 	}
 	
 	@ExceptionHandler(ClienteNotFoundException.class)
 	public ResponseEntity<String> handlerClienteNotFoundException(ClienteNotFoundException ex){
+		contar(ex);
 		return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
 	}
 	
 	@ExceptionHandler(CpfJaCadastradoException.class)
 	 public ResponseEntity<String> handlerCpfJaCadastradoException(CpfJaCadastradoException ex){
+		contar(ex);
+		if (CpfJaCadastradoException.MENSAGEM.equals(ex.getMessage())) {
+			return CPF_JA_CADASTRADO;
+		}
 		return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
 	}
 	
 	@ExceptionHandler(AlteracaoDeCpfException.class)
 	 public ResponseEntity<String> handlerAlteracaoDeCpfException(AlteracaoDeCpfException ex){
-		return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+		contar(ex);
+		return ALTERACAO_DE_CPF;
 	}
 	
 	@ExceptionHandler(IllegalArgumentException.class)
 	 public ResponseEntity<String> handlerIllegalArgumentException(IllegalArgumentException ex){
+		contar(ex);
 		return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
 	}
 	
 	@ExceptionHandler(RuntimeException.class)
 	public ResponseEntity<String> handlerRuntimeException(RuntimeException ex){
-		return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Erro interno no servidor.");
+		contar(ex);
+		return ERRO_INTERNO;
 	}
 	
 	@ExceptionHandler(EmailJaCadastradoException.class)
 	public ResponseEntity<String> handlerEmailJaCadastradoException(EmailJaCadastradoException ex){
-		return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+		contar(ex);
+		return EMAIL_JA_CADASTRADO;
+	}
+	
+	@ExceptionHandler(VersaoDesatualizadaException.class)
+	public ResponseEntity<String> handlerVersaoDesatualizadaException(VersaoDesatualizadaException ex){
+		contar(ex);
+		return VERSAO_DESATUALIZADA;
+	}
+	
+	/*Conflito de versão no flush de uma entidade carregada (atualizarParcial), também 412.*/
+	@ExceptionHandler(OptimisticLockingFailureException.class)
+	public ResponseEntity<String> handlerOptimisticLockingFailureException(OptimisticLockingFailureException ex){
+		contar(ex);
+		return VERSAO_DESATUALIZADA;
+	}
+	
+	/*Constraint única violada fora do salvarCliente (cadastro em lote, atualização de e-mail concorrente).*/
+	@ExceptionHandler(DataIntegrityViolationException.class)
+	public ResponseEntity<String> handlerDataIntegrityViolationException(DataIntegrityViolationException ex){
+		RuntimeException traduzida = ViolacaoDeUnicidade.traduzir(ex, null);
+		contar(traduzida);
+		if (traduzida instanceof EmailJaCadastradoException) {
+			return EMAIL_JA_CADASTRADO;
+		}
+		if (traduzida instanceof CpfJaCadastradoException) {
+			return CPF_JA_CADASTRADO;
+		}
+		return ERRO_INTERNO;
 	}
 	
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.sistemacliente.exception;
+
+/*A versão enviada no If-Match não é mais a do cliente no banco: outra requisição o alterou antes. Vira 412.*/
+public class VersaoDesatualizadaException extends ErroDeNegocioException{
+	
+	public static final String MENSAGEM = "O cliente foi alterado por outra requisição, busque a versão atual.";
+	
+	public VersaoDesatualizadaException() {
+		super(MENSAGEM);
+	}
+
+}
@@ -0,0 +1,45 @@
+package com.sistemacliente.exception;
+
+import java.util.Locale;
+
+import org.springframework.dao.DataIntegrityViolationException;
+
+/*Traduz a violação das constraints únicas do Cliente (uk_cliente_cpf, uk_cliente_email) para as exceções de
+ *conflito do sistema, pelo nome da constraint. Quem grava não precisa consultar antes se o CPF ou o e-mail
+ *já existem, e dois cadastros iguais ao mesmo tempo resultam em 409 e não em 500.
+ *
+ *Como a violação é o caminho normal de um CPF repetido, o log do SqlExceptionHelper do Hibernate fica
+ *desligado no application.properties: ele registraria cada uma como ERROR, com o valor duplicado.*/
+public final class ViolacaoDeUnicidade {
+
+	public static final String CPF = "uk_cliente_cpf";
+
+	public static final String EMAIL = "uk_cliente_email";
+
+	private ViolacaoDeUnicidade() {}
+
+	/*Devolve a exceção de conflito correspondente, ou a própria exceção quando é outra violação.*/
+	public static RuntimeException traduzir(DataIntegrityViolationException ex, String cpf) {
+		String constraint = nomeDaConstraint(ex);
+		if (constraint.contains(CPF)) {
+			return cpf == null ? new CpfJaCadastradoException() : new CpfJaCadastradoException(cpf);
+		}
+		if (constraint.contains(EMAIL)) {
+			return new EmailJaCadastradoException();
+		}
+		return ex;
+	}
+
+	/*O Hibernate extrai o nome da constraint do erro de cada banco (no H2 vem junto do nome do índice). Sem ele
+	 *sobra a mensagem do driver.*/
+	private static String nomeDaConstraint(DataIntegrityViolationException ex) {
+		for (Throwable causa = ex; causa != null; causa = causa.getCause()) {
+			if (causa instanceof org.hibernate.exception.ConstraintViolationException violacao
+			&& violacao.getConstraintName() != null) {
+				return violacao.getConstraintName().toLowerCase(Locale.ROOT);
+			}
+		}
+		return String.valueOf(ex.getMostSpecificCause().getMessage()).toLowerCase(Locale.ROOT);
+	}
+
+}
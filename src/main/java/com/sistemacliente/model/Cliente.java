@@ -3,35 +3,43 @@ package com.sistemacliente.model;
 import java.io.Serializable;
 import java.util.Objects;
 
-import org.springframework.beans.BeanUtils;
+import org.hibernate.annotations.DynamicUpdate;
 
 import com.sistemacliente.model.dto.ClienteRequestDTO;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 import lombok.Getter;
 import lombok.Setter;
 
-@Entity @Table(name = "cliente") @Getter @Setter
-@SequenceGenerator(name = "seq_cliente", sequenceName = "seq_cliente", initialValue = 1, 
-allocationSize = 1)
+/*@DynamicUpdate: o UPDATE de um Cliente carregado leva só as colunas alteradas (e a versão), como no PATCH.*/
+@Entity @Getter @Setter @DynamicUpdate
+@Table(name = "cliente", indexes = { /*Índices para a paginação por cursor, ver ClienteRepository.*/
+	@Index(name = "idx_cliente_nome_id", columnList = "nome, id"),
+	@Index(name = "idx_cliente_email_id", columnList = "email, id")},
+uniqueConstraints = { /*Nomes usados pela ViolacaoDeUnicidade, ver db/uk_cliente_cpf_email.sql.*/
+	@UniqueConstraint(name = "uk_cliente_cpf", columnNames = "cpf"),
+	@UniqueConstraint(name = "uk_cliente_email", columnNames = "email")})
 public class Cliente implements Serializable{
 	
 	public Cliente() {}
 
+	/*Cópia campo a campo, sem reflexão. O ClienteMapeamentoTest falha se um campo novo ficar de fora.*/
 	public Cliente(ClienteRequestDTO dto) {
-		BeanUtils.copyProperties(dto, this);
+		this.nome = dto.getNome();
+		this.email = dto.getEmail();
+		this.cpf = dto.getCpf();
 	}
 
 	private static final long serialVersionUID = 1L;
 	
 	@Id
-	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_cliente")
+	@IdCliente /*Ids em blocos, ver o ClienteIdGenerator.*/
 	private Long id;
 	
 	@Column(name = "nome", nullable = false)
@@ -40,8 +48,14 @@ public class Cliente implements Serializable{
 	@Column(name = "email", nullable = false)
 	private String email;
 	
-	@Column(name = "cpf", nullable = false, unique = true, updatable = false)
+	@Column(name = "cpf", nullable = false, updatable = false)
 	private String cpf;
+	
+	/*Sobe a cada alteração; as atualizações com If-Match só gravam se ela ainda for a enviada pelo cliente.
+	 *Ver db/versao_cliente.sql.*/
+	@Version
+	@Column(name = "versao", nullable = false)
+	private Long versao;
 
 	@Override
 	public int hashCode() {
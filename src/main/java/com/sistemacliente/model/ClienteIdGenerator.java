@@ -0,0 +1,37 @@
+package com.sistemacliente.model;
+
+import java.util.Properties;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+/*Gerador do id do Cliente sobre a sequence seq_cliente com o otimizador pooled-lo: cada nextval reserva um
+ *bloco de ids [valor, valor + bloco - 1] que a aplicação distribui em memória. Como cada chamada ao banco
+ *devolve um bloco diferente, várias instâncias da aplicação podem dividir a mesma sequence, desde que o
+ *INCREMENT BY dela seja igual ao bloco (o Hibernate confere isso ao subir com ddl-auto update/validate).
+ *Ver db/seq_cliente_pooled_lo.sql para migrar uma sequence criada com allocationSize = 1.*/
+public class ClienteIdGenerator extends SequenceStyleGenerator {
+
+	/*Repassado pelo HibernateConfig a partir de clientes.id.bloco.*/
+	public static final String BLOCO = "sistemacliente.id.bloco";
+
+	public static final int BLOCO_PADRAO = 50;
+
+	@Override
+	public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry)
+	throws MappingException {
+		int bloco = serviceRegistry.requireService(ConfigurationService.class)
+		.getSetting(BLOCO, StandardConverters.INTEGER, BLOCO_PADRAO);
+
+		parameters.put(SEQUENCE_PARAM, "seq_cliente");
+		parameters.put(INITIAL_PARAM, "1");
+		parameters.put(INCREMENT_PARAM, String.valueOf(bloco));
+		parameters.put(OPT_PARAM, bloco > 1 ? "pooled-lo" : "none");
+		super.configure(type, parameters, serviceRegistry);
+	}
+
+}
@@ -0,0 +1,17 @@
+package com.sistemacliente.model;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+/*Id gerado pelo ClienteIdGenerator, em blocos da seq_cliente.*/
+@IdGeneratorType(ClienteIdGenerator.class)
+@Retention(RUNTIME)
+@Target({ FIELD, METHOD })
+public @interface IdCliente {
+}
@@ -0,0 +1,31 @@
+package com.sistemacliente.model.dto;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/*Resultado de /encontrarclientes e /clientescpf: os clientes na ordem das chaves pedidas e as chaves (ids ou
+ *CPFs) que não foram encontradas, também na ordem em que vieram.*/
+@Getter @Setter
+public class BuscaMultiplaResponseDTO<K> {
+
+	public BuscaMultiplaResponseDTO() {}
+
+	public BuscaMultiplaResponseDTO(Collection<K> chaves, Map<K, ClienteResponseDTO> encontrados) {
+		for (K chave : chaves) {
+			ClienteResponseDTO cliente = encontrados.get(chave);
+			if (cliente != null) {
+				clientes.add(cliente);
+			} else {
+				naoEncontrados.add(chave);
+			}
+		}
+	}
+
+	private List<ClienteResponseDTO> clientes = new ArrayList<>();
+	private List<K> naoEncontrados = new ArrayList<>();
+}
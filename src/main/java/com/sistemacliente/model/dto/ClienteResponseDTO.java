@@ -1,7 +1,5 @@
 package com.sistemacliente.model.dto;
 
-import org.springframework.beans.BeanUtils;
-
 import com.sistemacliente.model.Cliente;
 
 import lombok.Getter;
@@ -12,12 +10,27 @@ public class ClienteResponseDTO {
 
 	public ClienteResponseDTO() {}
 
+	/*Mesmos campos do Cliente, conferidos pelo ClienteMapeamentoTest.*/
 	public ClienteResponseDTO(Cliente cliente) {
-		BeanUtils.copyProperties(cliente, this);
+		this.id = cliente.getId();
+		this.nome = cliente.getNome();
+		this.email = cliente.getEmail();
+		this.cpf = cliente.getCpf();
+		this.versao = cliente.getVersao();
+	}
+
+	/*Usado pelo select new das leituras do ClienteRepository (ClienteRepository.RESPOSTA), na mesma ordem.*/
+	public ClienteResponseDTO(Long id, String nome, String email, String cpf, Long versao) {
+		this.id = id;
+		this.nome = nome;
+		this.email = email;
+		this.cpf = cpf;
+		this.versao = versao;
 	}
 
 	private Long id;
 	private String nome;
 	private String email;
 	private String cpf;
+	private Long versao;
 }
\ No newline at end of file
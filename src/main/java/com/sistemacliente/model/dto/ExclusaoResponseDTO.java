@@ -0,0 +1,15 @@
+package com.sistemacliente.model.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/*Resultado de /deletarclientes: quantos clientes saíram e, na exclusão por lista, os ids que não existiam.*/
+@Getter @Setter
+public class ExclusaoResponseDTO {
+
+	private long excluidos;
+	private List<Long> naoEncontrados = new ArrayList<>();
+}
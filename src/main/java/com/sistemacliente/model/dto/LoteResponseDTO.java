@@ -0,0 +1,28 @@
+package com.sistemacliente.model.dto;
+
+import java.util.List;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter @Setter
+public class LoteResponseDTO {
+
+	public LoteResponseDTO() {}
+
+	public LoteResponseDTO(List<ItemLoteResponseDTO> itens) {
+		this.itens = itens;
+		for (ItemLoteResponseDTO item : itens) {
+			switch (item.getStatus()) {
+				case CRIADO -> criados++;
+				case CONFLITO -> conflitos++;
+				case INVALIDO -> invalidos++;
+			}
+		}
+	}
+
+	private int criados;
+	private int conflitos;
+	private int invalidos;
+	private List<ItemLoteResponseDTO> itens;
+}
@@ -0,0 +1,21 @@
+package com.sistemacliente.model.dto;
+
+import java.util.List;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/*Página da listagem por cursor. O proximoCursor é nulo na última página.*/
+@Getter @Setter
+public class PaginaCursorResponseDTO {
+
+	public PaginaCursorResponseDTO() {}
+
+	public PaginaCursorResponseDTO(List<ClienteResponseDTO> clientes, String proximoCursor) {
+		this.clientes = clientes;
+		this.proximoCursor = proximoCursor;
+	}
+
+	private List<ClienteResponseDTO> clientes;
+	private String proximoCursor;
+}
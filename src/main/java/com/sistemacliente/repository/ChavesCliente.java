@@ -0,0 +1,5 @@
+package com.sistemacliente.repository;
+
+/*Só o que as exclusões precisam saber de um cliente para limpar o ClienteCache e o filtro de Bloom, lido sem
+ *montar a entidade.*/
+public record ChavesCliente(Long id, String cpf, String email) {}
@@ -1,16 +1,25 @@
 package com.sistemacliente.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.sistemacliente.model.Cliente;
+import com.sistemacliente.model.dto.ClienteResponseDTO;
 
 @Repository
-public interface ClienteRepository extends JpaRepository<Cliente, Long>{
+public interface ClienteRepository extends JpaRepository<Cliente, Long>, ClienteRepositoryCustom{
 
 	public Optional<Cliente> findByCpf(String cpf);
 	public Page<Cliente> findByNomeContainingIgnoreCase(String nome, Pageable pageable);
@@ -18,4 +27,133 @@ public interface ClienteRepository extends JpaRepository<Cliente, Long>{
 	public Page<Cliente> findByEmailContainingIgnoreCase(String email, Pageable pageable);
 	public Optional<Cliente> findByEmail(String email);
 
-}
\ No newline at end of file
+	/*Totais das buscas paginadas, para o ContagemCache.*/
+	public long countByNomeContainingIgnoreCase(String nome);
+	public long countByEmail(String email);
+	public long countByEmailContainingIgnoreCase(String email);
+
+	/*Leituras que já respondem com o DTO: o Hibernate monta um ClienteResponseDTO por linha, sem entidade
+	 *gerenciada nem cópia guardada para o dirty checking. Rodam em transação só de leitura (flush manual); as
+	 *buscas por nome e e-mail escapam % e _ do texto como as consultas derivadas ...ContainingIgnoreCase.*/
+	String RESPOSTA = "select new com.sistemacliente.model.dto.ClienteResponseDTO("
+	+ "c.id, c.nome, c.email, c.cpf, c.versao) from Cliente c";
+	String NOME_CONTENDO = " where upper(c.nome) like upper(:#{'%' + escape(#nome) + '%'}) "
+	+ "escape :#{escapeCharacter()}";
+	String EMAIL_CONTENDO = " where upper(c.email) like upper(:#{'%' + escape(#email) + '%'}) "
+	+ "escape :#{escapeCharacter()}";
+	String CONTAGEM = "select count(c) from Cliente c";
+
+	@Transactional(readOnly = true)
+	@Query(RESPOSTA)
+	public List<ClienteResponseDTO> findRespostas();
+
+	@Transactional(readOnly = true)
+	@Query(RESPOSTA + " where c.id = :id")
+	public Optional<ClienteResponseDTO> findRespostaById(Long id);
+
+	@Transactional(readOnly = true)
+	@Query(RESPOSTA + " where c.cpf = :cpf")
+	public Optional<ClienteResponseDTO> findRespostaByCpf(String cpf);
+
+	/*Vários clientes por id ou CPF numa consulta só (/encontrarclientes, /clientescpf e o IndiceNome).*/
+	@Transactional(readOnly = true)
+	@Query(RESPOSTA + " where c.id in :ids")
+	public List<ClienteResponseDTO> findRespostasByIdIn(Collection<Long> ids);
+
+	@Transactional(readOnly = true)
+	@Query(RESPOSTA + " where c.cpf in :cpfs")
+	public List<ClienteResponseDTO> findRespostasByCpfIn(Collection<String> cpfs);
+
+	/*Páginas com total (Page) e sem o SELECT count(*) (Slice, que lê um item a mais para saber se há próxima).*/
+	@Transactional(readOnly = true)
+	@Query(value = RESPOSTA, countQuery = CONTAGEM)
+	public Page<ClienteResponseDTO> findRespostas(Pageable pageable);
+
+	@Transactional(readOnly = true)
+	@Query(RESPOSTA)
+	public Slice<ClienteResponseDTO> findSliceRespostas(Pageable pageable);
+
+	@Transactional(readOnly = true)
+	@Query(value = RESPOSTA + NOME_CONTENDO, countQuery = CONTAGEM + NOME_CONTENDO)
+	public Page<ClienteResponseDTO> findRespostasPorNome(String nome, Pageable pageable);
+
+	@Transactional(readOnly = true)
+	@Query(RESPOSTA + NOME_CONTENDO)
+	public Slice<ClienteResponseDTO> findSliceRespostasPorNome(String nome, Pageable pageable);
+
+	@Transactional(readOnly = true)
+	@Query(value = RESPOSTA + " where c.email = :email", countQuery = CONTAGEM + " where c.email = :email")
+	public Page<ClienteResponseDTO> findRespostasPorEmail(String email, Pageable pageable);
+
+	@Transactional(readOnly = true)
+	@Query(RESPOSTA + " where c.email = :email")
+	public Slice<ClienteResponseDTO> findSliceRespostasPorEmail(String email, Pageable pageable);
+
+	@Transactional(readOnly = true)
+	@Query(value = RESPOSTA + EMAIL_CONTENDO, countQuery = CONTAGEM + EMAIL_CONTENDO)
+	public Page<ClienteResponseDTO> findRespostasPorEmailContendo(String email, Pageable pageable);
+
+	@Transactional(readOnly = true)
+	@Query(RESPOSTA + EMAIL_CONTENDO)
+	public Slice<ClienteResponseDTO> findSliceRespostasPorEmailContendo(String email, Pageable pageable);
+
+	/*Conferência de unicidade do cadastro em lote, uma consulta para vários CPFs/e-mails.*/
+	@Query("select c.cpf from Cliente c where c.cpf in :cpfs")
+	public List<String> findCpfsCadastrados(Collection<String> cpfs);
+
+	@Query("select c.email from Cliente c where c.email in :emails")
+	public List<String> findEmailsCadastrados(Collection<String> emails);
+
+	/*Exclusões sem carregar o Cliente: um DELETE direto que devolve quantas linhas saíram. O DELETE não passa
+	 *pelo contexto de persistência, então ele é descarregado antes e limpo depois para não sobrar Cliente excluído.*/
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("delete from Cliente c where c.id = :id")
+	public int excluirPorId(Long id);
+
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("delete from Cliente c where c.id in :ids")
+	public int excluirPorIds(Collection<Long> ids);
+
+	/*Atualizações sem carregar o Cliente: um UPDATE só, que também sobe a versão. Com versoes nula grava em
+	 *qualquer versão; com ela, só se a linha ainda estiver em uma dessas versões (as do If-Match). Zero linhas é
+	 *id inexistente, CPF diferente (no atualizarNomeEmail) ou versão desatualizada.*/
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("update Cliente c set c.nome = :nome, c.email = :email, c.versao = c.versao + 1 "
+	+ "where c.id = :id and c.cpf = :cpf and (:versoes is null or c.versao in :versoes)")
+	public int atualizarNomeEmail(Long id, String cpf, String nome, String email, Collection<Long> versoes);
+
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("update Cliente c set c.email = :email, c.versao = c.versao + 1 "
+	+ "where c.id = :id and (:versoes is null or c.versao in :versoes)")
+	public int atualizarEmail(Long id, String email, Collection<Long> versoes);
+
+	@Query("select new com.sistemacliente.repository.ChavesCliente(c.id, c.cpf, c.email) from Cliente c "
+	+ "where c.id = :id")
+	public Optional<ChavesCliente> findChavesById(Long id);
+
+	@Query("select new com.sistemacliente.repository.ChavesCliente(c.id, c.cpf, c.email) from Cliente c "
+	+ "where c.id in :ids")
+	public List<ChavesCliente> findChavesByIdIn(Collection<Long> ids);
+
+	/*Próximo pedaço de um intervalo de ids a excluir, em ordem de id a partir de depoisDe.*/
+	@Query("select new com.sistemacliente.repository.ChavesCliente(c.id, c.cpf, c.email) from Cliente c "
+	+ "where c.id > :depoisDe and c.id <= :ate order by c.id")
+	public List<ChavesCliente> findChavesNoIntervalo(Long depoisDe, Long ate, Limit limit);
+
+	/*Paginação por cursor (keyset): cada página começa depois do par (campo, id) do último cliente da página
+	 *anterior, então o banco não lê e descarta as linhas anteriores como no OFFSET.*/
+	public List<Cliente> findBy(Sort sort, Limit limit);
+
+	@Query("select c from Cliente c where c.id > :id order by c.id")
+	public List<Cliente> findAfterId(Long id, Limit limit);
+
+	@Query("select c from Cliente c where (c.nome, c.id) > (:nome, :id) order by c.nome, c.id")
+	public List<Cliente> findAfterNome(String nome, Long id, Limit limit);
+
+	@Query("select c from Cliente c where (c.email, c.id) > (:email, :id) order by c.email, c.id")
+	public List<Cliente> findAfterEmail(String email, Long id, Limit limit);
+
+	@Query("select c from Cliente c where (c.cpf, c.id) > (:cpf, :id) order by c.cpf, c.id")
+	public List<Cliente> findAfterCpf(String cpf, Long id, Limit limit);
+
+}
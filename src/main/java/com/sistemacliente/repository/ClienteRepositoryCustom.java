@@ -0,0 +1,14 @@
+package com.sistemacliente.repository;
+
+import java.util.stream.Stream;
+
+import com.sistemacliente.model.Cliente;
+
+/*Consultas que precisam do EntityManager diretamente e não podem ser derivadas pelo Spring Data.*/
+public interface ClienteRepositoryCustom {
+
+	/*Percorre a tabela inteira em ordem de id sem carregar tudo em memória. Precisa ser chamado dentro de
+	 *uma transação e o Stream deve ser fechado ao final.*/
+	public Stream<Cliente> streamTodos(int fetchSize);
+
+}
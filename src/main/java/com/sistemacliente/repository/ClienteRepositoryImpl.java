@@ -0,0 +1,25 @@
+package com.sistemacliente.repository;
+
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+
+import com.sistemacliente.model.Cliente;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+public class ClienteRepositoryImpl implements ClienteRepositoryCustom {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	public Stream<Cliente> streamTodos(int fetchSize) {
+		return entityManager.createQuery("select c from Cliente c order by c.id", Cliente.class)
+		.setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+		.setHint(HibernateHints.HINT_READ_ONLY, true)
+		.getResultStream();
+	}
+
+}
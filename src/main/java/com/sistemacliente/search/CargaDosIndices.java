@@ -0,0 +1,91 @@
+package com.sistemacliente.search;
+
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.sistemacliente.config.ClientesProperties;
+import com.sistemacliente.model.Cliente;
+import com.sistemacliente.repository.ClienteRepository;
+
+import jakarta.persistence.EntityManager;
+
+/*Monta os índices em memória (IndiceNome e FiltroCadastro) com todos os clientes do banco, numa leitura só,
+ *quando a aplicação termina de subir. Até acabar as buscas e conferências vão ao banco como antes.*/
+@Component
+public class CargaDosIndices {
+
+	private static final Logger log = LoggerFactory.getLogger(CargaDosIndices.class);
+
+	private final IndiceNome indice;
+
+	private final FiltroCadastro filtro;
+
+	private final ClienteRepository repository;
+
+	private final EntityManager entityManager;
+
+	private final ClientesProperties.Exportacao config;
+
+	public CargaDosIndices(IndiceNome indice, FiltroCadastro filtro, ClienteRepository repository,
+	EntityManager entityManager, ClientesProperties properties) {
+		this.indice = indice;
+		this.filtro = filtro;
+		this.repository = repository;
+		this.entityManager = entityManager;
+		this.config = properties.getExportacao();
+	}
+
+	@Transactional(readOnly = true)
+	@EventListener(ApplicationReadyEvent.class)
+	public void carregar() {
+		boolean comIndice = indice.isHabilitado();
+		boolean comFiltro = filtro.isHabilitado();
+		if (!comIndice && !comFiltro) {
+			return;
+		}
+
+		long inicio = System.nanoTime();
+		int lote = Math.max(1, config.getLote());
+		long total = 0;
+		if (comIndice) {
+			indice.iniciarReconstrucao();
+		}
+		if (comFiltro) {
+			filtro.iniciarReconstrucao(repository.count());
+		}
+
+		/*Mesma leitura em stream da exportação, limpando o EntityManager a cada lote.*/
+		try (Stream<Cliente> clientes = repository.streamTodos(config.getFetchSize())) {
+			Iterator<Cliente> it = clientes.iterator();
+			while (it.hasNext()) {
+				Cliente cliente = it.next();
+				if (comIndice) {
+					indice.adicionar(cliente.getId(), cliente.getNome());
+				}
+				if (comFiltro) {
+					filtro.adicionar(cliente.getCpf(), cliente.getEmail());
+				}
+				if (++total % lote == 0) {
+					entityManager.clear();
+				}
+			}
+		}
+
+		if (comIndice) {
+			indice.concluirReconstrucao();
+		}
+		if (comFiltro) {
+			filtro.concluirReconstrucao();
+		}
+		log.info("Índices em memória montados com {} clientes em {} ms.", total,
+		(System.nanoTime() - inicio) / 1_000_000);
+	}
+
+}
@@ -0,0 +1,103 @@
+package com.sistemacliente.search;
+
+/*Filtro de Bloom com contadores (counting Bloom filter), para aceitar remoções. Responde "com certeza não
+ *está" ou "talvez esteja". Cada valor marca k posições, escolhidas por hash duplo de um hash de 64 bits do
+ *texto. Os contadores param em 255 e daí em diante não são mais decrementados, o que só pode deixar
+ *falsos positivos, nunca falsos negativos.
+ *
+ *As escritas são sincronizadas; a consulta lê sem trava e pode não ver uma escrita feita no mesmo instante
+ *por outra thread (quem usa tem as constraints do banco como garantia final).*/
+public class FiltroBloom {
+
+	private static final int SATURADO = 0xFF;
+
+	private final byte[] contadores;
+
+	private final int funcoes;
+
+	private long ocupados;
+
+	/*Dimensionado para a capacidade e a taxa de falsos positivos desejadas: m = -n ln p / (ln 2)^2 e
+	 *k = m / n ln 2.*/
+	public FiltroBloom(long capacidade, double taxaFalsosPositivos) {
+		long n = Math.max(1, capacidade);
+		double m = -n * Math.log(taxaFalsosPositivos) / (Math.log(2) * Math.log(2));
+		this.contadores = new byte[(int) Math.min(Integer.MAX_VALUE - 8, Math.max(64, Math.ceil(m)))];
+		this.funcoes = (int) Math.max(1, Math.round(contadores.length / (double) n * Math.log(2)));
+	}
+
+	public boolean talvezContenha(String valor) {
+		long hash = hash(valor);
+		int h1 = (int) hash;
+		int h2 = (int) (hash >>> 32);
+		for (int i = 0; i < funcoes; i++) {
+			if (contadores[posicao(h1 + i * h2)] == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public synchronized void adicionar(String valor) {
+		long hash = hash(valor);
+		int h1 = (int) hash;
+		int h2 = (int) (hash >>> 32);
+		for (int i = 0; i < funcoes; i++) {
+			int p = posicao(h1 + i * h2);
+			int atual = contadores[p] & 0xFF;
+			if (atual == 0) {
+				ocupados++;
+			}
+			if (atual < SATURADO) {
+				contadores[p] = (byte) (atual + 1);
+			}
+		}
+	}
+
+	/*Só deve ser chamado para valores adicionados antes, senão apaga marcas de outros valores.*/
+	public synchronized void remover(String valor) {
+		long hash = hash(valor);
+		int h1 = (int) hash;
+		int h2 = (int) (hash >>> 32);
+		for (int i = 0; i < funcoes; i++) {
+			int p = posicao(h1 + i * h2);
+			int atual = contadores[p] & 0xFF;
+			if (atual > 0 && atual < SATURADO) {
+				contadores[p] = (byte) (atual - 1);
+				if (atual == 1) {
+					ocupados--;
+				}
+			}
+		}
+	}
+
+	/*Taxa de falsos positivos esperada com a ocupação atual: (posições ocupadas / total) ^ k.*/
+	public synchronized double taxaEstimada() {
+		return Math.pow((double) ocupados / contadores.length, funcoes);
+	}
+
+	public int getFuncoes() {
+		return funcoes;
+	}
+
+	public int getTamanho() {
+		return contadores.length;
+	}
+
+	private int posicao(int combinado) {
+		return (combinado & Integer.MAX_VALUE) % contadores.length;
+	}
+
+	/*FNV-1a de 64 bits sobre os chars, seguido da mistura final do SplitMix64 para espalhar os bits.*/
+	private static long hash(String valor) {
+		long h = 0xcbf29ce484222325L;
+		for (int i = 0; i < valor.length(); i++) {
+			h ^= valor.charAt(i);
+			h *= 0x100000001b3L;
+		}
+		h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+		h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+		return h ^ (h >>> 31);
+	}
+
+}
@@ -0,0 +1,224 @@
+package com.sistemacliente.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.sistemacliente.config.ClientesProperties;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/*Filtros de Bloom dos CPFs e e-mails cadastrados, para pular as consultas que só confirmam que um valor não
+ *existe (e-mail novo numa atualização, CPFs e e-mails do cadastro em lote). "Não está" no filtro dispensa o
+ *banco; "talvez" vai ao banco como antes, e se o banco não achar conta um falso positivo.
+ *
+ *Um valor entra no filtro na hora da escrita e sai só depois do commit, então o filtro pode no máximo ter a
+ *mais, nunca a menos. Mesmo assim as constraints uk_cliente_cpf e uk_cliente_email seguem como garantia
+ *final. Montado na subida da aplicação pela CargaDosIndices; até lá tudo vai ao banco.*/
+@Component
+public class FiltroCadastro implements MeterBinder {
+
+	private final ClientesProperties.Filtro config;
+
+	private final Estatisticas cpfs = new Estatisticas();
+
+	private final Estatisticas emails = new Estatisticas();
+
+	private volatile FiltroBloom filtroCpf;
+
+	private volatile FiltroBloom filtroEmail;
+
+	private volatile boolean pronto;
+
+	public FiltroCadastro(ClientesProperties properties) {
+		this.config = properties.getFiltro();
+	}
+
+	private static final class Estatisticas {
+		private final LongAdder ausentes = new LongAdder();
+		private final LongAdder talvez = new LongAdder();
+		private final LongAdder falsosPositivos = new LongAdder();
+
+		/*Falsos positivos sobre todos os valores consultados que não existiam.*/
+		double taxaObservada() {
+			double fp = falsosPositivos.sum();
+			double negativos = fp + ausentes.sum();
+			return negativos == 0 ? 0 : fp / negativos;
+		}
+	}
+
+	public boolean isHabilitado() {
+		return config.isHabilitado();
+	}
+
+	public boolean isPronto() {
+		return pronto;
+	}
+
+	public boolean cpfCadastrado(String cpf, Predicate<String> consulta) {
+		return cadastrado(cpf, filtroCpf, cpfs, consulta);
+	}
+
+	public boolean emailCadastrado(String email, Predicate<String> consulta) {
+		return cadastrado(email, filtroEmail, emails, consulta);
+	}
+
+	/*Versão em lote: só os valores com "talvez" vão para a consulta IN.*/
+	public List<String> cpfsCadastrados(Collection<String> valores, Function<Collection<String>, List<String>> consulta) {
+		return cadastrados(valores, filtroCpf, cpfs, consulta);
+	}
+
+	public List<String> emailsCadastrados(Collection<String> valores,
+	Function<Collection<String>, List<String>> consulta) {
+		return cadastrados(valores, filtroEmail, emails, consulta);
+	}
+
+	/*Também durante a reconstrução, para que um cadastro feito depois da leitura da carga não fique de fora.*/
+	public void registrar(String cpf, String email) {
+		FiltroBloom cpfAtual = filtroCpf;
+		FiltroBloom emailAtual = filtroEmail;
+		if (cpf != null && cpfAtual != null) {
+			cpfAtual.adicionar(cpf);
+		}
+		if (email != null && emailAtual != null) {
+			emailAtual.adicionar(email);
+		}
+	}
+
+	/*O e-mail novo entra já; o antigo sai depois do commit, junto com a escrita que o liberou.*/
+	public void trocarEmail(String antigo, String novo) {
+		registrar(null, novo);
+		if (!pronto || antigo == null || antigo.equals(novo)) {
+			return;
+		}
+		depoisDoCommit(() -> {
+			if (pronto) {
+				filtroEmail.remover(antigo);
+			}
+		});
+	}
+
+	public void remover(String cpf, String email) {
+		if (!pronto) {
+			return;
+		}
+		depoisDoCommit(() -> {
+			if (!pronto) {
+				return;
+			}
+			if (cpf != null) {
+				filtroCpf.remover(cpf);
+			}
+			if (email != null) {
+				filtroEmail.remover(email);
+			}
+		});
+	}
+
+	/*Reconstrução: iniciar, adicionar cada cliente do banco e concluir. Remoções que chegam no meio são
+	 *ignoradas (podem ser de valores que a carga ainda não leu), o que só deixa falsos positivos.*/
+	public void iniciarReconstrucao(long clientes) {
+		pronto = false;
+		long capacidade = Math.max(config.getCapacidade(), clientes * 2);
+		filtroCpf = new FiltroBloom(capacidade, config.getTaxaFalsosPositivos());
+		filtroEmail = new FiltroBloom(capacidade, config.getTaxaFalsosPositivos());
+	}
+
+	public void adicionar(String cpf, String email) {
+		filtroCpf.adicionar(cpf);
+		filtroEmail.adicionar(email);
+	}
+
+	public void concluirReconstrucao() {
+		pronto = true;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		registrarMetricas(registry, "cpf", cpfs, () -> filtroCpf);
+		registrarMetricas(registry, "email", emails, () -> filtroEmail);
+	}
+
+	private void registrarMetricas(MeterRegistry registry, String nome, Estatisticas estatisticas,
+	Supplier<FiltroBloom> filtro) {
+		FunctionCounter.builder("clientes.filtro.consultas", estatisticas.ausentes, LongAdder::sum)
+		.tag("filtro", nome).tag("resultado", "ausente").register(registry);
+		FunctionCounter.builder("clientes.filtro.consultas", estatisticas.talvez, LongAdder::sum)
+		.tag("filtro", nome).tag("resultado", "talvez").register(registry);
+		FunctionCounter.builder("clientes.filtro.falsos.positivos", estatisticas.falsosPositivos, LongAdder::sum)
+		.tag("filtro", nome).register(registry);
+		Gauge.builder("clientes.filtro.taxa.falsos.positivos", estatisticas, Estatisticas::taxaObservada)
+		.tag("filtro", nome).description("Falsos positivos / consultas de valores não cadastrados")
+		.register(registry);
+		Gauge.builder("clientes.filtro.taxa.falsos.positivos.estimada", this,
+		f -> filtro.get() == null ? 0 : filtro.get().taxaEstimada())
+		.tag("filtro", nome).description("Taxa esperada pela ocupação do filtro").register(registry);
+	}
+
+	private boolean cadastrado(String valor, FiltroBloom filtro, Estatisticas estatisticas,
+	Predicate<String> consulta) {
+		if (!pronto || valor == null) {
+			return consulta.test(valor);
+		}
+
+		if (!filtro.talvezContenha(valor)) {
+			estatisticas.ausentes.increment();
+			return false;
+		}
+
+		estatisticas.talvez.increment();
+		boolean existe = consulta.test(valor);
+		if (!existe) {
+			estatisticas.falsosPositivos.increment();
+		}
+		return existe;
+	}
+
+	private List<String> cadastrados(Collection<String> valores, FiltroBloom filtro, Estatisticas estatisticas,
+	Function<Collection<String>, List<String>> consulta) {
+		if (!pronto) {
+			return consulta.apply(valores);
+		}
+
+		List<String> talvez = new ArrayList<>();
+		for (String valor : valores) {
+			if (filtro.talvezContenha(valor)) {
+				talvez.add(valor);
+			}
+		}
+		estatisticas.ausentes.add(valores.size() - talvez.size());
+		estatisticas.talvez.add(talvez.size());
+		if (talvez.isEmpty()) {
+			return List.of();
+		}
+
+		List<String> encontrados = consulta.apply(talvez);
+		estatisticas.falsosPositivos.add(talvez.size() - encontrados.size());
+		return encontrados;
+	}
+
+	private static void depoisDoCommit(Runnable acao) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					acao.run();
+				}
+			});
+		} else {
+			acao.run();
+		}
+	}
+
+}
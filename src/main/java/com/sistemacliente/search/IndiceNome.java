@@ -0,0 +1,325 @@
+package com.sistemacliente.search;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.sistemacliente.config.ClientesProperties;
+
+/*Índice de trigramas do nome do cliente para o buscarPorNome. O banco resolve o "contém" com
+ *lower(nome) LIKE '%x%', que sempre varre a tabela inteira. Aqui cada trecho de 3 letras do nome aponta para
+ *a lista ordenada dos ids que o contêm; a busca cruza as listas dos trigramas do termo e confere o "contém" só
+ *nos candidatos. Termos com menos de 3 letras não têm trigrama e continuam indo ao banco.
+ *
+ *A página sai na mesma ordem da busca no banco (ORDEM): nome pela colação configurada (o Collator do
+ *clientes.indice-nome.colacao, igual à do banco) e id no empate. A chave de colação de cada nome é calculada
+ *uma vez, na escrita, e a busca só compara chaves.
+ *
+ *O ClienteService (e o ClienteLoteService) avisam cada escrita, aplicada depois do commit. O índice é montado
+ *de novo a cada subida da aplicação pela CargaDosIndices e só responde depois de pronto.*/
+@Component
+public class IndiceNome {
+
+	/*Ordem das páginas do buscarPorNome, também usada quando a busca vai ao banco.*/
+	public static final Sort ORDEM = Sort.by("nome").and(Sort.by("id"));
+
+	private record Entrada(CollationKey chave, String minusculo) {}
+
+	/*Nome null é remoção.*/
+	private record Escrita(Long id, String nome) {}
+
+	private record Achado(CollationKey chave, long id) implements Comparable<Achado> {
+
+		int compareTo(CollationKey outraChave, long outroId) {
+			int comparacao = chave.compareTo(outraChave);
+			return comparacao != 0 ? comparacao : Long.compare(id, outroId);
+		}
+
+		@Override
+		public int compareTo(Achado outro) {
+			return compareTo(outro.chave, outro.id);
+		}
+	}
+
+	private final boolean habilitado;
+
+	/*Só usado com o lock de escrita.*/
+	private final Collator colacao;
+
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private Map<Long, Entrada> nomes = new HashMap<>();
+
+	private Map<Long, Ids> trigramas = new HashMap<>();
+
+	/*Escritas que chegaram durante a reconstrução, reaplicadas no índice novo antes de ele entrar no lugar.*/
+	private List<Escrita> pendentes;
+
+	private volatile boolean pronto;
+
+	public IndiceNome(ClientesProperties properties) {
+		this.habilitado = properties.getIndiceNome().isHabilitado();
+		this.colacao = Collator.getInstance(Locale.forLanguageTag(properties.getIndiceNome().getColacao()));
+		this.colacao.setStrength(Collator.TERTIARY);
+	}
+
+	public boolean isHabilitado() {
+		return habilitado;
+	}
+
+	public boolean isPronto() {
+		return pronto;
+	}
+
+	/*Resultado de uma busca: quantos nomes contêm o termo e os ids da página pedida, na ordem de nome e id.*/
+	public record Resultado(long total, List<Long> ids) {}
+
+	/*Busca sem diferenciar maiúsculas, como o findRespostasPorNome ordenado pela ORDEM. Devolve null
+	 *quando o índice não pode responder e a busca deve ir ao banco.*/
+	public Resultado buscar(String termo, long inicio, int itens) {
+		if (!pronto || termo == null) {
+			return null;
+		}
+
+		String minusculo = termo.toLowerCase(Locale.ROOT);
+		if (minusculo.length() < 3) {
+			return null;
+		}
+
+		lock.readLock().lock();
+		try {
+			List<Ids> listas = new ArrayList<>();
+			for (long trigrama : trigramasDe(minusculo)) {
+				Ids ids = trigramas.get(trigrama);
+				if (ids == null) {
+					return new Resultado(0, List.of());
+				}
+				listas.add(ids);
+			}
+			listas.sort(Comparator.comparingInt(ids -> ids.tamanho));
+
+			/*Parte da lista mais curta e cruza com as outras, da menor para a maior.*/
+			long[] candidatos = Arrays.copyOf(listas.get(0).valores, listas.get(0).tamanho);
+			int quantidade = candidatos.length;
+			for (int j = 1; j < listas.size() && quantidade > 0; j++) {
+				quantidade = listas.get(j).manterComuns(candidatos, quantidade);
+			}
+
+			/*Os trigramas não garantem a ordem nem a vizinhança, o "contém" é conferido em cada candidato. Da página
+			 *só ficam os inicio + itens menores, num heap do maior para o menor.*/
+			long limite = Math.min(inicio + itens, Integer.MAX_VALUE - 1);
+			PriorityQueue<Achado> menores = new PriorityQueue<>(Comparator.reverseOrder());
+			long total = 0;
+			for (int i = 0; i < quantidade; i++) {
+				Entrada entrada = nomes.get(candidatos[i]);
+				if (minusculo.length() > 3 && !entrada.minusculo().contains(minusculo)) {
+					continue;
+				}
+				total++;
+
+				if (menores.size() < limite) {
+					menores.add(new Achado(entrada.chave(), candidatos[i]));
+				} else if (limite > 0 && menores.peek().compareTo(entrada.chave(), candidatos[i]) > 0) {
+					menores.poll();
+					menores.add(new Achado(entrada.chave(), candidatos[i]));
+				}
+			}
+
+			List<Achado> ordenados = new ArrayList<>(menores);
+			ordenados.sort(null);
+			List<Long> ids = new ArrayList<>();
+			for (int i = (int) Math.min(inicio, ordenados.size()); i < ordenados.size(); i++) {
+				ids.add(ordenados.get(i).id());
+			}
+			return new Resultado(total, ids);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public void registrar(Long id, String nome) {
+		if (habilitado && id != null && nome != null) {
+			depoisDoCommit(new Escrita(id, nome));
+		}
+	}
+
+	public void remover(Long id) {
+		if (habilitado && id != null) {
+			depoisDoCommit(new Escrita(id, null));
+		}
+	}
+
+	/*Reconstrução: iniciar, adicionar cada cliente do banco e concluir. As escritas feitas nesse meio tempo
+	 *ficam em pendentes.*/
+	public void iniciarReconstrucao() {
+		lock.writeLock().lock();
+		try {
+			pronto = false;
+			nomes = new HashMap<>();
+			trigramas = new HashMap<>();
+			pendentes = new ArrayList<>();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void adicionar(Long id, String nome) {
+		lock.writeLock().lock();
+		try {
+			gravar(id, nome);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void concluirReconstrucao() {
+		lock.writeLock().lock();
+		try {
+			for (Escrita escrita : pendentes) {
+				gravar(escrita.id(), escrita.nome());
+			}
+			pendentes = null;
+			pronto = true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public int tamanho() {
+		lock.readLock().lock();
+		try {
+			return nomes.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private void depoisDoCommit(Escrita escrita) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					aplicar(escrita);
+				}
+			});
+		} else {
+			aplicar(escrita);
+		}
+	}
+
+	private void aplicar(Escrita escrita) {
+		lock.writeLock().lock();
+		try {
+			if (pendentes != null) {
+				pendentes.add(escrita);
+			}
+			gravar(escrita.id(), escrita.nome());
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/*Chamado sempre com o lock de escrita.*/
+	private void gravar(Long id, String nome) {
+		Entrada antiga = nomes.remove(id);
+		if (antiga != null) {
+			for (long trigrama : trigramasDe(antiga.minusculo())) {
+				Ids ids = trigramas.get(trigrama);
+				if (ids != null && ids.remover(id) && ids.tamanho == 0) {
+					trigramas.remove(trigrama);
+				}
+			}
+		}
+
+		if (nome != null) {
+			String minusculo = nome.toLowerCase(Locale.ROOT);
+			nomes.put(id, new Entrada(colacao.getCollationKey(nome), minusculo.equals(nome) ? nome : minusculo));
+			for (long trigrama : trigramasDe(minusculo)) {
+				trigramas.computeIfAbsent(trigrama, t -> new Ids()).adicionar(id);
+			}
+		}
+	}
+
+	/*Cada trigrama vira um long com os três chars de 16 bits.*/
+	private static Set<Long> trigramasDe(String texto) {
+		Set<Long> resultado = new LinkedHashSet<>();
+		for (int i = 0; i + 3 <= texto.length(); i++) {
+			resultado.add(((long) texto.charAt(i) << 32) | ((long) texto.charAt(i + 1) << 16) | texto.charAt(i + 2));
+		}
+		return resultado;
+	}
+
+	/*Lista ordenada de ids sem repetição. Como os ids vêm da sequence, quase todo cadastro entra no fim.*/
+	private static final class Ids {
+
+		private long[] valores = new long[4];
+
+		private int tamanho;
+
+		/*Deixa em candidatos (ordenados) só os que também estão nesta lista e devolve quantos ficaram. Avança
+		 *aos saltos, então o custo depende mais da lista de candidatos do que do tamanho desta.*/
+		int manterComuns(long[] candidatos, int quantidade) {
+			int mantidos = 0;
+			int posicao = 0;
+			for (int i = 0; i < quantidade && posicao < tamanho; i++) {
+				long id = candidatos[i];
+				int salto = 1;
+				int fim = posicao;
+				while (fim < tamanho && valores[fim] < id) {
+					posicao = fim + 1;
+					fim += salto;
+					salto <<= 1;
+				}
+				posicao = Arrays.binarySearch(valores, posicao, Math.min(fim + 1, tamanho), id);
+				if (posicao >= 0) {
+					candidatos[mantidos++] = id;
+					posicao++;
+				} else {
+					posicao = -(posicao + 1);
+				}
+			}
+			return mantidos;
+		}
+
+		void adicionar(long id) {
+			int posicao = tamanho == 0 || valores[tamanho - 1] < id ? -(tamanho + 1)
+			: Arrays.binarySearch(valores, 0, tamanho, id);
+			if (posicao >= 0) {
+				return;
+			}
+			posicao = -(posicao + 1);
+			if (tamanho == valores.length) {
+				valores = Arrays.copyOf(valores, tamanho + (tamanho >> 1) + 1);
+			}
+			System.arraycopy(valores, posicao, valores, posicao + 1, tamanho - posicao);
+			valores[posicao] = id;
+			tamanho++;
+		}
+
+		boolean remover(long id) {
+			int posicao = Arrays.binarySearch(valores, 0, tamanho, id);
+			if (posicao < 0) {
+				return false;
+			}
+			System.arraycopy(valores, posicao + 1, valores, posicao, tamanho - posicao - 1);
+			tamanho--;
+			return true;
+		}
+	}
+
+}
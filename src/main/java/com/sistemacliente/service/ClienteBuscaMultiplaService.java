@@ -0,0 +1,69 @@
+package com.sistemacliente.service;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.stereotype.Service;
+
+import com.sistemacliente.cache.ClienteCache;
+import com.sistemacliente.config.ClientesProperties;
+import com.sistemacliente.exception.ArgumentoInvalidoException;
+import com.sistemacliente.model.dto.BuscaMultiplaResponseDTO;
+import com.sistemacliente.model.dto.ClienteResponseDTO;
+import com.sistemacliente.repository.ClienteRepository;
+
+import io.micrometer.core.annotation.Timed;
+
+/*Vários clientes por id ou por CPF numa requisição e numa consulta IN, no lugar de uma chamada por cliente
+ *a /encontrarcliente/{id} ou /clientecpf/{cpf}. Passa pelo ClienteCache como as buscas de um cliente só,
+ *então o banco só é consultado pelos que não estão no cache.*/
+@Service
+@Timed("clientes.servico")
+public class ClienteBuscaMultiplaService {
+
+	private final ClienteRepository repository;
+
+	private final ClienteCache clienteCache;
+
+	private final ClientesProperties.BuscaMultipla config;
+
+	public ClienteBuscaMultiplaService(ClienteRepository repository, ClienteCache clienteCache,
+	ClientesProperties properties) {
+		this.repository = repository;
+		this.clienteCache = clienteCache;
+		this.config = properties.getBuscaMultipla();
+	}
+
+	public BuscaMultiplaResponseDTO<Long> buscarPorIds(List<Long> ids) {
+		Set<Long> chaves = chavesDistintas(ids, "id");
+		Map<Long, ClienteResponseDTO> encontrados = clienteCache.buscarPorIds(chaves,
+		faltantes -> repository.findRespostasByIdIn(faltantes));
+		return new BuscaMultiplaResponseDTO<>(chaves, encontrados);
+	}
+
+	public BuscaMultiplaResponseDTO<String> buscarPorCpfs(List<String> cpfs) {
+		Set<String> chaves = chavesDistintas(cpfs, "CPF");
+		Map<String, ClienteResponseDTO> encontrados = clienteCache.buscarPorCpfs(chaves,
+		faltantes -> repository.findRespostasByCpfIn(faltantes));
+		return new BuscaMultiplaResponseDTO<>(chaves, encontrados);
+	}
+
+	/*Chaves repetidas contam uma vez só e ficam na posição em que apareceram primeiro.*/
+	private <K> Set<K> chavesDistintas(List<K> chaves, String nome) {
+		if (chaves == null || chaves.isEmpty()) {
+			throw new ArgumentoInvalidoException("Informe ao menos um " + nome + ".");
+		}
+		if (chaves.contains(null)) {
+			throw new ArgumentoInvalidoException("A lista não pode ter " + nome + " vazio.");
+		}
+		Set<K> distintas = new LinkedHashSet<>(chaves);
+		if (distintas.size() > config.getMaxChaves()) {
+			throw new ArgumentoInvalidoException("A busca pode ter no máximo " + config.getMaxChaves() + " "
+			+ nome + "s.");
+		}
+		return distintas;
+	}
+
+}
@@ -0,0 +1,67 @@
+package com.sistemacliente.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.sistemacliente.exception.ArgumentoInvalidoException;
+import com.sistemacliente.model.Cliente;
+
+/*Posição da listagem por cursor: o campo de ordenação, o valor desse campo no último cliente da página e o
+ *id dele para desempate. Vai para o cliente como um token Base64 opaco.*/
+public class ClienteCursor {
+
+	private static final char SEPARADOR = '|';
+
+	private final String campo;
+	private final Long id;
+	private final String valor;
+
+	public ClienteCursor(String campo, Long id, String valor) {
+		this.campo = campo;
+		this.id = id;
+		this.valor = valor;
+	}
+
+	public static ClienteCursor depoisDe(Cliente cliente, String campo) {
+		String valor = switch (campo) {
+			case "nome" -> cliente.getNome();
+			case "email" -> cliente.getEmail();
+			case "cpf" -> cliente.getCpf();
+			default -> "";
+		};
+		return new ClienteCursor(campo, cliente.getId(), valor);
+	}
+
+	public String codificar() {
+		String texto = campo + SEPARADOR + id + SEPARADOR + valor;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+	}
+
+	public static ClienteCursor decodificar(String token) {
+		try {
+			String texto = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			int primeiro = texto.indexOf(SEPARADOR);
+			int segundo = texto.indexOf(SEPARADOR, primeiro + 1);
+			if (primeiro < 0 || segundo < 0) {
+				throw new ArgumentoInvalidoException("Cursor inválido.");
+			}
+			return new ClienteCursor(texto.substring(0, primeiro),
+			Long.valueOf(texto.substring(primeiro + 1, segundo)), texto.substring(segundo + 1));
+		} catch (IllegalArgumentException e) { /*Base64 ou id malformados.*/
+			throw new ArgumentoInvalidoException("Cursor inválido.");
+		}
+	}
+
+	public String getCampo() {
+		return campo;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public String getValor() {
+		return valor;
+	}
+
+}
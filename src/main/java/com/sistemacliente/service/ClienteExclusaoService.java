@@ -0,0 +1,125 @@
+package com.sistemacliente.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sistemacliente.cache.ClienteCache;
+import com.sistemacliente.cache.ContagemCache;
+import com.sistemacliente.config.ClientesProperties;
+import com.sistemacliente.exception.ArgumentoInvalidoException;
+import com.sistemacliente.model.dto.ExclusaoResponseDTO;
+import com.sistemacliente.repository.ChavesCliente;
+import com.sistemacliente.repository.ClienteRepository;
+import com.sistemacliente.search.FiltroCadastro;
+import com.sistemacliente.search.IndiceNome;
+
+import io.micrometer.core.annotation.Timed;
+
+/*Exclusão em massa (expurgo de dados pessoais) por lista ou intervalo de ids. Cada pedaço de até
+ *tamanhoPedaco clientes é um SELECT das chaves e um DELETE ... IN numa transação própria: um expurgo grande
+ *não segura os locks de todas as linhas até o fim, e o que já foi excluído fica excluído se um pedaço falhar.*/
+@Service
+@Timed("clientes.servico")
+public class ClienteExclusaoService {
+
+	private final ClienteRepository repository;
+
+	private final TransactionTemplate transacao;
+
+	private final ContagemCache contagemCache;
+
+	private final ClienteCache clienteCache;
+
+	private final IndiceNome indiceNome;
+
+	private final FiltroCadastro filtroCadastro;
+
+	private final ClientesProperties.Exclusao config;
+
+	public ClienteExclusaoService(ClienteRepository repository, PlatformTransactionManager transactionManager,
+	ContagemCache contagemCache, ClienteCache clienteCache, IndiceNome indiceNome, FiltroCadastro filtroCadastro,
+	ClientesProperties properties) {
+		this.repository = repository;
+		this.transacao = new TransactionTemplate(transactionManager);
+		this.contagemCache = contagemCache;
+		this.clienteCache = clienteCache;
+		this.indiceNome = indiceNome;
+		this.filtroCadastro = filtroCadastro;
+		this.config = properties.getExclusao();
+	}
+
+	/*Ou a lista de ids, ou o intervalo completo.*/
+	public ExclusaoResponseDTO excluir(List<Long> ids, Long de, Long ate) {
+		if (ids != null && !ids.isEmpty() && de == null && ate == null) {
+			return excluirPorIds(ids);
+		}
+		if ((ids == null || ids.isEmpty()) && de != null && ate != null) {
+			return excluirIntervalo(de, ate);
+		}
+		throw new ArgumentoInvalidoException("Informe a lista de ids ou o intervalo com de e ate.");
+	}
+
+	public ExclusaoResponseDTO excluirPorIds(List<Long> ids) {
+		if (ids.contains(null)) {
+			throw new ArgumentoInvalidoException("A lista não pode ter id vazio.");
+		}
+		Set<Long> distintos = new LinkedHashSet<>(ids);
+		if (distintos.size() > config.getMaxIds()) {
+			throw new ArgumentoInvalidoException("A exclusão pode ter no máximo " + config.getMaxIds() + " ids.");
+		}
+
+		ExclusaoResponseDTO resultado = new ExclusaoResponseDTO();
+		List<Long> pendentes = new ArrayList<>(distintos);
+		for (int inicio = 0; inicio < pendentes.size(); inicio += config.getTamanhoPedaco()) {
+			List<Long> pedaco = pendentes.subList(inicio, Math.min(pendentes.size(), inicio + config.getTamanhoPedaco()));
+			List<ChavesCliente> chaves = transacao.execute(status -> excluir(repository.findChavesByIdIn(pedaco),
+			resultado));
+			Set<Long> encontrados = new LinkedHashSet<>();
+			chaves.forEach(cliente -> encontrados.add(cliente.id()));
+			pedaco.stream().filter(id -> !encontrados.contains(id)).forEach(resultado.getNaoEncontrados()::add);
+		}
+		return resultado;
+	}
+
+	/*Intervalo fechado [de, ate], percorrido em ordem de id: cada pedaço continua depois do último excluído.*/
+	public ExclusaoResponseDTO excluirIntervalo(long de, long ate) {
+		if (de > ate) {
+			throw new ArgumentoInvalidoException("O início do intervalo não pode ser maior que o fim.");
+		}
+
+		ExclusaoResponseDTO resultado = new ExclusaoResponseDTO();
+		long depoisDe = de - 1;
+		while (true) {
+			long ultimo = depoisDe;
+			List<ChavesCliente> chaves = transacao.execute(status -> excluir(
+			repository.findChavesNoIntervalo(ultimo, ate, Limit.of(config.getTamanhoPedaco())), resultado));
+			if (chaves.size() < config.getTamanhoPedaco()) {
+				return resultado;
+			}
+			depoisDe = chaves.get(chaves.size() - 1).id();
+		}
+	}
+
+	private List<ChavesCliente> excluir(List<ChavesCliente> chaves, ExclusaoResponseDTO resultado) {
+		if (chaves.isEmpty()) {
+			return chaves;
+		}
+		resultado.setExcluidos(resultado.getExcluidos()
+		+ repository.excluirPorIds(chaves.stream().map(ChavesCliente::id).toList()));
+		contagemCache.invalidar();
+		for (ChavesCliente cliente : chaves) {
+			clienteCache.invalidar(cliente.id(), cliente.cpf());
+			indiceNome.remover(cliente.id());
+			filtroCadastro.remover(cliente.cpf(), cliente.email());
+		}
+		return chaves;
+	}
+
+}
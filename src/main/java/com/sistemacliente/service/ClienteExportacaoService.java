@@ -0,0 +1,107 @@
+package com.sistemacliente.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sistemacliente.config.ClientesProperties;
+import com.sistemacliente.exception.ArgumentoInvalidoException;
+import com.sistemacliente.model.Cliente;
+import com.sistemacliente.model.dto.ClienteResponseDTO;
+import com.sistemacliente.repository.ClienteRepository;
+
+import jakarta.persistence.EntityManager;
+
+/*Listagem de todos os clientes escrita direto na saída da resposta. Diferente do listagemCliente(), que
+ *monta duas listas inteiras em memória, aqui cada linha é lida, escrita e descartada, então o uso de heap
+ *não cresce com o tamanho da tabela.*/
+@Service
+public class ClienteExportacaoService {
+
+	public enum Formato {
+		NDJSON(MediaType.parseMediaType("application/x-ndjson")),
+		JSON(MediaType.APPLICATION_JSON);
+
+		private final MediaType mediaType;
+
+		Formato(MediaType mediaType) {
+			this.mediaType = mediaType;
+		}
+
+		public MediaType getMediaType() {
+			return mediaType;
+		}
+
+		public static Formato de(String formato) {
+			for (Formato f : values()) {
+				if (f.name().equalsIgnoreCase(formato)) {
+					return f;
+				}
+			}
+			throw new ArgumentoInvalidoException("Formato de exportação inválido, use ndjson ou json.");
+		}
+	}
+
+	private final ClienteRepository repository;
+
+	private final EntityManager entityManager;
+
+	private final ObjectWriter writer;
+
+	private final ClientesProperties properties;
+
+	public ClienteExportacaoService(ClienteRepository repository, EntityManager entityManager,
+	ObjectMapper mapper, ClientesProperties properties) {
+		this.repository = repository;
+		this.entityManager = entityManager;
+		/*Sem flush a cada objeto, o flush é feito por lote.*/
+		this.writer = mapper.writerFor(ClienteResponseDTO.class)
+		.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+		this.properties = properties;
+	}
+
+	@Transactional(readOnly = true)
+	public long exportar(OutputStream out, Formato formato) throws IOException {
+		int lote = Math.max(1, properties.getExportacao().getLote());
+		long total = 0;
+
+		try (Stream<Cliente> clientes = repository.streamTodos(properties.getExportacao().getFetchSize());
+		JsonGenerator gen = writer.createGenerator(out)) {
+			gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+			gen.setRootValueSeparator(null);
+
+			if (formato == Formato.JSON) {
+				gen.writeStartArray();
+			}
+
+			Iterator<Cliente> it = clientes.iterator();
+			while (it.hasNext()) {
+				writer.writeValue(gen, new ClienteResponseDTO(it.next()));
+				if (formato == Formato.NDJSON) {
+					gen.writeRaw('\n');
+				}
+
+				if (++total % lote == 0) { /*Solta as entidades já escritas e envia o pedaço ao cliente.*/
+					entityManager.clear();
+					gen.flush();
+				}
+			}
+
+			if (formato == Formato.JSON) {
+				gen.writeEndArray();
+			}
+			gen.flush();
+		}
+		return total;
+	}
+
+}
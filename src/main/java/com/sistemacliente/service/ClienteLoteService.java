@@ -0,0 +1,217 @@
+package com.sistemacliente.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sistemacliente.cache.ContagemCache;
+import com.sistemacliente.config.ClientesProperties;
+import com.sistemacliente.exception.ArgumentoInvalidoException;
+import com.sistemacliente.exception.ViolacaoDeUnicidade;
+import com.sistemacliente.model.Cliente;
+import com.sistemacliente.model.dto.ClienteRequestDTO;
+import com.sistemacliente.model.dto.ClienteResponseDTO;
+import com.sistemacliente.model.dto.ItemLoteResponseDTO;
+import com.sistemacliente.model.dto.ItemLoteResponseDTO.Status;
+import com.sistemacliente.model.dto.LoteResponseDTO;
+import com.sistemacliente.repository.ClienteRepository;
+import com.sistemacliente.search.FiltroCadastro;
+import com.sistemacliente.search.IndiceNome;
+import com.sistemacliente.validation.EmailValidator;
+
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/*Cadastro de muitos clientes numa requisição. Em vez de findByCpf + findByEmail + insert por cliente, valida
+ *o lote inteiro, confere CPFs e e-mails já cadastrados com consultas IN e insere em pedaços com o batch do
+ *JDBC (hibernate.jdbc.batch_size). Cada item recebe seu próprio status na resposta.
+ *
+ *Cada pedaço é gravado numa transação própria. Se um cadastro concorrente ocupar um CPF ou e-mail entre a
+ *consulta e o insert, só aquele pedaço volta atrás e é gravado de novo cliente a cliente, para o item que
+ *violou a constraint sair como CONFLITO e os outros como CRIADO. Os pedaços já gravados continuam gravados.*/
+@Service
+@Timed("clientes.servico")
+public class ClienteLoteService {
+
+	private final ClienteRepository repository;
+
+	private final EntityManager entityManager;
+
+	private final TransactionTemplate transacao;
+
+	private final Validator validator;
+
+	private final EmailValidator emailValidator;
+
+	private final ContagemCache contagemCache;
+
+	private final IndiceNome indiceNome;
+
+	private final FiltroCadastro filtroCadastro;
+
+	private final ClientesProperties.Lote config;
+
+	public ClienteLoteService(ClienteRepository repository, EntityManager entityManager,
+	PlatformTransactionManager transactionManager, Validator validator, EmailValidator emailValidator,
+	ContagemCache contagemCache, IndiceNome indiceNome, FiltroCadastro filtroCadastro,
+	ClientesProperties properties) {
+		this.repository = repository;
+		this.entityManager = entityManager;
+		this.transacao = new TransactionTemplate(transactionManager);
+		this.validator = validator;
+		this.emailValidator = emailValidator;
+		this.contagemCache = contagemCache;
+		this.indiceNome = indiceNome;
+		this.filtroCadastro = filtroCadastro;
+		this.config = properties.getLote();
+	}
+
+	public LoteResponseDTO salvarLote(List<ClienteRequestDTO> dtos) {
+		if (dtos == null || dtos.isEmpty()) {
+			throw new ArgumentoInvalidoException("O lote não pode ser vazio.");
+		}
+
+		if (dtos.size() > config.getMaxItens()) {
+			throw new ArgumentoInvalidoException("O lote pode ter no máximo " + config.getMaxItens() + " clientes.");
+		}
+
+		ItemLoteResponseDTO[] resultado = new ItemLoteResponseDTO[dtos.size()];
+		List<Integer> validos = new ArrayList<>();
+		Set<String> cpfsDoLote = new HashSet<>();
+		Set<String> emailsDoLote = new HashSet<>();
+
+		for (int i = 0; i < dtos.size(); i++) {
+			ClienteRequestDTO dto = dtos.get(i);
+			String erro = validar(dto);
+			if (erro != null) {
+				resultado[i] = new ItemLoteResponseDTO(i, Status.INVALIDO, null, erro);
+			} else if (!cpfsDoLote.add(dto.getCpf())) {
+				resultado[i] = new ItemLoteResponseDTO(i, Status.CONFLITO, null, "CPF repetido no lote.");
+			} else if (!emailsDoLote.add(dto.getEmail())) {
+				cpfsDoLote.remove(dto.getCpf());
+				resultado[i] = new ItemLoteResponseDTO(i, Status.CONFLITO, null, "E-mail repetido no lote.");
+			} else {
+				validos.add(i);
+			}
+		}
+
+		/*O filtro de Bloom descarta os valores que com certeza são novos antes das consultas IN.*/
+		Set<String> cpfsCadastrados = new HashSet<>(filtroCadastro.cpfsCadastrados(cpfsDoLote,
+		cpfs -> buscarEmPedacos(cpfs, repository::findCpfsCadastrados)));
+		Set<String> emailsCadastrados = new HashSet<>(filtroCadastro.emailsCadastrados(emailsDoLote,
+		emails -> buscarEmPedacos(emails, repository::findEmailsCadastrados)));
+
+		List<Integer> indices = new ArrayList<>();
+		for (int i : validos) {
+			ClienteRequestDTO dto = dtos.get(i);
+			if (cpfsCadastrados.contains(dto.getCpf())) {
+				resultado[i] = new ItemLoteResponseDTO(i, Status.CONFLITO, null,
+				"O CPF " + dto.getCpf() + " já está cadastrado.");
+			} else if (emailsCadastrados.contains(dto.getEmail())) {
+				resultado[i] = new ItemLoteResponseDTO(i, Status.CONFLITO, null,
+				"E-mail indisponível, já está sendo utilizado.");
+			} else {
+				indices.add(i);
+			}
+		}
+
+		boolean criou = false;
+		int tamanho = Math.max(1, config.getTamanhoPedaco());
+		for (int inicio = 0; inicio < indices.size(); inicio += tamanho) {
+			List<Integer> pedaco = indices.subList(inicio, Math.min(inicio + tamanho, indices.size()));
+			List<Cliente> salvos;
+			try {
+				salvos = transacao.execute(status -> inserir(pedaco.stream().map(i -> new Cliente(dtos.get(i)))
+				.toList()));
+			} catch (DataIntegrityViolationException ex) {
+				criou |= inserirUmAUm(dtos, pedaco, resultado);
+				continue;
+			}
+
+			for (int j = 0; j < salvos.size(); j++) {
+				registrar(resultado, pedaco.get(j), salvos.get(j));
+			}
+			criou |= !salvos.isEmpty();
+		}
+
+		if (criou) {
+			contagemCache.invalidar();
+		}
+		return new LoteResponseDTO(Arrays.asList(resultado));
+	}
+
+	private List<Cliente> inserir(List<Cliente> clientes) {
+		List<Cliente> salvos = repository.saveAll(clientes);
+		/*Envia o pedaço em batch, com a violação já traduzida pelo repositório, e solta as entidades da memória.*/
+		repository.flush();
+		entityManager.clear();
+		return salvos;
+	}
+
+	/*Clientes novos, e não os do pedaço desfeito, que já receberam id e versão.*/
+	private boolean inserirUmAUm(List<ClienteRequestDTO> dtos, List<Integer> pedaco,
+	ItemLoteResponseDTO[] resultado) {
+		boolean criou = false;
+		for (int i : pedaco) {
+			ClienteRequestDTO dto = dtos.get(i);
+			try {
+				List<Cliente> salvo = transacao.execute(status -> inserir(List.of(new Cliente(dto))));
+				registrar(resultado, i, salvo.get(0));
+				criou = true;
+			} catch (DataIntegrityViolationException ex) {
+				RuntimeException conflito = ViolacaoDeUnicidade.traduzir(ex, dto.getCpf());
+				if (conflito == ex) {
+					throw ex;
+				}
+				resultado[i] = new ItemLoteResponseDTO(i, Status.CONFLITO, null, conflito.getMessage());
+			}
+		}
+		return criou;
+	}
+
+	private void registrar(ItemLoteResponseDTO[] resultado, int i, Cliente salvo) {
+		indiceNome.registrar(salvo.getId(), salvo.getNome());
+		filtroCadastro.registrar(salvo.getCpf(), salvo.getEmail());
+		resultado[i] = new ItemLoteResponseDTO(i, Status.CRIADO, new ClienteResponseDTO(salvo), null);
+	}
+
+	/*Mesmas regras do @Valid do ClienteRequestDTO e do formato de e-mail do ClienteService.*/
+	private String validar(ClienteRequestDTO dto) {
+		if (dto == null) {
+			return "Cliente nulo.";
+		}
+
+		Set<String> mensagens = new TreeSet<>();
+		for (ConstraintViolation<ClienteRequestDTO> violacao : validator.validate(dto)) {
+			mensagens.add(violacao.getMessage());
+		}
+		if (mensagens.isEmpty() && !emailValidator.isValido(dto.getEmail())) {
+			mensagens.add("Formato inválido do e-mail.");
+		}
+		return mensagens.isEmpty() ? null : String.join(" ", mensagens);
+	}
+
+	private List<String> buscarEmPedacos(Collection<String> valores,
+	Function<Collection<String>, List<String>> consulta) {
+		List<String> encontrados = new ArrayList<>();
+		List<String> lista = new ArrayList<>(valores);
+		int tamanho = Math.max(1, config.getTamanhoPedaco());
+		for (int inicio = 0; inicio < lista.size(); inicio += tamanho) {
+			encontrados.addAll(consulta.apply(lista.subList(inicio, Math.min(inicio + tamanho, lista.size()))));
+		}
+		return encontrados;
+	}
+
+}
@@ -2,271 +2,482 @@ package com.sistemacliente.service;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.JsonMappingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sistemacliente.cache.ClienteCache;
+import com.sistemacliente.cache.ContagemCache;
 import com.sistemacliente.exception.AlteracaoDeCpfException;
+import com.sistemacliente.exception.ArgumentoInvalidoException;
 import com.sistemacliente.exception.ClienteNotFoundException;
 import com.sistemacliente.exception.CpfJaCadastradoException;
 import com.sistemacliente.exception.EmailJaCadastradoException;
+import com.sistemacliente.exception.VersaoDesatualizadaException;
+import com.sistemacliente.exception.ViolacaoDeUnicidade;
 import com.sistemacliente.model.Cliente;
 import com.sistemacliente.model.dto.ClienteRequestDTO;
 import com.sistemacliente.model.dto.ClienteResponseDTO;
+import com.sistemacliente.model.dto.PaginaCursorResponseDTO;
+import com.sistemacliente.repository.ChavesCliente;
 import com.sistemacliente.repository.ClienteRepository;
+import com.sistemacliente.search.FiltroCadastro;
+import com.sistemacliente.search.IndiceNome;
+import com.sistemacliente.validation.EmailValidator;
 
-import jakarta.transaction.Transactional;
+import io.micrometer.core.annotation.Timed;
 
 @Service
+@Timed("clientes.servico")
 public class ClienteService {
 	/*Por mais que certas verificações são feitas pelo Controller com o @Valid, faremos támbem as verifi-
 	 *cações aqui com meNsagens personalizadas pas os clientes.*/
 	
 	private final ClienteRepository repository;
 	
-	private final ObjectMapper mapper;
+	private final MergePatchCliente mergePatch;
 	
-	public ClienteService(ClienteRepository repository, ObjectMapper mapper) {
+	private final EmailValidator emailValidator;
+	
+	private final ContagemCache contagemCache;
+	
+	private final ClienteCache clienteCache;
+	
+	private final IndiceNome indiceNome;
+	
+	private final FiltroCadastro filtroCadastro;
+	
+	private static final Set<String> CAMPOS_CURSOR = Set.of("id", "nome", "email", "cpf");
+	
+	public ClienteService(ClienteRepository repository, MergePatchCliente mergePatch,
+	EmailValidator emailValidator, ContagemCache contagemCache, ClienteCache clienteCache, IndiceNome indiceNome,
+	FiltroCadastro filtroCadastro) {
 		this.repository = repository;
-		this.mapper = mapper;
+		this.mergePatch = mergePatch;
+		this.emailValidator = emailValidator;
+		this.contagemCache = contagemCache;
+		this.clienteCache = clienteCache;
+		this.indiceNome = indiceNome;
+		this.filtroCadastro = filtroCadastro;
 	}
-	
-	String regexEmail = "^[a-zA-Z0-9_+&*-]+(?:\\.[a-zA-Z0-9_+&*-]+)*@(?:[a-zA-Z0-9-]+\\.)+[a-zA-Z]{2,7}$";
 
+	/*As leituras respondem com o DTO projetado pelo ClienteRepository (sem Cliente gerenciado) numa transação
+	 *só de leitura, que também junta a página e o count na mesma conexão. As buscas por id e CPF ficam sem
+	 *transação aqui: no acerto do ClienteCache não vão ao banco, e no erro a consulta abre a sua.*/
+	@Transactional(readOnly = true)
 	public List<ClienteResponseDTO> listagemCliente() {
-		List<Cliente> lista = repository.findAll();
-		return lista.stream().map(ClienteResponseDTO::new).toList();
+		return repository.findRespostas();
 	}
 
 	@Transactional
 	public ClienteResponseDTO salvarCliente(ClienteRequestDTO dto) {
-		if (repository.findByCpf(dto.getCpf()).isPresent()) { /*Garantia de CPF único.*/
-			throw new CpfJaCadastradoException(dto.getCpf());
-		}
-		
-		if (repository.findByEmail(dto.getEmail()).isPresent()) {
-			throw new EmailJaCadastradoException();
-		}
-		
 		if(dto.getEmail() == null || dto.getEmail().isBlank()) {
-			throw new IllegalArgumentException("Formato inválido do e-mail.");
+			throw new ArgumentoInvalidoException("Formato inválido do e-mail.");
 		}
 		
-		if(!dto.getEmail().matches(regexEmail)) {
-			throw new IllegalArgumentException("Formato inválido do e-mail.");
+		if(!emailValidator.isValido(dto.getEmail())) {
+			throw new ArgumentoInvalidoException("Formato inválido do e-mail.");
 		}
 
-		Cliente cliente = new Cliente(dto);
-		Cliente salvo = repository.save(cliente);
+		/*CPF e e-mail únicos garantidos pelas constraints do banco: um INSERT só, sem consultar antes, e sem
+		 *corrida entre dois cadastros iguais. O flush traz a violação para dentro do try.*/
+		Cliente salvo;
+		try {
+			salvo = repository.saveAndFlush(new Cliente(dto));
+		} catch (DataIntegrityViolationException ex) {
+			throw ViolacaoDeUnicidade.traduzir(ex, dto.getCpf());
+		}
+		contagemCache.invalidar();
+		clienteCache.invalidar(salvo.getId(), salvo.getCpf());
+		indiceNome.registrar(salvo.getId(), salvo.getNome());
+		filtroCadastro.registrar(salvo.getCpf(), salvo.getEmail());
 		return new ClienteResponseDTO(salvo);
 	}
 
 	public ClienteResponseDTO buscarClientePorId(Long id) {
-		Cliente clienteEncontrado = repository.findById(id)
-		.orElseThrow(() -> new ClienteNotFoundException(id));
-		return new ClienteResponseDTO(clienteEncontrado);
+		return clienteCache.buscarPorId(id, chave -> repository.findRespostaById(chave)
+		.orElseThrow(() -> new ClienteNotFoundException(chave)));
 	}
 
+	/*Um DELETE direto pelo id, sem SELECT antes; nenhuma linha excluída é 404. O ClienteCache se resolve pelo
+	 *id, e o CPF e o e-mail do excluído ficam no FiltroCadastro como falsos positivos, como o e-mail antigo do
+	 *atualizarCliente: só custam a consulta de existência quando alguém cadastrar o mesmo valor.*/
 	@Transactional
 	public void deletarClientePorId(Long id) {
-		Cliente clienteEncontrado = repository.findById(id)
-		.orElseThrow(() -> new ClienteNotFoundException(id));
-		repository.delete(clienteEncontrado);
+		if (repository.excluirPorId(id) == 0) {
+			throw new ClienteNotFoundException(id);
+		}
+		contagemCache.invalidar();
+		clienteCache.invalidar(id, null);
+		indiceNome.remover(id);
 	}
 
+	/*UPDATE condicional direto, sem ler o cliente antes: o CPF (que não pode mudar) e as versões do If-Match
+	 *vão no WHERE, e o e-mail repetido é recusado pela uk_cliente_email. Com uma versão só a resposta sai do
+	 *próprio DTO; sem ela, ou com várias, o cliente é lido depois do UPDATE, com a linha já travada pela
+	 *transação.
+	 *O e-mail antigo não é lido, então fica no FiltroCadastro como falso positivo.*/
 	@Transactional
-	public ClienteResponseDTO atualizarCliente(Long id, ClienteRequestDTO dto) {
-		Cliente clienteEncontrado = repository
-		.findById(id).orElseThrow(() -> new ClienteNotFoundException(id));
-		
-		/*Garante a não mudança de CPF.*/
-		if (!clienteEncontrado.getCpf().equals(dto.getCpf())) {
-			throw new AlteracaoDeCpfException();
-		}
-		
+	public ClienteResponseDTO atualizarCliente(Long id, ClienteRequestDTO dto, List<Long> versoes) {
 		if(dto.getEmail() == null) {
 			throw new NullPointerException();
 		}
 		
 		if(dto.getEmail().isBlank()) {
-			throw new IllegalArgumentException("Formato inválido do e-mail.");
+			throw new ArgumentoInvalidoException("Formato inválido do e-mail.");
 		}
 		
-		if(!dto.getEmail().matches(regexEmail)) {
-			throw new IllegalArgumentException("Formato inválido do e-mail.");
+		if(!emailValidator.isValido(dto.getEmail())) {
+			throw new ArgumentoInvalidoException("Formato inválido do e-mail.");
 		}
 		
-		boolean emailExistente = repository.findByEmail(dto.getEmail()).isPresent();
-		boolean emailDiferente = !dto.getEmail().equals(clienteEncontrado.getEmail());
+		int atualizados;
+		try {
+			atualizados = repository.atualizarNomeEmail(id, dto.getCpf(), dto.getNome(), dto.getEmail(), versoes);
+		} catch (DataIntegrityViolationException ex) {
+			throw ViolacaoDeUnicidade.traduzir(ex, dto.getCpf());
+		}
+		if (atualizados == 0) {
+			throw semLinhaAtualizada(id, dto.getCpf());
+		}
 		
-		if (emailExistente && emailDiferente) {
-			throw new EmailJaCadastradoException();
+		contagemCache.invalidar();
+		clienteCache.invalidar(id, dto.getCpf());
+		indiceNome.registrar(id, dto.getNome());
+		filtroCadastro.registrar(null, dto.getEmail());
+		if (versoes == null || versoes.size() != 1) {
+			return lerAtualizado(id);
 		}
-
-		clienteEncontrado.setNome(dto.getNome());
-		clienteEncontrado.setEmail(dto.getEmail());
-		return new ClienteResponseDTO(repository.save(clienteEncontrado));
+		
+		ClienteResponseDTO atualizado = new ClienteResponseDTO();
+		atualizado.setId(id);
+		atualizado.setNome(dto.getNome());
+		atualizado.setEmail(dto.getEmail());
+		atualizado.setCpf(dto.getCpf());
+		atualizado.setVersao(versoes.get(0) + 1);
+		return atualizado;
 	}
 
 	public ClienteResponseDTO encontrarPorCpf(String cpf) {
-		Cliente cliente = repository.findByCpf(cpf).orElseThrow(() -> new ClienteNotFoundException(cpf));
-		return new ClienteResponseDTO(cliente);
+		return clienteCache.buscarPorCpf(cpf, chave -> repository.findRespostaByCpf(chave)
+		.orElseThrow(() -> new ClienteNotFoundException(chave)));
 	}
 	
+	@Transactional(readOnly = true)
 	public Page<ClienteResponseDTO> listaPaginada(int pagina, int itens) {
 		if(pagina < 0 || itens <1) {
 			throw new 
-			IllegalArgumentException("A página não pode ser negativa e itens não pode ser menor que 1.");
+			ArgumentoInvalidoException("A página não pode ser negativa e itens não pode ser menor que 1.");
 		}
 		
 		PageRequest pageable = PageRequest.of(pagina, itens); // critério da página
-		Page<Cliente> page = repository.findAll(pageable);
-		return page.map(ClienteResponseDTO::new);
+		return contagemCache.isHabilitado()
+		? comTotalEmCache(repository.findSliceRespostas(pageable), "todos", repository::count)
+		: repository.findRespostas(pageable);
+	}
+	
+	@Transactional(readOnly = true)
+	public Slice<ClienteResponseDTO> listaPaginadaSemTotal(int pagina, int itens) {
+		validarPaginacao(pagina, itens);
+		
+		return repository.findSliceRespostas(PageRequest.of(pagina, itens));
 	}
 	
+	@Transactional(readOnly = true)
 	public Page<ClienteResponseDTO> listaPaginadaPorOrdenacao(int pagina, int itens, String ordenadoPor) {
 		if(pagina < 0 || itens <1) {
 			throw new 
-			IllegalArgumentException("A página não pode ser negativa e itens não pode ser menor que 1.");
+			ArgumentoInvalidoException("A página não pode ser negativa e itens não pode ser menor que 1.");
 		}
 		
 		if(ordenadoPor == null || ordenadoPor.trim().isBlank()) {
-			throw new IllegalArgumentException("Critério de ordenação não pode ser vazio.");
+			throw new ArgumentoInvalidoException("Critério de ordenação não pode ser vazio.");
 		}
 		
 		PageRequest pageable = PageRequest.of(pagina, itens, Sort.by(ordenadoPor).ascending());
-		Page<Cliente> page = repository.findAll(pageable);
-		return page.map(ClienteResponseDTO::new);
+		return contagemCache.isHabilitado()
+		? comTotalEmCache(repository.findSliceRespostas(pageable), "todos", repository::count)
+		: repository.findRespostas(pageable);
+	}
+	
+	/*Alternativa ao listaPaginada/listaPaginadaPorOrdenacao para páginas profundas: em vez de número da
+	 *página recebe o cursor devolvido pela página anterior e busca só as linhas depois dele.*/
+	@Transactional(readOnly = true)
+	public PaginaCursorResponseDTO listaPorCursor(String cursor, int itens, String ordenadoPor) {
+		if(itens < 1) {
+			throw new ArgumentoInvalidoException("Itens não pode ser menor que 1.");
+		}
+		
+		if(ordenadoPor == null || ordenadoPor.isBlank()) {
+			throw new ArgumentoInvalidoException("Critério de ordenação não pode ser vazio.");
+		}
+		
+		String campo = ordenadoPor.trim();
+		if(!CAMPOS_CURSOR.contains(campo)) {
+			throw new ArgumentoInvalidoException("Critério de ordenação inválido, use id, nome, email ou cpf.");
+		}
+		
+		/*Um item a mais só para saber se existe próxima página.*/
+		Limit limite = Limit.of(itens + 1);
+		List<Cliente> clientes;
+		
+		if(cursor == null || cursor.isBlank()) {
+			clientes = repository.findBy(Sort.by(campo).and(Sort.by("id")), limite);
+		} else {
+			ClienteCursor posicao = ClienteCursor.decodificar(cursor);
+			if(!posicao.getCampo().equals(campo)) {
+				throw new ArgumentoInvalidoException("Cursor não corresponde ao critério de ordenação.");
+			}
+			
+			clientes = switch (campo) {
+				case "nome" -> repository.findAfterNome(posicao.getValor(), posicao.getId(), limite);
+				case "email" -> repository.findAfterEmail(posicao.getValor(), posicao.getId(), limite);
+				case "cpf" -> repository.findAfterCpf(posicao.getValor(), posicao.getId(), limite);
+				default -> repository.findAfterId(posicao.getId(), limite);
+			};
+		}
+		
+		String proximoCursor = null;
+		if(clientes.size() > itens) {
+			clientes = clientes.subList(0, itens);
+			proximoCursor = ClienteCursor.depoisDe(clientes.get(itens - 1), campo).codificar();
+		}
+		
+		return new PaginaCursorResponseDTO(clientes.stream().map(ClienteResponseDTO::new).toList(),
+		proximoCursor);
 	}
 	
+	@Transactional(readOnly = true)
 	public Page<ClienteResponseDTO> buscarPorNome(String nome, int pagina, int itens) {
 		if(pagina < 0 || itens <1) {
 			throw new 
-			IllegalArgumentException("A página não pode ser negativa e itens não pode ser menor que 1.");
+			ArgumentoInvalidoException("A página não pode ser negativa e itens não pode ser menor que 1.");
 		}
 		
 		if(nome == null || nome.isBlank()) {
-			throw new IllegalArgumentException("Nome para busca não pode ser vazio ou nulo.");
+			throw new ArgumentoInvalidoException("Nome para busca não pode ser vazio ou nulo.");
 		}
 		
-		PageRequest pageable = PageRequest.of(pagina, itens, Sort.by("nome").ascending());
-		Page<Cliente> page = repository.findByNomeContainingIgnoreCase(nome, pageable);
-				
-		return page.map(ClienteResponseDTO::new);
+		PageRequest pageable = PageRequest.of(pagina, itens, IndiceNome.ORDEM);
+		IndiceNome.Resultado resultado = indiceNome.buscar(nome, pageable.getOffset(), itens);
+		if(resultado != null) {
+			return paginaDoIndice(resultado, pageable);
+		}
+		
+		return contagemCache.isHabilitado()
+		? comTotalEmCache(repository.findSliceRespostasPorNome(nome, pageable),
+		"nome:" + nome.toLowerCase(), () -> repository.countByNomeContainingIgnoreCase(nome))
+		: repository.findRespostasPorNome(nome, pageable);
 	}
 	
-	@Transactional
-	public ClienteResponseDTO atualizarParcial(Long id, Map<String, Object> updates) 
-	throws JsonMappingException {
-		Cliente cliente = repository.findById(id).orElseThrow(() -> new ClienteNotFoundException(id));
-
-		if (updates.containsKey("id")) {
-			throw new IllegalArgumentException("O campo id não pode ser alterado.");
-		}
-
-		if (updates.containsKey("cpf")) {
-			throw new AlteracaoDeCpfException();
+	@Transactional(readOnly = true)
+	public Slice<ClienteResponseDTO> buscarPorNomeSemTotal(String nome, int pagina, int itens) {
+		validarPaginacao(pagina, itens);
+		
+		if(nome == null || nome.isBlank()) {
+			throw new ArgumentoInvalidoException("Nome para busca não pode ser vazio ou nulo.");
 		}
-
-		if (updates.containsKey("nome")) {
-			Object nome = updates.get("nome");
-			if (nome == null || nome.toString().isBlank()) {
-				throw new IllegalArgumentException("Nome não pode ser vazio ou nulo.");
-			}
+		
+		PageRequest pageable = PageRequest.of(pagina, itens, IndiceNome.ORDEM);
+		IndiceNome.Resultado resultado = indiceNome.buscar(nome, pageable.getOffset(), itens);
+		if(resultado != null) {
+			return paginaDoIndice(resultado, pageable);
 		}
 		
-		if(updates.containsKey("email")) {
-			Object email = updates.get("email");
-			if(email == null || email.toString().isBlank()) {
-				throw new IllegalArgumentException("Formato inválido do e-mail.");
-			}
-			
-			if(!email.toString().matches(regexEmail)) {
-				throw new IllegalArgumentException("Formato inválido do e-mail.");
-			}
-			
-			if (repository.findByEmail(email.toString()).isPresent()) {
-				throw new EmailJaCadastradoException();
-			}
+		return repository.findSliceRespostasPorNome(nome, pageable);
+	}
+	
+	/*Merge patch pelo MergePatchCliente: o documento é validado inteiro antes de tocar no cliente, e só os
+	 *campos que mudaram são alterados (o UPDATE sai com só essas colunas, ver @DynamicUpdate no Cliente).*/
+	@Transactional
+	public ClienteResponseDTO atualizarParcial(Long id, Map<String, Object> updates) {
+		Cliente cliente = repository.findById(id).orElseThrow(() -> new ClienteNotFoundException(id));
+		List<MergePatchCliente.Alteracao> alteracoes = mergePatch.preparar(updates);
+		
+		String email = MergePatchCliente.valorDe(alteracoes, "email");
+		if (email != null && !email.equals(cliente.getEmail())
+		&& filtroCadastro.emailCadastrado(email, e -> repository.findByEmail(e).isPresent())) {
+			throw new EmailJaCadastradoException();
 		}
 		
-		mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-		Cliente atualizado = mapper.updateValue(cliente, updates);
-		Cliente novo = repository.save(atualizado);
+		String emailAntigo = cliente.getEmail();
+		if (!mergePatch.aplicar(cliente, alteracoes)) {
+			return new ClienteResponseDTO(cliente);
+		}
+		Cliente novo;
+		try { /*O flush sobe a versão antes da resposta e traz a violação de e-mail para dentro do try.*/
+			novo = repository.saveAndFlush(cliente);
+		} catch (DataIntegrityViolationException ex) {
+			throw ViolacaoDeUnicidade.traduzir(ex, cliente.getCpf());
+		}
+		contagemCache.invalidar();
+		clienteCache.invalidar(id, cliente.getCpf());
+		indiceNome.registrar(id, cliente.getNome());
+		filtroCadastro.trocarEmail(emailAntigo, cliente.getEmail());
 		return new ClienteResponseDTO(novo);
-
 	}
 	
+	@Transactional(readOnly = true)
 	public Page<ClienteResponseDTO> buscarPorEmail(String email, int pagina, int itens){
 		if(pagina < 0 || itens <1) {
 			throw new 
-			IllegalArgumentException("A página não pode ser negativa e itens não pode ser menor que 1.");
+			ArgumentoInvalidoException("A página não pode ser negativa e itens não pode ser menor que 1.");
 		}
 		
 		if(email == null || email.isBlank()) {
-			throw new IllegalArgumentException("Formato do e-mail inválido.");
+			throw new ArgumentoInvalidoException("Formato do e-mail inválido.");
 		}
 		
-		if(!email.matches(regexEmail)) {
-			throw new IllegalArgumentException("Formato do e-mail inválido.");
+		if(!emailValidator.isValido(email)) {
+			throw new ArgumentoInvalidoException("Formato do e-mail inválido.");
 		}
 		
 		PageRequest pageable = PageRequest.of(pagina, itens);
-		Page<Cliente> page = repository.findByEmail(email, pageable);
-		return page.map(ClienteResponseDTO::new);
+		return contagemCache.isHabilitado()
+		? comTotalEmCache(repository.findSliceRespostasPorEmail(email, pageable), "email:" + email,
+		() -> repository.countByEmail(email))
+		: repository.findRespostasPorEmail(email, pageable);
 	}
 	
-	@Transactional
-	public ClienteResponseDTO atualizarEmail(Long id, String email) {
-		Cliente cliente = repository.findById(id).orElseThrow(() -> new ClienteNotFoundException(id));
+	@Transactional(readOnly = true)
+	public Slice<ClienteResponseDTO> buscarPorEmailSemTotal(String email, int pagina, int itens){
+		validarPaginacao(pagina, itens);
 		
+		if(email == null || email.isBlank() || !emailValidator.isValido(email)) {
+			throw new ArgumentoInvalidoException("Formato do e-mail inválido.");
+		}
+		
+		return repository.findSliceRespostasPorEmail(email, PageRequest.of(pagina, itens));
+	}
+	
+	/*Mesmo UPDATE condicional do atualizarCliente, só do e-mail. O nome e o CPF da resposta vêm da leitura
+	 *depois do UPDATE.*/
+	@Transactional
+	public ClienteResponseDTO atualizarEmail(Long id, String email, List<Long> versoes) {
 		if(email == null || email.isBlank()) {
-			throw new IllegalArgumentException("Formato do e-mail inválido.");
+			throw new ArgumentoInvalidoException("Formato do e-mail inválido.");
 		}
 
-		if(!email.matches(regexEmail)) {
-			throw new IllegalArgumentException("Formato do e-mail inválido.");
+		if(!emailValidator.isValido(email)) {
+			throw new ArgumentoInvalidoException("Formato do e-mail inválido.");
 		}
 		
-		if(repository.findByEmail(email).isPresent()) {
-			throw new EmailJaCadastradoException();
+		int atualizados;
+		try {
+			atualizados = repository.atualizarEmail(id, email, versoes);
+		} catch (DataIntegrityViolationException ex) {
+			throw ViolacaoDeUnicidade.traduzir(ex, null);
+		}
+		if (atualizados == 0) {
+			throw semLinhaAtualizada(id, null);
 		}
 		
-		cliente.setEmail(email);
-		Cliente clienteAtualizado = repository.saveAndFlush(cliente); 
-		return new ClienteResponseDTO(clienteAtualizado);
+		contagemCache.invalidar();
+		clienteCache.invalidar(id, null);
+		filtroCadastro.registrar(null, email);
+		return lerAtualizado(id);
 	}
 	
 	/*This method is only to improve my skills and to learn Java, because the email address is unique and 
 	 *any search by email will return a single client. We won't have a page with two or more clients.*/
+	@Transactional(readOnly = true)
 	public Page<ClienteResponseDTO> 
 	buscaEmailPaginadaOrdenada(String email, int pagina, int itens, String ordenadoPor){
 		
 		if(pagina <0 || itens <1) {
-			throw new IllegalArgumentException("Número da página não pode ser negativo e de itens por"
+			throw new ArgumentoInvalidoException("Número da página não pode ser negativo e de itens por"
 			+ " páginas menor que 1.");
 		}
 		
 		if(email == null || email.trim().isBlank()) {
-			throw new IllegalArgumentException("Formato inválido do e-mail.");
+			throw new ArgumentoInvalidoException("Formato inválido do e-mail.");
 		}
 		
-		if(!email.matches(regexEmail)) {
-			throw new IllegalArgumentException("Formato do e-mail inválido.");
+		if(!emailValidator.isValido(email)) {
+			throw new ArgumentoInvalidoException("Formato do e-mail inválido.");
 		}
 		
 		if(ordenadoPor == null || ordenadoPor.isBlank()) {
-			throw new IllegalArgumentException("Critério de ordenação não pode ser vazio ou nulo.");
+			throw new ArgumentoInvalidoException("Critério de ordenação não pode ser vazio ou nulo.");
 		}
 		
 		PageRequest pageable = PageRequest.of(pagina, itens, Sort.by(ordenadoPor.trim()).ascending());
-		Page<Cliente> page = repository.findByEmailContainingIgnoreCase(email, pageable);
-		return page.map(ClienteResponseDTO::new);
+		return contagemCache.isHabilitado()
+		? comTotalEmCache(repository.findSliceRespostasPorEmailContendo(email, pageable),
+		"emailContendo:" + email.toLowerCase(), () -> repository.countByEmailContainingIgnoreCase(email))
+		: repository.findRespostasPorEmailContendo(email, pageable);
+	}
+	
+	@Transactional(readOnly = true)
+	public Slice<ClienteResponseDTO> 
+	buscaEmailPaginadaOrdenadaSemTotal(String email, int pagina, int itens, String ordenadoPor){
+		validarPaginacao(pagina, itens);
+		
+		if(email == null || email.isBlank() || !emailValidator.isValido(email)) {
+			throw new ArgumentoInvalidoException("Formato do e-mail inválido.");
+		}
+		
+		if(ordenadoPor == null || ordenadoPor.isBlank()) {
+			throw new ArgumentoInvalidoException("Critério de ordenação não pode ser vazio ou nulo.");
+		}
+		
+		PageRequest pageable = PageRequest.of(pagina, itens, Sort.by(ordenadoPor.trim()).ascending());
+		return repository.findSliceRespostasPorEmailContendo(email, pageable);
+	}
+	
+	/*Só no caminho de erro: descobre por que o UPDATE condicional não achou a linha.*/
+	private RuntimeException semLinhaAtualizada(Long id, String cpf) {
+		ChavesCliente chaves = repository.findChavesById(id).orElse(null);
+		if (chaves == null) {
+			return new ClienteNotFoundException(id);
+		}
+		if (cpf != null && !cpf.equals(chaves.cpf())) {
+			return new AlteracaoDeCpfException();
+		}
+		return new VersaoDesatualizadaException();
+	}
+	
+	private ClienteResponseDTO lerAtualizado(Long id) {
+		return repository.findById(id).map(ClienteResponseDTO::new)
+		.orElseThrow(() -> new ClienteNotFoundException(id));
+	}
+	
+	private void validarPaginacao(int pagina, int itens) {
+		if(pagina < 0 || itens <1) {
+			throw new 
+			ArgumentoInvalidoException("A página não pode ser negativa e itens não pode ser menor que 1.");
+		}
+	}
+	
+	/*Monta a Page com o conteúdo do Slice e o total do ContagemCache. O PageableExecutionUtils nem consulta o
+	 *total quando a página é a primeira e veio incompleta.*/
+	private Page<ClienteResponseDTO> comTotalEmCache(Slice<ClienteResponseDTO> slice, String chave,
+	LongSupplier contagem) {
+		return PageableExecutionUtils.getPage(slice.getContent(), slice.getPageable(),
+		() -> contagemCache.contar(chave, contagem));
+	}
+	
+	/*Página montada com os ids que o IndiceNome já ordenou: só eles são buscados no banco, e o total vem do
+	 *índice, sem count(*).*/
+	private Page<ClienteResponseDTO> paginaDoIndice(IndiceNome.Resultado resultado, PageRequest pageable) {
+		Map<Long, ClienteResponseDTO> porId = repository.findRespostasByIdIn(resultado.ids()).stream()
+		.collect(Collectors.toMap(ClienteResponseDTO::getId, Function.identity()));
+		List<ClienteResponseDTO> clientes = resultado.ids().stream().map(porId::get).filter(Objects::nonNull)
+		.toList();
+		return new PageImpl<>(clientes, pageable, resultado.total());
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,110 @@
+package com.sistemacliente.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.springframework.stereotype.Component;
+
+import com.sistemacliente.exception.AlteracaoDeCpfException;
+import com.sistemacliente.exception.ArgumentoInvalidoException;
+import com.sistemacliente.model.Cliente;
+import com.sistemacliente.validation.EmailValidator;
+
+/*JSON Merge Patch (RFC 7386) do Cliente para o atualizarParcial. Cada membro do documento substitui o campo de
+ *mesmo nome, membros desconhecidos são ignorados e null remove o campo, o que para nome e e-mail (obrigatórios)
+ *é recusado. Como o Cliente não tem objetos aninhados, o merge é só um nível.
+ *
+ *A tabela de campos (getter, setter e validação) é montada uma vez no construtor e só lida depois, então o
+ *mesmo objeto atende todas as requisições ao mesmo tempo, sem reflexão e sem mexer no ObjectMapper da
+ *aplicação.*/
+@Component
+public class MergePatchCliente {
+
+	/*Valor já validado de um campo, pronto para o aplicar.*/
+	public record Alteracao(String campo, String valor, Campo destino) {}
+
+	private record Campo(String nome, Function<Cliente, String> getter, BiConsumer<Cliente, String> setter,
+	Predicate<String> valido, String mensagem) {}
+
+	private final List<Campo> campos;
+
+	public MergePatchCliente(EmailValidator emailValidator) {
+		this.campos = List.of(
+			new Campo("nome", Cliente::getNome, Cliente::setNome, nome -> !nome.isBlank(),
+			"Nome não pode ser vazio ou nulo."),
+			new Campo("email", Cliente::getEmail, Cliente::setEmail,
+			email -> !email.isBlank() && emailValidator.isValido(email), "Formato inválido do e-mail."));
+	}
+
+	/*Confere o documento inteiro antes de qualquer campo ser alterado: um membro inválido recusa o PATCH todo.*/
+	public List<Alteracao> preparar(Map<String, Object> documento) {
+		if (documento == null) {
+			throw new ArgumentoInvalidoException("O corpo do PATCH deve ser um objeto JSON.");
+		}
+
+		if (documento.containsKey("id")) {
+			throw new ArgumentoInvalidoException("O campo id não pode ser alterado.");
+		}
+
+		if (documento.containsKey("cpf")) {
+			throw new AlteracaoDeCpfException();
+		}
+
+		if (documento.containsKey("versao")) {
+			throw new ArgumentoInvalidoException("O campo versao não pode ser alterado.");
+		}
+
+		List<Alteracao> alteracoes = new ArrayList<>(campos.size());
+		for (Campo campo : campos) {
+			if (!documento.containsKey(campo.nome())) {
+				continue;
+			}
+			String valor = texto(documento.get(campo.nome()));
+			if (valor == null || !campo.valido().test(valor)) {
+				throw new ArgumentoInvalidoException(campo.mensagem());
+			}
+			alteracoes.add(new Alteracao(campo.nome(), valor, campo));
+		}
+		return alteracoes;
+	}
+
+	/*Só chama o setter dos campos cujo valor muda, para o Hibernate (@DynamicUpdate) gravar só essas colunas.
+	 *Devolve se algum mudou.*/
+	public boolean aplicar(Cliente cliente, List<Alteracao> alteracoes) {
+		boolean alterado = false;
+		for (Alteracao alteracao : alteracoes) {
+			Campo campo = alteracao.destino();
+			if (!Objects.equals(campo.getter().apply(cliente), alteracao.valor())) {
+				campo.setter().accept(cliente, alteracao.valor());
+				alterado = true;
+			}
+		}
+		return alterado;
+	}
+
+	public static String valorDe(List<Alteracao> alteracoes, String campo) {
+		for (Alteracao alteracao : alteracoes) {
+			if (alteracao.campo().equals(campo)) {
+				return alteracao.valor();
+			}
+		}
+		return null;
+	}
+
+	/*Números e booleanos viram texto como o Jackson faria num campo String; objeto ou lista não.*/
+	private static String texto(Object valor) {
+		if (valor instanceof String texto) {
+			return texto;
+		}
+		if (valor instanceof Number || valor instanceof Boolean) {
+			return valor.toString();
+		}
+		return null;
+	}
+
+}
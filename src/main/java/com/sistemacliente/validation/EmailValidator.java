@@ -0,0 +1,94 @@
+package com.sistemacliente.validation;
+
+import org.springframework.stereotype.Component;
+
+/*Validador de e-mail usado pelo ClienteService. Aceita e rejeita exatamente o mesmo que a REGEX_EMAIL, mas
+ *em uma única passada sobre a String, sem compilar a regex a cada chamada e sem alocar objetos.*/
+@Component
+public class EmailValidator {
+
+	/*Regra original, mantida como referência para testes e benchmarks de equivalência.*/
+	public static final String REGEX_EMAIL =
+	"^[a-zA-Z0-9_+&*-]+(?:\\.[a-zA-Z0-9_+&*-]+)*@(?:[a-zA-Z0-9-]+\\.)+[a-zA-Z]{2,7}$";
+
+	private static final int TLD_MINIMO = 2;
+	private static final int TLD_MAXIMO = 7;
+
+	/*Tabelas de caracteres compiladas uma única vez e compartilhadas por todas as chamadas.*/
+	private static final boolean[] LOCAL = new boolean[128];
+	private static final boolean[] DOMINIO = new boolean[128];
+	private static final boolean[] LETRA = new boolean[128];
+
+	static {
+		for (char c = 'a'; c <= 'z'; c++) {
+			LETRA[c] = true;
+			LETRA[Character.toUpperCase(c)] = true;
+		}
+		for (int c = 0; c < 128; c++) {
+			boolean alfanumerico = LETRA[c] || (c >= '0' && c <= '9');
+			LOCAL[c] = alfanumerico;
+			DOMINIO[c] = alfanumerico;
+		}
+		for (char c : new char[] {'_', '+', '&', '*', '-'}) {
+			LOCAL[c] = true;
+		}
+		DOMINIO['-'] = true;
+	}
+
+	public boolean isValido(String email) {
+		if (email == null) {
+			return false;
+		}
+
+		int tamanho = email.length();
+		int i = 0;
+
+		/*Parte local: blocos não vazios separados por um único ponto.*/
+		int bloco = 0;
+		for (; i < tamanho; i++) {
+			char c = email.charAt(i);
+			if (c == '@') {
+				break;
+			}
+			if (c == '.') {
+				if (bloco == 0) {
+					return false;
+				}
+				bloco = 0;
+			} else if (c < 128 && LOCAL[c]) {
+				bloco++;
+			} else {
+				return false;
+			}
+		}
+
+		if (i == tamanho || bloco == 0) { /*Sem '@' ou parte local terminando em ponto.*/
+			return false;
+		}
+		i++;
+
+		/*Domínio: um ou mais rótulos terminados em ponto e um TLD de 2 a 7 letras.*/
+		int rotulos = 0;
+		int rotulo = 0;
+		boolean apenasLetras = true;
+		for (; i < tamanho; i++) {
+			char c = email.charAt(i);
+			if (c == '.') {
+				if (rotulo == 0) {
+					return false;
+				}
+				rotulos++;
+				rotulo = 0;
+				apenasLetras = true;
+			} else if (c < 128 && DOMINIO[c]) {
+				rotulo++;
+				apenasLetras &= LETRA[c];
+			} else {
+				return false;
+			}
+		}
+
+		return rotulos > 0 && apenasLetras && rotulo >= TLD_MINIMO && rotulo <= TLD_MAXIMO;
+	}
+
+}
@@ -0,0 +1,9 @@
+-- Migração da seq_cliente de allocationSize = 1 para blocos de ids (ClienteIdGenerator, pooled-lo).
+-- Rodar no PostgreSQL com todas as instâncias da aplicação paradas, antes de subir a versão nova.
+-- O INCREMENT BY precisa ser igual a clientes.id.bloco; se forem diferentes o Hibernate recusa subir
+-- (hibernate.id.sequence.increment_size_mismatch_strategy = EXCEPTION, o padrão).
+
+ALTER SEQUENCE seq_cliente INCREMENT BY 50;
+
+-- O próximo nextval devolve o primeiro id livre, que passa a ser o início do primeiro bloco.
+SELECT setval('seq_cliente', (SELECT COALESCE(MAX(id), 0) + 1 FROM cliente), false);
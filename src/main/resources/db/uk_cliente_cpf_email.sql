@@ -0,0 +1,23 @@
+-- Constraints únicas de CPF e e-mail do cliente (PostgreSQL).
+-- O salvarCliente faz só o INSERT e depende delas para recusar CPF ou e-mail repetido; a
+-- ViolacaoDeUnicidade identifica qual foi violada pelo nome.
+
+-- Antes de rodar, conferir se já existem repetidos (o ALTER falha se houver):
+--   SELECT email, count(*) FROM cliente GROUP BY email HAVING count(*) > 1;
+
+-- A constraint sem nome criada antes pelo unique = true do cpf dá lugar à uk_cliente_cpf.
+DO $$
+DECLARE
+	antiga text;
+BEGIN
+	SELECT con.conname INTO antiga FROM pg_constraint con
+	JOIN pg_attribute att ON att.attrelid = con.conrelid AND att.attnum = ANY (con.conkey)
+	WHERE con.conrelid = 'cliente'::regclass AND con.contype = 'u' AND att.attname = 'cpf'
+	AND con.conname <> 'uk_cliente_cpf' AND array_length(con.conkey, 1) = 1;
+	IF antiga IS NOT NULL THEN
+		EXECUTE format('ALTER TABLE cliente DROP CONSTRAINT %I', antiga);
+	END IF;
+END $$;
+
+ALTER TABLE cliente ADD CONSTRAINT uk_cliente_cpf UNIQUE (cpf);
+ALTER TABLE cliente ADD CONSTRAINT uk_cliente_email UNIQUE (email);
@@ -0,0 +1,5 @@
+-- Coluna de versão do cliente (@Version do Cliente), usada nas atualizações condicionais com If-Match.
+-- Rodar no PostgreSQL antes de subir a versão nova: o ddl-auto=update não consegue criar uma coluna
+-- NOT NULL sem valor padrão numa tabela que já tem linhas.
+
+ALTER TABLE cliente ADD COLUMN IF NOT EXISTS versao bigint NOT NULL DEFAULT 0;
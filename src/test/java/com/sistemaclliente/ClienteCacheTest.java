@@ -0,0 +1,166 @@
+package com.sistemaclliente;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sistemacliente.cache.ClienteCache;
+import com.sistemacliente.config.ClientesProperties;
+import com.sistemacliente.exception.ClienteNotFoundException;
+import com.sistemacliente.model.dto.ClienteResponseDTO;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class ClienteCacheTest {
+
+	private ClientesProperties properties;
+	private ClienteCache cache;
+	private AtomicInteger consultas;
+
+	@BeforeEach
+	public void setup() {
+		properties = new ClientesProperties();
+		cache = new ClienteCache(properties);
+		consultas = new AtomicInteger();
+	}
+
+	private ClienteResponseDTO carregar(Object chave) {
+		consultas.incrementAndGet();
+		ClienteResponseDTO dto = new ClienteResponseDTO();
+		dto.setId(1L);
+		dto.setNome("Marcus");
+		dto.setEmail("marcus@email.com");
+		dto.setCpf("12345678");
+		return dto;
+	}
+
+	@Test
+	public void buscarPorId_mesmoId_consultaUmaVez() {
+		cache.buscarPorId(1L, this::carregar);
+		ClienteResponseDTO dto = cache.buscarPorId(1L, this::carregar);
+
+		assertThat(dto.getNome()).isEqualTo("Marcus");
+		assertThat(consultas.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void buscarPorCpf_depoisDeBuscarPorId_usaOMesmoCliente() {
+		cache.buscarPorCpf("12345678", this::carregar);
+		cache.buscarPorId(1L, this::carregar);
+		cache.buscarPorCpf("12345678", this::carregar);
+
+		assertThat(consultas.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void buscarPorId_depoisDeInvalidar_consultaDeNovo() {
+		cache.buscarPorId(1L, this::carregar);
+		cache.invalidar(1L, "12345678");
+		cache.buscarPorId(1L, this::carregar);
+		cache.buscarPorCpf("12345678", this::carregar);
+
+		assertThat(consultas.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void buscarPorId_escritaDuranteALeitura_naoGuardaClienteAntigo() {
+		cache.buscarPorId(1L, chave -> {
+			cache.invalidar(1L, "12345678"); /*Escrita concorrente enquanto o SELECT roda.*/
+			return carregar(chave);
+		});
+		cache.buscarPorId(1L, this::carregar);
+
+		assertThat(consultas.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void buscarPorId_naoEncontrado_naoGuardaNada() {
+		assertThrows(ClienteNotFoundException.class, () -> cache.buscarPorId(3L, chave -> {
+			throw new ClienteNotFoundException(chave);
+		}));
+		cache.buscarPorId(1L, this::carregar);
+
+		assertThat(consultas.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void buscarPorId_desabilitado_consultaSempre() {
+		properties.getCache().setHabilitado(false);
+		cache = new ClienteCache(properties);
+
+		cache.buscarPorId(1L, this::carregar);
+		cache.buscarPorId(1L, this::carregar);
+
+		assertThat(consultas.get()).isEqualTo(2);
+	}
+
+	private List<ClienteResponseDTO> carregarVarios(Set<Long> ids) {
+		consultas.incrementAndGet();
+		return ids.stream().filter(id -> id < 10).map(id -> {
+			ClienteResponseDTO dto = new ClienteResponseDTO();
+			dto.setId(id);
+			dto.setCpf("cpf" + id);
+			return dto;
+		}).toList();
+	}
+
+	@Test
+	public void buscarPorIds_parteNoCache_carregaSoOsFaltantes() {
+		cache.buscarPorId(1L, this::carregar);
+		Set<Set<Long>> pedidos = new HashSet<>();
+
+		Map<Long, ClienteResponseDTO> encontrados = cache.buscarPorIds(List.of(1L, 2L, 11L), ids -> {
+			pedidos.add(Set.copyOf(ids));
+			return carregarVarios(ids);
+		});
+
+		assertThat(encontrados).containsOnlyKeys(1L, 2L);
+		assertThat(pedidos).containsExactly(Set.of(2L, 11L));
+	}
+
+	@Test
+	public void buscarPorCpfs_depoisDeBuscarPorIds_naoConsultaDeNovo() {
+		cache.buscarPorIds(List.of(1L, 2L), this::carregarVarios);
+		Map<String, ClienteResponseDTO> encontrados = cache.buscarPorCpfs(List.of("cpf2", "cpf1"), cpfs -> {
+			throw new AssertionError("Não deveria consultar o banco.");
+		});
+
+		assertThat(encontrados).containsOnlyKeys("cpf1", "cpf2");
+		assertThat(consultas.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void buscarPorIds_desabilitado_consultaSempre() {
+		properties.getCache().setHabilitado(false);
+		cache = new ClienteCache(properties);
+
+		cache.buscarPorIds(List.of(1L, 2L), this::carregarVarios);
+		cache.buscarPorIds(List.of(1L, 2L), this::carregarVarios);
+
+		assertThat(consultas.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void bindTo_expoeAcertosEFaltas() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		cache.bindTo(registry);
+
+		cache.buscarPorId(1L, this::carregar);
+		cache.buscarPorId(1L, this::carregar);
+
+		assertThat(registry.get("cache.gets").tag("cache", "clientes.porId").tag("result", "hit")
+		.functionCounter().count()).isEqualTo(1.0);
+		assertThat(registry.get("cache.gets").tag("cache", "clientes.porId").tag("result", "miss")
+		.functionCounter().count()).isEqualTo(1.0);
+		assertThat(registry.get("cache.evictions").tag("cache", "clientes.porId").functionCounter()).isNotNull();
+	}
+
+}
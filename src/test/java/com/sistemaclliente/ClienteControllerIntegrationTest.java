@@ -2,18 +2,32 @@ package com.sistemaclliente;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.CoreMatchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -29,18 +43,36 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import com.sistemacliente.SistemaClientesJavaApplication;
+import com.sistemacliente.cache.ClienteCache;
+import com.sistemacliente.cache.ContagemCache;
+import com.sistemacliente.config.ClientesProperties;
 import com.sistemacliente.exception.ValidationExceptionHandler;
 import com.sistemacliente.model.Cliente;
 import com.sistemacliente.model.dto.ClienteRequestDTO;
+import com.sistemacliente.model.dto.ClienteResponseDTO;
 import com.sistemacliente.repository.ClienteRepository;
+import com.sistemacliente.search.FiltroCadastro;
+import com.sistemacliente.search.IndiceNome;
+import com.sistemacliente.service.ClienteService;
+import com.sistemacliente.service.MergePatchCliente;
+import com.sistemacliente.validation.EmailValidator;
 
+import jakarta.persistence.EntityManagerFactory;
 import jakarta.transaction.Transactional;
 
-@SpringBootTest(classes = SistemaClientesJavaApplication.class)
+/*Pedaços de 2 na exclusão em massa e no cadastro em lote para os testes passarem por mais de um DELETE e de
+ *um batch de inserts.*/
+@SpringBootTest(classes = SistemaClientesJavaApplication.class,
+properties = { "clientes.exclusao.tamanho-pedaco=2", "clientes.lote.tamanho-pedaco=2" })
 @AutoConfigureMockMvc
 @ActiveProfiles("test")
 @Import(ValidationExceptionHandler.class)
@@ -50,17 +82,41 @@ public class ClienteControllerIntegrationTest {
 	private MockMvc mvc;
 	
 	@Autowired
-	private ObjectMapper mapper;
+	private EntityManagerFactory entityManagerFactory;
 	
 	@Autowired
+	private ObjectMapper mapper;
+	
+	/*Spy só para simular corridas; sem stub, delega tudo ao repositório de verdade.*/
+	@MockitoSpyBean
 	private ClienteRepository repository;
 	
+	@Autowired
+	private ClienteService service;
+	
+	@Autowired
+	private MergePatchCliente mergePatch;
+	
+	@Autowired
+	private EmailValidator emailValidator;
+	
+	@Autowired
+	private ContagemCache contagemCache;
+	
+	@Autowired
+	private ClienteCache clienteCache;
+	
+	@Autowired
+	private FiltroCadastro filtroCadastro;
+	
 	@Test
 	public void contextLoads(){}
 	
+	/*deleteAllInBatch apaga na hora; com deleteAll o Hibernate executa os inserts do teste antes dos deletes
+	 *no flush e os dados commitados pelos testes de stream colidiriam com os novos.*/
 	@BeforeEach
 	public void setup() {
-		repository.deleteAll();
+		repository.deleteAllInBatch();
 	}
 	
 	@Test @Transactional @DisplayName("Returns 200 and a list of the clients from the database.")
@@ -91,6 +147,54 @@ public class ClienteControllerIntegrationTest {
 		.andExpect(jsonPath("$.length()").value(0));
 	}
 	
+	/*Sem @Transactional: a escrita em stream roda em outra thread e só enxerga dados já commitados.*/
+	@Test @DisplayName("Returns 200 and streams every client as one JSON object per line.")
+	public void listarClientesStream_ndjson_return200() throws Exception {
+		Cliente cliente1 = new Cliente();
+		cliente1.setNome("Marcus");
+		cliente1.setCpf("23501206586");
+		cliente1.setEmail("marcus@gmail.com");
+
+		Cliente cliente2 = new Cliente();
+		cliente2.setNome("Antonio");
+		cliente2.setCpf("20219064674");
+		cliente2.setEmail("antonio@gmail.com");
+		
+		repository.saveAndFlush(cliente1);
+		repository.saveAndFlush(cliente2);
+		
+		MvcResult result = mvc.perform(get("/listarclientes/stream").param("formato", "ndjson"))
+		.andExpect(request().asyncStarted()).andReturn();
+		String corpo = mvc.perform(asyncDispatch(result)).andExpect(status().isOk())
+		.andReturn().getResponse().getContentAsString();
+		
+		String[] linhas = corpo.split("\n");
+		assertThat(linhas).hasSize(2);
+		assertThat(mapper.readValue(linhas[0], ClienteResponseDTO.class).getNome()).isEqualTo("Marcus");
+		assertThat(mapper.readValue(linhas[1], ClienteResponseDTO.class).getNome()).isEqualTo("Antonio");
+	}
+	
+	@Test @DisplayName("Returns 200 and streams the clients as a JSON array.")
+	public void listarClientesStream_json_return200() throws Exception {
+		Cliente cliente1 = new Cliente();
+		cliente1.setNome("Marcus");
+		cliente1.setCpf("23501206586");
+		cliente1.setEmail("marcus@gmail.com");
+		repository.saveAndFlush(cliente1);
+		
+		MvcResult result = mvc.perform(get("/listarclientes/stream").param("formato", "json"))
+		.andExpect(request().asyncStarted()).andReturn();
+		mvc.perform(asyncDispatch(result)).andExpect(status().isOk())
+		.andExpect(jsonPath("$.length()").value(1)).andExpect(jsonPath("$[0].cpf").value("23501206586"));
+	}
+	
+	@Test @DisplayName("Returns 200 and an empty JSON array when there are no clients.")
+	public void listarClientesStream_emptyList_return200() throws Exception {
+		MvcResult result = mvc.perform(get("/listarclientes/stream").param("formato", "json"))
+		.andExpect(request().asyncStarted()).andReturn();
+		mvc.perform(asyncDispatch(result)).andExpect(status().isOk()).andExpect(content().json("[]"));
+	}
+	
 	@Test
 	@Transactional
 	@DisplayName("Returns 201 when saving DTO client.")
@@ -170,6 +274,49 @@ public class ClienteControllerIntegrationTest {
 		.andExpect(content().string("O CPF 23501206586 já está cadastrado."));
 	}
 	
+	@Test @Transactional
+	@DisplayName("Returns 409, tries to save a client with an e-mail already in use.")
+	public void salvarCliente_existingEmail_returns409() throws Exception {
+		Cliente cliente1 = new Cliente();
+		cliente1.setNome("Marcus");
+		cliente1.setCpf("23501206586");
+		cliente1.setEmail("marcus@gmail.com");
+		repository.saveAndFlush(cliente1);
+		
+		mvc.perform(post("/salvarcliente").contentType(MediaType.APPLICATION_JSON)
+		.content(mapper.writeValueAsString(requestDTO("Carlos", "20219064674", "marcus@gmail.com"))))
+		.andExpect(status().isConflict())
+		.andExpect(content().string("E-mail indisponível, já está sendo utilizado."));
+	}
+	
+	@Test @DisplayName("Saves the same CPF from several threads at once. Only one is created, the others "
+	+ "get 409 from the unique constraint.")
+	public void salvarCliente_sameCpfConcurrently_oneCreatedOthers409() throws Exception {
+		int threads = 8;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch largada = new CountDownLatch(1);
+		List<Future<Integer>> status = new ArrayList<>();
+		
+		for (int i = 0; i < threads; i++) {
+			String json = mapper.writeValueAsString(requestDTO("Marcus", "23501206586", "marcus" + i + "@gmail.com"));
+			status.add(executor.submit(() -> {
+				largada.await();
+				return mvc.perform(post("/salvarcliente").contentType(MediaType.APPLICATION_JSON).content(json))
+				.andReturn().getResponse().getStatus();
+			}));
+		}
+		largada.countDown();
+		
+		List<Integer> resultado = new ArrayList<>();
+		for (Future<Integer> s : status) {
+			resultado.add(s.get(30, TimeUnit.SECONDS));
+		}
+		executor.shutdown();
+		
+		assertThat(resultado).containsOnly(201, 409).filteredOn(s -> s == 201).hasSize(1);
+		assertThat(repository.count()).isEqualTo(1);
+	}
+	
 	@Test @Transactional @DisplayName("Search for a client by ID in the database.")
 	public void encontrarClientePorId_success_returns200() throws Exception {
 		Cliente cliente1 = new Cliente();
@@ -183,6 +330,46 @@ public class ClienteControllerIntegrationTest {
 		.andExpect(jsonPath("$.email").value("marcus@gmail.com"));
 	}
 	
+	@Test @DisplayName("Conditional GET of a cached client returns 304 without touching the database, and "
+	+ "a new ETag after the client changes.")
+	public void encontrarClientePorId_ifNoneMatch_returns304WithoutQuery() throws Exception {
+		Cliente cliente1 = new Cliente();
+		cliente1.setNome("Marcus");
+		cliente1.setCpf("23501206586");
+		cliente1.setEmail("marcus@gmail.com");
+		repository.saveAndFlush(cliente1);
+		String url = "/encontrarcliente/" + cliente1.getId();
+		String etag = "\"" + cliente1.getId() + "-0\"";
+		
+		mvc.perform(get(url)).andExpect(status().isOk()).andExpect(header().string("ETag", etag));
+		
+		Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		long comandos = estatisticas.getPrepareStatementCount();
+		mvc.perform(get(url).header("If-None-Match", etag)).andExpect(status().isNotModified())
+		.andExpect(content().string(""));
+		assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(comandos);
+		
+		mvc.perform(patch("/atualizaremail/" + cliente1.getId()).param("email", "marcelo@gmail.com")
+		.header("If-Match", etag)).andExpect(status().isOk())
+		.andExpect(header().string("ETag", "\"" + cliente1.getId() + "-1\""));
+		mvc.perform(get(url).header("If-None-Match", etag)).andExpect(status().isOk())
+		.andExpect(jsonPath("$.email").value("marcelo@gmail.com"));
+	}
+	
+	@Test @DisplayName("Conditional GET of a page returns 304 until a client of that page changes.")
+	public void listaPaginada_ifNoneMatch_returns304UntilPageChanges() throws Exception {
+		List<Long> ids = salvarClientes(3);
+		
+		String etag = mvc.perform(get("/paginada?pagina=0&itens=2")).andExpect(status().isOk())
+		.andReturn().getResponse().getHeader("ETag");
+		mvc.perform(get("/paginada?pagina=0&itens=2").header("If-None-Match", etag))
+		.andExpect(status().isNotModified());
+		
+		mvc.perform(delete("/deletarporid/" + ids.get(2))).andExpect(status().isNoContent());
+		mvc.perform(get("/paginada?pagina=0&itens=2").header("If-None-Match", etag))
+		.andExpect(status().isOk()).andExpect(jsonPath("$.totalElements").value(2));
+	}
+	
 	@Test @DisplayName("Searches for a client that doesn't exist, returns 404")
 	public void encontrarClientePorId_notFound_returns404() throws Exception {
 		mvc.perform(get("/encontrarcliente/999")).andExpect(status().isNotFound());
@@ -208,6 +395,53 @@ public class ClienteControllerIntegrationTest {
 		assertThat(repository.findById(999L)).isNotPresent();
 	}
 	
+	@Test @DisplayName("Deletes a list of ids in chunks, reports the missing ones and evicts the cache. Returns 200.")
+	public void deletarClientes_listaDeIds_returns200() throws Exception {
+		List<Long> ids = salvarClientes(5);
+		mvc.perform(get("/encontrarcliente/" + ids.get(0))).andExpect(status().isOk());
+		
+		mvc.perform(delete("/deletarclientes").param("ids", ids.get(0) + "," + ids.get(2) + ",987654321," + ids.get(4)))
+		.andExpect(status().isOk()).andExpect(jsonPath("$.excluidos").value(3))
+		.andExpect(jsonPath("$.naoEncontrados.length()").value(1))
+		.andExpect(jsonPath("$.naoEncontrados[0]").value(987654321L));
+		
+		mvc.perform(get("/encontrarcliente/" + ids.get(0))).andExpect(status().isNotFound());
+		assertThat(repository.findAll()).extracting(Cliente::getId).containsExactlyInAnyOrder(ids.get(1), ids.get(3));
+	}
+	
+	@Test @DisplayName("Deletes a closed range of ids in chunks. Returns 200.")
+	public void deletarClientes_intervalo_returns200() throws Exception {
+		List<Long> ids = salvarClientes(6);
+		
+		mvc.perform(delete("/deletarclientes").param("de", ids.get(1).toString()).param("ate", ids.get(4).toString()))
+		.andExpect(status().isOk()).andExpect(jsonPath("$.excluidos").value(4))
+		.andExpect(jsonPath("$.naoEncontrados.length()").value(0));
+		
+		assertThat(repository.findAll()).extracting(Cliente::getId).containsExactlyInAnyOrder(ids.get(0), ids.get(5));
+	}
+	
+	@Test @DisplayName("Rejects a bulk delete without ids or range, or with both. Returns 400.")
+	public void deletarClientes_semCriterio_returns400() throws Exception {
+		mvc.perform(delete("/deletarclientes")).andExpect(status().isBadRequest())
+		.andExpect(content().string("Informe a lista de ids ou o intervalo com de e ate."));
+		mvc.perform(delete("/deletarclientes").param("ids", "1").param("de", "1").param("ate", "2"))
+		.andExpect(status().isBadRequest());
+		mvc.perform(delete("/deletarclientes").param("de", "5").param("ate", "2")).andExpect(status().isBadRequest())
+		.andExpect(content().string("O início do intervalo não pode ser maior que o fim."));
+	}
+	
+	private List<Long> salvarClientes(int quantidade) {
+		List<Long> ids = new ArrayList<>();
+		for (int i = 0; i < quantidade; i++) {
+			Cliente cliente = new Cliente();
+			cliente.setNome("Cliente " + i);
+			cliente.setCpf(String.format("%011d", 90000 + i));
+			cliente.setEmail("exclusao" + i + "@gmail.com");
+			ids.add(repository.saveAndFlush(cliente).getId());
+		}
+		return ids;
+	}
+	
 	@Test @Transactional @DisplayName("Updates client according to the DTO object, returns 200.")
 	public void atualizarCliente_success_returns200() throws Exception{
 		Cliente cliente1 = new Cliente();
@@ -259,6 +493,36 @@ public class ClienteControllerIntegrationTest {
 		.andExpect(content().string("Alteração de CPF não permitida."));
 	}
 	
+	@Test @DisplayName("Updates with If-Match once; the second update with the same version returns 412.")
+	public void atualizarCliente_ifMatch_secondWriterGets412() throws Exception{
+		Cliente cliente1 = new Cliente();
+		cliente1.setNome("Marcus");
+		cliente1.setCpf("23501206586");
+		cliente1.setEmail("marcus@gmail.com");
+		repository.saveAndFlush(cliente1);
+		
+		ClienteRequestDTO dto = new ClienteRequestDTO();
+		dto.setNome("Marcus Vinicius");
+		dto.setCpf("23501206586");
+		dto.setEmail("carlos@gmail.com");
+		
+		mvc.perform(get("/encontrarcliente/"+cliente1.getId())).andExpect(jsonPath("$.versao").value(0));
+		
+		mvc.perform(put("/clientes/"+cliente1.getId()).header("If-Match", "\"0\"")
+		.contentType(MediaType.APPLICATION_JSON).content(mapper.writeValueAsString(dto)))
+		.andExpect(status().isOk()).andExpect(jsonPath("$.versao").value(1));
+		
+		dto.setNome("Outro Nome");
+		mvc.perform(put("/clientes/"+cliente1.getId()).header("If-Match", "\"0\"")
+		.contentType(MediaType.APPLICATION_JSON).content(mapper.writeValueAsString(dto)))
+		.andExpect(status().isPreconditionFailed());
+		
+		Cliente encontrado = repository.findById(cliente1.getId()).get();
+		assertThat(encontrado.getNome()).isEqualTo("Marcus Vinicius");
+		assertThat(encontrado.getVersao()).isEqualTo(1L);
+		mvc.perform(get("/encontrarcliente/"+cliente1.getId())).andExpect(jsonPath("$.versao").value(1));
+	}
+	
 	@Test @Transactional @DisplayName("Finds client by CPF, returns 200.")
 	public void encontrarClientePorCpf_success_returns200() throws Exception{
 		Cliente cliente1 = new Cliente();
@@ -480,6 +744,46 @@ public class ClienteControllerIntegrationTest {
 		.string("Nome para busca não pode ser vazio ou nulo."));
 	}
 	
+	/*O mesmo buscarPorNome com o índice pronto e indo ao banco (índice desligado neste contexto) precisa trazer
+	 *as mesmas páginas. Nomes que a ordem binária do String.compareTo separaria da colação do banco: minúscula
+	 *depois de todas as maiúsculas, acento depois do z, caixa trocada e nome repetido (desempate pelo id).*/
+	@Test @DisplayName("Name search returns the same pages from the trigram index and from the database.")
+	public void buscarPorNome_indiceEBanco_mesmasPaginas() {
+		String[] nomes = { "Ana Clara", "ana beatriz", "Ébana Lima", "ANA PAULA", "Ana Paula", "Luana Égide",
+		"Juliana", "Anaís Souza", "Ana Paula", "Zana", "ÁNA Rita" };
+		List<Cliente> clientes = new ArrayList<>();
+		for (int i = 0; i < nomes.length; i++) {
+			Cliente cliente = new Cliente();
+			cliente.setNome(nomes[i]);
+			cliente.setCpf(String.format("%011d", 90000000000L + i));
+			cliente.setEmail("ordem" + i + "@gmail.com");
+			clientes.add(cliente);
+		}
+		repository.saveAllAndFlush(clientes);
+		
+		ClientesProperties properties = new ClientesProperties();
+		properties.getIndiceNome().setHabilitado(true);
+		IndiceNome indice = new IndiceNome(properties);
+		indice.iniciarReconstrucao();
+		clientes.forEach(cliente -> indice.adicionar(cliente.getId(), cliente.getNome()));
+		indice.concluirReconstrucao();
+		ClienteService comIndice = new ClienteService(repository, mergePatch, emailValidator, contagemCache,
+		clienteCache, indice, filtroCadastro);
+		
+		for (String termo : List.of("ana", "ANA")) {
+			assertThat(indice.buscar(termo, 0, 3)).isNotNull();
+			for (int pagina = 0; pagina < 4; pagina++) {
+				assertThat(comIndice.buscarPorNome(termo, pagina, 3).getContent())
+				.extracting(ClienteResponseDTO::getId).as(termo + ", página " + pagina)
+				.containsExactlyElementsOf(service.buscarPorNome(termo, pagina, 3).getContent().stream()
+				.map(ClienteResponseDTO::getId).toList());
+			}
+		}
+		assertThat(service.buscarPorNome("ana", 0, 20).getContent()).extracting(ClienteResponseDTO::getNome)
+		.containsExactly("ana beatriz", "Ana Clara", "Anaís Souza", "Ana Paula", "Ana Paula", "ANA PAULA",
+		"Ébana Lima", "Juliana", "Luana Égide", "Zana");
+	}
+	
 	@Test @Transactional @DisplayName("Returns 200. Partial update of client information.")
 	public void atualizarParcial_success_return200() throws Exception {
 		Cliente cliente1 = new Cliente();
@@ -499,6 +803,62 @@ public class ClienteControllerIntegrationTest {
 		.andExpect(jsonPath("$.email").value("antonio@email.com"));
 	}
 	
+	@Test @DisplayName("Applies a merge-patch document: only the members sent change, unknown ones are ignored.")
+	public void atualizarParcial_mergePatchJson_returns200() throws Exception {
+		Cliente cliente1 = new Cliente();
+		cliente1.setNome("Marcus");
+		cliente1.setCpf("23501206586");
+		cliente1.setEmail("marcus@gmail.com");
+		repository.saveAndFlush(cliente1);
+		
+		mvc.perform(patch("/parcial/"+cliente1.getId()).contentType("application/merge-patch+json")
+		.content("{\"nome\": \"Antonio\", \"apelido\": \"Toninho\"}")).andExpect(status().isOk())
+		.andExpect(jsonPath("$.nome").value("Antonio")).andExpect(jsonPath("$.email").value("marcus@gmail.com"))
+		.andExpect(jsonPath("$.versao").value(1));
+		
+		Cliente encontrado = repository.findById(cliente1.getId()).get();
+		assertThat(encontrado.getNome()).isEqualTo("Antonio");
+		assertThat(encontrado.getEmail()).isEqualTo("marcus@gmail.com");
+	}
+	
+	@Test @DisplayName("Patches different clients from several threads while others serialize the listing. "
+	+ "Every patch lands on its own client.")
+	public void atualizarParcial_concurrentPatches_eachClientGetsItsOwn() throws Exception {
+		List<Long> ids = salvarClientes(16);
+		int threads = 8;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch largada = new CountDownLatch(1);
+		List<Future<Integer>> status = new ArrayList<>();
+		
+		for (int i = 0; i < ids.size(); i++) {
+			Long id = ids.get(i);
+			String json = mapper.writeValueAsString(Map.of("nome", "Novo " + i, "email", "novo" + i + "@gmail.com",
+			"desconhecido", i));
+			status.add(executor.submit(() -> {
+				largada.await();
+				return mvc.perform(patch("/parcial/" + id).contentType("application/merge-patch+json").content(json))
+				.andReturn().getResponse().getStatus();
+			}));
+			status.add(executor.submit(() -> {
+				largada.await();
+				return mvc.perform(get("/listarclientes")).andReturn().getResponse().getStatus();
+			}));
+		}
+		largada.countDown();
+		
+		for (Future<Integer> s : status) {
+			assertThat(s.get(30, TimeUnit.SECONDS)).isEqualTo(200);
+		}
+		executor.shutdown();
+		
+		for (int i = 0; i < ids.size(); i++) {
+			Cliente cliente = repository.findById(ids.get(i)).get();
+			assertThat(cliente.getNome()).isEqualTo("Novo " + i);
+			assertThat(cliente.getEmail()).isEqualTo("novo" + i + "@gmail.com");
+			assertThat(cliente.getVersao()).isEqualTo(1L);
+		}
+	}
+	
 	@Test @Transactional @DisplayName("Returns 400 when it tries to update client's ID.")
 	public void atualizarParcial_invalidIdUpdanting_returns400() throws Exception{
 		Cliente cliente1 = new Cliente();
@@ -570,9 +930,8 @@ public class ClienteControllerIntegrationTest {
 	@Test @Transactional() @DisplayName("Searches for an email address and returns a page with the"
 	+ "client from that email. Page parameters are provided.")
 	public void buscaPorEmail_successFullPage_withPageParameters_returns200() throws Exception{
-		/*This is only a test to make sure that the correct content is returned. The e-mail address is 
-		 *unique and we can't have two clients with the same e-mail. For that reason the real Page only
-		 *return one client.*/
+		/*The e-mail address is unique (uk_cliente_email), so the page has a single client even with other
+		 *clients saved.*/
 		Cliente cliente1 = new Cliente();
 		cliente1.setNome("Marcus");
 		cliente1.setCpf("23501206586");
@@ -586,7 +945,7 @@ public class ClienteControllerIntegrationTest {
 		Cliente cliente3 = new Cliente();
 		cliente3.setNome("Marcelo");
 		cliente3.setCpf("47852136582");
-		cliente3.setEmail("marcus@gmail.com");
+		cliente3.setEmail("marcelo@gmail.com");
 		
 		repository.saveAndFlush(cliente1);
 		repository.saveAndFlush(cliente2);
@@ -596,18 +955,14 @@ public class ClienteControllerIntegrationTest {
 		.andExpect(jsonPath("$.content[0].nome").value("Marcus"))
 		.andExpect(jsonPath("$.content[0].email").value("marcus@gmail.com"))
 		.andExpect(jsonPath("$.content[0].cpf").value("23501206586"))
-		.andExpect(jsonPath("$.content[1].nome").value("Marcelo"))
-		.andExpect(jsonPath("$.content[1].email").value("marcus@gmail.com"))
-		.andExpect(jsonPath("$.content[1].cpf").value("47852136582"))
-		.andExpect(jsonPath("$.content.length()").value(2));
+		.andExpect(jsonPath("$.content.length()").value(1));
 	}
 	
 	@Test @Transactional @DisplayName("Searches for an e-mail address and returns a page with the"
 	+ "client from that email. Page parameters are NOT provided.") 
 	public void buscaPorEmail_successFullPage_noParameters_returns200() throws Exception{	
-		/*This is only a test to ensure that the correct content is returned. The email address is 
-		 *unique and we can't have two clients with the same e-mail. For that reason the real Page only
-		 *return one client.*/
+		/*The email address is unique (uk_cliente_email), so the page has a single client even with other
+		 *clients saved.*/
 		Cliente cliente1 = new Cliente();
 		cliente1.setNome("Marcus");
 		cliente1.setCpf("23501206586");
@@ -621,7 +976,7 @@ public class ClienteControllerIntegrationTest {
 		Cliente cliente3 = new Cliente();
 		cliente3.setNome("Marcelo");
 		cliente3.setCpf("47852136582");
-		cliente3.setEmail("marcus@gmail.com");
+		cliente3.setEmail("marcelo@gmail.com");
 		
 		repository.saveAndFlush(cliente1);
 		repository.saveAndFlush(cliente2);
@@ -631,10 +986,7 @@ public class ClienteControllerIntegrationTest {
 		.andExpect(jsonPath("$.content[0].nome").value("Marcus"))
 		.andExpect(jsonPath("$.content[0].email").value("marcus@gmail.com"))
 		.andExpect(jsonPath("$.content[0].cpf").value("23501206586"))
-		.andExpect(jsonPath("$.content[1].nome").value("Marcelo"))
-		.andExpect(jsonPath("$.content[1].email").value("marcus@gmail.com"))
-		.andExpect(jsonPath("$.content[1].cpf").value("47852136582"))
-		.andExpect(jsonPath("$.content.length()").value(2));
+		.andExpect(jsonPath("$.content.length()").value(1));
 	}
 	
 	@Test @DisplayName("Attempts to search for a client that matches the email and finds none. "
@@ -714,6 +1066,23 @@ public class ClienteControllerIntegrationTest {
 		.andExpect(status().isConflict()).andExpect(content().string(containsString("indisponível")));
 	}
 	
+	@Test @DisplayName("Updates the email with a stale version in If-Match. Returns 412 and keeps the email.")
+	public void atualizarEmail_staleVersion_returns412() throws Exception{
+		Cliente cliente1 = new Cliente();
+		cliente1.setNome("Marcus");
+		cliente1.setCpf("23501206586");
+		cliente1.setEmail("marcus@gmail.com");
+		repository.saveAndFlush(cliente1);
+		
+		mvc.perform(patch("/atualizaremail/"+cliente1.getId()).param("email", "marcelo@gmail.com"))
+		.andExpect(status().isOk()).andExpect(jsonPath("$.versao").value(1));
+		
+		mvc.perform(patch("/atualizaremail/"+cliente1.getId()).param("email", "mario@gmail.com")
+		.header("If-Match", "\"0\"")).andExpect(status().isPreconditionFailed());
+		
+		assertThat(repository.findById(cliente1.getId()).get().getEmail()).isEqualTo("marcelo@gmail.com");
+	}
+	
 	/*Those tests below are only for training, because the email address is unique.*/
 	
 	@Test @Transactional @DisplayName("Searches for the client by email and returns a Page with that "
@@ -735,7 +1104,7 @@ public class ClienteControllerIntegrationTest {
 		Cliente cliente3 = new Cliente();
 		cliente3.setNome("Marcelo");
 		cliente3.setCpf("47852136582");
-		cliente3.setEmail("marcus@gmail.com");
+		cliente3.setEmail("marcus@gmail.com.br");
 		
 		repository.saveAndFlush(cliente1);
 		repository.saveAndFlush(cliente2);
@@ -770,25 +1139,198 @@ public class ClienteControllerIntegrationTest {
 		.andExpect(status().isBadRequest()).andExpect(content().string(containsString("inválido")));
 	}
 	
+	@Test @Transactional
+	@DisplayName("Walks through every client with the cursor pagination, ordered by name. Returns 200.")
+	public void listaPaginadaPorCursor_walksAllPages_returns200() throws Exception {
+		String[][] dados = {{"Marcus", "23501206586", "marcus@gmail.com"},
+		{"Antonio", "20219064674", "antonio@gmail.com"}, {"Marcelo", "47852136582", "marcelo@gmail.com"}};
+		for (String[] d : dados) {
+			Cliente cliente = new Cliente();
+			cliente.setNome(d[0]);
+			cliente.setCpf(d[1]);
+			cliente.setEmail(d[2]);
+			repository.saveAndFlush(cliente);
+		}
+		
+		String resposta = mvc.perform(get("/paginadacursor").param("itens", "2").param("ordenadoPor", "nome"))
+		.andExpect(status().isOk()).andExpect(jsonPath("$.clientes.length()").value(2))
+		.andExpect(jsonPath("$.clientes[0].nome").value("Antonio"))
+		.andExpect(jsonPath("$.clientes[1].nome").value("Marcelo"))
+		.andReturn().getResponse().getContentAsString();
+		
+		String cursor = mapper.readTree(resposta).get("proximoCursor").asText();
+		
+		mvc.perform(get("/paginadacursor").param("itens", "2").param("ordenadoPor", "nome")
+		.param("cursor", cursor)).andExpect(status().isOk())
+		.andExpect(jsonPath("$.clientes.length()").value(1))
+		.andExpect(jsonPath("$.clientes[0].nome").value("Marcus"))
+		.andExpect(jsonPath("$.proximoCursor").doesNotExist());
+	}
+	
+	@Test @DisplayName("Attempts to use a malformed cursor. Returns 400.")
+	public void listaPaginadaPorCursor_invalidCursor_returns400() throws Exception {
+		mvc.perform(get("/paginadacursor").param("cursor", "@@@")).andExpect(status().isBadRequest())
+		.andExpect(content().string("Cursor inválido."));
+	}
+	
+	@Test @Transactional
+	@DisplayName("Returns 200 and the email search without total elements when semTotal=true.")
+	public void buscaPorEmailSemTotal_success_returns200() throws Exception {
+		Cliente cliente1 = new Cliente();
+		cliente1.setNome("Marcus");
+		cliente1.setCpf("23501206586");
+		cliente1.setEmail("marcus@gmail.com");
+		repository.saveAndFlush(cliente1);
+		
+		mvc.perform(get("/buscaemail").param("email", "marcus@gmail.com").param("semTotal", "true"))
+		.andExpect(status().isOk()).andExpect(jsonPath("$.clientes[0].nome").value("Marcus"))
+		.andExpect(jsonPath("$.temProxima").value(false)).andExpect(jsonPath("$.totalElements").doesNotExist());
+	}
+	
+	@Test @Transactional
+	@DisplayName("Saves a batch with valid, invalid, repeated and already registered clients. Returns 200.")
+	public void salvarClientes_mixedBatch_returns200() throws Exception {
+		Cliente existente = new Cliente();
+		existente.setNome("Antonio");
+		existente.setCpf("20219064674");
+		existente.setEmail("antonio@gmail.com");
+		repository.saveAndFlush(existente);
+		
+		List<ClienteRequestDTO> lote = List.of(
+		requestDTO("Marcus", "23501206586", "marcus@gmail.com"),
+		requestDTO("Ma", "47852136582", "ma@gmail.com"),
+		requestDTO("Marcelo", "23501206586", "marcelo@gmail.com"),
+		requestDTO("Antonio Jr", "20219064674", "antoniojr@gmail.com"),
+		requestDTO("Vinicius", "54879652365", "vinicius@email.com"));
+		
+		mvc.perform(post("/salvarclientes").contentType(MediaType.APPLICATION_JSON)
+		.content(mapper.writeValueAsString(lote))).andExpect(status().isOk())
+		.andExpect(jsonPath("$.criados").value(2)).andExpect(jsonPath("$.conflitos").value(2))
+		.andExpect(jsonPath("$.invalidos").value(1))
+		.andExpect(jsonPath("$.itens[0].status").value("CRIADO"))
+		.andExpect(jsonPath("$.itens[0].cliente.id").isNumber())
+		.andExpect(jsonPath("$.itens[1].status").value("INVALIDO"))
+		.andExpect(jsonPath("$.itens[2].mensagem").value("CPF repetido no lote."))
+		.andExpect(jsonPath("$.itens[3].mensagem").value("O CPF 20219064674 já está cadastrado."))
+		.andExpect(jsonPath("$.itens[4].status").value("CRIADO"));
+		
+		assertThat(repository.count()).isEqualTo(3);
+	}
+	
+	/*Outro cadastro grava o CPF e o e-mail depois da consulta do lote: a consulta não acha nada e a violação
+	 *só aparece no insert. Pedaços de 2 (tamanho-pedaco do lote) para o conflito cair no meio de um pedaço.*/
+	@Test @DisplayName("A client registered concurrently after the batch check is reported as a conflict. Returns 200.")
+	public void salvarClientes_concurrentInsert_itemConflict() throws Exception {
+		Cliente concorrenteCpf = new Cliente();
+		concorrenteCpf.setNome("Antonio");
+		concorrenteCpf.setCpf("20219064674");
+		concorrenteCpf.setEmail("antonio@gmail.com");
+		Cliente concorrenteEmail = new Cliente();
+		concorrenteEmail.setNome("Vinicius");
+		concorrenteEmail.setCpf("54879652365");
+		concorrenteEmail.setEmail("vinicius@email.com");
+		repository.saveAllAndFlush(List.of(concorrenteCpf, concorrenteEmail));
+		doReturn(List.of()).when(repository).findCpfsCadastrados(any());
+		doReturn(List.of()).when(repository).findEmailsCadastrados(any());
+		
+		List<ClienteRequestDTO> lote = List.of(
+		requestDTO("Marcus", "23501206586", "marcus@gmail.com"),
+		requestDTO("Antonio Jr", "20219064674", "antoniojr@gmail.com"),
+		requestDTO("Marcelo", "47852136582", "marcelo@gmail.com"),
+		requestDTO("Vinicius Jr", "71428793860", "vinicius@email.com"),
+		requestDTO("Renata", "84434181000", "renata@gmail.com"));
+		
+		mvc.perform(post("/salvarclientes").contentType(MediaType.APPLICATION_JSON)
+		.content(mapper.writeValueAsString(lote))).andExpect(status().isOk())
+		.andExpect(jsonPath("$.criados").value(3)).andExpect(jsonPath("$.conflitos").value(2))
+		.andExpect(jsonPath("$.itens[0].status").value("CRIADO"))
+		.andExpect(jsonPath("$.itens[1].status").value("CONFLITO"))
+		.andExpect(jsonPath("$.itens[1].mensagem").value("O CPF 20219064674 já está cadastrado."))
+		.andExpect(jsonPath("$.itens[2].status").value("CRIADO"))
+		.andExpect(jsonPath("$.itens[3].status").value("CONFLITO"))
+		.andExpect(jsonPath("$.itens[3].mensagem").value("E-mail indisponível, já está sendo utilizado."))
+		.andExpect(jsonPath("$.itens[4].status").value("CRIADO"))
+		.andExpect(jsonPath("$.itens[4].cliente.id").isNumber());
+		
+		assertThat(repository.count()).isEqualTo(5);
+		assertThat(repository.findRespostaByCpf("47852136582")).isPresent();
+	}
+	
+	@Test @DisplayName("Attempts to save an empty batch. Returns 400.")
+	public void salvarClientes_emptyBatch_returns400() throws Exception {
+		mvc.perform(post("/salvarclientes").contentType(MediaType.APPLICATION_JSON).content("[]"))
+		.andExpect(status().isBadRequest()).andExpect(content().string("O lote não pode ser vazio."));
+	}
+	
+	@Test @DisplayName("Finds several clients by id and by CPF in one call, in the requested order. Returns 200.")
+	public void encontrarClientes_idsECpfs_returns200() throws Exception {
+		List<Long> ids = new ArrayList<>();
+		for (String[] dados : new String[][] { { "Renata", "71428793860", "renata.multi@gmail.com" },
+		{ "Otavio", "84434181000", "otavio.multi@gmail.com" }, { "Lucia", "39053344705", "lucia.multi@gmail.com" } }) {
+			Cliente cliente = new Cliente();
+			cliente.setNome(dados[0]);
+			cliente.setCpf(dados[1]);
+			cliente.setEmail(dados[2]);
+			ids.add(repository.saveAndFlush(cliente).getId());
+		}
+		
+		mvc.perform(get("/encontrarclientes").param("ids", ids.get(2) + ",987654321," + ids.get(0) + "," + ids.get(2)))
+		.andExpect(status().isOk()).andExpect(jsonPath("$.clientes.length()").value(2))
+		.andExpect(jsonPath("$.clientes[0].nome").value("Lucia"))
+		.andExpect(jsonPath("$.clientes[1].nome").value("Renata"))
+		.andExpect(jsonPath("$.naoEncontrados[0]").value(987654321L));
+		
+		mvc.perform(get("/clientescpf").param("cpfs", "84434181000,00000000191,71428793860"))
+		.andExpect(status().isOk()).andExpect(jsonPath("$.clientes[0].nome").value("Otavio"))
+		.andExpect(jsonPath("$.clientes[1].nome").value("Renata"))
+		.andExpect(jsonPath("$.naoEncontrados[0]").value("00000000191"));
+	}
+	
+	@Test @DisplayName("Rejects a multi-get without keys or with more keys than allowed. Returns 400.")
+	public void encontrarClientes_semChavesOuAcimaDoLimite_returns400() throws Exception {
+		mvc.perform(get("/encontrarclientes")).andExpect(status().isBadRequest())
+		.andExpect(content().string("Informe ao menos um id."));
+		
+		List<String> cpfs = new ArrayList<>();
+		for (int i = 0; i <= 100; i++) {
+			cpfs.add(String.format("%011d", i));
+		}
+		mvc.perform(get("/clientescpf").param("cpfs", String.join(",", cpfs))).andExpect(status().isBadRequest())
+		.andExpect(content().string("A busca pode ter no máximo 100 CPFs."));
+	}
+	
+	@Test @DisplayName("The same list and page come back in CBOR and Smile, smaller than the JSON body.")
+	public void listarClientes_formatosBinarios_mesmoConteudoMenorCorpo() throws Exception {
+		salvarClientes(20);
+		
+		byte[] json = mvc.perform(get("/listarclientes")).andExpect(status().isOk())
+		.andExpect(content().contentType(MediaType.APPLICATION_JSON)).andReturn().getResponse()
+		.getContentAsByteArray();
+		byte[] cbor = mvc.perform(get("/listarclientes").accept("application/cbor")).andExpect(status().isOk())
+		.andExpect(header().string("Content-Type", "application/cbor")).andReturn().getResponse()
+		.getContentAsByteArray();
+		byte[] smile = mvc.perform(get("/listarclientes").accept("application/x-jackson-smile"))
+		.andExpect(status().isOk()).andReturn().getResponse().getContentAsByteArray();
+		
+		assertThat(new CBORMapper().readTree(cbor)).isEqualTo(mapper.readTree(json));
+		assertThat(new SmileMapper().readTree(smile)).isEqualTo(mapper.readTree(json));
+		assertThat(cbor.length).isLessThan(json.length);
+		assertThat(smile.length).isLessThan(json.length);
+		
+		byte[] pagina = mvc.perform(get("/paginada?pagina=1&itens=5").accept("application/cbor"))
+		.andExpect(status().isOk()).andExpect(header().exists("ETag")).andReturn().getResponse()
+		.getContentAsByteArray();
+		JsonNode page = new CBORMapper().readTree(pagina);
+		assertThat(page.get("content")).hasSize(5);
+		assertThat(page.get("totalElements").asLong()).isEqualTo(20);
+	}
+	
+	private ClienteRequestDTO requestDTO(String nome, String cpf, String email) {
+		ClienteRequestDTO dto = new ClienteRequestDTO();
+		dto.setNome(nome);
+		dto.setCpf(cpf);
+		dto.setEmail(email);
+		return dto;
+	}
+	
 }
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
@@ -1,6 +1,8 @@
 package com.sistemaclliente;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.not;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyMap;
@@ -8,8 +10,10 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
@@ -18,8 +22,11 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -40,20 +47,40 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.sistemacliente.config.FormatosBinariosConfig;
 import com.sistemacliente.controller.ClienteController;
 import com.sistemacliente.exception.AlteracaoDeCpfException;
+import com.sistemacliente.exception.ArgumentoInvalidoException;
 import com.sistemacliente.exception.ClienteNotFoundException;
 import com.sistemacliente.exception.CpfJaCadastradoException;
 import com.sistemacliente.exception.EmailJaCadastradoException;
+import com.sistemacliente.exception.VersaoDesatualizadaException;
 import com.sistemacliente.exception.ValidationExceptionHandler;
 import com.sistemacliente.model.Cliente;
+import com.sistemacliente.model.dto.BuscaMultiplaResponseDTO;
 import com.sistemacliente.model.dto.ClienteRequestDTO;
 import com.sistemacliente.model.dto.ClienteResponseDTO;
+import com.sistemacliente.model.dto.ExclusaoResponseDTO;
+import com.sistemacliente.model.dto.ItemLoteResponseDTO;
+import com.sistemacliente.model.dto.LoteResponseDTO;
+import com.sistemacliente.service.ClienteBuscaMultiplaService;
+import com.sistemacliente.service.ClienteExclusaoService;
+import com.sistemacliente.service.ClienteExportacaoService;
+import com.sistemacliente.service.ClienteExportacaoService.Formato;
+import com.sistemacliente.service.ClienteLoteService;
 import com.sistemacliente.service.ClienteService;
 
 /*Podemos fazer testes em conjunto para deixar a classe mais enxuta como o caso de testar verbo http in-
@@ -61,7 +88,7 @@ import com.sistemacliente.service.ClienteService;
  *Sempre que possível teste em grupo foram feitos.*/
 
 @WebMvcTest(controllers = ClienteController.class)
-@Import(ValidationExceptionHandler.class)
+@Import({ ValidationExceptionHandler.class, FormatosBinariosConfig.class })
 public class ClienteControllerTest {
 	
 	private ClienteResponseDTO cliente1;
@@ -97,6 +124,18 @@ public class ClienteControllerTest {
 	@MockitoBean
 	private ClienteService service;
 	
+	@MockitoBean
+	private ClienteExportacaoService exportacaoService;
+	
+	@MockitoBean
+	private ClienteLoteService loteService;
+	
+	@MockitoBean
+	private ClienteBuscaMultiplaService buscaMultiplaService;
+	
+	@MockitoBean
+	private ClienteExclusaoService exclusaoService;
+	
 	@Test
 	@DisplayName("Retorna 200 e lista de todos os clientes do banco de dados.")
 	public void listarClientes_listaCheia_retornar200() throws Exception {
@@ -124,6 +163,90 @@ public class ClienteControllerTest {
 		verifyNoMoreInteractions(service);
 	}
 	
+	@Test
+	@DisplayName("Returns the client list in CBOR when the Accept header asks for application/cbor.")
+	public void listarClientes_acceptCbor_retornaCbor() throws Exception {
+		when(service.listagemCliente()).thenReturn(List.of(cliente1, cliente2));
+		
+		byte[] corpo = mvc.perform(get("/listarclientes").accept("application/cbor")).andExpect(status().isOk())
+		.andExpect(header().string("Content-Type", "application/cbor")).andReturn().getResponse()
+		.getContentAsByteArray();
+		
+		List<ClienteResponseDTO> lista = new CBORMapper().readValue(corpo,
+		new TypeReference<List<ClienteResponseDTO>>() {});
+		assertThat(lista).extracting(ClienteResponseDTO::getNome).containsExactly("Marcus", "Antonio");
+		assertThat(lista.get(0).getCpf()).isEqualTo("23501206586");
+	}
+	
+	@Test
+	@DisplayName("Returns a page in Smile when the Accept header asks for application/x-jackson-smile.")
+	public void listaPaginada_acceptSmile_retornaSmile() throws Exception {
+		when(service.listaPaginada(0, 2)).thenReturn(new PageImpl<>(List.of(cliente1, cliente2)));
+		
+		byte[] corpo = mvc.perform(get("/paginada?pagina=0&itens=2").accept("application/x-jackson-smile"))
+		.andExpect(status().isOk()).andExpect(header().string("Content-Type", "application/x-jackson-smile"))
+		.andReturn().getResponse().getContentAsByteArray();
+		
+		JsonNode pagina = new SmileMapper().readTree(corpo);
+		assertThat(pagina.get("content").get(1).get("email").asText()).isEqualTo("antonio@gmail.com");
+		assertThat(pagina.get("totalElements").asLong()).isEqualTo(2);
+	}
+	
+	@ParameterizedTest
+	@NullSource
+	@ValueSource(strings = { "*/*", "application/json, application/cbor;q=0.5" })
+	@DisplayName("Without Accept, with */* or with JSON preferred the response stays JSON.")
+	public void encontrarClientePorId_semAcceptBinario_retornaJson(String accept) throws Exception {
+		when(service.buscarClientePorId(1L)).thenReturn(cliente1);
+		
+		mvc.perform(accept == null ? get("/encontrarcliente/1") : get("/encontrarcliente/1").header("Accept", accept))
+		.andExpect(status().isOk()).andExpect(content().contentType(MediaType.APPLICATION_JSON))
+		.andExpect(jsonPath("$.nome").value("Marcus"));
+	}
+	
+	@Test
+	@DisplayName("Accepts a CBOR request body and answers in CBOR.")
+	public void salvarCliente_corpoCbor_retorno201() throws Exception {
+		when(service.salvarCliente(any(ClienteRequestDTO.class))).thenReturn(cliente1);
+		CBORMapper cbor = new CBORMapper();
+		
+		byte[] corpo = mvc.perform(post("/salvarcliente").contentType("application/cbor").accept("application/cbor")
+		.content(cbor.writeValueAsBytes(dto))).andExpect(status().isCreated()).andReturn().getResponse()
+		.getContentAsByteArray();
+		
+		assertThat(cbor.readValue(corpo, ClienteResponseDTO.class).getId()).isEqualTo(1L);
+		verify(service).salvarCliente(any(ClienteRequestDTO.class));
+	}
+	
+	@Test
+	@DisplayName("Retorna 200 e a listagem em stream com o content type do formato pedido.")
+	public void listarClientesStream_ndjson_retorno200() throws Exception {
+		when(exportacaoService.exportar(any(OutputStream.class), eq(Formato.NDJSON))).thenAnswer(invocation -> {
+			OutputStream out = invocation.getArgument(0);
+			out.write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+			return 1L;
+		});
+		
+		MvcResult result = mvc.perform(get("/listarclientes/stream")).andExpect(request().asyncStarted())
+		.andReturn();
+		
+		mvc.perform(asyncDispatch(result)).andExpect(status().isOk())
+		.andExpect(header().string("Content-Type", "application/x-ndjson"))
+		.andExpect(content().string("{\"id\":1}\n"));
+		
+		verify(exportacaoService).exportar(any(OutputStream.class), eq(Formato.NDJSON));
+		verifyNoMoreInteractions(exportacaoService);
+	}
+	
+	@Test
+	@DisplayName("Retorna 400 quando o formato da listagem em stream não existe.")
+	public void listarClientesStream_formatoInvalido_retorno400() throws Exception {
+		mvc.perform(get("/listarclientes/stream").param("formato", "xml")).andExpect(status().isBadRequest())
+		.andExpect(content().string(containsString("Formato de exportação inválido")));
+		
+		verifyNoMoreInteractions(exportacaoService);
+	}
+	
 	@Test
 	public void listarClientes_retorna500() throws Exception {
 		when(service.listagemCliente()).thenThrow(new RuntimeException());
@@ -324,6 +447,32 @@ public class ClienteControllerTest {
 		verifyNoMoreInteractions(service);
 	}
 	
+	@Test @DisplayName("Bulk deletes a list of ids. Returns 200 with the count and the missing ids.")
+	public void deletarClientes_listaDeIds_retorno200() throws Exception{
+		ExclusaoResponseDTO resultado = new ExclusaoResponseDTO();
+		resultado.setExcluidos(2);
+		resultado.setNaoEncontrados(List.of(9L));
+		when(exclusaoService.excluir(List.of(1L, 2L, 9L), null, null)).thenReturn(resultado);
+		
+		mvc.perform(delete("/deletarclientes").param("ids", "1,2,9")).andExpect(status().isOk())
+		.andExpect(jsonPath("$.excluidos").value(2)).andExpect(jsonPath("$.naoEncontrados[0]").value(9L));
+		
+		verify(exclusaoService).excluir(List.of(1L, 2L, 9L), null, null);
+		verifyNoMoreInteractions(exclusaoService);
+	}
+	
+	@Test @DisplayName("Bulk deletes a range of ids. Returns 200.")
+	public void deletarClientes_intervalo_retorno200() throws Exception{
+		ExclusaoResponseDTO resultado = new ExclusaoResponseDTO();
+		resultado.setExcluidos(100);
+		when(exclusaoService.excluir(null, 1L, 100L)).thenReturn(resultado);
+		
+		mvc.perform(delete("/deletarclientes").param("de", "1").param("ate", "100")).andExpect(status().isOk())
+		.andExpect(jsonPath("$.excluidos").value(100));
+		
+		verify(exclusaoService).excluir(null, 1L, 100L);
+	}
+	
 	@Test
 	public void deletarClientePorId_verboIncorreto_retorno405() throws Exception{
 		mvc.perform(get("/deletarporid/1")).andExpect(status().isMethodNotAllowed())
@@ -346,7 +495,7 @@ public class ClienteControllerTest {
 	@Test
 	@DisplayName("Updates client according to the DTO object, returns 200.")
 	public void atualizarCliente_sucesso_retorno200() throws Exception{
-		when(service.atualizarCliente(anyLong(), any(ClienteRequestDTO.class))).thenReturn(cliente1);
+		when(service.atualizarCliente(anyLong(), any(ClienteRequestDTO.class), any())).thenReturn(cliente1);
 		
 		mvc.perform(put("/clientes/1").contentType(MediaType.APPLICATION_JSON)
 		.content(mapper.writeValueAsString(dto))).andExpect(status().isOk())
@@ -355,21 +504,21 @@ public class ClienteControllerTest {
 		.andExpect(jsonPath("$.cpf").value("23501206586"))
 		.andExpect(jsonPath("$.email").value("marcus@gmail.com"));
 		
-		verify(service).atualizarCliente(anyLong(), any(ClienteRequestDTO.class));
+		verify(service).atualizarCliente(anyLong(), any(ClienteRequestDTO.class), any());
 		verifyNoMoreInteractions(service);
 	}
 	
 	@Test
 	@DisplayName("Tries to update and don't find client by ID, returns 404.")
 	public void atualizarCliente_clienteNaoEncontrado_retorno404() throws Exception{		
-		when(service.atualizarCliente(anyLong(), any(ClienteRequestDTO.class)))
+		when(service.atualizarCliente(anyLong(), any(ClienteRequestDTO.class), any()))
 		.thenThrow(new ClienteNotFoundException());
 		
 		mvc.perform(put("/clientes/1").contentType(MediaType.APPLICATION_JSON)
 		.content(mapper.writeValueAsString(dto))).andExpect(status().isNotFound())
 		.andExpect(content().string("Cliente não encontrado."));
 
-		verify(service).atualizarCliente(anyLong(), any(ClienteRequestDTO.class));
+		verify(service).atualizarCliente(anyLong(), any(ClienteRequestDTO.class), any());
 		verifyNoMoreInteractions(service);
 	}
 	
@@ -379,36 +528,184 @@ public class ClienteControllerTest {
 		.content(mapper.writeValueAsString(dto))).andExpect(status().isMethodNotAllowed())
 		.andExpect(header().string("Allow", "PUT"));
 		
-		verify(service, never()).atualizarCliente(anyLong(), any(ClienteRequestDTO.class));
+		verify(service, never()).atualizarCliente(anyLong(), any(ClienteRequestDTO.class), any());
 		verifyNoMoreInteractions(service);
 	}
 	
 	@Test @DisplayName("Tries to update client, but it is not allowed change the CPF. Returns 409.")
 	public void atualizarCliente_trocaDeCpf_retorno409() throws Exception{
-		when(service.atualizarCliente(anyLong(), any(ClienteRequestDTO.class)))
+		when(service.atualizarCliente(anyLong(), any(ClienteRequestDTO.class), any()))
 		.thenThrow(new AlteracaoDeCpfException());
 		
 		mvc.perform(put("/clientes/1").contentType(MediaType.APPLICATION_JSON)
 		.content(mapper.writeValueAsString(dto))).andExpect(status().isConflict())
 		.andExpect(content().string("Alteração de CPF não permitida."));
 		
-		verify(service).atualizarCliente(anyLong(), any(ClienteRequestDTO.class));
+		verify(service).atualizarCliente(anyLong(), any(ClienteRequestDTO.class), any());
 		verifyNoMoreInteractions(service);
 	}
 	
 	@Test
 	public void atualizarCliente_erroDeServidor_retorno500() throws Exception{
-		when(service.atualizarCliente(anyLong(), any(ClienteRequestDTO.class)))
+		when(service.atualizarCliente(anyLong(), any(ClienteRequestDTO.class), any()))
 		.thenThrow(new RuntimeException());
 		
 		mvc.perform(put("/clientes/1").contentType(MediaType.APPLICATION_JSON)
 		.content(mapper.writeValueAsString(dto))).andExpect(status().isInternalServerError())
 		.andExpect(content().string(containsString("Erro")));
 		
-		verify(service).atualizarCliente(anyLong(), any(ClienteRequestDTO.class));
+		verify(service).atualizarCliente(anyLong(), any(ClienteRequestDTO.class), any());
+		verifyNoMoreInteractions(service);
+	}
+	
+	@Test @DisplayName("Updates client only if it still has the version sent in If-Match. Returns 200.")
+	public void atualizarCliente_comIfMatch_passaAVersao() throws Exception{
+		when(service.atualizarCliente(eq(1L), any(ClienteRequestDTO.class), eq(List.of(3L)))).thenReturn(cliente1);
+		
+		mvc.perform(put("/clientes/1").header("If-Match", "\"3\"").contentType(MediaType.APPLICATION_JSON)
+		.content(mapper.writeValueAsString(dto))).andExpect(status().isOk());
+		
+		verify(service).atualizarCliente(eq(1L), any(ClienteRequestDTO.class), eq(List.of(3L)));
+		verifyNoMoreInteractions(service);
+	}
+	
+	@Test @DisplayName("Tries to update a client that changed since the version in If-Match. Returns 412.")
+	public void atualizarCliente_versaoDesatualizada_retorno412() throws Exception{
+		when(service.atualizarCliente(eq(1L), any(ClienteRequestDTO.class), eq(List.of(3L))))
+		.thenThrow(new VersaoDesatualizadaException());
+		
+		mvc.perform(put("/clientes/1").header("If-Match", "\"3\"").contentType(MediaType.APPLICATION_JSON)
+		.content(mapper.writeValueAsString(dto))).andExpect(status().isPreconditionFailed())
+		.andExpect(content().string(VersaoDesatualizadaException.MENSAGEM));
+	}
+	
+	@ParameterizedTest @ValueSource(strings = {"3", "\"abc\"", "\"\"", "\"1\", 2", "\"1\",,\"2\""})
+	@DisplayName("Rejects an If-Match that isn't a list of quoted versions. Returns 400.")
+	public void atualizarCliente_ifMatchInvalido_retorno400(String ifMatch) throws Exception{
+		mvc.perform(put("/clientes/1").header("If-Match", ifMatch).contentType(MediaType.APPLICATION_JSON)
+		.content(mapper.writeValueAsString(dto))).andExpect(status().isBadRequest());
+		
+		verifyNoInteractions(service);
+	}
+	
+	@Test @DisplayName("A weak tag never matches in If-Match. Returns 412 without calling the service.")
+	public void atualizarCliente_ifMatchFraco_retorno412() throws Exception{
+		mvc.perform(put("/clientes/1").header("If-Match", "W/\"3\"").contentType(MediaType.APPLICATION_JSON)
+		.content(mapper.writeValueAsString(dto))).andExpect(status().isPreconditionFailed());
+		
+		verifyNoInteractions(service);
+	}
+	
+	@Test @DisplayName("Accepts the client's ETag in If-Match; a tag of another client returns 412.")
+	public void atualizarCliente_ifMatchComEtag_passaAVersao() throws Exception{
+		when(service.atualizarCliente(eq(1L), any(ClienteRequestDTO.class), eq(List.of(3L)))).thenReturn(cliente1);
+		
+		mvc.perform(put("/clientes/1").header("If-Match", "\"1-3\"").contentType(MediaType.APPLICATION_JSON)
+		.content(mapper.writeValueAsString(dto))).andExpect(status().isOk());
+		mvc.perform(put("/clientes/1").header("If-Match", "\"2-3\"").contentType(MediaType.APPLICATION_JSON)
+		.content(mapper.writeValueAsString(dto))).andExpect(status().isPreconditionFailed());
+		
+		verify(service).atualizarCliente(eq(1L), any(ClienteRequestDTO.class), eq(List.of(3L)));
 		verifyNoMoreInteractions(service);
 	}
 	
+	@Test @DisplayName("An If-Match list passes every version of this client; tags of other clients are skipped.")
+	public void atualizarCliente_ifMatchLista_passaAsVersoes() throws Exception{
+		when(service.atualizarCliente(eq(1L), any(ClienteRequestDTO.class), eq(List.of(3L, 4L)))).thenReturn(cliente1);
+		
+		mvc.perform(put("/clientes/1").header("If-Match", "\"1-3\", \"2-9\", W/\"1-5\", \"1-4-cbor\"")
+		.contentType(MediaType.APPLICATION_JSON).content(mapper.writeValueAsString(dto))).andExpect(status().isOk());
+		mvc.perform(put("/clientes/1").header("If-Match", "\"2-3\", W/\"1-3\"").contentType(MediaType.APPLICATION_JSON)
+		.content(mapper.writeValueAsString(dto))).andExpect(status().isPreconditionFailed());
+		
+		verify(service).atualizarCliente(eq(1L), any(ClienteRequestDTO.class), eq(List.of(3L, 4L)));
+		verifyNoMoreInteractions(service);
+	}
+	
+	@Test @DisplayName("Finds client by ID with an ETag; If-None-Match with the same tag returns 304 and no body.")
+	public void encontrarClientePorId_ifNoneMatch_retorno304() throws Exception{
+		cliente1.setVersao(2L);
+		when(service.buscarClientePorId(1L)).thenReturn(cliente1);
+		
+		mvc.perform(get("/encontrarcliente/1")).andExpect(status().isOk())
+		.andExpect(header().string("ETag", "\"1-2\"")).andExpect(jsonPath("$.versao").value(2));
+		
+		mvc.perform(get("/encontrarcliente/1").header("If-None-Match", "\"1-2\""))
+		.andExpect(status().isNotModified()).andExpect(header().string("ETag", "\"1-2\""))
+		.andExpect(content().string(""));
+		
+		mvc.perform(get("/encontrarcliente/1").header("If-None-Match", "\"1-1\"")).andExpect(status().isOk());
+	}
+	
+	@Test @DisplayName("A JSON ETag sent with Accept: application/cbor returns 200 with the CBOR tag, never 304.")
+	public void encontrarClientePorId_etagJsonComAcceptCbor_retorno200() throws Exception{
+		cliente1.setVersao(2L);
+		when(service.buscarClientePorId(1L)).thenReturn(cliente1);
+		
+		mvc.perform(get("/encontrarcliente/1").accept("application/cbor").header("If-None-Match", "\"1-2\""))
+		.andExpect(status().isOk()).andExpect(header().string("ETag", "\"1-2-cbor\""))
+		.andExpect(header().string("Vary", containsString("Accept")))
+		.andExpect(header().string("Content-Type", "application/cbor"));
+		
+		mvc.perform(get("/encontrarcliente/1").accept("application/cbor").header("If-None-Match", "\"1-2-cbor\""))
+		.andExpect(status().isNotModified()).andExpect(header().string("Vary", containsString("Accept")));
+		
+		mvc.perform(get("/encontrarcliente/1").header("If-None-Match", "\"1-2-cbor\""))
+		.andExpect(status().isOk()).andExpect(header().string("ETag", "\"1-2\""))
+		.andExpect(content().contentType(MediaType.APPLICATION_JSON));
+	}
+	
+	@Test @DisplayName("Pages in Smile get their own ETag; the JSON page tag does not return 304.")
+	public void listaPaginada_etagJsonComAcceptSmile_retorno200() throws Exception{
+		cliente1.setVersao(0L);
+		cliente2.setVersao(0L);
+		when(service.listaPaginada(0, 2)).thenReturn(new PageImpl<>(List.of(cliente1, cliente2)));
+		
+		String etag = mvc.perform(get("/paginada?pagina=0&itens=2")).andExpect(status().isOk())
+		.andExpect(header().string("Vary", containsString("Accept"))).andReturn().getResponse().getHeader("ETag");
+		
+		mvc.perform(get("/paginada?pagina=0&itens=2").accept("application/x-jackson-smile")
+		.header("If-None-Match", etag)).andExpect(status().isOk())
+		.andExpect(header().string("ETag", etag.substring(0, etag.length() - 1) + "-smile\""));
+	}
+	
+	@Test @DisplayName("The ETag of a CBOR response is accepted in If-Match.")
+	public void atualizarCliente_ifMatchComEtagCbor_passaAVersao() throws Exception{
+		when(service.atualizarCliente(eq(1L), any(ClienteRequestDTO.class), eq(List.of(3L)))).thenReturn(cliente1);
+		
+		mvc.perform(put("/clientes/1").header("If-Match", "\"1-3-cbor\"").contentType(MediaType.APPLICATION_JSON)
+		.content(mapper.writeValueAsString(dto))).andExpect(status().isOk());
+		
+		verify(service).atualizarCliente(eq(1L), any(ClienteRequestDTO.class), eq(List.of(3L)));
+	}
+	
+	@Test @DisplayName("Finds client by CPF with an ETag; If-None-Match with the same tag returns 304.")
+	public void encontrarClientePorCpf_ifNoneMatch_retorno304() throws Exception{
+		cliente1.setVersao(0L);
+		when(service.encontrarPorCpf("23501206586")).thenReturn(cliente1);
+		
+		mvc.perform(get("/clientecpf/23501206586").header("If-None-Match", "\"1-0\""))
+		.andExpect(status().isNotModified()).andExpect(content().string(""));
+	}
+	
+	@Test @DisplayName("The page ETag changes with the version of any row. Same tag returns 304.")
+	public void listaPaginada_ifNoneMatch_retorno304() throws Exception{
+		cliente1.setVersao(0L);
+		cliente2.setVersao(0L);
+		when(service.listaPaginada(0, 2)).thenReturn(new PageImpl<>(List.of(cliente1, cliente2)));
+		
+		String etag = mvc.perform(get("/paginada?pagina=0&itens=2")).andExpect(status().isOk())
+		.andReturn().getResponse().getHeader("ETag");
+		assertThat(etag).startsWith("\"p");
+		
+		mvc.perform(get("/paginada?pagina=0&itens=2").header("If-None-Match", etag))
+		.andExpect(status().isNotModified()).andExpect(content().string(""));
+		
+		cliente2.setVersao(1L);
+		mvc.perform(get("/paginada?pagina=0&itens=2").header("If-None-Match", etag))
+		.andExpect(status().isOk()).andExpect(header().string("ETag", not(etag)));
+	}
+	
 	@Test @DisplayName("Finds client by CPF, returns 200.")	
 	public void encontrarClientePorCpf_sucesso_retorno200() throws Exception{
 		when(service.encontrarPorCpf("23501206586")).thenReturn(cliente1);
@@ -434,6 +731,42 @@ public class ClienteControllerTest {
 		verifyNoMoreInteractions(service);
 	}
 	
+	@Test @DisplayName("Finds several clients by id in the requested order and lists the missing ids. Returns 200.")
+	public void encontrarClientesPorIds_sucesso_retorno200() throws Exception{
+		when(buscaMultiplaService.buscarPorIds(List.of(2L, 99L, 1L))).thenReturn(
+		new BuscaMultiplaResponseDTO<>(List.of(2L, 99L, 1L), Map.of(1L, cliente1, 2L, cliente2)));
+		
+		mvc.perform(get("/encontrarclientes").param("ids", "2,99,1")).andExpect(status().isOk())
+		.andExpect(jsonPath("$.clientes[0].id").value(2L)).andExpect(jsonPath("$.clientes[1].id").value(1L))
+		.andExpect(jsonPath("$.naoEncontrados[0]").value(99L))
+		.andExpect(jsonPath("$.naoEncontrados.length()").value(1));
+		
+		verify(buscaMultiplaService).buscarPorIds(List.of(2L, 99L, 1L));
+		verifyNoMoreInteractions(buscaMultiplaService);
+	}
+	
+	@Test @DisplayName("Finds several clients by CPF with the cpfs parameter repeated. Returns 200.")
+	public void encontrarClientesPorCpfs_sucesso_retorno200() throws Exception{
+		when(buscaMultiplaService.buscarPorCpfs(List.of("23501206586", "00000000000"))).thenReturn(
+		new BuscaMultiplaResponseDTO<>(List.of("23501206586", "00000000000"), Map.of("23501206586", cliente1)));
+		
+		mvc.perform(get("/clientescpf").param("cpfs", "23501206586").param("cpfs", "00000000000"))
+		.andExpect(status().isOk()).andExpect(jsonPath("$.clientes[0].cpf").value("23501206586"))
+		.andExpect(jsonPath("$.naoEncontrados[0]").value("00000000000"));
+		
+		verify(buscaMultiplaService).buscarPorCpfs(List.of("23501206586", "00000000000"));
+		verifyNoMoreInteractions(buscaMultiplaService);
+	}
+	
+	@Test @DisplayName("Rejects a multi-get with more keys than allowed. Returns 400.")
+	public void encontrarClientesPorIds_acimaDoLimite_retorno400() throws Exception{
+		when(buscaMultiplaService.buscarPorIds(List.of(1L, 2L, 3L)))
+		.thenThrow(new ArgumentoInvalidoException("A busca pode ter no máximo 2 ids."));
+		
+		mvc.perform(get("/encontrarclientes").param("ids", "1,2,3")).andExpect(status().isBadRequest())
+		.andExpect(content().string("A busca pode ter no máximo 2 ids."));
+	}
+	
 	@Test
 	public void encontrarClientePor_verboIncorreto_retorno405() throws Exception{
 		mvc.perform(delete("/clientecpf/23501206586")).andExpect(status().isMethodNotAllowed())
@@ -922,36 +1255,36 @@ public class ClienteControllerTest {
 	
 	@Test @DisplayName("Updates the client's email address. Returns 200.")
 	public void atualizarEmail_sucesso_retorno200() throws Exception{
-		when(service.atualizarEmail(1L, "marcelo@gmail.com")).thenReturn(cliente1);
+		when(service.atualizarEmail(1L, "marcelo@gmail.com", null)).thenReturn(cliente1);
 		
 		mvc.perform(patch("/atualizaremail/1").param("email", "marcelo@gmail.com"))
 		.andExpect(status().isOk()).andExpect(jsonPath("$.nome").value("Marcus"));
 		
-		verify(service).atualizarEmail(1L, "marcelo@gmail.com");
+		verify(service).atualizarEmail(1L, "marcelo@gmail.com", null);
 		verifyNoMoreInteractions(service);	
 	}
 	
 	@ParameterizedTest @NullAndEmptySource @ValueSource(strings = {" ", "mar", "mar@mar@", "mar.com"})
 	@DisplayName("Attempts to update the client's email with an invalid email address. Returns 400.")
 	public void atualizarEmail_emailInvalido_retorno400(String email) throws Exception{
-		when(service.atualizarEmail(1L, email))
+		when(service.atualizarEmail(1L, email, null))
 		.thenThrow(new IllegalArgumentException("Formato do e-mail inválido."));
 		
 		mvc.perform(patch("/atualizaremail/1").param("email", email)).andExpect(status().isBadRequest())
 		.andExpect(content().string(containsString("inválido")));
 		
-		verify(service).atualizarEmail(1L, email);	
+		verify(service).atualizarEmail(1L, email, null);	
 		verifyNoMoreInteractions(service);
 	}
 	
 	@Test @DisplayName("Attempts to find the client to update his email and finds none. Returns 400.")
 	public void atualizarEmail_naoEncontrado_retorno404() throws Exception{
-		when(service.atualizarEmail(1L, "marcus@gmail.com")).thenThrow(new ClienteNotFoundException());
+		when(service.atualizarEmail(1L, "marcus@gmail.com", null)).thenThrow(new ClienteNotFoundException());
 		
 		mvc.perform(patch("/atualizaremail/1").param("email", "marcus@gmail.com"))
 		.andExpect(status().isNotFound()).andExpect(content().string(containsString("não encontrado")));
 		
-		verify(service).atualizarEmail(1L, "marcus@gmail.com");	
+		verify(service).atualizarEmail(1L, "marcus@gmail.com", null);	
 		verifyNoMoreInteractions(service);
 	}
 	
@@ -960,30 +1293,41 @@ public class ClienteControllerTest {
 		mvc.perform(delete("/atualizaremail/1").param("email", "marcus@gmail.com"))
 		.andExpect(status().isMethodNotAllowed()).andExpect(header().string("Allow", "PATCH"));
 		
-		verify(service, never()).atualizarEmail(1L, "marcus@gmail.com");	
+		verify(service, never()).atualizarEmail(1L, "marcus@gmail.com", null);	
 		verifyNoMoreInteractions(service);
 	}
 	
 	@Test @DisplayName("Attempts to update a client's email with an existing email address. Returns 409.")
 	public void atualizarEmail_emailExistente_retorno409() throws Exception{
-		when(service.atualizarEmail(1L, "antonio@gmail.com")).thenThrow(new EmailJaCadastradoException());
+		when(service.atualizarEmail(1L, "antonio@gmail.com", null)).thenThrow(new EmailJaCadastradoException());
 		
 		mvc.perform(patch("/atualizaremail/1").param("email", "antonio@gmail.com"))
 		.andExpect(status().isConflict()).andExpect(content().string(containsString("indisponível")));
 		
-		verify(service).atualizarEmail(1L, "antonio@gmail.com");	
+		verify(service).atualizarEmail(1L, "antonio@gmail.com", null);	
 		verifyNoMoreInteractions(service);
 	}
 	
 	@Test
 	public void atualizarEmail_erroDeServidor_retorno500() throws Exception{
-		when(service.atualizarEmail(1L, "marcus@gmail.com")).thenThrow(new RuntimeException());
+		when(service.atualizarEmail(1L, "marcus@gmail.com", null)).thenThrow(new RuntimeException());
 		
 		mvc.perform(patch("/atualizaremail/1").param("email", "marcus@gmail.com"))
 		.andExpect(status().isInternalServerError())
 		.andExpect(content().string(containsString("Erro")));
 		
-		verify(service).atualizarEmail(1L, "marcus@gmail.com");	
+		verify(service).atualizarEmail(1L, "marcus@gmail.com", null);	
+		verifyNoMoreInteractions(service);
+	}
+	
+	@Test @DisplayName("Updates the email only in the version sent in If-Match. Returns 412 when it changed.")
+	public void atualizarEmail_versaoDesatualizada_retorno412() throws Exception{
+		when(service.atualizarEmail(1L, "marcus@gmail.com", List.of(5L))).thenThrow(new VersaoDesatualizadaException());
+		
+		mvc.perform(patch("/atualizaremail/1").param("email", "marcus@gmail.com").header("If-Match", "\"5\""))
+		.andExpect(status().isPreconditionFailed());
+		
+		verify(service).atualizarEmail(1L, "marcus@gmail.com", List.of(5L));
 		verifyNoMoreInteractions(service);
 	}
 	
@@ -1078,4 +1422,47 @@ public class ClienteControllerTest {
 	@Import(ClienteController.class)
 	static class TestConfig {}
 	
-}
\ No newline at end of file
+	@Test @DisplayName("Returns 200 and a page without total when semTotal=true.")
+	public void listaPaginadaSemTotal_sucesso_retorno200() throws Exception{
+		Slice<ClienteResponseDTO> slice = new SliceImpl<>(List.of(cliente1), PageRequest.of(0, 1), true);
+		when(service.listaPaginadaSemTotal(0, 1)).thenReturn(slice);
+		
+		mvc.perform(get("/paginada").param("itens", "1").param("semTotal", "true")).andExpect(status().isOk())
+		.andExpect(jsonPath("$.clientes[0].nome").value("Marcus")).andExpect(jsonPath("$.temProxima").value(true))
+		.andExpect(jsonPath("$.totalElements").doesNotExist());
+		
+		verify(service).listaPaginadaSemTotal(0, 1);
+		verifyNoMoreInteractions(service);
+	}
+	
+	@Test @DisplayName("Returns 200 and the name search without total when semTotal=true.")
+	public void buscarPorNomeSemTotal_sucesso_retorno200() throws Exception{
+		Slice<ClienteResponseDTO> slice = new SliceImpl<>(List.of(cliente1), PageRequest.of(0, 3), false);
+		when(service.buscarPorNomeSemTotal("mar", 0, 3)).thenReturn(slice);
+		
+		mvc.perform(get("/buscapornome").param("nome", "mar").param("semTotal", "true"))
+		.andExpect(status().isOk()).andExpect(jsonPath("$.clientes.length()").value(1))
+		.andExpect(jsonPath("$.temProxima").value(false));
+		
+		verify(service).buscarPorNomeSemTotal("mar", 0, 3);
+		verifyNoMoreInteractions(service);
+	}
+	
+	@Test @DisplayName("Saves a batch of clients and returns 200 with the status of each item.")
+	public void salvarClientes_lote_retorno200() throws Exception{
+		ItemLoteResponseDTO criado = new ItemLoteResponseDTO(0, ItemLoteResponseDTO.Status.CRIADO, cliente1, null);
+		ItemLoteResponseDTO conflito = new ItemLoteResponseDTO(1, ItemLoteResponseDTO.Status.CONFLITO, null,
+		"CPF repetido no lote.");
+		when(loteService.salvarLote(any())).thenReturn(new LoteResponseDTO(List.of(criado, conflito)));
+		
+		mvc.perform(post("/salvarclientes").contentType(MediaType.APPLICATION_JSON)
+		.content(mapper.writeValueAsString(List.of(dto, dto)))).andExpect(status().isOk())
+		.andExpect(jsonPath("$.criados").value(1)).andExpect(jsonPath("$.conflitos").value(1))
+		.andExpect(jsonPath("$.itens[0].cliente.nome").value("Marcus"))
+		.andExpect(jsonPath("$.itens[1].status").value("CONFLITO"));
+		
+		verify(loteService).salvarLote(any());
+		verifyNoMoreInteractions(loteService);
+	}
+	
+}
@@ -0,0 +1,101 @@
+package com.sistemaclliente;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.sistemacliente.model.Cliente;
+import com.sistemacliente.model.dto.ClienteRequestDTO;
+import com.sistemacliente.model.dto.ClienteResponseDTO;
+import com.sistemacliente.repository.ClienteRepository;
+
+/*Os construtores de mapeamento copiam campo a campo. Estes testes quebram o build quando um campo é criado
+ *de um lado e esquecido do outro, ou criado nos dois lados e esquecido no construtor.*/
+public class ClienteMapeamentoTest {
+
+	private static Set<String> campos(Class<?> classe) {
+		return Arrays.stream(classe.getDeclaredFields()).filter(f -> !Modifier.isStatic(f.getModifiers()))
+		.map(Field::getName).collect(Collectors.toSet());
+	}
+
+	/*Preenche todos os campos String/Long com valores diferentes entre si.*/
+	private static <T> T preenchido(T objeto) throws IllegalAccessException {
+		long n = 1;
+		for (Field campo : objeto.getClass().getDeclaredFields()) {
+			if (Modifier.isStatic(campo.getModifiers())) {
+				continue;
+			}
+			campo.setAccessible(true);
+			if (campo.getType() == String.class) {
+				campo.set(objeto, campo.getName() + "-" + n++);
+			} else if (campo.getType() == Long.class) {
+				campo.set(objeto, n++);
+			}
+		}
+		return objeto;
+	}
+
+	private static void assertMesmosValores(Object origem, Object destino, Set<String> nomes)
+	throws ReflectiveOperationException {
+		for (String nome : nomes) {
+			Field deOrigem = origem.getClass().getDeclaredField(nome);
+			Field deDestino = destino.getClass().getDeclaredField(nome);
+			deOrigem.setAccessible(true);
+			deDestino.setAccessible(true);
+			assertThat(deDestino.get(destino)).as(nome).isNotNull().isEqualTo(deOrigem.get(origem));
+		}
+	}
+
+	@Test
+	public void clienteResponseDTO_mesmosCamposDoCliente() {
+		assertThat(campos(ClienteResponseDTO.class)).isEqualTo(campos(Cliente.class));
+	}
+
+	@Test
+	public void clienteRequestDTO_camposExistemNoCliente() {
+		assertThat(campos(Cliente.class)).containsAll(campos(ClienteRequestDTO.class));
+	}
+
+	@Test
+	public void clienteResponseDTO_copiaTodosOsCampos() throws ReflectiveOperationException {
+		Cliente cliente = preenchido(new Cliente());
+
+		assertMesmosValores(cliente, new ClienteResponseDTO(cliente), campos(ClienteResponseDTO.class));
+	}
+
+	/*O select new do ClienteRepository.RESPOSTA precisa listar todos os campos do DTO, na ordem do construtor.*/
+	@Test
+	public void clienteResponseDTO_projecaoTrazTodosOsCampos() throws ReflectiveOperationException {
+		Cliente cliente = preenchido(new Cliente());
+		String[] campos = ClienteRepository.RESPOSTA.replaceAll(".*\\((.*)\\).*", "$1").split(",\\s*");
+
+		Class<?>[] tipos = new Class<?>[campos.length];
+		Object[] valores = new Object[campos.length];
+		for (int i = 0; i < campos.length; i++) {
+			Field campo = Cliente.class.getDeclaredField(campos[i].substring("c.".length()));
+			campo.setAccessible(true);
+			tipos[i] = campo.getType();
+			valores[i] = campo.get(cliente);
+		}
+		ClienteResponseDTO dto = ClienteResponseDTO.class.getConstructor(tipos).newInstance(valores);
+
+		assertMesmosValores(cliente, dto, campos(ClienteResponseDTO.class));
+	}
+
+	@Test
+	public void cliente_copiaTodosOsCamposDoRequestDTO() throws ReflectiveOperationException {
+		ClienteRequestDTO dto = preenchido(new ClienteRequestDTO());
+
+		Cliente cliente = new Cliente(dto);
+
+		assertMesmosValores(dto, cliente, campos(ClienteRequestDTO.class));
+		assertThat(cliente.getId()).isNull();
+	}
+
+}
@@ -4,11 +4,14 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.Session;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
@@ -16,8 +19,12 @@ import org.springframework.test.context.ContextConfiguration;
 
 import com.sistemacliente.SistemaClientesJavaApplication;
 import com.sistemacliente.model.Cliente;
+import com.sistemacliente.model.ClienteIdGenerator;
+import com.sistemacliente.model.dto.ClienteResponseDTO;
 import com.sistemacliente.repository.ClienteRepository;
 
+import jakarta.persistence.EntityManager;
+
 @DataJpaTest
 @ContextConfiguration(classes = SistemaClientesJavaApplication.class)
 public class ClienteRepositoryTest {
@@ -28,6 +35,9 @@ public class ClienteRepositoryTest {
 	@Autowired
 	private ClienteRepository repository;
 	
+	@Autowired
+	private EntityManager entityManager;
+	
 	@BeforeEach
 	public void setup() {
 		repository.deleteAll();
@@ -244,4 +254,141 @@ public class ClienteRepositoryTest {
 		assertThat(page).isEmpty();
 	}
 	
-}
\ No newline at end of file
+	@Test
+	public void streamTodos_percorreClientesEmOrdemDeId() {
+		try (Stream<Cliente> clientes = repository.streamTodos(1)) {
+			assertThat(clientes.map(Cliente::getNome)).containsExactly("Marcus", "Antonio");
+		}
+	}
+	
+	@Test
+	public void streamTodos_tabelaVazia_streamVazio() {
+		repository.deleteAll();
+		
+		try (Stream<Cliente> clientes = repository.streamTodos(10)) {
+			assertThat(clientes).isEmpty();
+		}
+	}
+	
+	@Test
+	public void findBy_primeiraPaginaCursor_respeitaOrdemELimite() {
+		List<Cliente> clientes = repository.findBy(Sort.by("nome").and(Sort.by("id")), Limit.of(1));
+		
+		assertThat(clientes).extracting(Cliente::getNome).containsExactly("Antonio");
+	}
+	
+	@Test
+	public void findAfterNome_retornaClientesDepoisDoCursor() {
+		Cliente cliente3 = repository.saveAndFlush(clienteNovo("Marcus", "47852136582", "marcus2@gmail.com"));
+		
+		List<Cliente> depoisDeAntonio = repository.findAfterNome("Antonio", cliente2.getId(), Limit.of(5));
+		assertThat(depoisDeAntonio).extracting(Cliente::getId).containsExactly(cliente1.getId(), cliente3.getId());
+		
+		/*Mesmo nome, o desempate é pelo id.*/
+		List<Cliente> depoisDoPrimeiroMarcus = repository.findAfterNome("Marcus", cliente1.getId(), Limit.of(5));
+		assertThat(depoisDoPrimeiroMarcus).extracting(Cliente::getId).containsExactly(cliente3.getId());
+	}
+	
+	@Test
+	public void findAfterId_ultimoId_retornaVazio() {
+		List<Cliente> clientes = repository.findAfterId(cliente2.getId(), Limit.of(5));
+		
+		assertThat(clientes).isEmpty();
+	}
+	
+	@Test
+	public void findAfterEmail_e_findAfterCpf_retornamClientesDepoisDoCursor() {
+		assertThat(repository.findAfterEmail("antonio@gmail.com", cliente2.getId(), Limit.of(5)))
+		.extracting(Cliente::getNome).containsExactly("Marcus");
+		
+		assertThat(repository.findAfterCpf("20219064674", cliente2.getId(), Limit.of(5)))
+		.extracting(Cliente::getNome).containsExactly("Marcus");
+	}
+	
+	@Test
+	public void findCpfsCadastrados_e_findEmailsCadastrados_retornamSoOsExistentes() {
+		assertThat(repository.findCpfsCadastrados(List.of("23501206586", "10101010101")))
+		.containsExactly("23501206586");
+		
+		assertThat(repository.findEmailsCadastrados(List.of("jorge@gmail.com", "antonio@gmail.com")))
+		.containsExactly("antonio@gmail.com");
+	}
+	
+	@Test
+	public void findRespostas_paginaOrdenada_semEntidadeNoContexto() {
+		entityManager.clear();
+		
+		Page<ClienteResponseDTO> page = repository.findRespostas(PageRequest.of(0, 1, Sort.by("nome")));
+		
+		assertThat(page.getTotalElements()).isEqualTo(2);
+		assertThat(page.getContent()).extracting(ClienteResponseDTO::getNome).containsExactly("Antonio");
+		assertThat(page.getContent().get(0).getVersao()).isEqualTo(cliente2.getVersao());
+		assertThat(entityManager.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+	}
+	
+	@Test
+	public void findRespostasPorNome_ignoraCaixaETrataCoringasComoTexto() {
+		repository.saveAndFlush(clienteNovo("Ana_Paula", "47852136582", "ana@gmail.com"));
+		repository.saveAndFlush(clienteNovo("Anapaula", "54879652365", "anapaula@gmail.com"));
+		PageRequest pageable = PageRequest.of(0, 5, Sort.by("nome"));
+		
+		assertThat(repository.findRespostasPorNome("MAR", pageable)).extracting(ClienteResponseDTO::getCpf)
+		.containsExactly("23501206586");
+		assertThat(repository.findRespostasPorNome("a_p", pageable)).extracting(ClienteResponseDTO::getNome)
+		.containsExactly("Ana_Paula");
+		assertThat(repository.findRespostasPorNome("%", pageable).getTotalElements()).isZero();
+		assertThat(repository.findSliceRespostasPorNome("an", PageRequest.of(0, 2, Sort.by("nome"))))
+		.extracting(ClienteResponseDTO::getNome).containsExactly("Ana_Paula", "Anapaula");
+	}
+	
+	@Test
+	public void findRespostasPorEmail_exatoEContendo() {
+		assertThat(repository.findRespostasPorEmail("antonio@gmail.com", PageRequest.of(0, 2)))
+		.extracting(ClienteResponseDTO::getNome).containsExactly("Antonio");
+		assertThat(repository.findSliceRespostasPorEmail("jorge@gmail.com", PageRequest.of(0, 2))).isEmpty();
+		
+		Page<ClienteResponseDTO> contendo = repository.findRespostasPorEmailContendo("GMAIL",
+		PageRequest.of(0, 1, Sort.by("id").descending()));
+		assertThat(contendo.getTotalElements()).isEqualTo(2);
+		assertThat(contendo.getContent()).extracting(ClienteResponseDTO::getId).containsExactly(cliente2.getId());
+	}
+	
+	@Test
+	public void findRespostasPorIdsECpfs_soOsExistentes() {
+		assertThat(repository.findRespostasByIdIn(List.of(cliente1.getId(), -1L)))
+		.extracting(ClienteResponseDTO::getNome).containsExactly("Marcus");
+		assertThat(repository.findRespostasByCpfIn(List.of("20219064674", "10101010101")))
+		.extracting(ClienteResponseDTO::getNome).containsExactly("Antonio");
+		assertThat(repository.findRespostaByCpf("23501206586")).map(ClienteResponseDTO::getId)
+		.contains(cliente1.getId());
+		assertThat(repository.findRespostaById(-1L)).isEmpty();
+	}
+	
+	/*nome, email e cpf são todos String: um select new com dois deles trocados ainda compila e roda.*/
+	@Test
+	public void findRespostaById_cadaCampoNoSeuLugar() {
+		entityManager.clear();
+		
+		ClienteResponseDTO resposta = repository.findRespostaById(cliente1.getId()).orElseThrow();
+		
+		assertThat(resposta.getId()).isEqualTo(cliente1.getId());
+		assertThat(resposta.getNome()).isEqualTo("Marcus");
+		assertThat(resposta.getEmail()).isEqualTo("marcus@gmail.com");
+		assertThat(resposta.getCpf()).isEqualTo("23501206586");
+		assertThat(resposta.getVersao()).isEqualTo(cliente1.getVersao());
+	}
+	
+	@Test
+	public void saveAndFlush_idsReservadosEmBlocoDaSequence() {
+		Cliente cliente3 = repository.saveAndFlush(clienteNovo("Vinicius", "54879652365", "vinicius@email.com"));
+		Cliente cliente4 = repository.saveAndFlush(clienteNovo("Jorge", "47852136582", "jorge@email.com"));
+		
+		assertThat(cliente4.getId()).isEqualTo(cliente3.getId() + 1);
+		
+		Number incremento = (Number) entityManager.createNativeQuery(
+		"select increment from information_schema.sequences where sequence_name = 'SEQ_CLIENTE'")
+		.getSingleResult();
+		assertThat(incremento.intValue()).isEqualTo(ClienteIdGenerator.BLOCO_PADRAO);
+	}
+	
+}
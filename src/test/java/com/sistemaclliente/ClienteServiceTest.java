@@ -7,20 +7,25 @@ import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
-import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import java.awt.event.InvocationEvent;
+import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -31,24 +36,38 @@ import org.junit.jupiter.params.provider.NullAndEmptySource;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.JsonMappingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sistemacliente.cache.ClienteCache;
+import com.sistemacliente.cache.ContagemCache;
+import com.sistemacliente.config.ClientesProperties;
 import com.sistemacliente.exception.AlteracaoDeCpfException;
+import com.sistemacliente.exception.ArgumentoInvalidoException;
 import com.sistemacliente.exception.ClienteNotFoundException;
 import com.sistemacliente.exception.CpfJaCadastradoException;
 import com.sistemacliente.exception.EmailJaCadastradoException;
+import com.sistemacliente.exception.VersaoDesatualizadaException;
 import com.sistemacliente.model.Cliente;
 import com.sistemacliente.model.dto.ClienteRequestDTO;
 import com.sistemacliente.model.dto.ClienteResponseDTO;
+import com.sistemacliente.model.dto.PaginaCursorResponseDTO;
+import com.sistemacliente.repository.ChavesCliente;
 import com.sistemacliente.repository.ClienteRepository;
+import com.sistemacliente.search.FiltroCadastro;
+import com.sistemacliente.search.IndiceNome;
+import com.sistemacliente.service.ClienteCursor;
 import com.sistemacliente.service.ClienteService;
+import com.sistemacliente.service.MergePatchCliente;
+import com.sistemacliente.validation.EmailValidator;
 
 @ExtendWith(MockitoExtension.class)
 public class ClienteServiceTest {
@@ -59,8 +78,23 @@ public class ClienteServiceTest {
 	@Mock
 	private ClienteRepository repository;
 
-	@Mock
-	private ObjectMapper mapper;
+	@Spy
+	private MergePatchCliente mergePatch = new MergePatchCliente(new EmailValidator());
+
+	@Spy
+	private EmailValidator emailValidator = new EmailValidator();
+
+	@Spy
+	private ContagemCache contagemCache = new ContagemCache(new ClientesProperties());
+
+	@Spy
+	private ClienteCache clienteCache = new ClienteCache(new ClientesProperties());
+
+	@Spy
+	private IndiceNome indiceNome = new IndiceNome(new ClientesProperties());
+
+	@Spy
+	private FiltroCadastro filtroCadastro = new FiltroCadastro(new ClientesProperties());
 
 	@InjectMocks
 	private ClienteService service;
@@ -83,10 +117,14 @@ public class ClienteServiceTest {
 		cliente2.setCpf("87654321");
 	}
 
+	private static List<ClienteResponseDTO> respostas(List<Cliente> clientes) {
+		return clientes.stream().map(ClienteResponseDTO::new).toList();
+	}
+
 	@Test
 	public void listagemCliente_retornarListaDTO() {
 		List<Cliente> lista = List.of(cliente1, cliente2);
-		when(repository.findAll()).thenReturn(lista);
+		when(repository.findRespostas()).thenReturn(respostas(lista));
 
 		List<ClienteResponseDTO> listaResponse = service.listagemCliente();
 
@@ -98,21 +136,21 @@ public class ClienteServiceTest {
 		assertThat(listaResponse).extracting(ClienteResponseDTO::getCpf).containsExactlyInAnyOrder("12345678",
 				"87654321");
 
-		verify(repository).findAll();
+		verify(repository).findRespostas();
 		verifyNoMoreInteractions(repository);
 	}
 
 	@Test
 	public void listagemCliente_retornarListaVazia() {
 		List<Cliente> lista = List.of();
-		when(repository.findAll()).thenReturn(lista);
+		when(repository.findRespostas()).thenReturn(respostas(lista));
 
 		List<ClienteResponseDTO> response = service.listagemCliente();
 
 		assertThat(response).isEmpty();
 		assertThat(response.size()).isEqualTo(0);
 
-		verify(repository).findAll();
+		verify(repository).findRespostas();
 		verifyNoMoreInteractions(repository);
 	}
 
@@ -126,9 +164,7 @@ public class ClienteServiceTest {
 		Cliente salvo = new Cliente(dto);
 		salvo.setId(1L); // id não é gerado automaticamente.
 
-		when(repository.findByCpf(dto.getCpf())).thenReturn(Optional.empty());
-		when(repository.findByEmail(dto.getEmail())).thenReturn(Optional.empty());
-		when(repository.save(any(Cliente.class))).thenReturn(salvo);
+		when(repository.saveAndFlush(any(Cliente.class))).thenReturn(salvo);
 
 		ClienteResponseDTO response = service.salvarCliente(dto);
 
@@ -137,9 +173,8 @@ public class ClienteServiceTest {
 		assertThat(response.getCpf()).isEqualTo("12345678");
 		assertThat(response.getNome()).isEqualTo("Marcus");
 
-		verify(repository).findByCpf(dto.getCpf());
-		verify(repository).findByEmail(dto.getEmail());
-		verify(repository).save(any(Cliente.class));
+		/*Só o INSERT, CPF e e-mail únicos ficam com as constraints do banco.*/
+		verify(repository).saveAndFlush(any(Cliente.class));
 		verifyNoMoreInteractions(repository);
 	}
 
@@ -150,16 +185,13 @@ public class ClienteServiceTest {
 		dto.setEmail("marcus@email.com");
 		dto.setNome("Marcus");
 
-		Cliente salvo = new Cliente(dto);
-		salvo.setId(2L); // id não é gerado automaticamente.
-
-		when(repository.findByCpf(dto.getCpf())).thenReturn(Optional.of(cliente1));
+		when(repository.saveAndFlush(any(Cliente.class))).thenThrow(violacao("UK_CLIENTE_CPF_INDEX_5"));
 
 		CpfJaCadastradoException ex = assertThrows(CpfJaCadastradoException.class, () -> service.salvarCliente(dto));
 		assertThat(ex.getMessage()).isEqualTo("O CPF 12345678 já está cadastrado.");
 
-		verify(repository).findByCpf(dto.getCpf());
-		verify(repository, never()).save(any(Cliente.class));
+		verify(repository).saveAndFlush(any(Cliente.class));
+		verify(contagemCache, never()).invalidar();
 		verifyNoMoreInteractions(repository);
 	}
 
@@ -170,18 +202,36 @@ public class ClienteServiceTest {
 		dto.setEmail("carlos@email.com");
 		dto.setNome("Marcus");
 
-		when(repository.findByEmail("carlos@email.com")).thenReturn(Optional.of(cliente1));
+		when(repository.saveAndFlush(any(Cliente.class))).thenThrow(violacao("uk_cliente_email"));
 
 		EmailJaCadastradoException ex = assertThrows(EmailJaCadastradoException.class,
 				() -> service.salvarCliente(dto));
 		assertThat(ex.getMessage()).isEqualTo("E-mail indisponível, já está sendo utilizado.");
 
-		verify(repository).findByCpf(dto.getCpf());
-		verify(repository).findByEmail("carlos@email.com");
-		verify(repository, never()).save(any(Cliente.class));
+		verify(repository).saveAndFlush(any(Cliente.class));
 		verifyNoMoreInteractions(repository);
 	}
 
+	@Test
+	public void salvarCliente_outraViolacao_repassaExcecao() {
+		ClienteRequestDTO dto = new ClienteRequestDTO();
+		dto.setCpf("12345678254");
+		dto.setEmail("carlos@email.com");
+		dto.setNome("Marcus");
+
+		DataIntegrityViolationException violacao = violacao("ck_cliente_nome");
+		when(repository.saveAndFlush(any(Cliente.class))).thenThrow(violacao);
+
+		DataIntegrityViolationException ex = assertThrows(DataIntegrityViolationException.class,
+				() -> service.salvarCliente(dto));
+		assertThat(ex).isSameAs(violacao);
+	}
+
+	private static DataIntegrityViolationException violacao(String constraint) {
+		return new DataIntegrityViolationException("could not execute statement",
+				new ConstraintViolationException("duplicate key", new SQLException("duplicate key"), constraint));
+	}
+
 	@ParameterizedTest
 	@NullAndEmptySource
 	@ValueSource(strings = { " ", "marcus.com" })
@@ -195,15 +245,36 @@ public class ClienteServiceTest {
 
 		assertThat(ex.getMessage()).isEqualTo("Formato inválido do e-mail.");
 
-		verify(repository).findByCpf(dto.getCpf());
-		verify(repository).findByEmail(email);
-		verify(repository, never()).save(any(Cliente.class));
+		verify(repository, never()).saveAndFlush(any(Cliente.class));
 		verifyNoMoreInteractions(repository);
 	}
 
+	@Test
+	public void atualizarEmail_filtroPronto_registraEmailNovoSemConsultar() {
+		ClientesProperties properties = new ClientesProperties();
+		properties.getFiltro().setHabilitado(true);
+		FiltroCadastro filtro = new FiltroCadastro(properties);
+		filtro.iniciarReconstrucao(2);
+		filtro.adicionar(cliente1.getCpf(), cliente1.getEmail());
+		filtro.adicionar(cliente2.getCpf(), cliente2.getEmail());
+		filtro.concluirReconstrucao();
+		ClienteService comFiltro = new ClienteService(repository, mergePatch, emailValidator, contagemCache,
+		clienteCache, indiceNome, filtro);
+
+		when(repository.atualizarEmail(1L, "novo@email.com", null)).thenReturn(1);
+		cliente1.setEmail("novo@email.com");
+		when(repository.findById(1L)).thenReturn(Optional.of(cliente1));
+
+		ClienteResponseDTO response = comFiltro.atualizarEmail(1L, "novo@email.com", null);
+
+		assertThat(response.getEmail()).isEqualTo("novo@email.com");
+		verify(repository, never()).findByEmail(anyString());
+		assertThat(filtro.emailCadastrado("novo@email.com", email -> true)).isTrue();
+	}
+
 	@Test
 	public void buscarClientePorId_sucesso_encontrarCliente() {
-		when(repository.findById(anyLong())).thenReturn(Optional.of(cliente1));
+		when(repository.findRespostaById(anyLong())).thenReturn(Optional.of(new ClienteResponseDTO(cliente1)));
 
 		ClienteResponseDTO response = service.buscarClientePorId(1L);
 
@@ -212,45 +283,101 @@ public class ClienteServiceTest {
 		assertThat(response.getCpf()).isEqualTo("12345678");
 		assertThat(response.getNome()).isEqualTo("Marcus");
 
-		verify(repository).findById(1L);
+		verify(repository).findRespostaById(1L);
 		verifyNoMoreInteractions(repository);
 	}
 
 	@Test
 	public void buscarClientePorId_fracasso_naoEncontrarCliente() {
-		when(repository.findById(3L)).thenReturn(Optional.empty());
+		when(repository.findRespostaById(3L)).thenReturn(Optional.empty());
 
 		ClienteNotFoundException ex = assertThrows(ClienteNotFoundException.class,
 				() -> service.buscarClientePorId(3L));
 		assertThat(ex.getMessage()).isEqualTo("Cliente com o id = 3 não encontrado.");
-		verify(repository).findById(3L);
+		verify(repository).findRespostaById(3L);
 		verifyNoMoreInteractions(repository);
 	}
 
 	@Test
-	public void deletarClientePorId_sucesso_encontrarClienteDepoisDeletar() {
+	public void buscarClientePorId_segundaBusca_naoConsultaOBanco() {
+		when(repository.findRespostaById(1L)).thenReturn(Optional.of(new ClienteResponseDTO(cliente1)));
+
+		service.buscarClientePorId(1L);
+		ClienteResponseDTO response = service.buscarClientePorId(1L);
+
+		assertThat(response.getNome()).isEqualTo("Marcus");
+		verify(repository, times(1)).findRespostaById(1L);
+	}
+
+	@Test
+	public void buscarClientePorId_depoisDeAtualizarEmail_consultaDeNovo() {
+		when(repository.findRespostaById(1L)).thenAnswer(invocation -> Optional.of(new ClienteResponseDTO(cliente1)));
 		when(repository.findById(1L)).thenReturn(Optional.of(cliente1));
+		when(repository.atualizarEmail(1L, "novo@email.com", null)).thenAnswer(invocation -> {
+			cliente1.setEmail("novo@email.com");
+			return 1;
+		});
 
-		assertDoesNotThrow(() -> service.deletarClientePorId(1L));
+		service.buscarClientePorId(1L);
+		service.atualizarEmail(1L, "novo@email.com", null);
+		ClienteResponseDTO response = service.buscarClientePorId(1L);
 
+		assertThat(response.getEmail()).isEqualTo("novo@email.com");
+		verify(repository, times(2)).findRespostaById(1L);
 		verify(repository).findById(1L);
-		verify(repository).delete(cliente1);
+		verify(clienteCache).invalidar(1L, null);
+	}
+
+	@Test
+	public void encontrarPorCpf_depoisDeBuscarPorId_naoConsultaOBanco() {
+		when(repository.findRespostaByCpf("12345678")).thenReturn(Optional.of(new ClienteResponseDTO(cliente1)));
+
+		service.encontrarPorCpf("12345678");
+		ClienteResponseDTO response = service.buscarClientePorId(1L);
+		service.encontrarPorCpf("12345678");
+
+		assertThat(response.getCpf()).isEqualTo("12345678");
+		verify(repository, times(1)).findRespostaByCpf("12345678");
+		verify(repository, never()).findRespostaById(1L);
+	}
+
+	@Test
+	public void deletarClientePorId_sucesso_encontrarClienteDepoisDeletar() {
+		when(repository.excluirPorId(1L)).thenReturn(1);
+
+		assertDoesNotThrow(() -> service.deletarClientePorId(1L));
+
+		verify(repository).excluirPorId(1L);
+		verify(repository, never()).findById(anyLong());
 		verifyNoMoreInteractions(repository);
 	}
 
 	@Test
 	public void deletarClientePor_fracasso_naoEncontrarCliente() {
-		when(repository.findById(1L)).thenReturn(Optional.empty());
+		when(repository.excluirPorId(1L)).thenReturn(0);
 		ClienteNotFoundException ex = assertThrows(ClienteNotFoundException.class,
 				() -> service.deletarClientePorId(1L));
 
 		assertThat(ex.getMessage()).isEqualTo("Cliente com o id = 1 não encontrado.");
 
-		verify(repository).findById(1L);
+		verify(repository).excluirPorId(1L);
 		verify(repository, never()).delete(any(Cliente.class));
 		verifyNoMoreInteractions(repository);
 	}
 
+	@Test
+	public void deletarClientePorId_filtroPronto_soODelete() {
+		lenient().doReturn(true).when(filtroCadastro).isPronto(); /*Como em produção; o delete não consulta.*/
+		when(repository.excluirPorId(1L)).thenReturn(1);
+
+		service.deletarClientePorId(1L);
+
+		verify(repository, never()).findChavesById(anyLong());
+		verify(filtroCadastro, never()).remover(any(), any());
+		verify(repository).excluirPorId(1L);
+		verifyNoMoreInteractions(repository);
+	}
+
 	@Test
 	public void atualizarCliente_sucesso_retornarDTO() {
 		ClienteRequestDTO dto = new ClienteRequestDTO();
@@ -258,38 +385,80 @@ public class ClienteServiceTest {
 		dto.setEmail("carlos@email.com");
 		dto.setCpf(cliente1.getCpf());
 
+		when(repository.atualizarNomeEmail(1L, "12345678", "Carlos", "carlos@email.com", null)).thenReturn(1);
+		cliente1.setNome("Carlos");
+		cliente1.setEmail("carlos@email.com");
+		cliente1.setVersao(1L);
 		when(repository.findById(1L)).thenReturn(Optional.of(cliente1));
-		when(repository.save(any(Cliente.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
-		ClienteResponseDTO response = service.atualizarCliente(1L, dto);
+		ClienteResponseDTO response = service.atualizarCliente(1L, dto, null);
 
 		assertThat(response).isNotNull();
 		assertThat(response.getId()).isEqualTo(1L);
 		assertThat(response.getNome()).isEqualTo("Carlos");
 		assertThat(response.getEmail()).isEqualTo("carlos@email.com");
+		assertThat(response.getVersao()).isEqualTo(1L);
 
+		verify(repository).atualizarNomeEmail(1L, "12345678", "Carlos", "carlos@email.com", null);
 		verify(repository).findById(1L);
-		verify(repository).findByEmail("carlos@email.com");
-		verify(repository).save(any(Cliente.class));
 		verifyNoMoreInteractions(repository);
 	}
 
+	@Test
+	public void atualizarCliente_comVersao_umUpdateSemLeitura() {
+		ClienteRequestDTO dto = new ClienteRequestDTO();
+		dto.setNome("Carlos");
+		dto.setEmail("carlos@email.com");
+		dto.setCpf(cliente1.getCpf());
+
+		when(repository.atualizarNomeEmail(1L, "12345678", "Carlos", "carlos@email.com", List.of(3L))).thenReturn(1);
+
+		ClienteResponseDTO response = service.atualizarCliente(1L, dto, List.of(3L));
+
+		assertThat(response.getId()).isEqualTo(1L);
+		assertThat(response.getNome()).isEqualTo("Carlos");
+		assertThat(response.getEmail()).isEqualTo("carlos@email.com");
+		assertThat(response.getCpf()).isEqualTo("12345678");
+		assertThat(response.getVersao()).isEqualTo(4L);
+
+		verify(repository).atualizarNomeEmail(1L, "12345678", "Carlos", "carlos@email.com", List.of(3L));
+		verifyNoMoreInteractions(repository);
+	}
+
+	@Test
+	public void atualizarCliente_versaoDesatualizada_retornaExcecao() {
+		ClienteRequestDTO dto = new ClienteRequestDTO();
+		dto.setNome("Carlos");
+		dto.setEmail("carlos@email.com");
+		dto.setCpf(cliente1.getCpf());
+
+		when(repository.atualizarNomeEmail(1L, "12345678", "Carlos", "carlos@email.com", List.of(3L))).thenReturn(0);
+		when(repository.findChavesById(1L))
+		.thenReturn(Optional.of(new ChavesCliente(1L, "12345678", "marcus@email.com")));
+
+		VersaoDesatualizadaException ex = assertThrows(VersaoDesatualizadaException.class,
+				() -> service.atualizarCliente(1L, dto, List.of(3L)));
+
+		assertThat(ex.getMessage()).isEqualTo(VersaoDesatualizadaException.MENSAGEM);
+		verify(clienteCache, never()).invalidar(anyLong(), anyString());
+	}
+
 	@Test
 	public void atualizarCliente_naoEncontrarCliente() {
 		ClienteRequestDTO dto = new ClienteRequestDTO();
 		dto.setNome("Carlos");
 		dto.setEmail("carlos@email.com");
 
-		when(repository.findById(1L)).thenReturn(Optional.empty());
+		when(repository.atualizarNomeEmail(1L, null, "Carlos", "carlos@email.com", null)).thenReturn(0);
+		when(repository.findChavesById(1L)).thenReturn(Optional.empty());
 
 		ClienteNotFoundException ex = assertThrows(ClienteNotFoundException.class,
-				() -> service.atualizarCliente(1L, dto));
+				() -> service.atualizarCliente(1L, dto, null));
 
 		assertThat(ex.getMessage()).isEqualTo("Cliente com o id = 1 não encontrado.");
 
-		verify(repository).findById(1L);
-		verify(repository, never()).findByEmail("carlos@email.com");
-		verify(repository, never()).saveAndFlush(any(Cliente.class));
+		verify(repository).atualizarNomeEmail(1L, null, "Carlos", "carlos@email.com", null);
+		verify(repository).findChavesById(1L);
 		verifyNoMoreInteractions(repository);
 	}
 
@@ -300,16 +469,17 @@ public class ClienteServiceTest {
 		dto.setEmail("carlos@email.com");
 		dto.setCpf("32165487");
 
-		when(repository.findById(1L)).thenReturn(Optional.of(cliente1));
+		when(repository.atualizarNomeEmail(1L, "32165487", "Carlos", "carlos@email.com", null)).thenReturn(0);
+		when(repository.findChavesById(1L))
+		.thenReturn(Optional.of(new ChavesCliente(1L, "12345678", "marcus@email.com")));
 
 		AlteracaoDeCpfException ex = assertThrows(AlteracaoDeCpfException.class,
-				() -> service.atualizarCliente(1L, dto));
+				() -> service.atualizarCliente(1L, dto, null));
 
 		assertThat(ex.getMessage()).isEqualTo("Alteração de CPF não permitida.");
 
-		verify(repository).findById(1L);
-		verify(repository, never()).findByEmail("carlos@email.com");
-		verify(repository, never()).saveAndFlush(any(Cliente.class));
+		verify(repository).atualizarNomeEmail(1L, "32165487", "Carlos", "carlos@email.com", null);
+		verify(repository).findChavesById(1L);
 		verifyNoMoreInteractions(repository);
 	}
 
@@ -322,17 +492,12 @@ public class ClienteServiceTest {
 		dto.setEmail(email);
 		dto.setCpf("12345678");
 
-		when(repository.findById(1L)).thenReturn(Optional.of(cliente1));
-
 		IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
-				() -> service.atualizarCliente(1L, dto));
+				() -> service.atualizarCliente(1L, dto, null));
 
 		assertThat(ex.getMessage()).isEqualTo("Formato inválido do e-mail.");
 
-		verify(repository).findById(1L);
-		verify(repository, never()).findByEmail(email);
-		verify(repository, never()).saveAndFlush(any(Cliente.class));
-		verifyNoMoreInteractions(repository);
+		verifyNoInteractions(repository);
 	}
 
 	@Test
@@ -342,15 +507,9 @@ public class ClienteServiceTest {
 		dto.setEmail(null);
 		dto.setCpf("12345678");
 
-		when(repository.findById(1L)).thenReturn(Optional.of(cliente1));
-
-		NullPointerException ex = assertThrows(NullPointerException.class,
-				() -> service.atualizarCliente(1L, dto));
+		assertThrows(NullPointerException.class, () -> service.atualizarCliente(1L, dto, null));
 		
-		verify(repository).findById(1L);
-		verify(repository, never()).findByEmail(null);
-		verify(repository, never()).saveAndFlush(any(Cliente.class));
-		verifyNoMoreInteractions(repository);
+		verifyNoInteractions(repository);
 	}
 
 	@Test
@@ -360,23 +519,22 @@ public class ClienteServiceTest {
 		dto.setEmail("antonio@email.com");
 		dto.setCpf("12345678");
 
-		when(repository.findById(cliente1.getId())).thenReturn(Optional.of(cliente1));
-		when(repository.findByEmail("antonio@email.com")).thenReturn(Optional.of(cliente2));
+		when(repository.atualizarNomeEmail(1L, "12345678", "Carlos Jorge", "antonio@email.com", null))
+		.thenThrow(violacao("uk_cliente_email"));
 
 		EmailJaCadastradoException ex = assertThrows(EmailJaCadastradoException.class,
-				() -> service.atualizarCliente(cliente1.getId(), dto));
+				() -> service.atualizarCliente(cliente1.getId(), dto, null));
 
 		assertThat(ex.getMessage()).isEqualTo("E-mail indisponível, já está sendo utilizado.");
 
-		verify(repository).findById(cliente1.getId());
-		verify(repository).findByEmail("antonio@email.com");
-		verify(repository, never()).saveAndFlush(any(Cliente.class));
+		verify(repository).atualizarNomeEmail(1L, "12345678", "Carlos Jorge", "antonio@email.com", null);
+		verify(repository, never()).findByEmail("antonio@email.com");
 		verifyNoMoreInteractions(repository);
 	}
 
 	@Test
 	public void encontrarPorCpf_sucesso_encontrarCliente() {
-		when(repository.findByCpf("12345678")).thenReturn(Optional.of(cliente1));
+		when(repository.findRespostaByCpf("12345678")).thenReturn(Optional.of(new ClienteResponseDTO(cliente1)));
 		ClienteResponseDTO response = service.encontrarPorCpf("12345678");
 
 		assertThat(response).isNotNull();
@@ -385,19 +543,19 @@ public class ClienteServiceTest {
 		assertThat(response.getEmail()).isEqualTo("marcus@email.com");
 		assertThat(response.getCpf()).isEqualTo("12345678");
 
-		verify(repository).findByCpf("12345678");
+		verify(repository).findRespostaByCpf("12345678");
 		verifyNoMoreInteractions(repository);
 	}
 
 	@Test
 	public void encontrarPorCpf_fracasso_naoEncontrarCliente() {
-		when(repository.findByCpf("12345678")).thenReturn(Optional.empty());
+		when(repository.findRespostaByCpf("12345678")).thenReturn(Optional.empty());
 
 		ClienteNotFoundException ex = assertThrows(ClienteNotFoundException.class,
 				() -> service.encontrarPorCpf("12345678"));
 		assertThat(ex.getMessage()).isEqualTo("Cliente com o CPF = " + "12345678" + " não encontrado.");
 
-		verify(repository).findByCpf("12345678");
+		verify(repository).findRespostaByCpf("12345678");
 		verifyNoMoreInteractions(repository);
 	}
 
@@ -405,9 +563,9 @@ public class ClienteServiceTest {
 	public void listaPaginada_sucesso_retornarListaPaginadaDTO() {
 		List<Cliente> lista = List.of(cliente1, cliente2);
 		PageRequest pageable = PageRequest.of(0, 2);
-		Page<Cliente> pageMock = new PageImpl<>(lista);
+		Page<ClienteResponseDTO> pageMock = new PageImpl<>(respostas(lista));
 
-		when(repository.findAll(any(PageRequest.class))).thenReturn(pageMock);
+		when(repository.findRespostas(any(PageRequest.class))).thenReturn(pageMock);
 
 		Page<ClienteResponseDTO> page = service.listaPaginada(0, 2);
 
@@ -417,7 +575,7 @@ public class ClienteServiceTest {
 		assertThat(page.getContent()).extracting(ClienteResponseDTO::getNome).containsExactlyInAnyOrder("Marcus",
 				"Antônio");
 
-		verify(repository).findAll(pageable);
+		verify(repository).findRespostas(pageable);
 		verifyNoMoreInteractions(repository);
 	}
 
@@ -427,13 +585,13 @@ public class ClienteServiceTest {
 		PageRequest pageable = PageRequest.of(0, 2);
 		Page pageMock = new PageImpl<>(lista);
 
-		when(repository.findAll(pageable)).thenReturn(pageMock);
+		when(repository.findRespostas(pageable)).thenReturn(pageMock);
 
 		Page<ClienteResponseDTO> page = service.listaPaginada(0, 2);
 
 		assertThat(page.getContent()).isEmpty();
 
-		verify(repository).findAll(pageable);
+		verify(repository).findRespostas(pageable);
 		verifyNoMoreInteractions(repository);
 	}
 
@@ -445,16 +603,16 @@ public class ClienteServiceTest {
 
 		assertThat(ex.getMessage()).isEqualTo("A página não pode ser negativa e itens não pode ser menor que 1.");
 
-		verify(repository, never()).findAll(any(PageRequest.class));
+		verify(repository, never()).findRespostas(any(PageRequest.class));
 		verifyNoMoreInteractions(repository);
 	}
 
 	@Test
 	public void listaPaginadaPorOrdenacao_sucesso_retornarListaCheia() {
 		List<Cliente> lista = List.of(cliente1, cliente2);
-		Page<Cliente> pageMock = new PageImpl<>(lista);
+		Page<ClienteResponseDTO> pageMock = new PageImpl<>(respostas(lista));
 		PageRequest pageable = PageRequest.of(0, 2, Sort.by("nome").ascending());
-		when(repository.findAll(any(PageRequest.class))).thenReturn(pageMock);
+		when(repository.findRespostas(any(PageRequest.class))).thenReturn(pageMock);
 
 		Page<ClienteResponseDTO> page = service.listaPaginadaPorOrdenacao(0, 2, "nome");
 
@@ -464,7 +622,7 @@ public class ClienteServiceTest {
 		assertThat(page.getContent().get(0).getNome()).isEqualTo("Marcus");
 		assertThat(page.getContent().get(1).getNome()).isEqualTo("Antônio");
 
-		verify(repository).findAll(any(PageRequest.class));
+		verify(repository).findRespostas(any(PageRequest.class));
 		verifyNoMoreInteractions(repository);
 	}
 
@@ -472,15 +630,15 @@ public class ClienteServiceTest {
 	public void listaPaginadaPorOrdenacao_sucesso_retornarListaVazia() {
 		List<Cliente> lista = List.of();
 		PageRequest pageable = PageRequest.of(0, 2, Sort.by("nome"));
-		Page<Cliente> pageMock = new PageImpl<>(lista);
+		Page<ClienteResponseDTO> pageMock = new PageImpl<>(respostas(lista));
 
-		when(repository.findAll(pageable)).thenReturn(pageMock);
+		when(repository.findRespostas(pageable)).thenReturn(pageMock);
 
 		Page<ClienteResponseDTO> page = service.listaPaginadaPorOrdenacao(0, 2, "nome");
 
 		assertThat(page).isEmpty();
 
-		verify(repository).findAll(pageable);
+		verify(repository).findRespostas(pageable);
 		verifyNoMoreInteractions(repository);
 	}
 
@@ -493,7 +651,7 @@ public class ClienteServiceTest {
 		assertThat(ex.getMessage())
 		.isEqualTo("A página não pode ser negativa e itens não pode ser menor que 1.");
 
-		verify(repository, never()).findAll(any(PageRequest.class));
+		verify(repository, never()).findRespostas(any(PageRequest.class));
 		verifyNoMoreInteractions(repository);
 	}
 
@@ -506,7 +664,7 @@ public class ClienteServiceTest {
 
 		assertThat(ex.getMessage()).isEqualTo("Critério de ordenação não pode ser vazio.");
 
-		verify(repository, never()).findAll(any(PageRequest.class));
+		verify(repository, never()).findRespostas(any(PageRequest.class));
 		verifyNoMoreInteractions(repository);
 	}
 
@@ -519,10 +677,10 @@ public class ClienteServiceTest {
 		cliente3.setCpf("87654321");
 
 		List<Cliente> lista = List.of(cliente1, cliente3);
-		PageRequest pageable = PageRequest.of(0, 2);
-		Page<Cliente> pageMock = new PageImpl<>(lista);
+		PageRequest pageable = PageRequest.of(0, 2, Sort.by("nome").and(Sort.by("id")));
+		Page<ClienteResponseDTO> pageMock = new PageImpl<>(respostas(lista));
 
-		when(repository.findByNomeContainingIgnoreCase("Marcus", pageable)).thenReturn(pageMock);
+		when(repository.findRespostasPorNome("Marcus", pageable)).thenReturn(pageMock);
 		Page<ClienteResponseDTO> page = service.buscarPorNome("Marcus", 0, 2);
 
 		assertThat(page).isNotEmpty().hasSize(2).extracting(ClienteResponseDTO::getCpf).containsExactly("12345678",
@@ -531,22 +689,50 @@ public class ClienteServiceTest {
 		assertThat(page.getContent().get(0).getNome()).isEqualTo("Marcus");
 		assertThat(page.getContent().get(1).getNome()).isEqualTo("Marcus Antônio");
 
-		verify(repository).findByNomeContainingIgnoreCase("Marcus", pageable);
+		verify(repository).findRespostasPorNome("Marcus", pageable);
+		verifyNoMoreInteractions(repository);
+	}
+
+	@Test
+	public void buscarPorNome_indiceNomePronto_buscaSoOsIdsDaPagina() {
+		ClientesProperties properties = new ClientesProperties();
+		properties.getIndiceNome().setHabilitado(true);
+		IndiceNome indice = new IndiceNome(properties);
+		indice.iniciarReconstrucao();
+		indice.adicionar(1L, "Marcus");
+		indice.adicionar(2L, "Antônio");
+		indice.adicionar(3L, "Marcus Antônio");
+		indice.concluirReconstrucao();
+		ClienteService comIndice = new ClienteService(repository, mergePatch, emailValidator, contagemCache,
+		clienteCache, indice, filtroCadastro);
+
+		Cliente cliente3 = new Cliente();
+		cliente3.setId(3L);
+		cliente3.setNome("Marcus Antônio");
+		cliente3.setEmail("marcus.antonio@email.com");
+		cliente3.setCpf("87654321");
+		when(repository.findRespostasByIdIn(List.of(3L))).thenReturn(respostas(List.of(cliente3)));
+
+		Page<ClienteResponseDTO> page = comIndice.buscarPorNome("marcus", 1, 1);
+
+		assertThat(page.getTotalElements()).isEqualTo(2);
+		assertThat(page.getContent()).extracting(ClienteResponseDTO::getId).containsExactly(3L);
+		verify(repository).findRespostasByIdIn(List.of(3L));
 		verifyNoMoreInteractions(repository);
 	}
 
 	@Test
 	public void buscarPorNome_sucesso_retornarPageVazia() {
 		List<Cliente> lista = List.of();
-		PageRequest pageable = PageRequest.of(0, 2);
-		Page<Cliente> pageMock = new PageImpl<>(lista);
+		PageRequest pageable = PageRequest.of(0, 2, Sort.by("nome").and(Sort.by("id")));
+		Page<ClienteResponseDTO> pageMock = new PageImpl<>(respostas(lista));
 
-		when(repository.findByNomeContainingIgnoreCase("Marcus", pageable)).thenReturn(pageMock);
+		when(repository.findRespostasPorNome("Marcus", pageable)).thenReturn(pageMock);
 		Page<ClienteResponseDTO> page = service.buscarPorNome("Marcus", 0, 2);
 
 		assertThat(page).isEmpty();
 
-		verify(repository).findByNomeContainingIgnoreCase("Marcus", pageable);
+		verify(repository).findRespostasPorNome("Marcus", pageable);
 		verifyNoMoreInteractions(repository);
 	}
 
@@ -559,7 +745,7 @@ public class ClienteServiceTest {
 
 		assertThat(ex.getMessage()).contains("vazio").contains("nulo");
 
-		verify(repository, never()).findByNomeContainingIgnoreCase(eq(nome), any(PageRequest.class));
+		verify(repository, never()).findRespostasPorNome(eq(nome), any(PageRequest.class));
 		verifyNoMoreInteractions(repository);
 	}
 
@@ -571,13 +757,12 @@ public class ClienteServiceTest {
 
 		assertThat(ex.getMessage()).contains("negativa").contains("menor que 1");
 
-		verify(repository, never()).findByNomeContainingIgnoreCase(eq("Marcus"), any(PageRequest.class));
+		verify(repository, never()).findRespostasPorNome(eq("Marcus"), any(PageRequest.class));
 		verifyNoMoreInteractions(repository);
 	}
 
 	@Test
-	public void atualizarParcial_clienteNaoEncontrado() throws ClienteNotFoundException, 
-	JsonMappingException {
+	public void atualizarParcial_clienteNaoEncontrado() {
 		when(repository.findById(99L)).thenReturn(Optional.empty());
 		Map<String, Object> updates = Map.of("nome", "Marcus");
 
@@ -589,24 +774,15 @@ public class ClienteServiceTest {
 		verify(repository).findById(99L);
 		verify(repository, never()).findByEmail(anyString());
 		verify(repository, never()).saveAndFlush(any(Cliente.class));
-		verify(mapper, never()).configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-		verify(mapper, never()).updateValue(any(Cliente.class), anyMap());
 		verifyNoMoreInteractions(repository);
-		verifyNoMoreInteractions(mapper);
 	}
 
 	@Test
-	public void atualizarParcial_sucesso_retornarDTO() throws JsonMappingException {
+	public void atualizarParcial_sucesso_retornarDTO() {
 		Map<String, Object> updates = Map.of("nome", "Antônio", "email", "antonio@email.com");
-		Cliente atualizado = new Cliente();
-		atualizado.setNome("Antônio");
-		atualizado.setEmail("antonio@email.com");
-		atualizado.setId(1L);
-		atualizado.setCpf("12345678625");
 
 		when(repository.findById(1L)).thenReturn(Optional.of(cliente1));
-		when(mapper.updateValue(cliente1, updates)).thenReturn(atualizado);
-		when(repository.save(atualizado)).thenReturn(atualizado);
+		when(repository.saveAndFlush(cliente1)).thenReturn(cliente1);
 
 		ClienteResponseDTO response = service.atualizarParcial(1L, updates);
 
@@ -614,18 +790,44 @@ public class ClienteServiceTest {
 		assertThat(response.getNome()).isEqualTo("Antônio");
 		assertThat(response.getEmail()).isEqualTo("antonio@email.com");
 		assertThat(response.getId()).isEqualTo(1L);
+		assertThat(response.getCpf()).isEqualTo("12345678");
 
 		verify(repository).findById(1L);
 		verify(repository).findByEmail(updates.get("email").toString());
-		verify(repository).save(atualizado);
-		verify(mapper).configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-		verify(mapper).updateValue(cliente1, updates);
+		verify(repository).saveAndFlush(cliente1);
+		verifyNoMoreInteractions(repository);
+	}
+
+	@Test
+	public void atualizarParcial_camposIguaisEDesconhecidos_naoGrava() {
+		Map<String, Object> updates = Map.of("nome", "Marcus", "email", "marcus@email.com", "telefone", "1234");
+
+		when(repository.findById(1L)).thenReturn(Optional.of(cliente1));
+
+		ClienteResponseDTO response = service.atualizarParcial(1L, updates);
+
+		assertThat(response.getNome()).isEqualTo("Marcus");
+		verify(repository).findById(1L);
 		verifyNoMoreInteractions(repository);
-		verifyNoMoreInteractions(mapper);
+		verify(contagemCache, never()).invalidar();
 	}
 
 	@Test
-	public void atualizarParcial_contemId_retornarExececao() throws JsonMappingException {
+	public void atualizarParcial_valorNaoTexto_retornarExcecao() {
+		Map<String, Object> updates = Map.of("nome", "Carlos", "email", Map.of("x", 1));
+
+		when(repository.findById(1L)).thenReturn(Optional.of(cliente1));
+
+		ArgumentoInvalidoException e = assertThrows(ArgumentoInvalidoException.class,
+				() -> service.atualizarParcial(1L, updates));
+
+		assertThat(e.getMessage()).isEqualTo("Formato inválido do e-mail.");
+		assertThat(cliente1.getNome()).isEqualTo("Marcus");
+		verify(repository, never()).save(any(Cliente.class));
+	}
+
+	@Test
+	public void atualizarParcial_contemId_retornarExececao() {
 		Map<String, Object> updates = Map.of("id", 2L, "email", "antonio@email.com");
 		when(repository.findById(1L)).thenReturn(Optional.of(cliente1));
 
@@ -636,14 +838,11 @@ public class ClienteServiceTest {
 		verify(repository).findById(1L);
 		verify(repository, never()).findByEmail("antonio@email.com");
 		verify(repository, never()).saveAndFlush(any(Cliente.class));
-		verify(mapper, never()).configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-		verify(mapper, never()).updateValue(any(Cliente.class), anyMap());
 		verifyNoMoreInteractions(repository);
-		verifyNoMoreInteractions(mapper);
 	}
 
 	@Test
-	public void atualizarParcial_contemCpf_retornarExcecao() throws JsonMappingException {
+	public void atualizarParcial_contemCpf_retornarExcecao() {
 		Map<String, Object> updates = Map.of("cpf", "32165487");
 		when(repository.findById(1L)).thenReturn(Optional.of(cliente1));
 
@@ -654,16 +853,25 @@ public class ClienteServiceTest {
 		verify(repository, never()).findByEmail(anyString());
 		verify(repository).findById(1L);
 		verify(repository, never()).saveAndFlush(any(Cliente.class));
-		verify(mapper, never()).configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-		verify(mapper, never()).updateValue(any(Cliente.class), anyMap());
-		verifyNoMoreInteractions(mapper);
 		verifyNoMoreInteractions(repository);
 	}
 
+	@Test
+	public void atualizarParcial_contemVersao_retornarExcecao() {
+		Map<String, Object> updates = Map.of("versao", 7);
+		when(repository.findById(1L)).thenReturn(Optional.of(cliente1));
+
+		ArgumentoInvalidoException e = assertThrows(ArgumentoInvalidoException.class,
+				() -> service.atualizarParcial(1L, updates));
+
+		assertThat(e.getMessage()).isEqualTo("O campo versao não pode ser alterado.");
+		verify(repository, never()).save(any(Cliente.class));
+	}
+
 	@ParameterizedTest
 	@NullAndEmptySource
 	@ValueSource(strings = { " " })
-	public void atualizarParcial_nomeInvalido_retornarExcecao(String nome) throws JsonMappingException {
+	public void atualizarParcial_nomeInvalido_retornarExcecao(String nome) {
 		Map<String, Object> updates = new HashMap<>();
 		updates.put("nome", nome);
 		when(repository.findById(1L)).thenReturn(Optional.of(cliente1));
@@ -676,16 +884,13 @@ public class ClienteServiceTest {
 		verify(repository).findById(1L);
 		verify(repository, never()).findByEmail(anyString());
 		verify(repository, never()).saveAndFlush(any(Cliente.class));
-		verify(mapper, never()).configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-		verify(mapper, never()).updateValue(any(Cliente.class), anyMap());
-		verifyNoMoreInteractions(mapper);
 		verifyNoMoreInteractions(repository);
 	}
 
 	@ParameterizedTest
 	@NullAndEmptySource
 	@ValueSource(strings = { " ", "marcus.com", "@@@@@@@" })
-	public void atualizarParcial_emailInvalido_retornaExcecao(String email) throws JsonMappingException {
+	public void atualizarParcial_emailInvalido_retornaExcecao(String email) {
 		Map<String, Object> updates = new HashMap<>();
 		updates.put("email", email);
 		when(repository.findById(1L)).thenReturn(Optional.of(cliente1));
@@ -698,14 +903,11 @@ public class ClienteServiceTest {
 		verify(repository).findById(1L);
 		verify(repository, never()).findByEmail(email);
 		verify(repository, never()).saveAndFlush(any(Cliente.class));
-		verify(mapper, never()).configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-		verify(mapper, never()).updateValue(any(Cliente.class), anyMap());
-		verifyNoMoreInteractions(mapper);
 		verifyNoMoreInteractions(repository);
 	}
 
 	@Test
-	public void atualizarParcial_emailJaCadastrado_retornarExcecao() throws JsonMappingException {
+	public void atualizarParcial_emailJaCadastrado_retornarExcecao() {
 		Map<String, Object> updates = new HashMap<>();
 		updates.put("email", "antonio@email.com");
 
@@ -720,19 +922,16 @@ public class ClienteServiceTest {
 		verify(repository).findById(1L);
 		verify(repository).findByEmail("antonio@email.com");
 		verify(repository, never()).saveAndFlush(any(Cliente.class));
-		verify(mapper, never()).configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-		verify(mapper, never()).updateValue(any(Cliente.class), anyMap());
-		verifyNoMoreInteractions(mapper);
 		verifyNoMoreInteractions(repository);
 	}
 
 	@Test
 	public void buscaPorEmail_sucesso_retornarPageCheia() {
 		List<Cliente> lista = List.of(cliente1);
-		Page<Cliente> pageMock = new PageImpl<>(lista);
+		Page<ClienteResponseDTO> pageMock = new PageImpl<>(respostas(lista));
 		PageRequest pageable = PageRequest.of(0, 2);
 
-		when(repository.findByEmail("marcus@email.com", pageable)).thenReturn(pageMock);
+		when(repository.findRespostasPorEmail("marcus@email.com", pageable)).thenReturn(pageMock);
 		Page<ClienteResponseDTO> page = service.buscarPorEmail("marcus@email.com", 0, 2);
 
 		assertThat(page).isNotEmpty().hasSize(1);
@@ -741,22 +940,22 @@ public class ClienteServiceTest {
 		assertThat(page.getContent().get(0).getEmail()).isEqualTo("marcus@email.com");
 		assertThat(page.getContent().get(0).getCpf()).isEqualTo("12345678");
 
-		verify(repository).findByEmail("marcus@email.com", pageable);
+		verify(repository).findRespostasPorEmail("marcus@email.com", pageable);
 		verifyNoMoreInteractions(repository);
 	}
 
 	@Test
 	public void buscaPorEmail_naoEncontraCliente_retornarPageVazia() {
 		List<Cliente> lista = List.of();
-		Page<Cliente> pageMock = new PageImpl<>(lista);
+		Page<ClienteResponseDTO> pageMock = new PageImpl<>(respostas(lista));
 		PageRequest pageable = PageRequest.of(0, 2);
 
-		when(repository.findByEmail("marcus@email.com", pageable)).thenReturn(pageMock);
+		when(repository.findRespostasPorEmail("marcus@email.com", pageable)).thenReturn(pageMock);
 		Page<ClienteResponseDTO> page = service.buscarPorEmail("marcus@email.com", 0, 2);
 
 		assertThat(page).isEmpty();
 
-		verify(repository).findByEmail("marcus@email.com", pageable);
+		verify(repository).findRespostasPorEmail("marcus@email.com", pageable);
 		verifyNoMoreInteractions(repository);
 	}
 
@@ -768,7 +967,7 @@ public class ClienteServiceTest {
 
 		assertThat(ex.getMessage()).contains("negativa").contains("menor que 1");
 
-		verify(repository, never()).findByEmail(anyString(), any(PageRequest.class));
+		verify(repository, never()).findRespostasPorEmail(anyString(), any(PageRequest.class));
 		verifyNoMoreInteractions(repository);
 	}
 
@@ -781,7 +980,7 @@ public class ClienteServiceTest {
 
 		assertThat(ex.getMessage()).contains("inválido");
 
-		verify(repository, never()).findByEmail(anyString(), any(PageRequest.class));
+		verify(repository, never()).findRespostasPorEmail(anyString(), any(PageRequest.class));
 		verifyNoMoreInteractions(repository);
 	}
 
@@ -789,82 +988,83 @@ public class ClienteServiceTest {
 	public void atualizarEmail_sucesso_emailAtualizado() {
 		String email = "vinicius@email.com";
 
-		when(repository.findById(1L)).thenReturn(Optional.of(cliente1));
-		when(repository.findByEmail(email)).thenReturn(Optional.empty());
+		when(repository.atualizarEmail(1L, email, null)).thenReturn(1);
 		cliente1.setEmail(email);
-		when(repository.save(cliente1)).thenAnswer(invocation -> invocation.getArgument(0));
+		when(repository.findById(1L)).thenReturn(Optional.of(cliente1));
 
-		ClienteResponseDTO atualizado = service.atualizarEmail(1L, email);
+		ClienteResponseDTO atualizado = service.atualizarEmail(1L, email, null);
 
 		assertThat(atualizado).isNotNull();
 		assertThat(atualizado.getCpf()).isEqualTo(cliente1.getCpf());
-		assertThat(atualizado.getEmail()).isEqualTo(cliente1.getEmail());
+		assertThat(atualizado.getEmail()).isEqualTo(email);
 		assertThat(atualizado.getNome()).isEqualTo(cliente1.getNome());
 		assertThat(atualizado.getId()).isEqualTo(cliente1.getId());
 
+		verify(repository).atualizarEmail(1L, email, null);
 		verify(repository).findById(1L);
-		verify(repository).findByEmail(email);
-		verify(repository).save(cliente1);
 		verifyNoMoreInteractions(repository);
 	}
 
 	@Test
 	public void atualizarEmail_clienteNaoEncontrado() {
-		when(repository.findById(99L)).thenReturn(Optional.empty());
+		when(repository.atualizarEmail(99L, "vinicius@email.com", null)).thenReturn(0);
+		when(repository.findChavesById(99L)).thenReturn(Optional.empty());
 
 		ClienteNotFoundException ex = assertThrows(ClienteNotFoundException.class,
-				() -> service.atualizarEmail(99L, "vinicius@email.com"));
+				() -> service.atualizarEmail(99L, "vinicius@email.com", null));
 
 		assertThat(ex.getMessage()).contains("não encontrado");
 
-		verify(repository).findById(99L);
-		verify(repository, never()).findByEmail("vinicius@email.com");
-		verify(repository, never()).saveAndFlush(any(Cliente.class));
+		verify(repository).atualizarEmail(99L, "vinicius@email.com", null);
+		verify(repository).findChavesById(99L);
 		verifyNoMoreInteractions(repository);
 	}
 
+	@Test
+	public void atualizarEmail_versaoDesatualizada() {
+		when(repository.atualizarEmail(1L, "vinicius@email.com", List.of(2L))).thenReturn(0);
+		when(repository.findChavesById(1L))
+		.thenReturn(Optional.of(new ChavesCliente(1L, "12345678", "marcus@email.com")));
+
+		assertThrows(VersaoDesatualizadaException.class, () -> service.atualizarEmail(1L, "vinicius@email.com", List.of(2L)));
+
+		verify(repository, never()).findById(1L);
+	}
+
 	@ParameterizedTest
 	@NullAndEmptySource
 	@ValueSource(strings = { " ", "marcus.com.br", "@@@" })
 	public void atualizarEmail_emailInvalido(String email) {
-		when(repository.findById(1L)).thenReturn(Optional.of(cliente1));
-
 		IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
-				() -> service.atualizarEmail(1L, email));
+				() -> service.atualizarEmail(1L, email, null));
 
 		assertThat(ex.getMessage()).contains("inválido");
 
-		verify(repository).findById(1L);
-		verify(repository, never()).findByEmail(email);
-		verify(repository, never()).saveAndFlush(any(Cliente.class));
-		verifyNoMoreInteractions(repository);
+		verifyNoInteractions(repository);
 
 	}
 
 	@Test
 	public void atualizarEmail_emailJaCadastrado() {
-		when(repository.findById(1L)).thenReturn(Optional.of(cliente1));
-		when(repository.findByEmail("antonio@email.com")).thenReturn(Optional.of(cliente2));
+		when(repository.atualizarEmail(1L, "antonio@email.com", null)).thenThrow(violacao("uk_cliente_email"));
 
 		EmailJaCadastradoException ex = assertThrows(EmailJaCadastradoException.class,
-				() -> service.atualizarEmail(1L, "antonio@email.com"));
+				() -> service.atualizarEmail(1L, "antonio@email.com", null));
 
 		assertThat(ex.getMessage()).contains("indisponível");
-		assertThat(cliente1.getEmail()).isEqualTo("marcus@email.com");
 
-		verify(repository).findById(1L);
-		verify(repository).findByEmail("antonio@email.com");
-		verify(repository, never()).saveAndFlush(any(Cliente.class));
+		verify(repository).atualizarEmail(1L, "antonio@email.com", null);
+		verify(repository, never()).findByEmail("antonio@email.com");
 		verifyNoMoreInteractions(repository);
 	}
 
 	@Test
 	public void buscaEmailPaginadaOrdenada_retornarPageCheia() {
 		List<Cliente> lista = List.of(cliente1);
-		Page<Cliente> pageMock = new PageImpl<>(lista);
+		Page<ClienteResponseDTO> pageMock = new PageImpl<>(respostas(lista));
 		PageRequest pageable = PageRequest.of(0, 2, Sort.by("nome").ascending());
 
-		when(repository.findByEmailContainingIgnoreCase("marcus@email.com", pageable))
+		when(repository.findRespostasPorEmailContendo("marcus@email.com", pageable))
 		.thenReturn(pageMock);
 
 		Page<ClienteResponseDTO> page = 
@@ -873,17 +1073,17 @@ public class ClienteServiceTest {
 		assertThat(page).isNotEmpty().hasSize(1).extracting(ClienteResponseDTO::getNome)
 		.containsExactly("Marcus");
 
-		verify(repository).findByEmailContainingIgnoreCase("marcus@email.com", pageable);
+		verify(repository).findRespostasPorEmailContendo("marcus@email.com", pageable);
 		verifyNoMoreInteractions(repository);
 	}
 
 	@Test
 	public void buscaEmailPaginadaOrdenada_emailNaoEncontrado_retornarPageVazia() {
 		List<Cliente> lista = List.of();
-		Page<Cliente> pageMock = new PageImpl<>(lista);
+		Page<ClienteResponseDTO> pageMock = new PageImpl<>(respostas(lista));
 		PageRequest pageable = PageRequest.of(0, 2, Sort.by("nome").ascending());
 
-		when(repository.findByEmailContainingIgnoreCase("marcus@email.com", pageable))
+		when(repository.findRespostasPorEmailContendo("marcus@email.com", pageable))
 		.thenReturn(pageMock);
 
 		Page<ClienteResponseDTO> page = 
@@ -891,7 +1091,7 @@ public class ClienteServiceTest {
 
 		assertThat(page).isEmpty();
 
-		verify(repository).findByEmailContainingIgnoreCase("marcus@email.com", pageable);
+		verify(repository).findRespostasPorEmailContendo("marcus@email.com", pageable);
 		verifyNoMoreInteractions(repository);
 	}
 
@@ -904,7 +1104,7 @@ public class ClienteServiceTest {
 		assertThat(ex.getMessage()).contains("negativo").contains("menor que 1");
 
 		verify(repository, never())
-		.findByEmailContainingIgnoreCase(eq("marcus@email.com"), any(PageRequest.class));
+		.findRespostasPorEmailContendo(eq("marcus@email.com"), any(PageRequest.class));
 		verifyNoMoreInteractions(repository);
 	}
 
@@ -917,7 +1117,7 @@ public class ClienteServiceTest {
 
 		assertThat(ex.getMessage()).contains("inválido");
 
-		verify(repository, never()).findByEmailContainingIgnoreCase(eq(email), any(PageRequest.class));
+		verify(repository, never()).findRespostasPorEmailContendo(eq(email), any(PageRequest.class));
 		verifyNoMoreInteractions(repository);
 	}
 
@@ -930,9 +1130,131 @@ public class ClienteServiceTest {
 
 		assertThat(ex.getMessage()).contains("não").contains("vazio").contains("nulo");
 
-		verify(repository, never()).findByEmailContainingIgnoreCase(eq("marcus@email.com"), 
+		verify(repository, never()).findRespostasPorEmailContendo(eq("marcus@email.com"), 
 				any(PageRequest.class));
 		verifyNoMoreInteractions(repository);
 	}
 	
-}
\ No newline at end of file
+	@Test
+	public void listaPorCursor_primeiraPagina_retornaProximoCursor() {
+		Limit limite = Limit.of(2);
+		when(repository.findBy(Sort.by("nome").and(Sort.by("id")), limite)).thenReturn(List.of(cliente2, cliente1));
+
+		PaginaCursorResponseDTO pagina = service.listaPorCursor(null, 1, "nome");
+
+		assertThat(pagina.getClientes()).extracting(ClienteResponseDTO::getNome).containsExactly("Antônio");
+		assertThat(pagina.getProximoCursor()).isNotNull();
+
+		ClienteCursor cursor = ClienteCursor.decodificar(pagina.getProximoCursor());
+		assertThat(cursor.getCampo()).isEqualTo("nome");
+		assertThat(cursor.getId()).isEqualTo(2L);
+		assertThat(cursor.getValor()).isEqualTo("Antônio");
+
+		verify(repository).findBy(Sort.by("nome").and(Sort.by("id")), limite);
+		verifyNoMoreInteractions(repository);
+	}
+
+	@Test
+	public void listaPorCursor_ultimaPagina_semProximoCursor() {
+		String cursor = new ClienteCursor("nome", 2L, "Antônio").codificar();
+		when(repository.findAfterNome("Antônio", 2L, Limit.of(3))).thenReturn(List.of(cliente1));
+
+		PaginaCursorResponseDTO pagina = service.listaPorCursor(cursor, 2, "nome");
+
+		assertThat(pagina.getClientes()).extracting(ClienteResponseDTO::getNome).containsExactly("Marcus");
+		assertThat(pagina.getProximoCursor()).isNull();
+
+		verify(repository).findAfterNome("Antônio", 2L, Limit.of(3));
+		verifyNoMoreInteractions(repository);
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "nao-e-base64!", "bm9tZQ" })
+	public void listaPorCursor_cursorInvalido_retornaExcecao(String cursor) {
+		ArgumentoInvalidoException ex = assertThrows(ArgumentoInvalidoException.class,
+				() -> service.listaPorCursor(cursor, 2, "nome"));
+
+		assertThat(ex.getMessage()).isEqualTo("Cursor inválido.");
+		verifyNoMoreInteractions(repository);
+	}
+
+	@Test
+	public void listaPorCursor_cursorDeOutroCriterio_retornaExcecao() {
+		String cursor = new ClienteCursor("id", 2L, "").codificar();
+
+		IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+				() -> service.listaPorCursor(cursor, 2, "nome"));
+
+		assertThat(ex.getMessage()).isEqualTo("Cursor não corresponde ao critério de ordenação.");
+		verifyNoMoreInteractions(repository);
+	}
+
+	@ParameterizedTest
+	@CsvSource({ "0, id", "2, senha", "2, ' '" })
+	public void listaPorCursor_parametrosInvalidos_retornaExcecao(int itens, String ordenadoPor) {
+		assertThrows(IllegalArgumentException.class, () -> service.listaPorCursor(null, itens, ordenadoPor));
+
+		verifyNoMoreInteractions(repository);
+	}
+	
+	@Test
+	public void listaPaginadaSemTotal_naoExecutaContagem() {
+		PageRequest pageable = PageRequest.of(0, 1);
+		when(repository.findSliceRespostas(pageable)).thenReturn(new SliceImpl<>(respostas(List.of(cliente1)), pageable, true));
+
+		Slice<ClienteResponseDTO> slice = service.listaPaginadaSemTotal(0, 1);
+
+		assertThat(slice.getContent()).extracting(ClienteResponseDTO::getNome).containsExactly("Marcus");
+		assertThat(slice.hasNext()).isTrue();
+
+		verify(repository).findSliceRespostas(pageable);
+		verify(repository, never()).count();
+		verifyNoMoreInteractions(repository);
+	}
+
+	@ParameterizedTest
+	@CsvSource({ "-1 , 2", "0, 0" })
+	public void buscarPorNomeSemTotal_paginaItensInvalidos_retornaExcecao(int pagina, int itens) {
+		IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+				() -> service.buscarPorNomeSemTotal("Marcus", pagina, itens));
+
+		assertThat(ex.getMessage()).isEqualTo("A página não pode ser negativa e itens não pode ser menor que 1.");
+		verifyNoMoreInteractions(repository);
+	}
+
+	@Test
+	public void buscarPorEmailSemTotal_sucesso_retornaSlice() {
+		PageRequest pageable = PageRequest.of(0, 2);
+		when(repository.findSliceRespostasPorEmail("marcus@email.com", pageable))
+		.thenReturn(new SliceImpl<>(respostas(List.of(cliente1)), pageable, false));
+
+		Slice<ClienteResponseDTO> slice = service.buscarPorEmailSemTotal("marcus@email.com", 0, 2);
+
+		assertThat(slice.getContent()).extracting(ClienteResponseDTO::getCpf).containsExactly("12345678");
+		assertThat(slice.hasNext()).isFalse();
+
+		verify(repository).findSliceRespostasPorEmail("marcus@email.com", pageable);
+		verifyNoMoreInteractions(repository);
+	}
+
+	@Test
+	public void listaPaginada_contagemEmCache_contaUmaVezAteEscrita() {
+		doReturn(true).when(contagemCache).isHabilitado();
+		PageRequest pageable = PageRequest.of(0, 1);
+		when(repository.findSliceRespostas(pageable)).thenReturn(new SliceImpl<>(respostas(List.of(cliente1)), pageable, true));
+		when(repository.count()).thenReturn(2L);
+
+		assertThat(service.listaPaginada(0, 1).getTotalElements()).isEqualTo(2L);
+		assertThat(service.listaPaginada(0, 1).getTotalElements()).isEqualTo(2L);
+		verify(repository).count();
+
+		when(repository.excluirPorId(1L)).thenReturn(1);
+		service.deletarClientePorId(1L);
+		when(repository.count()).thenReturn(1L);
+
+		assertThat(service.listaPaginada(0, 1).getTotalElements()).isEqualTo(1L);
+		verify(repository, times(2)).count();
+		verify(repository, never()).findRespostas(any(PageRequest.class));
+	}
+	
+}
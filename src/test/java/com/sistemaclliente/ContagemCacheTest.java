@@ -0,0 +1,89 @@
+package com.sistemaclliente;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sistemacliente.cache.ContagemCache;
+import com.sistemacliente.config.ClientesProperties;
+
+public class ContagemCacheTest {
+
+	private ClientesProperties properties;
+	private ContagemCache cache;
+	private AtomicInteger consultas;
+
+	@BeforeEach
+	public void setup() {
+		properties = new ClientesProperties();
+		properties.getContagem().setHabilitado(true);
+		cache = new ContagemCache(properties);
+		consultas = new AtomicInteger();
+	}
+
+	private long consultar() {
+		consultas.incrementAndGet();
+		return 10L;
+	}
+
+	@Test
+	public void contar_mesmaChave_consultaUmaVez() {
+		assertThat(cache.contar("todos", this::consultar)).isEqualTo(10L);
+		assertThat(cache.contar("todos", this::consultar)).isEqualTo(10L);
+
+		assertThat(consultas.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void contar_chavesDiferentes_consultaCadaUma() {
+		cache.contar("nome:mar", this::consultar);
+		cache.contar("nome:ant", this::consultar);
+
+		assertThat(consultas.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void contar_depoisDeInvalidar_consultaDeNovo() {
+		cache.contar("todos", this::consultar);
+		cache.invalidar();
+		cache.contar("todos", this::consultar);
+
+		assertThat(consultas.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void contar_ttlExpirado_consultaDeNovo() {
+		properties.getContagem().setTtl(Duration.ZERO);
+
+		cache.contar("todos", this::consultar);
+		cache.contar("todos", this::consultar);
+
+		assertThat(consultas.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void contar_escritaDuranteAConsulta_naoGuardaTotalAntigo() {
+		cache.contar("todos", () -> {
+			cache.invalidar(); /*Escrita concorrente enquanto o count(*) roda.*/
+			return consultar();
+		});
+		cache.contar("todos", this::consultar);
+
+		assertThat(consultas.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void contar_limiteDeEntradas_continuaRespondendo() {
+		properties.getContagem().setMaxEntradas(2);
+
+		for (int i = 0; i < 5; i++) {
+			assertThat(cache.contar("nome:" + i, this::consultar)).isEqualTo(10L);
+		}
+		assertThat(consultas.get()).isEqualTo(5);
+	}
+
+}
@@ -0,0 +1,58 @@
+package com.sistemaclliente;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.sistemacliente.validation.EmailValidator;
+
+public class EmailValidatorTest {
+
+	private final EmailValidator validator = new EmailValidator();
+
+	@ParameterizedTest
+	@ValueSource(strings = { "marcus@email.com", "marcus@gmail.com", "a.b.c@d-e.f.com", "x_y+z&w*k-1@a.io",
+	"MARCUS@EMAIL.COM", "m@a.b.c.abcdefg", "1@2.ab", "a@-.ab", "a@b-.ab" })
+	public void isValido_emailValido_retornaTrue(String email) {
+		assertThat(validator.isValido(email)).isTrue();
+		assertThat(email.matches(EmailValidator.REGEX_EMAIL)).isTrue();
+	}
+
+	@ParameterizedTest
+	@NullSource
+	@ValueSource(strings = { "", " ", "marcus.com", "marcus.com.br", "@@@", "marcus@marcus@", "com",
+	"marcus@email", "marcus@email.c", "marcus@email.abcdefgh", "marcus@email.c0m", ".marcus@email.com",
+	"marcus.@email.com", "mar..cus@email.com", "marcus@.email.com", "marcus@email..com", "marcus@email.com.",
+	"marcus@email.com ", " marcus@email.com", "marcus@email.com\n", "márcus@email.com", "marcus@émail.com",
+	"marcus@email_x.com", "marcus@", "@email.com", "marcus email@email.com", "marcus@email.cóm" })
+	public void isValido_emailInvalido_retornaFalse(String email) {
+		assertThat(validator.isValido(email)).isFalse();
+		if (email != null) {
+			assertThat(email.matches(EmailValidator.REGEX_EMAIL)).isFalse();
+		}
+	}
+
+	/*Gera entradas aleatórias com o alfabeto relevante para a regex e compara os dois caminhos.*/
+	@Test
+	public void isValido_entradasAleatorias_mesmoResultadoDaRegex() {
+		char[] alfabeto = "aZ09_+&*-.@@..éx \n".toCharArray();
+		Random random = new Random(42);
+
+		for (int n = 0; n < 200_000; n++) {
+			char[] email = new char[1 + random.nextInt(16)];
+			for (int i = 0; i < email.length; i++) {
+				email[i] = alfabeto[random.nextInt(alfabeto.length)];
+			}
+			String entrada = new String(email);
+
+			assertThat(validator.isValido(entrada)).as(entrada)
+			.isEqualTo(entrada.matches(EmailValidator.REGEX_EMAIL));
+		}
+	}
+
+}
@@ -0,0 +1,32 @@
+package com.sistemaclliente;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.sistemacliente.exception.AlteracaoDeCpfException;
+import com.sistemacliente.exception.ArgumentoInvalidoException;
+import com.sistemacliente.exception.ClienteNotFoundException;
+import com.sistemacliente.exception.CpfJaCadastradoException;
+import com.sistemacliente.exception.EmailJaCadastradoException;
+
+public class ErroDeNegocioExceptionTest {
+
+	static Stream<RuntimeException> excecoes() {
+		return Stream.of(new ClienteNotFoundException(1L), new ClienteNotFoundException("52998224725"),
+		new CpfJaCadastradoException(), new CpfJaCadastradoException("52998224725"), new EmailJaCadastradoException(),
+		new AlteracaoDeCpfException(), new ArgumentoInvalidoException("Cursor inválido."));
+	}
+
+	@ParameterizedTest @MethodSource("excecoes")
+	@DisplayName("Business exceptions keep their message but carry no stack trace.")
+	public void excecao_semPilha_mantemMensagem(RuntimeException ex) {
+		assertThat(ex.getStackTrace()).isEmpty();
+		assertThat(ex.getMessage()).isNotBlank();
+	}
+
+}
@@ -0,0 +1,147 @@
+package com.sistemaclliente;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sistemacliente.config.ClientesProperties;
+import com.sistemacliente.search.FiltroBloom;
+import com.sistemacliente.search.FiltroCadastro;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class FiltroCadastroTest {
+
+	private ClientesProperties properties;
+	private FiltroCadastro filtro;
+	private AtomicInteger consultas;
+
+	@BeforeEach
+	public void setup() {
+		properties = new ClientesProperties();
+		properties.getFiltro().setHabilitado(true);
+		properties.getFiltro().setCapacidade(1000);
+		filtro = new FiltroCadastro(properties);
+		filtro.iniciarReconstrucao(1);
+		filtro.adicionar("23501206586", "marcus@gmail.com");
+		filtro.concluirReconstrucao();
+		consultas = new AtomicInteger();
+	}
+
+	private boolean consultar(String valor, boolean existe) {
+		consultas.incrementAndGet();
+		return existe;
+	}
+
+	@Test
+	public void emailCadastrado_valorNovo_naoConsulta() {
+		assertThat(filtro.emailCadastrado("antonio@gmail.com", v -> consultar(v, false))).isFalse();
+		assertThat(filtro.cpfCadastrado("20219064674", v -> consultar(v, false))).isFalse();
+
+		assertThat(consultas.get()).isZero();
+	}
+
+	@Test
+	public void emailCadastrado_valorConhecido_consultaOBanco() {
+		assertThat(filtro.emailCadastrado("marcus@gmail.com", v -> consultar(v, true))).isTrue();
+		assertThat(consultas.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void emailCadastrado_naoPronto_sempreConsulta() {
+		FiltroCadastro naoMontado = new FiltroCadastro(properties);
+
+		naoMontado.emailCadastrado("antonio@gmail.com", v -> consultar(v, false));
+		naoMontado.registrar("20219064674", "antonio@gmail.com");
+
+		assertThat(consultas.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void remover_semTransacao_deixaDeEstarNoFiltro() {
+		filtro.registrar("20219064674", "antonio@gmail.com");
+		filtro.remover("23501206586", "marcus@gmail.com");
+		filtro.trocarEmail("antonio@gmail.com", "antonio@email.com");
+
+		assertThat(filtro.cpfCadastrado("23501206586", v -> consultar(v, false))).isFalse();
+		assertThat(filtro.emailCadastrado("marcus@gmail.com", v -> consultar(v, false))).isFalse();
+		assertThat(filtro.emailCadastrado("antonio@gmail.com", v -> consultar(v, false))).isFalse();
+		assertThat(filtro.emailCadastrado("antonio@email.com", v -> consultar(v, true))).isTrue();
+		assertThat(filtro.cpfCadastrado("20219064674", v -> consultar(v, true))).isTrue();
+		assertThat(consultas.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void cpfsCadastrados_lote_soConsultaOsTalvez() {
+		List<String> consultados = new ArrayList<>();
+
+		List<String> encontrados = filtro.cpfsCadastrados(List.of("23501206586", "20219064674", "47852136582"),
+		cpfs -> {
+			consultados.addAll(cpfs);
+			return List.of("23501206586");
+		});
+
+		assertThat(encontrados).containsExactly("23501206586");
+		assertThat(consultados).containsExactly("23501206586");
+	}
+
+	@Test
+	public void bindTo_expoeConsultasEFalsosPositivos() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		filtro.bindTo(registry);
+
+		filtro.emailCadastrado("antonio@gmail.com", v -> false);
+		filtro.emailCadastrado("marcus@gmail.com", v -> false); /*O banco não achou: falso positivo.*/
+
+		assertThat(registry.get("clientes.filtro.consultas").tag("filtro", "email").tag("resultado", "ausente")
+		.functionCounter().count()).isEqualTo(1.0);
+		assertThat(registry.get("clientes.filtro.falsos.positivos").tag("filtro", "email").functionCounter()
+		.count()).isEqualTo(1.0);
+		assertThat(registry.get("clientes.filtro.taxa.falsos.positivos").tag("filtro", "email").gauge().value())
+		.isEqualTo(0.5);
+		assertThat(registry.get("clientes.filtro.taxa.falsos.positivos.estimada").tag("filtro", "email").gauge()
+		.value()).isBetween(0.0, 0.01);
+	}
+
+	/*Com a capacidade cheia a taxa de falsos positivos medida fica perto da configurada, e nenhum valor
+	 *adicionado dá "não está".*/
+	@Test
+	public void filtroBloom_capacidadeCheia_taxaPertoDaConfigurada() {
+		FiltroBloom bloom = new FiltroBloom(100_000, 0.01);
+		for (int i = 0; i < 100_000; i++) {
+			bloom.adicionar("cliente" + i + "@email.com");
+		}
+
+		int falsosPositivos = 0;
+		for (int i = 0; i < 100_000; i++) {
+			assertThat(bloom.talvezContenha("cliente" + i + "@email.com")).isTrue();
+			if (bloom.talvezContenha("outro" + i + "@email.com")) {
+				falsosPositivos++;
+			}
+		}
+
+		assertThat(falsosPositivos / 100_000.0).isLessThan(0.02);
+		assertThat(bloom.taxaEstimada()).isBetween(0.005, 0.02);
+	}
+
+	@Test
+	public void filtroBloom_remover_naoAfetaOsOutros() {
+		FiltroBloom bloom = new FiltroBloom(1000, 0.01);
+		for (int i = 0; i < 1000; i++) {
+			bloom.adicionar(String.format("%011d", i));
+		}
+		for (int i = 0; i < 1000; i += 2) {
+			bloom.remover(String.format("%011d", i));
+		}
+
+		for (int i = 1; i < 1000; i += 2) {
+			assertThat(bloom.talvezContenha(String.format("%011d", i))).isTrue();
+		}
+	}
+
+}
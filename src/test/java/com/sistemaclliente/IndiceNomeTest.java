@@ -0,0 +1,151 @@
+package com.sistemaclliente;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sistemacliente.config.ClientesProperties;
+import com.sistemacliente.search.IndiceNome;
+
+public class IndiceNomeTest {
+
+	private ClientesProperties properties;
+	private IndiceNome indice;
+
+	private List<Long> buscar(IndiceNome indice, String termo) {
+		IndiceNome.Resultado resultado = indice.buscar(termo, 0, Integer.MAX_VALUE);
+		return resultado == null ? null : resultado.ids();
+	}
+
+	@BeforeEach
+	public void setup() {
+		properties = new ClientesProperties();
+		properties.getIndiceNome().setHabilitado(true);
+		indice = new IndiceNome(properties);
+		indice.iniciarReconstrucao();
+		indice.adicionar(1L, "Marcus");
+		indice.adicionar(2L, "Antônio Silva");
+		indice.adicionar(3L, "Marcus Antônio");
+		indice.adicionar(4L, "MARIA");
+		indice.concluirReconstrucao();
+	}
+
+	@Test
+	public void buscar_termoContido_ordenadoPorNome() {
+		assertThat(buscar(indice, "ANT")).containsExactly(2L, 3L);
+		assertThat(buscar(indice, "marcus")).containsExactly(1L, 3L);
+		assertThat(buscar(indice, "ria")).containsExactly(4L);
+	}
+
+	@Test
+	public void buscar_pagina_totalEIdsDaPagina() {
+		IndiceNome.Resultado resultado = indice.buscar("mar", 1, 2);
+
+		assertThat(resultado.total()).isEqualTo(3);
+		assertThat(resultado.ids()).containsExactly(3L, 4L); /*"Marcus" fica na página anterior.*/
+		assertThat(indice.buscar("mar", 3, 2).ids()).isEmpty();
+	}
+
+	@Test
+	public void buscar_trigramasPresentesMasForaDeOrdem_naoEncontra() {
+		/*"cus" e "mar" existem no índice, mas "cusmar" não é trecho de nenhum nome.*/
+		assertThat(buscar(indice, "cusmar")).isEmpty();
+		assertThat(buscar(indice, "xyz")).isEmpty();
+	}
+
+	@Test
+	public void buscar_termoCurtoOuNaoPronto_devolveNull() {
+		assertThat(buscar(indice, "ma")).isNull();
+		assertThat(buscar(indice, null)).isNull();
+
+		indice.iniciarReconstrucao();
+		assertThat(buscar(indice, "marcus")).isNull();
+	}
+
+	@Test
+	public void registrar_semTransacao_aplicaNaHora() {
+		indice.registrar(5L, "Marcela");
+		indice.registrar(1L, "Pedro");
+		indice.remover(3L);
+
+		assertThat(buscar(indice, "mar")).containsExactly(5L, 4L); /*"Marcela" antes de "MARIA", pela colação.*/
+		assertThat(buscar(indice, "pedro")).containsExactly(1L);
+		assertThat(indice.tamanho()).isEqualTo(4);
+	}
+
+	@Test
+	public void registrar_duranteReconstrucao_naoSePerde() {
+		indice.iniciarReconstrucao();
+		indice.adicionar(1L, "Marcus");
+		indice.registrar(9L, "Marcos");
+		indice.remover(1L);
+		indice.adicionar(1L, "Marcus"); /*Linha lida do banco antes da remoção ser aplicada.*/
+		indice.concluirReconstrucao();
+
+		assertThat(buscar(indice, "mar")).containsExactly(9L);
+	}
+
+	@Test
+	public void registrar_desabilitado_naoFazNada() {
+		properties.getIndiceNome().setHabilitado(false);
+		IndiceNome desabilitado = new IndiceNome(properties);
+
+		desabilitado.registrar(1L, "Marcus");
+
+		assertThat(desabilitado.tamanho()).isZero();
+		assertThat(buscar(desabilitado, "marcus")).isNull();
+	}
+
+	/*Compara com o "contém" ignorando maiúsculas, como o LIKE do banco, em nomes e termos aleatórios, na ordem do
+	 *Collator pt-BR (clientes.indice-nome.colacao padrão) e do id.*/
+	@Test
+	public void buscar_nomesAleatorios_mesmoResultadoDoContains() {
+		String alfabeto = "abcAB ç";
+		Random random = new Random(7);
+		Collator colacao = Collator.getInstance(Locale.forLanguageTag("pt-BR"));
+		List<String> nomes = new ArrayList<>();
+		IndiceNome aleatorio = new IndiceNome(properties);
+		aleatorio.iniciarReconstrucao();
+		for (int i = 0; i < 2000; i++) {
+			StringBuilder nome = new StringBuilder();
+			for (int j = 0, n = 3 + random.nextInt(10); j < n; j++) {
+				nome.append(alfabeto.charAt(random.nextInt(alfabeto.length())));
+			}
+			nomes.add(nome.toString());
+			aleatorio.adicionar((long) i, nome.toString());
+		}
+		aleatorio.concluirReconstrucao();
+
+		for (int n = 0; n < 300; n++) {
+			StringBuilder termo = new StringBuilder();
+			for (int j = 0, t = 3 + random.nextInt(3); j < t; j++) {
+				termo.append(alfabeto.charAt(random.nextInt(alfabeto.length())));
+			}
+			String minusculo = termo.toString().toLowerCase(Locale.ROOT);
+
+			List<Long> esperado = new ArrayList<>();
+			for (int i = 0; i < nomes.size(); i++) {
+				if (nomes.get(i).toLowerCase(Locale.ROOT).contains(minusculo)) {
+					esperado.add((long) i);
+				}
+			}
+			esperado.sort(Comparator.<Long, String>comparing(id -> nomes.get(id.intValue()), colacao)
+			.thenComparing(Comparator.naturalOrder()));
+			assertThat(buscar(aleatorio, termo.toString())).as(termo.toString()).containsExactlyElementsOf(esperado);
+
+			IndiceNome.Resultado pagina = aleatorio.buscar(termo.toString(), 5, 10);
+			assertThat(pagina.total()).isEqualTo(esperado.size());
+			assertThat(pagina.ids()).containsExactlyElementsOf(esperado.subList(Math.min(5, esperado.size()),
+			Math.min(15, esperado.size())));
+		}
+	}
+
+}
@@ -0,0 +1,130 @@
+package com.sistemaclliente;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.sistemacliente.exception.AlteracaoDeCpfException;
+import com.sistemacliente.exception.ArgumentoInvalidoException;
+import com.sistemacliente.model.Cliente;
+import com.sistemacliente.service.MergePatchCliente;
+import com.sistemacliente.validation.EmailValidator;
+
+public class MergePatchClienteTest {
+
+	private final MergePatchCliente mergePatch = new MergePatchCliente(new EmailValidator());
+
+	private static Cliente cliente() {
+		Cliente cliente = new Cliente();
+		cliente.setId(1L);
+		cliente.setNome("Marcus");
+		cliente.setEmail("marcus@gmail.com");
+		cliente.setCpf("23501206586");
+		return cliente;
+	}
+
+	@Test
+	public void aplicar_soOsMembrosEnviados() {
+		Cliente cliente = cliente();
+
+		boolean alterado = mergePatch.aplicar(cliente, mergePatch.preparar(Map.of("nome", "Antonio")));
+
+		assertThat(alterado).isTrue();
+		assertThat(cliente.getNome()).isEqualTo("Antonio");
+		assertThat(cliente.getEmail()).isEqualTo("marcus@gmail.com");
+	}
+
+	@Test
+	public void aplicar_valoresIguaisEDesconhecidos_naoAltera() {
+		Cliente cliente = cliente();
+
+		boolean alterado = mergePatch.aplicar(cliente,
+		mergePatch.preparar(Map.of("nome", "Marcus", "telefone", "1234", "endereco", Map.of("rua", "A"))));
+
+		assertThat(alterado).isFalse();
+	}
+
+	@Test
+	public void preparar_nulo_recusaCampoObrigatorio() {
+		Map<String, Object> documento = new HashMap<>();
+		documento.put("email", null);
+
+		ArgumentoInvalidoException ex = assertThrows(ArgumentoInvalidoException.class,
+		() -> mergePatch.preparar(documento));
+
+		assertThat(ex.getMessage()).isEqualTo("Formato inválido do e-mail.");
+	}
+
+	@Test
+	public void preparar_campoInvalido_naoAplicaNenhum() {
+		Cliente cliente = cliente();
+
+		assertThrows(ArgumentoInvalidoException.class,
+		() -> mergePatch.aplicar(cliente, mergePatch.preparar(Map.of("nome", "Antonio", "email", "antonio"))));
+
+		assertThat(cliente.getNome()).isEqualTo("Marcus");
+	}
+
+	@Test
+	public void preparar_camposImutaveis() {
+		assertThrows(ArgumentoInvalidoException.class, () -> mergePatch.preparar(Map.of("id", 2)));
+		assertThrows(AlteracaoDeCpfException.class, () -> mergePatch.preparar(Map.of("cpf", "1")));
+		assertThrows(ArgumentoInvalidoException.class, () -> mergePatch.preparar(Map.of("versao", 3)));
+	}
+
+	@Test
+	public void preparar_numero_viraTexto() {
+		Cliente cliente = cliente();
+
+		mergePatch.aplicar(cliente, mergePatch.preparar(Map.of("nome", 42)));
+
+		assertThat(cliente.getNome()).isEqualTo("42");
+	}
+
+	/*A mesma instância atendendo várias threads ao mesmo tempo, cada uma com o seu documento e o seu cliente:
+	 *nenhum valor pode cair no cliente de outra.*/
+	@Test
+	public void aplicar_variasThreads_cadaClienteRecebeOSeu() throws Exception {
+		int threads = 8;
+		int porThread = 5_000;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch largada = new CountDownLatch(1);
+		List<Future<Integer>> erros = new ArrayList<>();
+
+		for (int t = 0; t < threads; t++) {
+			int thread = t;
+			erros.add(executor.submit(() -> {
+				largada.await();
+				int errados = 0;
+				for (int i = 0; i < porThread; i++) {
+					String nome = "Cliente " + thread + "-" + i;
+					String email = "c" + thread + "x" + i + "@gmail.com";
+					Cliente cliente = cliente();
+					mergePatch.aplicar(cliente, mergePatch.preparar(Map.of("nome", nome, "email", email)));
+					if (!nome.equals(cliente.getNome()) || !email.equals(cliente.getEmail())) {
+						errados++;
+					}
+				}
+				return errados;
+			}));
+		}
+		largada.countDown();
+
+		for (Future<Integer> e : erros) {
+			assertThat(e.get(60, TimeUnit.SECONDS)).isZero();
+		}
+		executor.shutdown();
+	}
+
+}
@@ -0,0 +1,50 @@
+package com.sistemaclliente;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.sistemacliente.SistemaClientesJavaApplication;
+
+@SpringBootTest(classes = SistemaClientesJavaApplication.class)
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+public class MetricasIntegrationTest {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Test @DisplayName("Exposes endpoint, service, repository, pool, Hibernate and error metrics for Prometheus.")
+	public void prometheus_aposRequisicoes_expoeMetricas() throws Exception {
+		mvc.perform(post("/salvarcliente").contentType(MediaType.APPLICATION_JSON)
+		.content("{\"nome\":\"Ana Souza\",\"cpf\":\"52998224725\",\"email\":\"ana.metricas@email.com\"}"))
+		.andExpect(status().isCreated());
+		mvc.perform(get("/encontrarcliente/{id}", 987654321L)).andExpect(status().isNotFound());
+
+		mvc.perform(get("/actuator/prometheus")).andExpect(status().isOk())
+		.andExpect(content().string(containsString("http_server_requests_seconds_bucket{")))
+		.andExpect(content().string(containsString("uri=\"/encontrarcliente/{id}\"")))
+		.andExpect(content().string(containsString("clientes_servico_seconds_bucket{")))
+		.andExpect(content().string(containsString("method=\"buscarClientePorId\"")))
+		.andExpect(content().string(containsString("exception=\"ClienteNotFoundException\"")))
+		.andExpect(content().string(containsString("spring_data_repository_invocations_seconds_bucket{")))
+		.andExpect(content().string(containsString("repository=\"ClienteRepository\"")))
+		.andExpect(content().string(containsString("excecao=\"ClienteNotFoundException\"")))
+		.andExpect(content().string(containsString("hikaricp_connections_active")))
+		.andExpect(content().string(containsString("hibernate_statements_total")));
+	}
+
+}
@@ -0,0 +1,114 @@
+package com.sistemaclliente;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.sistemacliente.SistemaClientesJavaApplication;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/*Dois H2 em memória no lugar do primário e da réplica. Sem replicação entre eles, cada linha só aparece no
+ *banco em que foi gravada, então o resultado mostra para onde a requisição foi. Janela zero para a leitura
+ *logo depois de uma escrita já ir para a réplica; a janela é testada no RoteadorDataSourceTest.*/
+@SpringBootTest(classes = SistemaClientesJavaApplication.class, properties = {
+	"spring.datasource.url=" + ReplicasIntegrationTest.PRIMARIO,
+	"clientes.replicas.habilitado=true",
+	"clientes.replicas.urls=" + ReplicasIntegrationTest.REPLICA,
+	"clientes.replicas.janela-leitura-propria=0s",
+	"clientes.cache.habilitado=false" })
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ReplicasIntegrationTest {
+
+	static final String PRIMARIO = "jdbc:h2:mem:replicas_primario;DB_CLOSE_DELAY=-1";
+	static final String REPLICA = "jdbc:h2:mem:replicas_replica1;DB_CLOSE_DELAY=-1";
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private MeterRegistry registro;
+
+	private static JdbcTemplate banco(String url) {
+		return new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+	}
+
+	/*O Hibernate só cria as tabelas no primário.*/
+	@BeforeAll
+	public static void prepararReplica() {
+		JdbcTemplate replica = banco(REPLICA);
+		replica.execute("create table if not exists cliente (id bigint primary key, nome varchar(255) not null, "
+		+ "email varchar(255) not null, cpf varchar(255) not null, versao bigint not null)");
+		replica.update("merge into cliente values (900, 'Só na Réplica', 'replica@email.com', '11144477735', 0)");
+	}
+
+	@Test @DisplayName("A read-only listing is served by the replica.")
+	public void listarClientes_lidoDaReplica() throws Exception {
+		mvc.perform(get("/listarclientes")).andExpect(status().isOk())
+		.andExpect(jsonPath("$[?(@.id == 900)].nome").value("Só na Réplica"));
+	}
+
+	@Test @DisplayName("A new client is written to the primary only.")
+	public void salvarCliente_gravadoNoPrimario() throws Exception {
+		mvc.perform(post("/salvarcliente").contentType(MediaType.APPLICATION_JSON)
+		.content("{\"nome\":\"Ana Souza\",\"cpf\":\"52998224725\",\"email\":\"ana.replicas@email.com\"}"))
+		.andExpect(status().isCreated());
+
+		String consulta = "select count(*) from cliente where cpf = '52998224725'";
+		assertThat(banco(PRIMARIO).queryForObject(consulta, Integer.class)).isOne();
+		assertThat(banco(REPLICA).queryForObject(consulta, Integer.class)).isZero();
+
+		mvc.perform(get("/listarclientes")).andExpect(status().isOk())
+		.andExpect(jsonPath("$[?(@.cpf == '52998224725')]").isEmpty());
+	}
+
+	@Test @DisplayName("The primary and replica pools report hikaricp metrics under their own names.")
+	public void pools_metricasHikariPorNome() throws Exception {
+		mvc.perform(get("/listarclientes")).andExpect(status().isOk());
+
+		assertThat(registro.find("hikaricp.connections").tag("pool", "primario").gauge()).isNotNull();
+		assertThat(registro.find("hikaricp.connections").tag("pool", "replica-1").gauge()).isNotNull();
+	}
+
+	/*Com uma janela longa, qualquer transação de escrita mandaria as leituras seguintes para o primário.*/
+	@Nested
+	@TestPropertySource(properties = "clientes.replicas.janela-leitura-propria=1h")
+	public class ComJanelaLeituraPropria {
+
+		@Autowired
+		private MockMvc mvc;
+
+		@Test @DisplayName("The streaming export reads from the replica and opens no write window.")
+		public void exportar_lidoDaReplicaSemJanelaDeEscrita() throws Exception {
+			MvcResult result = mvc.perform(get("/listarclientes/stream").param("formato", "json"))
+			.andExpect(request().asyncStarted()).andReturn();
+			mvc.perform(asyncDispatch(result)).andExpect(status().isOk())
+			.andExpect(jsonPath("$[?(@.id == 900)].nome").value("Só na Réplica"));
+
+			mvc.perform(get("/listarclientes")).andExpect(status().isOk())
+			.andExpect(jsonPath("$[?(@.id == 900)].nome").value("Só na Réplica"));
+		}
+
+	}
+
+}
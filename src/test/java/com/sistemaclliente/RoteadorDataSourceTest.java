@@ -0,0 +1,187 @@
+package com.sistemaclliente;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sistemacliente.config.RoteadorDataSource;
+
+/*Cada banco H2 em memória tem uma tabela origem com o próprio nome, então a leitura diz quem a atendeu.*/
+public class RoteadorDataSourceTest {
+
+	private static final Duration JANELA = Duration.ofSeconds(2);
+	private static final Duration QUARENTENA = Duration.ofSeconds(30);
+
+	private final Relogio relogio = new Relogio();
+
+	private final List<DataSource> bancos = new ArrayList<>();
+
+	private JdbcTemplate jdbc;
+	private TransactionTemplate leitura;
+	private TransactionTemplate escrita;
+
+	private static class Relogio extends Clock {
+
+		private Instant agora = Instant.parse("2026-01-01T00:00:00Z");
+
+		void avancar(Duration duracao) {
+			agora = agora.plus(duracao);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return agora;
+		}
+	}
+
+	/*Réplica fora do ar: toda conexão falha.*/
+	private static class ReplicaFora extends AbstractDataSource {
+
+		private final AtomicInteger tentativas = new AtomicInteger();
+
+		@Override
+		public Connection getConnection() throws SQLException {
+			tentativas.incrementAndGet();
+			throw new SQLException("Connection refused");
+		}
+
+		@Override
+		public Connection getConnection(String username, String password) throws SQLException {
+			return getConnection();
+		}
+	}
+
+	private DataSource banco(String nome) {
+		DataSource banco = new DriverManagerDataSource("jdbc:h2:mem:roteador_" + nome + ";DB_CLOSE_DELAY=-1", "sa", "");
+		JdbcTemplate jdbc = new JdbcTemplate(banco);
+		jdbc.execute("create table origem (nome varchar(20))");
+		jdbc.update("insert into origem values (?)", nome);
+		bancos.add(banco);
+		return banco;
+	}
+
+	private void montar(DataSource primario, DataSource... replicas) {
+		RoteadorDataSource roteador = new RoteadorDataSource(primario, List.of(replicas), JANELA, QUARENTENA, relogio);
+		LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(roteador);
+		DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(proxy);
+		jdbc = new JdbcTemplate(proxy);
+		leitura = new TransactionTemplate(transactionManager);
+		leitura.setReadOnly(true);
+		escrita = new TransactionTemplate(transactionManager);
+	}
+
+	private String ler() {
+		return leitura.execute(status -> origem());
+	}
+
+	private String escrever() {
+		return escrita.execute(status -> {
+			jdbc.update("update origem set nome = nome");
+			return origem();
+		});
+	}
+
+	private String origem() {
+		return jdbc.queryForObject("select nome from origem", String.class);
+	}
+
+	@AfterEach
+	public void apagarBancos() {
+		for (DataSource banco : bancos) {
+			new JdbcTemplate(banco).execute("drop all objects");
+		}
+	}
+
+	@Test @DisplayName("Read-only transactions go to the replica, writes and non-transactional access to the primary.")
+	public void leituraNaReplica_escritaNoPrimario() {
+		montar(banco("primario"), banco("replica1"));
+
+		assertThat(ler()).isEqualTo("replica1");
+		assertThat(escrever()).isEqualTo("primario");
+		assertThat(origem()).isEqualTo("primario");
+	}
+
+	@Test @DisplayName("Reads rotate across the replicas.")
+	public void leituras_rodizioEntreReplicas() {
+		montar(banco("primario"), banco("replica1"), banco("replica2"));
+
+		assertThat(List.of(ler(), ler(), ler(), ler())).containsExactly("replica1", "replica2", "replica1", "replica2");
+	}
+
+	@Test @DisplayName("After a write, reads stay on the primary until the read-your-writes window expires.")
+	public void leituraDepoisDeEscrita_primarioAteFimDaJanela() {
+		montar(banco("primario"), banco("replica1"));
+
+		escrever();
+		assertThat(ler()).isEqualTo("primario");
+
+		relogio.avancar(JANELA.minusMillis(1));
+		assertThat(ler()).isEqualTo("primario");
+
+		relogio.avancar(Duration.ofMillis(1));
+		assertThat(ler()).isEqualTo("replica1");
+	}
+
+	@Test @DisplayName("A replica that fails to connect is quarantined and reads go to the next one.")
+	public void replicaFora_quarentenaEProxima() {
+		ReplicaFora fora = new ReplicaFora();
+		montar(banco("primario"), fora, banco("replica2"));
+
+		assertThat(List.of(ler(), ler(), ler())).containsOnly("replica2");
+		assertThat(fora.tentativas).hasValue(1);
+
+		relogio.avancar(QUARENTENA);
+		assertThat(List.of(ler(), ler())).containsOnly("replica2");
+		assertThat(fora.tentativas).hasValue(2);
+	}
+
+	@Test @DisplayName("Without a healthy replica, reads fall back to the primary.")
+	public void nenhumaReplica_leNoPrimario() {
+		montar(banco("primario"), new ReplicaFora());
+
+		assertThat(ler()).isEqualTo("primario");
+		assertThat(ler()).isEqualTo("primario");
+	}
+
+	@Test @DisplayName("A read-only transaction that never runs a statement does not open a connection.")
+	public void transacaoSemComando_naoConecta() {
+		ReplicaFora fora = new ReplicaFora();
+		montar(banco("primario"), fora);
+
+		leitura.executeWithoutResult(status -> {});
+
+		assertThat(fora.tentativas).hasValue(0);
+	}
+
+}
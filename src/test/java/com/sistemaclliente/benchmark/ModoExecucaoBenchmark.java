@@ -0,0 +1,190 @@
+package com.sistemaclliente.benchmark;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.sistemacliente.SistemaClientesJavaApplication;
+import com.sistemacliente.model.Cliente;
+import com.sistemacliente.repository.ClienteRepository;
+
+import jakarta.servlet.Filter;
+
+/*Requisições em andamento no servidor ao mesmo tempo e latência (p50/p99) de GET /encontrarcliente/{id} com
+ *threads de plataforma e com threads virtuais. Cada conexão tirada do pool espera ATRASO_MS antes de ser
+ *usada, simulando a ida e volta ao banco, e o pool tem mais conexões que o Tomcat tem threads (THREADS): é o
+ *caso em que as threads acabam antes do banco. Não é JMH porque o que interessa é a concorrência do servidor.
+ *
+ *Precisa de Java 21 (perfil java21):
+ *  ./mvnw -Pjava21 test-compile
+ *  java -cp "target/test-classes:target/classes:$(./mvnw -q dependency:build-classpath \
+ *  -Dmdep.outputFile=/dev/stdout)" -Djdk.tracePinnedThreads=short \
+ *  com.sistemaclliente.benchmark.ModoExecucaoBenchmark [concorrencia] [segundos]*/
+public class ModoExecucaoBenchmark {
+
+	private static final long ATRASO_MS = 200;
+
+	/*Threads do Tomcat no modo plataforma (com threads virtuais o limite não se aplica) e conexões do pool.*/
+	private static final int THREADS = 50;
+
+	private static final int POOL = 400;
+
+	private static final AtomicInteger emAndamento = new AtomicInteger();
+
+	private static final AtomicInteger maximoEmAndamento = new AtomicInteger();
+
+	public static void main(String[] args) throws Exception {
+		int concorrencia = args.length > 0 ? Integer.parseInt(args[0]) : 400;
+		int segundos = args.length > 1 ? Integer.parseInt(args[1]) : 15;
+
+		System.out.printf("%-11s %12s %10s %9s %9s %9s %7s%n", "modo", "em andamento", "req/s", "p50 ms",
+		"p99 ms", "max ms", "erros");
+		for (boolean virtuais : new boolean[] { false, true }) {
+			medir(virtuais, concorrencia, segundos);
+		}
+	}
+
+	private static void medir(boolean virtuais, int concorrencia, int segundos) throws Exception {
+		ConfigurableApplicationContext contexto = new SpringApplicationBuilder(
+		SistemaClientesJavaApplication.class, Instrumentacao.class).profiles("test")
+		.properties("logging.level.root=WARN").run("--spring.threads.virtual.enabled=" + virtuais,
+		"--clientes.cache.habilitado=false", "--spring.datasource.hikari.maximum-pool-size=" + POOL,
+		"--server.tomcat.threads.max=" + THREADS, "--server.tomcat.max-connections=" + (concorrencia * 2),
+		"--server.tomcat.accept-count=" + concorrencia);
+
+		ClienteRepository repository = contexto.getBean(ClienteRepository.class);
+		List<Long> ids = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			Cliente cliente = new Cliente();
+			cliente.setNome("Cliente " + i);
+			cliente.setCpf(String.format("%011d", i));
+			cliente.setEmail("cliente" + i + "@email.com");
+			ids.add(repository.save(cliente).getId());
+		}
+		int porta = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+
+		ExecutorService executorHttp = Executors.newFixedThreadPool(64);
+		HttpClient http = HttpClient.newBuilder().executor(executorHttp).build();
+		ExecutorService clientes = Executors.newFixedThreadPool(concorrencia);
+		long[][] latencias = new long[concorrencia][];
+		LongAdder erros = new LongAdder();
+		CountDownLatch largada = new CountDownLatch(1);
+
+		/*5 s de aquecimento, depois zera o máximo e mede.*/
+		long inicioMedicao = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		long fim = inicioMedicao + TimeUnit.SECONDS.toNanos(segundos);
+		for (int c = 0; c < concorrencia; c++) {
+			int cliente = c;
+			clientes.submit(() -> {
+				long[] medidas = new long[1024];
+				int n = 0;
+				largada.await();
+				for (long agora = System.nanoTime(); agora < fim; agora = System.nanoTime()) {
+					long id = ids.get((cliente + n) % ids.size());
+					HttpRequest requisicao = HttpRequest.newBuilder(
+					URI.create("http://localhost:" + porta + "/encontrarcliente/" + id)).GET().build();
+					try {
+						HttpResponse<Void> resposta = http.send(requisicao, HttpResponse.BodyHandlers.discarding());
+						if (resposta.statusCode() != 200) {
+							erros.increment();
+						}
+					} catch (IOException e) {
+						erros.increment();
+					}
+					if (agora >= inicioMedicao) {
+						if (n == medidas.length) {
+							medidas = Arrays.copyOf(medidas, n * 2);
+						}
+						medidas[n++] = System.nanoTime() - agora;
+					}
+				}
+				latencias[cliente] = Arrays.copyOf(medidas, n);
+				return null;
+			});
+		}
+
+		largada.countDown();
+		TimeUnit.NANOSECONDS.sleep(inicioMedicao - System.nanoTime());
+		maximoEmAndamento.set(emAndamento.get());
+		clientes.shutdown();
+		clientes.awaitTermination(segundos + 60L, TimeUnit.SECONDS);
+
+		long[] todas = Arrays.stream(latencias).filter(l -> l != null).flatMapToLong(Arrays::stream).sorted()
+		.toArray();
+		System.out.printf("%-11s %12d %10.0f %9.1f %9.1f %9.1f %7d%n", virtuais ? "virtuais" : "plataforma",
+		maximoEmAndamento.get(), todas.length / (double) segundos, percentil(todas, 0.50), percentil(todas, 0.99),
+		todas.length == 0 ? 0 : todas[todas.length - 1] / 1e6, erros.sum());
+
+		executorHttp.shutdown();
+		contexto.close();
+	}
+
+	private static double percentil(long[] ordenadas, double p) {
+		if (ordenadas.length == 0) {
+			return 0;
+		}
+		return ordenadas[(int) Math.min(ordenadas.length - 1, Math.ceil(p * ordenadas.length) - 1)] / 1e6;
+	}
+
+	@Configuration
+	static class Instrumentacao {
+
+		/*Conta as requisições dentro do servidor (já com thread) ao mesmo tempo.*/
+		@Bean
+		FilterRegistrationBean<Filter> contadorEmAndamento() {
+			return new FilterRegistrationBean<>((request, response, chain) -> {
+				maximoEmAndamento.accumulateAndGet(emAndamento.incrementAndGet(), Math::max);
+				try {
+					chain.doFilter(request, response);
+				} finally {
+					emAndamento.decrementAndGet();
+				}
+			});
+		}
+
+		/*Atraso de rede/banco em cada conexão tirada do pool, com a conexão já reservada.*/
+		@Bean
+		static BeanPostProcessor atrasoNoBanco() {
+			return new BeanPostProcessor() {
+				@Override
+				public Object postProcessAfterInitialization(Object bean, String nome) {
+					if (!(bean instanceof DataSource dataSource)) {
+						return bean;
+					}
+					return Proxy.newProxyInstance(DataSource.class.getClassLoader(), new Class<?>[] { DataSource.class },
+					(proxy, metodo, argumentos) -> {
+						Object resultado = metodo.invoke(dataSource, argumentos);
+						if (resultado instanceof Connection) {
+							Thread.sleep(ATRASO_MS);
+						}
+						return resultado;
+					});
+				}
+			};
+		}
+	}
+
+}